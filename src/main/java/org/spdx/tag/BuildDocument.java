@@ -22,6 +22,9 @@ package org.spdx.tag;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -33,14 +36,19 @@ import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
 
 import org.spdx.core.InvalidSPDXAnalysisException;
 import org.spdx.library.LicenseInfoFactory;
 import org.spdx.library.ModelCopyManager;
-import org.spdx.library.SpdxModelFactory;
 import org.spdx.library.model.v2.Annotation;
 import org.spdx.library.model.v2.Checksum;
 import org.spdx.library.model.v2.ExternalDocumentRef;
@@ -72,6 +80,10 @@ import org.spdx.library.referencetype.ListedReferenceTypes;
 import org.spdx.storage.IModelStore;
 import org.spdx.storage.IModelStore.IdType;
 import org.spdx.storage.compatv2.CompatibleModelStoreWrapper;
+import org.spdx.tag.ElementBuilder.PropertySetter;
+import org.spdx.tag.ElementRegistry.ElementType;
+import org.spdx.tag.TagValueProjection.Section;
+import org.spdx.tag.TagValueWarning.Kind;
 
 
 /**
@@ -174,12 +186,14 @@ public class BuildDocument implements TagValueBehavior {
 		Relationship relationship;
 		SpdxPackage pkg;
 
-		public DoapProject(String projectName, SpdxFile file) throws InvalidSPDXAnalysisException {
+		public DoapProject(String projectName, ElementBuilder<SpdxFile> file) throws InvalidSPDXAnalysisException {
 			this.pkg = new SpdxPackage(modelStore, documentNamespace, modelStore.getNextId(IdType.SpdxId), copyManager, true);
+			elementRegistry.addDoapPackage(pkg);
 			pkg.setName(projectName);
 			pkg.setComment("This package was created to replace a deprecated DoapProject");
-			relationship = file.createRelationship(pkg, RelationshipType.GENERATED_FROM, "This relationship was translated from an deprecated ArtifactOf");
-			file.getRelationships().add(relationship);
+			relationship = analysis.createRelationship(pkg, RelationshipType.GENERATED_FROM, "This relationship was translated from an deprecated ArtifactOf");
+			Relationship artifactOf = relationship;
+			file.add(f -> f.getRelationships().add(artifactOf));
 		}
 
 		public List<String> verify() {
@@ -196,33 +210,57 @@ public class BuildDocument implements TagValueBehavior {
 		}
 	}
 
-	private static Pattern EXTERNAL_DOC_REF_PATTERN = Pattern.compile("(\\S+)\\s+(\\S+)\\s+([A-Za-z0-9\\-_]+)(:|\\s)\\s*(\\S+)");
-	private static Pattern RELATIONSHIP_PATTERN = Pattern.compile("(\\S+)\\s+(\\S+)\\s+(\\S+)");
+	static Pattern EXTERNAL_DOC_REF_PATTERN = Pattern.compile("(\\S+)\\s+(\\S+)\\s+([A-Za-z0-9\\-_]+)(:|\\s)\\s*(\\S+)");
+	static Pattern RELATIONSHIP_PATTERN = Pattern.compile("(\\S+)\\s+(\\S+)\\s+(\\S+)");
 	public static Pattern CHECKSUM_PATTERN = Pattern.compile("([A-Za-z0-9\\-_]+)(:|\\s)\\s*(\\S+)");
 	private static Pattern NUMBER_RANGE_PATTERN = Pattern.compile("(\\d+):(\\d+)");
-	private static Pattern EXTERNAL_REF_PATTERN = Pattern.compile("([^ ]+) ([^ ]+) (.+)");
+	static Pattern EXTERNAL_REF_PATTERN = Pattern.compile("([^ ]+) ([^ ]+) (.+)");
 
 	/**
 	 * Tags used in the definition of an annotation
 	 */
-	private Set<String> ANNOTATION_TAGS = new HashSet<>();
+	static final Set<SpdxTag> ANNOTATION_TAGS = Collections.unmodifiableSet(EnumSet.of(
+			SpdxTag.ANNOTATION_DATE, SpdxTag.ANNOTATION_COMMENT, SpdxTag.ANNOTATION_ID, SpdxTag.ANNOTATION_TYPE));
 	/**
 	 * Tags used in the definition of a file
 	 */
-	private Set<String> FILE_TAGS = new HashSet<>();
+	static final Set<SpdxTag> FILE_TAGS = Collections.unmodifiableSet(EnumSet.of(
+			SpdxTag.FILE_TYPE, SpdxTag.FILE_LICENSE, SpdxTag.FILE_COPYRIGHT, SpdxTag.FILE_CHECKSUM,
+			SpdxTag.FILE_SEEN_LICENSE, SpdxTag.FILE_LIC_COMMENTS, SpdxTag.FILE_COMMENT, SpdxTag.FILE_DEPENDENCY,
+			SpdxTag.FILE_CONTRIBUTOR, SpdxTag.FILE_NOTICE_TEXT, SpdxTag.ELEMENT_ID, SpdxTag.PROJECT_NAME,
+			SpdxTag.PROJECT_HOMEPAGE, SpdxTag.PROJECT_URI, SpdxTag.DOCUMENT_NAMESPACE, SpdxTag.RELATIONSHIP,
+			SpdxTag.RELATIONSHIP_COMMENT, SpdxTag.ANNOTATOR, SpdxTag.ANNOTATION_DATE, SpdxTag.ANNOTATION_COMMENT,
+			SpdxTag.ANNOTATION_ID, SpdxTag.ANNOTATION_TYPE, SpdxTag.FILE_ATTRIBUTION_TEXT));
 	/**
 	 * Tags used in the definition of a Snippet
 	 */
-	private Set<String> SNIPPET_TAGS = new HashSet<>();
+	static final Set<SpdxTag> SNIPPET_TAGS = Collections.unmodifiableSet(EnumSet.of(
+			SpdxTag.SNIPPET_FROM_FILE_ID, SpdxTag.SNIPPET_BYTE_RANGE, SpdxTag.SNIPPET_LINE_RANGE,
+			SpdxTag.SNIPPET_CONCLUDED_LICENSE, SpdxTag.SNIPPET_LIC_COMMENTS, SpdxTag.SNIPPET_COPYRIGHT,
+			SpdxTag.SNIPPET_COMMENT, SpdxTag.SNIPPET_NAME, SpdxTag.SNIPPET_SEEN_LICENSE, SpdxTag.DOCUMENT_NAMESPACE,
+			SpdxTag.RELATIONSHIP, SpdxTag.RELATIONSHIP_COMMENT, SpdxTag.ANNOTATOR, SpdxTag.ANNOTATION_DATE,
+			SpdxTag.ANNOTATION_COMMENT, SpdxTag.ANNOTATION_ID, SpdxTag.ANNOTATION_TYPE));
 	/**
-	 * Tags used in the definition of a package
+	 * Tags used in the definition of an extracted license
 	 */
+	static final Set<SpdxTag> EXTRACTED_LICENSE_TAGS = Collections.unmodifiableSet(EnumSet.of(
+			SpdxTag.LICENSE_TEXT, SpdxTag.EXTRACTED_TEXT, SpdxTag.LICENSE_COMMENT, SpdxTag.LICENSE_NAME,
+			SpdxTag.SOURCE_URLS));
 	/**
-	 * Tags used in the definition of an extracted license
+	 * Tags used in the definition of a package
 	 */
-	private Set<String> EXTRACTED_LICENSE_TAGS = new HashSet<>();
-	private Set<String> PACKAGE_TAGS = new HashSet<>();
-	private Properties constants;
+	static final Set<SpdxTag> PACKAGE_TAGS = Collections.unmodifiableSet(EnumSet.of(
+			SpdxTag.PACKAGE_COMMENT, SpdxTag.PACKAGE_FILE_NAME, SpdxTag.PACKAGE_CHECKSUM, SpdxTag.PACKAGE_DOWNLOAD_URL,
+			SpdxTag.PACKAGE_SOURCE_INFO, SpdxTag.PACKAGE_DECLARED_LICENSE, SpdxTag.PACKAGE_CONCLUDED_LICENSE,
+			SpdxTag.PACKAGE_DECLARED_COPYRIGHT, SpdxTag.PACKAGE_SHORT_DESC, SpdxTag.PACKAGE_DESCRIPTION,
+			SpdxTag.PACKAGE_VERIFICATION_CODE, SpdxTag.PACKAGE_LICENSE_INFO_FROM_FILES, SpdxTag.PACKAGE_LICENSE_COMMENT,
+			SpdxTag.PACKAGE_VERSION_INFO, SpdxTag.PACKAGE_ORIGINATOR, SpdxTag.PACKAGE_SUPPLIER,
+			SpdxTag.PACKAGE_HOMEPAGE_URL, SpdxTag.ELEMENT_ID, SpdxTag.FILE_NAME, SpdxTag.RELATIONSHIP,
+			SpdxTag.RELATIONSHIP_COMMENT, SpdxTag.ANNOTATOR, SpdxTag.ANNOTATION_DATE, SpdxTag.ANNOTATION_COMMENT,
+			SpdxTag.ANNOTATION_ID, SpdxTag.ANNOTATION_TYPE, SpdxTag.EXTERNAL_REFERENCE,
+			SpdxTag.EXTERNAL_REFERENCE_COMMENT, SpdxTag.PACKAGE_FILES_ANALYZED, SpdxTag.PACKAGE_ATTRIBUTION_TEXT,
+			SpdxTag.PRIMARY_PACKAGE_PURPOSE, SpdxTag.PACKAGE_BUILT_DATE, SpdxTag.PACKAGE_RELEASE_DATE,
+			SpdxTag.PACKAGE_VALID_UNTIL_DATE));
 	private SpdxDocument analysis;
 
 	//When we retrieve a list from the SpdxDocument the order changes, therefore keep track of
@@ -232,24 +270,48 @@ public class BuildDocument implements TagValueBehavior {
 
 	private ExtractedLicenseInfo lastExtractedLicense = null;
 	private int lastExtractedLicenseLineNumber = 0;
-	private SpdxFile lastFile = null;
+	private boolean lastExtractedLicensePublished = true;
+	private ElementBuilder<SpdxFile> lastFile = null;
 	private List<String> lastFileDependencies = new ArrayList<>();
+	private String lastFileName = "";
 	private int lastFileLineNumber = 0;
 	private SpdxSnippet lastSnippet = null;
 	private int lastSnippetLineNumber = 0;
 	private DoapProject lastProject = null;
 	private int lastProjectLineNumber = 0;
 	private Map<String, Integer> elementIdLineNumberMap = new HashMap<>();
-	// Keep track of all file dependencies since these need to be added after all of the files
-	// have been parsed.  Map of file dependency file name to the SPDX files which depends on it
+	/**
+	 * Elements by SPDX ID - packages, files and snippets are added as they are created and any other elements
+	 * the first time they are resolved so that relationships and annotations do not need to look up the store
+	 */
+	private Map<String, ModelObjectV2> elementIndex = new HashMap<>();
+	private SpdxNoneElement noneElement = null;
+	private SpdxNoAssertionElement noAssertionElement = null;
+	/**
+	 * Packages, files and snippets created for this document
+	 */
+	private ElementRegistry elementRegistry = new ElementRegistry();
+	/**
+	 * Files by file name - the first file defined with a name is used for file dependencies on that name
+	 */
+	private Map<String, SpdxFile> filesByName = new HashMap<>();
+	// Keep track of file dependencies on files which have not yet been defined.  Map of file dependency
+	// file name to the SPDX files which depends on it - entries are removed once the file is defined
 	private Map<String, List<SpdxFile>> fileDependencyMap = new HashMap<>();
 	/**
-	 * Map of all snippetFileID's collected during parsing so that we can add the files
-	 * at the end of the document creation once the files are actually created
+	 * Map of snippet file IDs for files which have not yet been defined to the snippets from those files -
+	 * entries are removed once the file is defined
 	 */
 	private Map<String, List<SpdxSnippet>>  snippetDependencyMap = new HashMap<>();
-	private Map<SpdxSnippet, String> snippetByteRangeMap = new HashMap<>();
-	private Map<SpdxSnippet, String> snippetLineRangeMap = new HashMap<>();
+	/**
+	 * Snippets which have been linked to their snippet file - ranges for these snippets are set as they are parsed
+	 */
+	private Set<SpdxSnippet> linkedSnippets = new HashSet<>();
+	/**
+	 * Start and end of the ranges for snippets which are not yet linked to their snippet file
+	 */
+	private Map<SpdxSnippet, int[]> snippetByteRangeMap = new HashMap<>();
+	private Map<SpdxSnippet, int[]> snippetLineRangeMap = new HashMap<>();
 	/**
 	 * Keep track of the last relationship for any following relationship related tags
 	 */
@@ -277,8 +339,28 @@ public class BuildDocument implements TagValueBehavior {
 	private String documentName;
 	
 	private ModelCopyManager copyManager = new ModelCopyManager();	// used for licenses
+	private LicenseExpressionCache licenseCache;
+	private boolean deferLicenseParsing = false;
+	/**
+	 * License expressions which have not yet been parsed by the URI of the element they belong to
+	 */
+	private Map<String, List<DeferredLicense>> deferredLicenses = new HashMap<>();
 
-	List<String> warningMessages;
+	private WarningCollector warnings;
+	/**
+	 * Verification messages already reported for an element so that the same messages are not repeated
+	 * when the whole document is verified
+	 */
+	private Set<String> elementVerificationMessages = new HashSet<>();
+	/**
+	 * Pool used to verify the elements at the end of the document or null to verify them on the calling thread
+	 */
+	private ForkJoinPool verificationPool = null;
+	private VerificationLevel verificationLevel = VerificationLevel.FULL;
+	/**
+	 * Projection of the document being parsed or null if the whole document is parsed
+	 */
+	private TagValueProjection projection = null;
 
 	/**
 	 * True if we have started defining a package in the tag/value file
@@ -308,7 +390,7 @@ public class BuildDocument implements TagValueBehavior {
 	/**
 	 * The last (or current) package being defined by the tag/value file
 	 */
-	private SpdxPackage lastPackage = null;
+	private ElementBuilder<SpdxPackage> lastPackage = null;
 	private int lastPackageLineNumber = 0;
 
 	/**
@@ -318,98 +400,249 @@ public class BuildDocument implements TagValueBehavior {
 	private CompatibleModelStoreWrapper modelStore;
 	private String lastFileId = null;
 	private String lastPackageId = null;
+	/**
+	 * Receives each element once it is complete - null if elements are not published
+	 */
+	private Consumer<ModelObjectV2> elementListener = null;
+	/**
+	 * Snippets in document order - snippets are published at exit once the snippet files are resolved
+	 */
+	private List<SpdxSnippet> snippetsToPublish = new ArrayList<>();
 
+	/**
+	 * @param modelStore store for the parsed SPDX elements
+	 * @param constants tag/value constants - the tags themselves are resolved through the shared {@link TagDictionary}
+	 * @param warnings list to which any warnings found while parsing are added
+	 */
 	public BuildDocument(IModelStore modelStore, Properties constants, List<String> warnings) {
-		this.constants = constants;
-		this.warningMessages = warnings;
+		this(modelStore, new WarningCollector(warnings));
+	}
+
+	/**
+	 * @param modelStore store for the parsed SPDX elements
+	 * @param warnings collector for any warnings found while parsing
+	 */
+	public BuildDocument(IModelStore modelStore, WarningCollector warnings) {
+		this.warnings = warnings;
 		this.modelStore = new CompatibleModelStoreWrapper(modelStore);
-		this.ANNOTATION_TAGS.add(constants.getProperty("PROP_ANNOTATION_DATE").trim()+" ");
-		this.ANNOTATION_TAGS.add(constants.getProperty("PROP_ANNOTATION_COMMENT").trim()+" ");
-		this.ANNOTATION_TAGS.add(constants.getProperty("PROP_ANNOTATION_ID").trim()+" ");
-		this.ANNOTATION_TAGS.add(constants.getProperty("PROP_ANNOTATION_TYPE").trim()+" ");
-
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_TYPE").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_LICENSE").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_COPYRIGHT").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_CHECKSUM").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_SEEN_LICENSE").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_LIC_COMMENTS").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_COMMENT").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_DEPENDENCY").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_CONTRIBUTOR").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_NOTICE_TEXT").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_ELEMENT_ID").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_PROJECT_NAME").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_PROJECT_HOMEPAGE").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_PROJECT_URI").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_DOCUMENT_NAMESPACE").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_RELATIONSHIP").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_RELATIONSHIP_COMMENT").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_ANNOTATOR").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_ANNOTATION_DATE").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_ANNOTATION_COMMENT").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_ANNOTATION_ID").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_ANNOTATION_TYPE").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_ATTRIBUTION_TEXT").trim()+" ");
-
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_FROM_FILE_ID").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_BYTE_RANGE").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_LINE_RANGE").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_CONCLUDED_LICENSE").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_LIC_COMMENTS").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_COPYRIGHT").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_COMMENT").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_NAME").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_SEEN_LICENSE").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_DOCUMENT_NAMESPACE").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_RELATIONSHIP").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_RELATIONSHIP_COMMENT").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_ANNOTATOR").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_ANNOTATION_DATE").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_ANNOTATION_COMMENT").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_ANNOTATION_ID").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_ANNOTATION_TYPE").trim()+" ");
-
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_COMMENT").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_FILE_NAME").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_CHECKSUM").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_DOWNLOAD_URL").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_SOURCE_INFO").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_DECLARED_LICENSE").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_CONCLUDED_LICENSE").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_DECLARED_COPYRIGHT").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_SHORT_DESC").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_DESCRIPTION").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_VERIFICATION_CODE").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_LICENSE_INFO_FROM_FILES").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_LICENSE_COMMENT").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_VERSION_INFO").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_ORIGINATOR").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_SUPPLIER").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_HOMEPAGE_URL").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_ELEMENT_ID").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_FILE_NAME").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_RELATIONSHIP").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_RELATIONSHIP_COMMENT").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_ANNOTATOR").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_ANNOTATION_DATE").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_ANNOTATION_COMMENT").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_ANNOTATION_ID").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_ANNOTATION_TYPE").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_EXTERNAL_REFERENCE").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_EXTERNAL_REFERENCE_COMMENT").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_FILES_ANALYZED").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_ATTRIBUTION_TEXT").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PRIMARY_PACKAGE_PURPOSE").trim() + " ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_BUILT_DATE").trim() + " ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_RELEASE_DATE").trim() + " ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_VALID_UNTIL_DATE").trim() + " ");
-
-		this.EXTRACTED_LICENSE_TAGS.add(constants.getProperty("PROP_LICENSE_TEXT").trim()+" ");
-		this.EXTRACTED_LICENSE_TAGS.add(constants.getProperty("PROP_EXTRACTED_TEXT").trim()+" ");
-		this.EXTRACTED_LICENSE_TAGS.add(constants.getProperty("PROP_LICENSE_COMMENT").trim()+" ");
-		this.EXTRACTED_LICENSE_TAGS.add(constants.getProperty("PROP_LICENSE_NAME").trim()+" ");
-		this.EXTRACTED_LICENSE_TAGS.add(constants.getProperty("PROP_SOURCE_URLS").trim()+" ");
+		this.licenseCache = new LicenseExpressionCache(this.modelStore, copyManager);
+	}
+
+	/**
+	 * Add a warning - missing IDs and invalid references are not reported when the verification level is <code>NONE</code>
+	 * @param kind category of the warning
+	 * @param elementId ID of the element the warning applies to or null if not known
+	 * @param lineNumber line number where the warning was found or 0 if not known
+	 * @param message warning message
+	 */
+	private void warn(Kind kind, String elementId, int lineNumber, String message) {
+		if (verificationLevel == VerificationLevel.NONE && (kind == Kind.MISSING_ID || kind == Kind.INVALID_REFERENCE)) {
+			return;
+		}
+		warnings.add(kind, elementId, lineNumber, message);
+	}
+
+	/**
+	 * Set a listener which is passed each package, file, snippet, extracted license and relationship
+	 * as soon as the element is complete.  Files and extracted licenses are complete when the following
+	 * section starts and packages when the following package starts, since the files in a package follow it.
+	 * Snippets and relationships are complete when the document is completed in <code>exit()</code> since
+	 * they refer to elements which may be defined later in the document.
+	 * @param elementListener listener for the completed elements or null to stop publishing elements
+	 */
+	public void setElementListener(Consumer<ModelObjectV2> elementListener) {
+		this.elementListener = elementListener;
+	}
+
+	/**
+	 * Set the pool used to verify the packages, snippets and files once the document is complete.  The warnings
+	 * are the same, and in the same order, as when the elements are verified on the calling thread.
+	 * @param verificationPool pool to verify the elements on or null to verify them on the calling thread
+	 */
+	public void setVerificationPool(ForkJoinPool verificationPool) {
+		this.verificationPool = verificationPool;
+	}
+
+	/**
+	 * Set how thoroughly the document is verified.  Verification skipped while parsing can be run after the
+	 * document is complete with {@link #verify()}.
+	 * @param verificationLevel verification level - defaults to <code>FULL</code>
+	 */
+	public void setVerificationLevel(VerificationLevel verificationLevel) {
+		this.verificationLevel = Objects.requireNonNull(verificationLevel, "Verification level can not be null");
+	}
+
+	/**
+	 * @return how thoroughly the document is verified
+	 */
+	public VerificationLevel getVerificationLevel() {
+		return verificationLevel;
+	}
+
+	/**
+	 * Build a document from only the tags included in a projection.  The lexer supplying the tags should have the
+	 * same projection.  A default describes relationship is only added if both packages and relationships are
+	 * included, and a missing describes relationship is not an error unless both are included.
+	 * @param projection sections and tags of the document parsed or null if the whole document is parsed
+	 */
+	public void setProjection(@Nullable TagValueProjection projection) {
+		this.projection = projection;
+	}
+
+	/**
+	 * @return the projection of the document parsed or null if the whole document is parsed
+	 */
+	public @Nullable TagValueProjection getProjection() {
+		return projection;
+	}
+
+	/**
+	 * Fully verify the packages, snippets and files of the completed document along with the document as a whole.
+	 * This is intended for documents parsed with a verification level other than <code>FULL</code>.  Elements
+	 * verified while parsing, such as extracted licenses and annotations, are covered by the verification of the
+	 * whole document.  Any license expressions not yet parsed are parsed first.
+	 * @return the verification warnings
+	 * @throws InvalidSPDXAnalysisException on errors verifying the document
+	 */
+	public List<String> verify() throws InvalidSPDXAnalysisException {
+		WarningCollector parseWarnings = warnings;
+		VerificationLevel parseVerificationLevel = verificationLevel;
+		warnings = new WarningCollector();
+		warnings.setMaxWarnings(parseWarnings.getMaxWarnings());
+		verificationLevel = VerificationLevel.FULL;
+		try {
+			// full verification reads all of the licenses
+			resolveLicenses();
+			verifyElements();
+			return warnings.getMessages();
+		} finally {
+			warnings = parseWarnings;
+			verificationLevel = parseVerificationLevel;
+		}
+	}
+
+	/**
+	 * @param deferLicenseParsing if true, license expressions are kept as text and only parsed when
+	 * {@link #resolveLicenses(String)} or {@link #resolveLicenses()} is called.  Licenses are always resolved
+	 * before a document is fully verified.
+	 */
+	public void setDeferLicenseParsing(boolean deferLicenseParsing) {
+		this.deferLicenseParsing = deferLicenseParsing;
+	}
+
+	/**
+	 * @return true if license expressions are parsed only when the licenses are resolved
+	 */
+	public boolean isDeferLicenseParsing() {
+		return deferLicenseParsing;
+	}
+
+	/**
+	 * @return true if any license expressions have not yet been parsed
+	 */
+	public synchronized boolean hasDeferredLicenses() {
+		return !deferredLicenses.isEmpty();
+	}
+
+	/**
+	 * Parse all license expressions which have not yet been parsed and set them on their elements
+	 * @throws InvalidSPDXAnalysisException on invalid license expressions
+	 */
+	public synchronized void resolveLicenses() throws InvalidSPDXAnalysisException {
+		for (String objectUri:new ArrayList<>(deferredLicenses.keySet())) {
+			resolveLicenses(objectUri);
+		}
+	}
+
+	/**
+	 * Parse the license expressions of an element which have not yet been parsed and set them on the element
+	 * @param objectUri URI of the element
+	 * @throws InvalidSPDXAnalysisException on invalid license expressions
+	 */
+	public synchronized void resolveLicenses(String objectUri) throws InvalidSPDXAnalysisException {
+		// removed before setting the licenses since setting a license accesses the element
+		List<DeferredLicense> licenses = deferredLicenses.remove(objectUri);
+		if (Objects.isNull(licenses)) {
+			return;
+		}
+		for (int i = 0; i < licenses.size(); i++) {
+			DeferredLicense license = licenses.get(i);
+			try {
+				license.setter.set(licenseCache.parse(license.expression, documentNamespace));
+			} catch (InvalidSPDXAnalysisException e) {
+				// keep the licenses not yet set so that the error is reported on each access
+				deferredLicenses.put(objectUri, new ArrayList<>(licenses.subList(i, licenses.size())));
+				throw new InvalidLicenseStringException("Invalid license expression at line number "+license.lineNumber+": "+e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * @param expression license expression
+	 * @param lineNumber line number of the expression
+	 * @param property sets the license property on the element
+	 * @return setter for the license property of an element - the expression is parsed now unless license parsing is deferred
+	 * @throws InvalidSPDXAnalysisException on invalid license expressions
+	 */
+	private <T extends ModelObjectV2> PropertySetter<T> licenseSetter(String expression, int lineNumber, 
+			LicenseProperty<T> property) throws InvalidSPDXAnalysisException {
+		if (deferLicenseParsing) {
+			return element -> deferLicense(element.getObjectUri(), 
+					new DeferredLicense(expression, lineNumber, license -> property.set(element, license)));
+		}
+		AnyLicenseInfo license = licenseCache.parse(expression, documentNamespace);
+		return element -> property.set(element, license);
+	}
+
+	private synchronized void deferLicense(String objectUri, DeferredLicense license) {
+		List<DeferredLicense> licenses = deferredLicenses.get(objectUri);
+		if (Objects.isNull(licenses)) {
+			licenses = new ArrayList<>();
+			deferredLicenses.put(objectUri, licenses);
+		}
+		licenses.add(license);
+	}
+
+	/**
+	 * Sets a license property on an element
+	 */
+	private interface LicenseProperty<T> {
+		void set(T element, AnyLicenseInfo license) throws InvalidSPDXAnalysisException;
+	}
+
+	/**
+	 * License expression which has not yet been parsed
+	 */
+	private static class DeferredLicense {
+		private final String expression;
+		private final int lineNumber;
+		private final PropertySetter<AnyLicenseInfo> setter;
+
+		DeferredLicense(String expression, int lineNumber, PropertySetter<AnyLicenseInfo> setter) {
+			this.expression = expression;
+			this.lineNumber = lineNumber;
+			this.setter = setter;
+		}
+	}
+
+	/**
+	 * Pass a completed element to the element listener, if any
+	 * @param element completed element
+	 */
+	private void publish(ModelObjectV2 element) {
+		if (Objects.nonNull(elementListener)) {
+			elementListener.accept(element);
+		}
+	}
+
+	/**
+	 * Publish the last extracted license if it has not already been published
+	 */
+	private void publishLastExtractedLicense() {
+		if (!lastExtractedLicensePublished && Objects.nonNull(lastExtractedLicense)) {
+			lastExtractedLicensePublished = true;
+			publish(lastExtractedLicense);
+		}
 	}
 
 	@Override
@@ -419,22 +652,27 @@ public class BuildDocument implements TagValueBehavior {
 
 	@Override
 	public void buildDocument(String tag, String value, int lineNumber) throws Exception {
-		tag = tag.trim()+" ";
-		value = trim(value.trim());
-		if (this.inAnnotation && ANNOTATION_TAGS.contains(tag)) {
-			buildAnnotation(tag, value, lastAnnotation);
-		} else if (this.inFileDefinition && FILE_TAGS.contains(tag)) {
-			buildFile(this.lastFile, tag, value, lineNumber);
-		} else if (this.inSnippetDefinition && SNIPPET_TAGS.contains(tag)) {
-			buildSnippet(this.lastSnippet, tag, value, lineNumber);
-		} else if (this.inPackageDefinition && PACKAGE_TAGS.contains(tag)) {
-			buildPackage(this.lastPackage, tag, value, lineNumber);
-		} else if (this.inExtractedLicenseDefinition && EXTRACTED_LICENSE_TAGS.contains(tag)) {
-			buildExtractedLicense(this.lastExtractedLicense, tag, value, lineNumber);
+		buildDocument(TagDictionary.lookup(tag), tag, value, lineNumber);
+	}
+
+	@Override
+	public void buildDocument(SpdxTag spdxTag, String tag, String value, int lineNumber) throws Exception {
+		value = trim(value);
+		if (this.inAnnotation && ANNOTATION_TAGS.contains(spdxTag)) {
+			buildAnnotation(spdxTag, value, lastAnnotation);
+		} else if (this.inFileDefinition && FILE_TAGS.contains(spdxTag)) {
+			buildFile(this.lastFile, spdxTag, tag, value, lineNumber);
+		} else if (this.inSnippetDefinition && SNIPPET_TAGS.contains(spdxTag)) {
+			buildSnippet(this.lastSnippet, spdxTag, tag, value, lineNumber);
+		} else if (this.inPackageDefinition && PACKAGE_TAGS.contains(spdxTag)) {
+			buildPackage(this.lastPackage, spdxTag, value, lineNumber);
+		} else if (this.inExtractedLicenseDefinition && EXTRACTED_LICENSE_TAGS.contains(spdxTag)) {
+			buildExtractedLicense(this.lastExtractedLicense, spdxTag, value, lineNumber);
 		} else {
 			if (inExtractedLicenseDefinition && lastExtractedLicense != null) {
-				verifyElement(lastExtractedLicense.verify(), "Extracted License", lastExtractedLicenseLineNumber, false);
+				verifyElement(lastExtractedLicense::verify, "Extracted License", lastExtractedLicenseLineNumber, false);
 			}
+			publishLastExtractedLicense();
 			if (inFileDefinition) {
 				addLastFile();
 			}
@@ -445,13 +683,14 @@ public class BuildDocument implements TagValueBehavior {
 			inFileDefinition = false;
 			inPackageDefinition = false;
 			inSnippetDefinition = false;
-			buildDocumentProperties(tag, value, lineNumber);
+			buildDocumentProperties(spdxTag, tag, value, lineNumber);
 		}
 	}
 
 	/**
 	 * Add tag value properties to an existing snippet
 	 * @param snippet
+	 * @param spdxTag
 	 * @param tag
 	 * @param value
 	 * @param lineNumber
@@ -459,54 +698,83 @@ public class BuildDocument implements TagValueBehavior {
 	 * @throws InvalidSPDXAnalysisException
 	 * @throws InvalidLicenseStringException
 	 */
-	private void buildSnippet(SpdxSnippet snippet, String tag, String value, int lineNumber) throws InvalidSpdxTagFileException, InvalidSPDXAnalysisException, InvalidLicenseStringException {
+	private void buildSnippet(SpdxSnippet snippet, SpdxTag spdxTag, String tag, String value, int lineNumber) throws InvalidSpdxTagFileException, InvalidSPDXAnalysisException, InvalidLicenseStringException {
 		if (snippet == null) {
 			throw(new InvalidSpdxTagFileException("Missing Snippet ID - An SPDX Snippet ID must be specified before the snippet properties"));
-		} else if (tag.equals(constants.getProperty("PROP_SNIPPET_FROM_FILE_ID"))) {
-			// Since the files have not all been parsed, we just keep track of the
-			// dependencies in a hashmap until we finish all processing and are building the package
-			List<SpdxSnippet> snippetsWithThisAsADependency = this.snippetDependencyMap.get(value);
-			if (snippetsWithThisAsADependency == null) {
-				snippetsWithThisAsADependency = new ArrayList<>();
-				this.snippetDependencyMap.put(value, snippetsWithThisAsADependency);
-			}
-			snippetsWithThisAsADependency.add(snippet);
-		} else if (tag.equals(constants.getProperty("PROP_SNIPPET_BYTE_RANGE"))) {
-			snippetByteRangeMap.put(snippet, value);
-		} else if (tag.equals(constants.getProperty("PROP_SNIPPET_LINE_RANGE"))) {
-			snippetLineRangeMap.put(snippet, value);
-		} else if (tag.equals(constants.getProperty("PROP_SNIPPET_CONCLUDED_LICENSE"))) {
-			snippet.setLicenseConcluded(LicenseInfoFactory.parseSPDXLicenseStringCompatV2(value, modelStore, documentNamespace, copyManager));
-			// can not verify any licenses at this point since the extracted license infos may not be set
-		} else if (tag.equals(constants.getProperty("PROP_SNIPPET_LIC_COMMENTS"))) {
-			snippet.setLicenseComments(value);
-		} else if (tag.equals(constants.getProperty("PROP_SNIPPET_COPYRIGHT"))) {
-			snippet.setCopyrightText(value);
-		} else if (tag.equals(constants.getProperty("PROP_SNIPPET_COMMENT"))) {
-			snippet.setComment(value);
-		} else if (tag.equals(constants.getProperty("PROP_SNIPPET_NAME"))) {
-			snippet.setName(value);
-		} else if (tag.equals(constants.getProperty("PROP_SNIPPET_SEEN_LICENSE"))) {
-			snippet.getLicenseInfoFromFiles().add(LicenseInfoFactory.parseSPDXLicenseStringCompatV2(value, modelStore, documentNamespace, copyManager));
-			// can not verify any licenses at this point since the extracted license infos may not be set
-		} else if (tag.equals(constants.getProperty("PROP_ANNOTATOR"))) {
-			if (lastAnnotation != null) {
-				annotations.add(lastAnnotation);
-			}
-			this.inAnnotation = true;
-			lastAnnotation = new AnnotationWithId(value, lineNumber);
-		} else if (tag.equals(constants.getProperty("PROP_RELATIONSHIP"))) {
-			if (lastRelationship != null) {
-				addToRelationships(lastRelationship);
-			}
-			lastRelationship = parseRelationship(value, lineNumber);
-		} else if (tag.equals(constants.getProperty("PROP_RELATIONSHIP_COMMENT"))) {
-			if (lastRelationship == null) {
-				throw(new InvalidSpdxTagFileException("Relationship comment found outside of a relationship: "+value + " at line number "+lineNumber));
-			}
-			lastRelationship.setComment(value);
-		} else {
-			throw new InvalidSPDXAnalysisException("Error parsing snippet.  Unrecognized tag: "+tag + " at line number " + lineNumber);
+		}
+		switch (spdxTag) {
+			case SNIPPET_FROM_FILE_ID:
+				Optional<ModelObjectV2> snippetFile = resolveElement(value);
+				if (snippetFile.isPresent() && snippetFile.get() instanceof SpdxFile) {
+					linkSnippet(snippet, (SpdxFile)snippetFile.get());
+					break;
+				}
+				// Since the file has not been parsed, we just keep track of the
+				// dependencies in a hashmap until the file is defined
+				List<SpdxSnippet> snippetsWithThisAsADependency = this.snippetDependencyMap.get(value);
+				if (snippetsWithThisAsADependency == null) {
+					snippetsWithThisAsADependency = new ArrayList<>();
+					this.snippetDependencyMap.put(value, snippetsWithThisAsADependency);
+				}
+				snippetsWithThisAsADependency.add(snippet);
+				break;
+			case SNIPPET_BYTE_RANGE:
+				int[] byteRange = parseSnippetRange(value, "byte");
+				if (linkedSnippets.contains(snippet)) {
+					snippet.setByteRange(byteRange[0], byteRange[1]);
+				} else {
+					snippetByteRangeMap.put(snippet, byteRange);
+				}
+				break;
+			case SNIPPET_LINE_RANGE:
+				int[] lineRange = parseSnippetRange(value, "line");
+				if (linkedSnippets.contains(snippet)) {
+					snippet.setLineRange(lineRange[0], lineRange[1]);
+				} else {
+					snippetLineRangeMap.put(snippet, lineRange);
+				}
+				break;
+			case SNIPPET_CONCLUDED_LICENSE:
+				licenseSetter(value, lineNumber, SpdxSnippet::setLicenseConcluded).set(snippet);
+				// can not verify any licenses at this point since the extracted license infos may not be set
+				break;
+			case SNIPPET_LIC_COMMENTS:
+				snippet.setLicenseComments(value);
+				break;
+			case SNIPPET_COPYRIGHT:
+				snippet.setCopyrightText(value);
+				break;
+			case SNIPPET_COMMENT:
+				snippet.setComment(value);
+				break;
+			case SNIPPET_NAME:
+				snippet.setName(value);
+				break;
+			case SNIPPET_SEEN_LICENSE:
+				licenseSetter(value, lineNumber, (SpdxSnippet s, AnyLicenseInfo l) -> s.getLicenseInfoFromFiles().add(l)).set(snippet);
+				// can not verify any licenses at this point since the extracted license infos may not be set
+				break;
+			case ANNOTATOR:
+				if (lastAnnotation != null) {
+					annotations.add(lastAnnotation);
+				}
+				this.inAnnotation = true;
+				lastAnnotation = new AnnotationWithId(value, lineNumber);
+				break;
+			case RELATIONSHIP:
+				if (lastRelationship != null) {
+					addToRelationships(lastRelationship);
+				}
+				lastRelationship = parseRelationship(value, lineNumber);
+				break;
+			case RELATIONSHIP_COMMENT:
+				if (lastRelationship == null) {
+					throw(new InvalidSpdxTagFileException("Relationship comment found outside of a relationship: "+value + " at line number "+lineNumber));
+				}
+				lastRelationship.setComment(value);
+				break;
+			default:
+				throw new InvalidSPDXAnalysisException("Error parsing snippet.  Unrecognized tag: "+tag.trim() + "  at line number " + lineNumber);
 		}
 	}
 	
@@ -530,33 +798,36 @@ public class BuildDocument implements TagValueBehavior {
 		}
 	}
 
-	private void verifyElement(List<String> verify, String prefix, int lineNumber) {
+	private void verifyElement(Supplier<List<String>> verify, String prefix, int lineNumber) {
 		verifyElement(verify, prefix, lineNumber, false);
 	}
 
+	/**
+	 * Add warning messages for any element verification list if the document is fully verified
+	 * @param verify Supplies the verification warnings - only called for full verification
+	 * @param prefix Prefix to prepend the warning with
+	 * @param lineNumber Line number where the error occurs
+	 * @param ignoreMissingLicenseText if true, don't record any missing license text errors
+	 */
+	private void verifyElement(Supplier<List<String>> verify, String prefix, int lineNumber, boolean ignoreMissingLicenseText) {
+		if (verificationLevel == VerificationLevel.FULL) {
+			verifyElement(verify.get(), prefix, null, lineNumber, ignoreMissingLicenseText);
+		}
+	}
+
 	/**
 	 * Add warning messages for any element verification list
 	 * @param verify List of verification warnings
 	 * @param prefix Prefix to prepend the warning with
+	 * @param elementId ID of the element verified or null if not known
 	 * @param lineNumber Line number where the error occurs
 	 * @param ignoreMissingLicenseText if true, don't record any missing license text errors
 	 */
-	private void verifyElement(List<String> verify, String prefix, int lineNumber, boolean ignoreMissingLicenseText) {
-		if (!verify.isEmpty()) {
-			for (String verMsg:verify) {
-				if (!ignoreMissingLicenseText || !verMsg.contains("Missing required license text")) {
-					boolean found = false;
-					String newWarning = prefix + " at line "+lineNumber+" invalid: "+verMsg;
-					for (String existingWarn:this.warningMessages) {
-						if (existingWarn.equals(newWarning)) {
-							found = true;
-							break;
-						}
-					}
-					if (!found) {
-						this.warningMessages.add(newWarning);
-					}
-				}
+	private void verifyElement(List<String> verify, String prefix, String elementId, int lineNumber, boolean ignoreMissingLicenseText) {
+		for (String verMsg:verify) {
+			if (!ignoreMissingLicenseText || !verMsg.contains("Missing required license text")) {
+				elementVerificationMessages.add(verMsg);
+				warn(Kind.VERIFICATION, elementId, lineNumber, prefix + " at line "+lineNumber+" invalid: "+verMsg);
 			}
 		}
 	}
@@ -564,242 +835,276 @@ public class BuildDocument implements TagValueBehavior {
 
 	/**
 	 * @param license
-	 * @param tag
+	 * @param spdxTag
 	 * @param value
 	 * @param lineNumber
 	 * @throws InvalidSPDXAnalysisException 
 	 */
 	private void buildExtractedLicense(
-			ExtractedLicenseInfo license, String tag, String value, int lineNumber) throws InvalidSPDXAnalysisException {
-		if (tag.equals(constants.getProperty("PROP_EXTRACTED_TEXT"))) {
-			if (lastExtractedLicense == null) {
-				throw(new InvalidSpdxTagFileException("Missing Extracted License - An  extracted license ID must be provided before the license text at line number "+lineNumber));
-			}
-			license.setExtractedText(value);
-		} else if (tag.equals(constants.getProperty("PROP_LICENSE_NAME"))) {
-			if (lastExtractedLicense == null) {
-				throw(new InvalidSpdxTagFileException("Missing Extracted License - An  extracted license ID must be provided before the license name at line number "+lineNumber));
-			}
-			license.setName(value);
-		} else if (tag.equals(constants.getProperty("PROP_SOURCE_URLS"))) {
-			if (lastExtractedLicense == null) {
-				throw(new InvalidSpdxTagFileException("Missing Extracted License - An  extracted license ID must be provided before the license URL at line number "+lineNumber));
-			}
-			String[] values = value.split(",");
-			for (int i = 0; i < values.length; i++) {
-				license.getSeeAlso().add(values[i].trim());
-			}
-		} else if (tag.equals(constants.getProperty("PROP_LICENSE_COMMENT"))) {
-			if (lastExtractedLicense == null) {
-				throw(new InvalidSpdxTagFileException("Missing Extracted License - An  extracted license ID must be provided before the license comment at line number "+lineNumber));
-			}
-			license.setComment(value);
+			ExtractedLicenseInfo license, SpdxTag spdxTag, String value, int lineNumber) throws InvalidSPDXAnalysisException {
+		switch (spdxTag) {
+			case EXTRACTED_TEXT:
+				if (lastExtractedLicense == null) {
+					throw(new InvalidSpdxTagFileException("Missing Extracted License - An  extracted license ID must be provided before the license text at line number "+lineNumber));
+				}
+				license.setExtractedText(value);
+				break;
+			case LICENSE_NAME:
+				if (lastExtractedLicense == null) {
+					throw(new InvalidSpdxTagFileException("Missing Extracted License - An  extracted license ID must be provided before the license name at line number "+lineNumber));
+				}
+				license.setName(value);
+				break;
+			case SOURCE_URLS:
+				if (lastExtractedLicense == null) {
+					throw(new InvalidSpdxTagFileException("Missing Extracted License - An  extracted license ID must be provided before the license URL at line number "+lineNumber));
+				}
+				String[] values = value.split(",");
+				for (int i = 0; i < values.length; i++) {
+					license.getSeeAlso().add(values[i].trim());
+				}
+				break;
+			case LICENSE_COMMENT:
+				if (lastExtractedLicense == null) {
+					throw(new InvalidSpdxTagFileException("Missing Extracted License - An  extracted license ID must be provided before the license comment at line number "+lineNumber));
+				}
+				license.setComment(value);
+				break;
+			default:
+				// licenseText is accepted but not used
+				break;
 		}
 	}
 
-	private void buildDocumentProperties(String tag, String value, int lineNumber) throws Exception {
-		if (tag.equals(constants.getProperty("PROP_SPDX_VERSION"))) {
-			this.specVersion = value;
-			if (analysis != null) {
-				analysis.setSpecVersion(value);
-			}
-		} else if (tag.equals(constants.getProperty("PROP_SPDX_DATA_LICENSE"))) {
-			try {
-				this.dataLicense = LicenseInfoFactory.getListedLicenseByIdCompatV2(value);
-			} catch(InvalidSPDXAnalysisException ex) {
-				this.dataLicense = null;
-			}
-			if (this.dataLicense == null) {
-				this.dataLicense = new ExtractedLicenseInfo(value, "NO TEXT FOR "+value);
-			}
-			if (analysis != null) {
-				analysis.setDataLicense(this.dataLicense);
-			}
-		} else if (tag.equals(constants.getProperty("PROP_DOCUMENT_NAME"))) {
-			this.documentName = value;
-			if (analysis != null) {
-				this.analysis.setName(value);
-			}
-		} else if (tag.equals(constants.getProperty("PROP_DOCUMENT_NAMESPACE"))) {
-			if (this.analysis != null) {
-				throw(new InvalidSpdxTagFileException("More than one document namespace was specified at line number "+lineNumber));
-			}
-			this.documentNamespace = value;
-			this.analysis = new SpdxDocument(modelStore, documentNamespace, copyManager, true);
-			if (this.specVersion != null) {
-				this.analysis.setSpecVersion(this.specVersion);
-			}
-			if (this.dataLicense != null) {
-				this.analysis.setDataLicense(this.dataLicense);
-			}
-			if (this.documentName != null) {
-				this.analysis.setName(this.documentName);
-			}
-		} else if (tag.equals(constants.getProperty("PROP_ELEMENT_ID"))) {
-			if (!value.equals(SpdxConstantsCompatV2.SPDX_DOCUMENT_ID)) {
-				throw(new InvalidSpdxTagFileException("SPDX Document "+value
-						+" is invalid.  Document IDs must be "+SpdxConstantsCompatV2.SPDX_DOCUMENT_ID + " at line number "+lineNumber));
-			}
-		} else if (tag.equals(constants.getProperty("PROP_EXTERNAL_DOC_URI"))) {
-			checkAnalysisNull();
-			addExternalDocRef(value, lineNumber);
-		} else if (tag.equals(constants.getProperty("PROP_RELATIONSHIP"))) {
-			if (lastRelationship != null) {
-				addToRelationships(lastRelationship);
-			}
-			lastRelationship = parseRelationship(value, lineNumber);
-		} else if (tag.equals(constants.getProperty("PROP_RELATIONSHIP_COMMENT"))) {
-			if (lastRelationship == null) {
-				throw(new InvalidSpdxTagFileException("Relationship comment found outside of a relationship: "+value + " at line number "+lineNumber));
-			}
-			lastRelationship.setComment(value);
-		} else if (tag.equals(constants.getProperty("PROP_ANNOTATOR"))) {
-			if (lastAnnotation != null) {
-				annotations.add(lastAnnotation);
-			}
-			this.inAnnotation = true;
-			lastAnnotation = new AnnotationWithId(value, lineNumber);
-		} else if (tag.equals(constants.getProperty("PROP_ANNOTATION_DATE"))) {
-			throw(new InvalidSpdxTagFileException("Annotation date found outside of an annotation: "+value + " at line number "+lineNumber));
-		} else if (tag.equals(constants.getProperty("PROP_ANNOTATION_COMMENT"))) {
-			throw(new InvalidSpdxTagFileException("Annotation comment found outside of an annotation: "+value + " at line number "+lineNumber));
-		} else if (tag.equals(constants.getProperty("PROP_ANNOTATION_ID"))) {
-			throw(new InvalidSpdxTagFileException("Annotation ID found outside of an annotation: "+value + " at line number "+lineNumber));
-		} else if (tag.equals(constants.getProperty("PROP_ANNOTATION_TYPE"))) {
-			throw(new InvalidSpdxTagFileException("Annotation type found outside of an annotation: "+value + " at line number "+lineNumber));
-		} else if (tag.equals(constants.getProperty("PROP_CREATION_CREATOR"))) {
-			checkAnalysisNull();
-			if (analysis.getCreationInfo() == null) {				
-				SpdxCreatorInformation creator = new SpdxCreatorInformation(modelStore, documentNamespace, modelStore.getNextId(IdType.Anonymous), copyManager, true);
-				analysis.setCreationInfo(creator);
-			}
-			analysis.getCreationInfo().getCreators().add(value);
-		} else if (tag.equals(constants.getProperty("PROP_CREATION_CREATED"))) {
-			checkAnalysisNull();
-			if (analysis.getCreationInfo() == null) {				
-				SpdxCreatorInformation creator = new SpdxCreatorInformation(modelStore, documentNamespace, modelStore.getNextId(IdType.Anonymous), copyManager, true);
-				analysis.setCreationInfo(creator);
-			}
-			analysis.getCreationInfo().setCreated(value);
-		} else if (tag.equals(constants.getProperty("PROP_CREATION_COMMENT"))) {
-			checkAnalysisNull();
-			if (analysis.getCreationInfo() == null) {				
-				SpdxCreatorInformation creator = new SpdxCreatorInformation(modelStore, documentNamespace, modelStore.getNextId(IdType.Anonymous), copyManager, true);
-				analysis.setCreationInfo(creator);
-			}
-			analysis.getCreationInfo().setComment(value);
-		} else if (tag.equals(constants.getProperty("PROP_LICENSE_LIST_VERSION"))) {
-			checkAnalysisNull();
-			if (analysis.getCreationInfo() == null) {				
-				SpdxCreatorInformation creator = new SpdxCreatorInformation(modelStore, documentNamespace, modelStore.getNextId(IdType.Anonymous), copyManager, true);
-				analysis.setCreationInfo(creator);
-			}
-			analysis.getCreationInfo().setLicenseListVersion(value);
-		} else if (tag.equals(constants.getProperty("PROP_SPDX_COMMENT"))) {
-			checkAnalysisNull();
-			analysis.setComment(value);
-		} else if (tag.equals(constants.getProperty("PROP_REVIEW_REVIEWER"))) {
-			checkAnalysisNull();
-			lastReviewer = new Annotation(modelStore, documentNamespace, modelStore.getNextId(IdType.Anonymous), copyManager, true);
-			lastReviewer.setAnnotationType(AnnotationType.REVIEW);
-			lastReviewer.setAnnotator(value);
-			analysis.getAnnotations().add(lastReviewer);
-			warningMessages.add("Converted deprecated Reviewer to annotation for reviewer "+value);
-			lastReviewerLineNumber = lineNumber;
-			this.verifyElement(lastReviewer.verify(), "Reviewer", lastReviewerLineNumber);
-		} else if (tag.equals(constants.getProperty("PROP_REVIEW_DATE"))) {
-			checkAnalysisNull();
-			if (lastReviewer == null) {
-				throw(new InvalidSpdxTagFileException("Missing Reviewer - A reviewer must be provided before a review date"));
-			}
-			lastReviewer.setAnnotationDate(value);
-			this.verifyElement(lastReviewer.verify(), "Reviewer", lastReviewerLineNumber);
-		} else if (tag.equals(constants.getProperty("PROP_REVIEW_COMMENT"))) {
-			checkAnalysisNull();
-			if (lastReviewer == null) {
-				throw(new InvalidSpdxTagFileException("Missing Reviewer - A reviewer must be provided before a review comment"));
-			}
-			lastReviewer.setComment(value);
-		} else if (tag.equals(constants.getProperty("PROP_LICENSE_ID"))) {
-			checkAnalysisNull();
-			if (value == null || !value.startsWith(SpdxConstantsCompatV2.NON_STD_LICENSE_ID_PRENUM)) {
-				if (LicenseInfoFactory.isSpdxListedLicenseId(value) || LicenseInfoFactory.isSpdxListedExceptionId(value)) {
-					throw new InvalidSpdxTagFileException("Attempting to redefine a listed license or listed exception with ID "+value);
+	private void buildDocumentProperties(SpdxTag spdxTag, String tag, String value, int lineNumber) throws Exception {
+		switch (spdxTag) {
+			case SPDX_VERSION:
+				this.specVersion = value;
+				if (analysis != null) {
+					analysis.setSpecVersion(value);
+				}
+				break;
+			case SPDX_DATA_LICENSE:
+				try {
+					this.dataLicense = LicenseInfoFactory.getListedLicenseByIdCompatV2(value);
+				} catch(InvalidSPDXAnalysisException ex) {
+					this.dataLicense = null;
+				}
+				if (this.dataLicense == null) {
+					this.dataLicense = new ExtractedLicenseInfo(value, "NO TEXT FOR "+value);
+				}
+				if (analysis != null) {
+					analysis.setDataLicense(this.dataLicense);
+				}
+				break;
+			case DOCUMENT_NAME:
+				this.documentName = value;
+				if (analysis != null) {
+					this.analysis.setName(value);
+				}
+				break;
+			case DOCUMENT_NAMESPACE:
+				if (this.analysis != null) {
+					throw(new InvalidSpdxTagFileException("More than one document namespace was specified at line number "+lineNumber));
+				}
+				this.documentNamespace = value;
+				this.analysis = new SpdxDocument(modelStore, documentNamespace, copyManager, true);
+				if (this.specVersion != null) {
+					this.analysis.setSpecVersion(this.specVersion);
+				}
+				if (this.dataLicense != null) {
+					this.analysis.setDataLicense(this.dataLicense);
+				}
+				if (this.documentName != null) {
+					this.analysis.setName(this.documentName);
+				}
+				break;
+			case ELEMENT_ID:
+				if (!value.equals(SpdxConstantsCompatV2.SPDX_DOCUMENT_ID)) {
+					throw(new InvalidSpdxTagFileException("SPDX Document "+value
+							+" is invalid.  Document IDs must be "+SpdxConstantsCompatV2.SPDX_DOCUMENT_ID + " at line number "+lineNumber));
+				}
+				break;
+			case EXTERNAL_DOC_URI:
+				checkAnalysisNull();
+				addExternalDocRef(value, lineNumber);
+				break;
+			case RELATIONSHIP:
+				if (lastRelationship != null) {
+					addToRelationships(lastRelationship);
+				}
+				lastRelationship = parseRelationship(value, lineNumber);
+				break;
+			case RELATIONSHIP_COMMENT:
+				if (lastRelationship == null) {
+					throw(new InvalidSpdxTagFileException("Relationship comment found outside of a relationship: "+value + " at line number "+lineNumber));
+				}
+				lastRelationship.setComment(value);
+				break;
+			case ANNOTATOR:
+				if (lastAnnotation != null) {
+					annotations.add(lastAnnotation);
+				}
+				this.inAnnotation = true;
+				lastAnnotation = new AnnotationWithId(value, lineNumber);
+				break;
+			case ANNOTATION_DATE:
+				throw(new InvalidSpdxTagFileException("Annotation date found outside of an annotation: "+value + " at line number "+lineNumber));
+			case ANNOTATION_COMMENT:
+				throw(new InvalidSpdxTagFileException("Annotation comment found outside of an annotation: "+value + " at line number "+lineNumber));
+			case ANNOTATION_ID:
+				throw(new InvalidSpdxTagFileException("Annotation ID found outside of an annotation: "+value + " at line number "+lineNumber));
+			case ANNOTATION_TYPE:
+				throw(new InvalidSpdxTagFileException("Annotation type found outside of an annotation: "+value + " at line number "+lineNumber));
+			case CREATION_CREATOR:
+				checkAnalysisNull();
+				if (analysis.getCreationInfo() == null) {				
+					SpdxCreatorInformation creator = new SpdxCreatorInformation(modelStore, documentNamespace, modelStore.getNextId(IdType.Anonymous), copyManager, true);
+					analysis.setCreationInfo(creator);
+				}
+				analysis.getCreationInfo().getCreators().add(value);
+				break;
+			case CREATION_CREATED:
+				checkAnalysisNull();
+				if (analysis.getCreationInfo() == null) {				
+					SpdxCreatorInformation creator = new SpdxCreatorInformation(modelStore, documentNamespace, modelStore.getNextId(IdType.Anonymous), copyManager, true);
+					analysis.setCreationInfo(creator);
+				}
+				analysis.getCreationInfo().setCreated(value);
+				break;
+			case CREATION_COMMENT:
+				checkAnalysisNull();
+				if (analysis.getCreationInfo() == null) {				
+					SpdxCreatorInformation creator = new SpdxCreatorInformation(modelStore, documentNamespace, modelStore.getNextId(IdType.Anonymous), copyManager, true);
+					analysis.setCreationInfo(creator);
+				}
+				analysis.getCreationInfo().setComment(value);
+				break;
+			case LICENSE_LIST_VERSION:
+				checkAnalysisNull();
+				if (analysis.getCreationInfo() == null) {				
+					SpdxCreatorInformation creator = new SpdxCreatorInformation(modelStore, documentNamespace, modelStore.getNextId(IdType.Anonymous), copyManager, true);
+					analysis.setCreationInfo(creator);
+				}
+				analysis.getCreationInfo().setLicenseListVersion(value);
+				break;
+			case SPDX_COMMENT:
+				checkAnalysisNull();
+				analysis.setComment(value);
+				break;
+			case REVIEW_REVIEWER:
+				checkAnalysisNull();
+				lastReviewer = new Annotation(modelStore, documentNamespace, modelStore.getNextId(IdType.Anonymous), copyManager, true);
+				lastReviewer.setAnnotationType(AnnotationType.REVIEW);
+				lastReviewer.setAnnotator(value);
+				analysis.getAnnotations().add(lastReviewer);
+				warn(Kind.DEPRECATED, null, lineNumber, "Converted deprecated Reviewer to annotation for reviewer "+value);
+				lastReviewerLineNumber = lineNumber;
+				this.verifyElement(lastReviewer::verify, "Reviewer", lastReviewerLineNumber);
+				break;
+			case REVIEW_DATE:
+				checkAnalysisNull();
+				if (lastReviewer == null) {
+					throw(new InvalidSpdxTagFileException("Missing Reviewer - A reviewer must be provided before a review date"));
+				}
+				lastReviewer.setAnnotationDate(value);
+				this.verifyElement(lastReviewer::verify, "Reviewer", lastReviewerLineNumber);
+				break;
+			case REVIEW_COMMENT:
+				checkAnalysisNull();
+				if (lastReviewer == null) {
+					throw(new InvalidSpdxTagFileException("Missing Reviewer - A reviewer must be provided before a review comment"));
+				}
+				lastReviewer.setComment(value);
+				break;
+			case LICENSE_ID:
+				checkAnalysisNull();
+				if (value == null || !value.startsWith(SpdxConstantsCompatV2.NON_STD_LICENSE_ID_PRENUM)) {
+					if (LicenseExpressionCache.isListedLicenseOrExceptionId(value)) {
+						throw new InvalidSpdxTagFileException("Attempting to redefine a listed license or listed exception with ID "+value);
+					} else {
+						warn(Kind.INVALID_VALUE, value, lineNumber, "Invalid SPDX Listed License ID - must start with " +
+								SpdxConstantsCompatV2.NON_STD_LICENSE_ID_PRENUM + ":" + value);
+					}
+				}
+				if (inExtractedLicenseDefinition) {
+					verifyElement(lastExtractedLicense::verify, "Extracted License", lastExtractedLicenseLineNumber, false);
+				}
+				publishLastExtractedLicense();
+				lastExtractedLicensePublished = false;
+				if (modelStore.exists(documentNamespace, value)) {
+					lastExtractedLicense = new ExtractedLicenseInfo(modelStore, documentNamespace, value, copyManager, false);
 				} else {
-					this.warningMessages.add("Invalid SPDX Listed License ID - must start with " +
-							SpdxConstantsCompatV2.NON_STD_LICENSE_ID_PRENUM + ":" + value);
+					lastExtractedLicense = new ExtractedLicenseInfo(modelStore, documentNamespace, value, copyManager, true);
+					lastExtractedLicenseLineNumber = lineNumber;
 				}
-			}
-			if (inExtractedLicenseDefinition) {
-				verifyElement(lastExtractedLicense.verify(), "Extracted License", lastExtractedLicenseLineNumber, false);
-			}
-			if (modelStore.exists(documentNamespace, value)) {
-				lastExtractedLicense = new ExtractedLicenseInfo(modelStore, documentNamespace, value, copyManager, false);
-			} else {
-				lastExtractedLicense = new ExtractedLicenseInfo(modelStore, documentNamespace, value, copyManager, true);
-				lastExtractedLicenseLineNumber = lineNumber;
-			}
-			if (!analysis.addExtractedLicenseInfos(lastExtractedLicense)) {
-				this.warningMessages.add("Duplicate extracted license ID: "+value);
-			}
-			this.inExtractedLicenseDefinition = true;
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_DECLARED_NAME"))) {
-			checkAnalysisNull();
-			inPackageDefinition = true;
-			inFileDefinition = false;
-			inAnnotation = false;
-			inSnippetDefinition = false;
-			inExtractedLicenseDefinition = false;
-			addLastPackage();
-			this.lastPackage = new SpdxPackage(modelStore, documentNamespace, modelStore.getNextId(IdType.Anonymous), // We create this as anonymous and copy to the real package with the correct ID later 
-					copyManager, true);
-			this.lastPackage.setName(value);
-			lastPackageLineNumber = lineNumber;
-		} else if (tag.equals(constants.getProperty("PROP_FILE_NAME"))) {
-			checkAnalysisNull();
-			//NOTE: This must follow the inPackageDefinition check since
-			// if a file is defined following a package, it is assumed to
-			// be part of the package and not something standalone
-			addLastFile();
-			inFileDefinition = true;
-			inPackageDefinition = false;
-			inAnnotation = false;
-			inSnippetDefinition = false;
-			inExtractedLicenseDefinition = false;
+				if (!analysis.addExtractedLicenseInfos(lastExtractedLicense)) {
+					warn(Kind.INVALID_VALUE, value, lineNumber, "Duplicate extracted license ID: "+value);
+				}
+				this.inExtractedLicenseDefinition = true;
+				break;
+			case PACKAGE_DECLARED_NAME:
+				checkAnalysisNull();
+				inPackageDefinition = true;
+				inFileDefinition = false;
+				inAnnotation = false;
+				inSnippetDefinition = false;
+				inExtractedLicenseDefinition = false;
+				addLastPackage();
+				this.lastPackage = new ElementBuilder<>();	// The package is created once the SPDX ID is known
+				this.lastPackage.add(pkg -> pkg.setName(value));
+				lastPackageLineNumber = lineNumber;
+				break;
+			case FILE_NAME:
+				checkAnalysisNull();
+				//NOTE: This must follow the inPackageDefinition check since
+				// if a file is defined following a package, it is assumed to
+				// be part of the package and not something standalone
+				addLastFile();
+				inFileDefinition = true;
+				inPackageDefinition = false;
+				inAnnotation = false;
+				inSnippetDefinition = false;
+				inExtractedLicenseDefinition = false;
 			
-			this.lastFile = new SpdxFile(modelStore, documentNamespace, modelStore.getNextId(IdType.Anonymous), // We create this as anonymous and copy to the real package with the correct ID later 
-					copyManager, true);
-			this.lastFile.setName(value);
-			lastFileLineNumber = lineNumber;
-		} else if (tag.equals(constants.getProperty("PROP_SNIPPET_SPDX_ID"))) {
-			checkAnalysisNull();
-			addLastSnippet();
-			inSnippetDefinition = true;
-			inFileDefinition = false;
-			inPackageDefinition = false;
-			inAnnotation = false;
-			inExtractedLicenseDefinition = false;
-			this.lastSnippet = new SpdxSnippet(modelStore, documentNamespace, value, copyManager, true);
-			this.lastSnippetLineNumber = lineNumber;
-		} else {
-			throw new InvalidSpdxTagFileException("Expecting a definition of a file, package, license information, or document property at "+tag+value+" line number "+lineNumber);
+				this.lastFile = new ElementBuilder<>();	// The file is created once the SPDX ID is known
+				this.lastFile.add(file -> file.setName(value));
+				this.lastFileName = value;
+				lastFileLineNumber = lineNumber;
+				break;
+			case SNIPPET_SPDX_ID:
+				checkAnalysisNull();
+				addLastSnippet();
+				inSnippetDefinition = true;
+				inFileDefinition = false;
+				inPackageDefinition = false;
+				inAnnotation = false;
+				inExtractedLicenseDefinition = false;
+				this.lastSnippet = new SpdxSnippet(modelStore, documentNamespace, value, copyManager, true);
+				elementIndex.put(value, lastSnippet);
+				elementRegistry.add(ElementType.SNIPPET, value);
+				if (Objects.nonNull(elementListener)) {
+					snippetsToPublish.add(lastSnippet);
+				}
+				this.lastSnippetLineNumber = lineNumber;
+				break;
+			default:
+				throw new InvalidSpdxTagFileException("Expecting a definition of a file, package, license information, or document property at "+tag.trim()+" "+value+" line number "+lineNumber);
 		}
 	}
 
 
 	private void addLastPackage() throws InvalidSPDXAnalysisException {
 		if (this.lastPackage != null) {
-			// A bit klunky, but we need to create a new package and copy all the elements since
-			// we don't know the SPDX ID until after the lastPackage is created
 			if (Objects.isNull(lastPackageId)) {
-				this.warningMessages.add("Missing SPDX ID for package defined at "+lastPackageLineNumber);
+				warn(Kind.MISSING_ID, lastPackageId, lastPackageLineNumber, "Missing SPDX ID for package defined at "+lastPackageLineNumber);
 				this.lastPackageId = modelStore.getNextId(IdType.SpdxId, documentNamespace);
 			}
-			SpdxPackage newPkg = new SpdxPackage(modelStore, documentNamespace, lastPackageId, copyManager, true);
-			newPkg.copyFrom(lastPackage);
-			modelStore.delete(documentNamespace, lastPackage.getId());
-			this.lastPackage = newPkg;
+			SpdxPackage newPkg = lastPackage.build(new SpdxPackage(modelStore, documentNamespace, lastPackageId, copyManager, true));
 			elementIdLineNumberMap.put(lastPackageId, lastPackageLineNumber);
+			elementIndex.put(lastPackageId, newPkg);
+			elementRegistry.addPackage(newPkg);
+			publish(newPkg);
 			lastPackageId = null;
 			this.lastPackage = null;
 		}
@@ -813,12 +1118,11 @@ public class BuildDocument implements TagValueBehavior {
 	private void addLastFile() throws InvalidSPDXAnalysisException {
 		if (this.lastFile != null) {
 			if (Objects.isNull(lastFileId)) {
-			    this.warningMessages.add("Missing SPDX ID for file defined at line "+this.lastFileLineNumber);
+			    warn(Kind.MISSING_ID, lastFileId, lastFileLineNumber, "Missing SPDX ID for file defined at line "+this.lastFileLineNumber);
 			    lastFileId = modelStore.getNextId(IdType.SpdxId, documentNamespace);
 			}
-			SpdxFile newFile = new SpdxFile(modelStore, documentNamespace, lastFileId, copyManager, true);
-			newFile.copyFrom(this.lastFile);
-			modelStore.delete(documentNamespace, lastFile.getId());
+			SpdxFile newFile = lastFile.build(new SpdxFile(modelStore, documentNamespace, lastFileId, copyManager, true));
+			linkFile(newFile, lastFileId, lastFileName);
 			for (String depdendeFileName:lastFileDependencies) {
 				addFileDependency(newFile, depdendeFileName);
 			}
@@ -827,6 +1131,9 @@ public class BuildDocument implements TagValueBehavior {
 				addToRelationships(new RelationshipWithId(lastPackageId, lastFileId, RelationshipType.CONTAINS, this.lastFileLineNumber));
 			}
 			elementIdLineNumberMap.put(lastFileId,lastFileLineNumber);
+			elementIndex.put(lastFileId, newFile);
+			elementRegistry.add(ElementType.FILE, lastFileId);
+			publish(newFile);
 			lastFileDependencies.clear();
 			lastFileId = null;
 		}
@@ -846,26 +1153,33 @@ public class BuildDocument implements TagValueBehavior {
 	}
 
 	/**
-	 * @param tag
+	 * @param spdxTag
 	 * @param value
 	 * @param annotation
 	 * @throws InvalidSPDXAnalysisException
 	 */
-	private void buildAnnotation(String tag, String value,
+	private void buildAnnotation(SpdxTag spdxTag, String value,
 			AnnotationWithId annotation) throws InvalidSPDXAnalysisException {
-		if (tag.equals(constants.getProperty("PROP_ANNOTATION_DATE"))) {
-			annotation.setDate(value);
-		} else if (tag.equals(constants.getProperty("PROP_ANNOTATION_COMMENT"))) {
-			annotation.setComment(value);
-		} else if (tag.equals(constants.getProperty("PROP_ANNOTATION_ID"))) {
-			annotation.setId(value);
-		} else if (tag.equals(constants.getProperty("PROP_ANNOTATION_TYPE"))) {
-			try {
-				AnnotationType annotationType = AnnotationType.valueOf(value);
-				annotation.setAnnotationType(annotationType);
-			} catch (IllegalArgumentException ex) {
-				throw(new InvalidSPDXAnalysisException("Invalid annotation type: "+value + " at line number "+annotation.getLineNumber()));
-			}
+		switch (spdxTag) {
+			case ANNOTATION_DATE:
+				annotation.setDate(value);
+				break;
+			case ANNOTATION_COMMENT:
+				annotation.setComment(value);
+				break;
+			case ANNOTATION_ID:
+				annotation.setId(value);
+				break;
+			case ANNOTATION_TYPE:
+				try {
+					AnnotationType annotationType = AnnotationType.valueOf(value);
+					annotation.setAnnotationType(annotationType);
+				} catch (IllegalArgumentException ex) {
+					throw(new InvalidSPDXAnalysisException("Invalid annotation type: "+value + " at line number "+annotation.getLineNumber()));
+				}
+				break;
+			default:
+				break;
 		}
 	}
 
@@ -914,7 +1228,7 @@ public class BuildDocument implements TagValueBehavior {
 	 */
 	private void addExternalDocRef(String value, int lineNumber) throws InvalidSpdxTagFileException, InvalidSPDXAnalysisException {
 		ExternalDocumentRef ref = parseExternalDocumentRef(value, lineNumber, analysis);
-		verifyElement(ref.verify(), "External Document Reference", lineNumber);
+		verifyElement(ref::verify, "External Document Reference", lineNumber);
 		this.analysis.getExternalDocumentRefs().add(ref);
 	}
 
@@ -944,165 +1258,202 @@ public class BuildDocument implements TagValueBehavior {
 
 	/**
 	 * @param pkg
-	 * @param tag
+	 * @param spdxTag
 	 * @param value
 	 * @param lineNumber
 	 * @throws InvalidSPDXAnalysisException
 	 * @throws InvalidSpdxTagFileException
 	 * @throws InvalidLicenseStringException
 	 */
-	private void buildPackage(SpdxPackage pkg, String tag, String value, int lineNumber)
+	private void buildPackage(ElementBuilder<SpdxPackage> pkg, SpdxTag spdxTag, String value, int lineNumber)
 			throws InvalidSPDXAnalysisException, InvalidSpdxTagFileException, InvalidLicenseStringException {
-		if (tag.equals(constants.getProperty("PROP_ELEMENT_ID"))) {
-			if (lastPackageId != null) {
-				throw new InvalidSpdxTagFileException("SPDX ID "+lastPackageId+" was not consumed before new SPDX ID "+value+" was used for a package");
-			}
-			lastPackageId = value;
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_VERSION_INFO"))) {
-			pkg.setVersionInfo(value);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_FILE_NAME"))) {
-			pkg.setPackageFileName(value);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_SUPPLIER"))) {
-			pkg.setSupplier(value);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_ORIGINATOR"))) {
-			pkg.setOriginator(value);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_DOWNLOAD_URL"))) {
-			pkg.setDownloadLocation(value);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_VERIFICATION_CODE"))) {
-			SpdxPackageVerificationCode verificationCode = null;
-			if (value.contains("(")) {
-				String[] verification = value.split("\\(");
-				String[] excludedFiles = verification[1].replace(")", "").replace("excludes:", "").split(",");
-				List<String> excludedFilesList = new ArrayList<>();
-				for (int i = 0; i < excludedFiles.length; i++) {
+		switch (spdxTag) {
+			case ELEMENT_ID:
+				if (lastPackageId != null) {
+					throw new InvalidSpdxTagFileException("SPDX ID "+lastPackageId+" was not consumed before new SPDX ID "+value+" was used for a package");
+				}
+				lastPackageId = value;
+				break;
+			case PACKAGE_VERSION_INFO:
+				pkg.add(p -> p.setVersionInfo(value));
+				break;
+			case PACKAGE_FILE_NAME:
+				pkg.add(p -> p.setPackageFileName(value));
+				break;
+			case PACKAGE_SUPPLIER:
+				pkg.add(p -> p.setSupplier(value));
+				break;
+			case PACKAGE_ORIGINATOR:
+				pkg.add(p -> p.setOriginator(value));
+				break;
+			case PACKAGE_DOWNLOAD_URL:
+				pkg.add(p -> p.setDownloadLocation(value));
+				break;
+			case PACKAGE_VERIFICATION_CODE:
+				SpdxPackageVerificationCode verificationCode = null;
+				if (value.contains("(")) {
+					String[] verification = value.split("\\(");
+					String[] excludedFiles = verification[1].replace(")", "").replace("excludes:", "").split(",");
+					List<String> excludedFilesList = new ArrayList<>();
+					for (int i = 0; i < excludedFiles.length; i++) {
 					
-					excludedFilesList.add(excludedFiles[i].trim());
+						excludedFilesList.add(excludedFiles[i].trim());
+					}
+					verificationCode = analysis.createPackageVerificationCode(verification[0].trim(), excludedFilesList);
 				}
-				verificationCode = pkg.createPackageVerificationCode(verification[0].trim(), excludedFilesList);
-			}
-			else {
-				verificationCode = pkg.createPackageVerificationCode(value, new ArrayList<String>());
-			}
-			verifyElement(verificationCode.verify(), "Verification Code", lineNumber);
-			pkg.setPackageVerificationCode(verificationCode);
-		} else if (constants.getProperty("PROP_PACKAGE_CHECKSUM").startsWith(tag)) {
-			Checksum checksum = parseChecksum(value, lineNumber, analysis);
-			verifyElement(checksum.verify(), "Package Checksum", lineNumber);
-			pkg.addChecksum(checksum);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_HOMEPAGE_URL"))) {
-			pkg.setHomepage(value);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_SOURCE_INFO"))) {
-			pkg.setSourceInfo(value);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_BUILT_DATE"))) {
-			pkg.setBuiltDate(value);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_RELEASE_DATE"))) {
-			pkg.setReleaseDate(value);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_VALID_UNTIL_DATE"))) {
-			pkg.setValidUntilDate(value);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_CONCLUDED_LICENSE"))) {
-			AnyLicenseInfo licenseSet = LicenseInfoFactory.parseSPDXLicenseStringCompatV2(value, modelStore, documentNamespace, copyManager);
-			// can not verify any licenses at this point since the extracted license infos may not be set
-			pkg.setLicenseConcluded(licenseSet);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_LICENSE_INFO_FROM_FILES"))) {
-			AnyLicenseInfo license = LicenseInfoFactory.parseSPDXLicenseStringCompatV2(value, modelStore, documentNamespace, copyManager);
-			// can not verify any licenses at this point since the extracted license infos may not be set
-			pkg.getLicenseInfoFromFiles().add(license);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_DECLARED_LICENSE"))) {
-			AnyLicenseInfo licenseSet = LicenseInfoFactory.parseSPDXLicenseStringCompatV2(value, modelStore, documentNamespace, copyManager);
-			// can not verify any licenses at this point since the extracted license infos may not be set
-			pkg.setLicenseDeclared(licenseSet);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_LICENSE_COMMENT"))) {
-			pkg.setLicenseComments(value);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_DECLARED_COPYRIGHT"))) {
-			pkg.setCopyrightText(value);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_SHORT_DESC"))) {
-			pkg.setSummary(value);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_DESCRIPTION"))) {
-			pkg.setDescription(value);
-		} else if (tag.equals(constants.getProperty("PROP_EXTERNAL_REFERENCE"))) {
-			this.lastExternalRef = parseExternalRef(value, lineNumber);
-			verifyElement(this.lastExternalRef.verify(), "External Reference", lineNumber);
-			pkg.addExternalRef(this.lastExternalRef);
-		} else if (tag.equals(constants.getProperty("PROP_EXTERNAL_REFERENCE_COMMENT"))) {
-			if (this.lastExternalRef == null) {
-				throw new InvalidSpdxTagFileException("External reference comment found without an external reference: "+value + " at line number "+lineNumber);
-			}
-			Optional<String> lastExternalRefComment = this.lastExternalRef.getComment();
-			if (lastExternalRefComment.isPresent() && !lastExternalRefComment.get().isEmpty()) {
-				throw new InvalidSpdxTagFileException("Second reference comment found for the same external reference: "+value + " at line number "+lineNumber);
-			}
-			this.lastExternalRef.setComment(value);
-		} else if (tag.equals(constants.getProperty("PROP_ANNOTATOR"))) {
-			if (lastAnnotation != null) {
-				annotations.add(lastAnnotation);
-			}
-			this.inAnnotation = true;
-			lastAnnotation = new AnnotationWithId(value, lineNumber);
-		} else if (tag.equals(constants.getProperty("PROP_RELATIONSHIP"))) {
-			if (lastRelationship != null) {
-				addToRelationships(lastRelationship);
-			}
-			lastRelationship = parseRelationship(value, lineNumber);
-		} else if (tag.equals(constants.getProperty("PROP_RELATIONSHIP_COMMENT"))) {
-			if (lastRelationship == null) {
-				throw(new InvalidSpdxTagFileException("Relationship comment found outside of a relationship: "+value + " at line number "+lineNumber));
-			}
-			lastRelationship.setComment(value);
-		} else if (tag.equals(constants.getProperty("PROP_FILE_NAME"))) {
-			addLastFile();
-			this.lastFile = new SpdxFile(modelStore, documentNamespace, modelStore.getNextId(IdType.Anonymous), // We create this as anonymous and copy to the real package with the correct ID later 
-					copyManager, true);
-			this.lastFile.setName(value);
-			lastFileLineNumber = lineNumber;
-			this.inFileDefinition = true;
-			inSnippetDefinition = false;
-			inAnnotation = false;
-		} else if (tag.equals(constants.getProperty("PROP_SNIPPET_SPDX_ID"))) {
-			addLastSnippet();
-			inSnippetDefinition = true;
-			inFileDefinition = false;
-			inPackageDefinition = false;
-			inAnnotation = false;
-			this.lastSnippet = new SpdxSnippet(modelStore, documentNamespace, value, copyManager, true);
-			elementIdLineNumberMap.put(value, lineNumber);
-			this.lastSnippetLineNumber = lineNumber;
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_COMMENT"))) {
-			pkg.setComment(value);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_ATTRIBUTION_TEXT"))) {
-			pkg.getAttributionText().add(value);
-		} else if (tag.equals(constants.getProperty("PROP_PRIMARY_PACKAGE_PURPOSE"))) {
-			Purpose purpose = null;
-			try {
-				purpose = Purpose.valueOf(value.trim());
-			} catch(IllegalArgumentException ex) {
+				else {
+					verificationCode = analysis.createPackageVerificationCode(value, new ArrayList<String>());
+				}
+				verifyElement(verificationCode::verify, "Verification Code", lineNumber);
+				SpdxPackageVerificationCode packageVerificationCode = verificationCode;
+				pkg.add(p -> p.setPackageVerificationCode(packageVerificationCode));
+				break;
+			case PACKAGE_CHECKSUM:
+				Checksum checksum = parseChecksum(value, lineNumber, analysis);
+				verifyElement(checksum::verify, "Package Checksum", lineNumber);
+				pkg.add(p -> p.addChecksum(checksum));
+				break;
+			case PACKAGE_HOMEPAGE_URL:
+				pkg.add(p -> p.setHomepage(value));
+				break;
+			case PACKAGE_SOURCE_INFO:
+				pkg.add(p -> p.setSourceInfo(value));
+				break;
+			case PACKAGE_BUILT_DATE:
+				pkg.add(p -> p.setBuiltDate(value));
+				break;
+			case PACKAGE_RELEASE_DATE:
+				pkg.add(p -> p.setReleaseDate(value));
+				break;
+			case PACKAGE_VALID_UNTIL_DATE:
+				pkg.add(p -> p.setValidUntilDate(value));
+				break;
+			case PACKAGE_CONCLUDED_LICENSE:
+				// can not verify any licenses at this point since the extracted license infos may not be set
+				pkg.add(licenseSetter(value, lineNumber, SpdxPackage::setLicenseConcluded));
+				break;
+			case PACKAGE_LICENSE_INFO_FROM_FILES:
+				// can not verify any licenses at this point since the extracted license infos may not be set
+				pkg.add(licenseSetter(value, lineNumber, (SpdxPackage p, AnyLicenseInfo l) -> p.getLicenseInfoFromFiles().add(l)));
+				break;
+			case PACKAGE_DECLARED_LICENSE:
+				// can not verify any licenses at this point since the extracted license infos may not be set
+				pkg.add(licenseSetter(value, lineNumber, SpdxPackage::setLicenseDeclared));
+				break;
+			case PACKAGE_LICENSE_COMMENT:
+				pkg.add(p -> p.setLicenseComments(value));
+				break;
+			case PACKAGE_DECLARED_COPYRIGHT:
+				pkg.add(p -> p.setCopyrightText(value));
+				break;
+			case PACKAGE_SHORT_DESC:
+				pkg.add(p -> p.setSummary(value));
+				break;
+			case PACKAGE_DESCRIPTION:
+				pkg.add(p -> p.setDescription(value));
+				break;
+			case EXTERNAL_REFERENCE:
+				this.lastExternalRef = parseExternalRef(value, lineNumber);
+				verifyElement(this.lastExternalRef::verify, "External Reference", lineNumber);
+				ExternalRef externalRef = this.lastExternalRef;
+				pkg.add(p -> p.addExternalRef(externalRef));
+				break;
+			case EXTERNAL_REFERENCE_COMMENT:
+				if (this.lastExternalRef == null) {
+					throw new InvalidSpdxTagFileException("External reference comment found without an external reference: "+value + " at line number "+lineNumber);
+				}
+				Optional<String> lastExternalRefComment = this.lastExternalRef.getComment();
+				if (lastExternalRefComment.isPresent() && !lastExternalRefComment.get().isEmpty()) {
+					throw new InvalidSpdxTagFileException("Second reference comment found for the same external reference: "+value + " at line number "+lineNumber);
+				}
+				this.lastExternalRef.setComment(value);
+				break;
+			case ANNOTATOR:
+				if (lastAnnotation != null) {
+					annotations.add(lastAnnotation);
+				}
+				this.inAnnotation = true;
+				lastAnnotation = new AnnotationWithId(value, lineNumber);
+				break;
+			case RELATIONSHIP:
+				if (lastRelationship != null) {
+					addToRelationships(lastRelationship);
+				}
+				lastRelationship = parseRelationship(value, lineNumber);
+				break;
+			case RELATIONSHIP_COMMENT:
+				if (lastRelationship == null) {
+					throw(new InvalidSpdxTagFileException("Relationship comment found outside of a relationship: "+value + " at line number "+lineNumber));
+				}
+				lastRelationship.setComment(value);
+				break;
+			case FILE_NAME:
+				addLastFile();
+				this.lastFile = new ElementBuilder<>();	// The file is created once the SPDX ID is known
+				this.lastFile.add(file -> file.setName(value));
+				this.lastFileName = value;
+				lastFileLineNumber = lineNumber;
+				this.inFileDefinition = true;
+				inSnippetDefinition = false;
+				inAnnotation = false;
+				break;
+			case SNIPPET_SPDX_ID:
+				addLastSnippet();
+				inSnippetDefinition = true;
+				inFileDefinition = false;
+				inPackageDefinition = false;
+				inAnnotation = false;
+				this.lastSnippet = new SpdxSnippet(modelStore, documentNamespace, value, copyManager, true);
+				elementIndex.put(value, lastSnippet);
+				elementRegistry.add(ElementType.SNIPPET, value);
+				if (Objects.nonNull(elementListener)) {
+					snippetsToPublish.add(lastSnippet);
+				}
+				elementIdLineNumberMap.put(value, lineNumber);
+				this.lastSnippetLineNumber = lineNumber;
+				break;
+			case PACKAGE_COMMENT:
+				pkg.add(p -> p.setComment(value));
+				break;
+			case PACKAGE_ATTRIBUTION_TEXT:
+				pkg.add(p -> p.getAttributionText().add(value));
+				break;
+			case PRIMARY_PACKAGE_PURPOSE:
+				Purpose purpose = null;
 				try {
-					purpose = Purpose.valueOf(value.trim().toUpperCase());
-					this.warningMessages.add("Invalid Package Purpose - needs to be uppercased: "+value+" at line number "+lineNumber);
-				} catch(IllegalArgumentException ex2) {
+					purpose = Purpose.valueOf(value.trim());
+				} catch(IllegalArgumentException ex) {
 					try {
-						purpose = Purpose.valueOf(value.trim().toUpperCase().replaceAll("-", "_"));
-					} catch(IllegalArgumentException ex3) {
-						throw(new InvalidSpdxTagFileException("Unknown Package Purpose: "+value+" at line number "+lineNumber));
+						purpose = Purpose.valueOf(value.trim().toUpperCase());
+						warn(Kind.INVALID_VALUE, null, lineNumber, "Invalid Package Purpose - needs to be uppercased: "+value+" at line number "+lineNumber);
+					} catch(IllegalArgumentException ex2) {
+						try {
+							purpose = Purpose.valueOf(value.trim().toUpperCase().replaceAll("-", "_"));
+						} catch(IllegalArgumentException ex3) {
+							throw(new InvalidSpdxTagFileException("Unknown Package Purpose: "+value+" at line number "+lineNumber));
+						}
 					}
 				}
-			}
-			pkg.setPrimaryPurpose(purpose);
-		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_FILES_ANALYZED"))) {
-			if ("true".equals(value.toLowerCase())) {
-				pkg.setFilesAnalyzed(true);
-				if (!"true".equals(value)) {
-					this.warningMessages.add("Warning: Invalid case for boolean value.  Expected 'true', found '"+value+"'");
-				}
-			} else if ("false".equals(value.toLowerCase())) {
-				pkg.setFilesAnalyzed(false);
-				if (!"false".equals(value)) {
-					this.warningMessages.add("Warning: Invalid case for boolean value.  Expected 'false', found '"+value+"'");
+				Purpose primaryPurpose = purpose;
+				pkg.add(p -> p.setPrimaryPurpose(primaryPurpose));
+				break;
+			case PACKAGE_FILES_ANALYZED:
+				if ("true".equals(value.toLowerCase())) {
+					pkg.add(p -> p.setFilesAnalyzed(true));
+					if (!"true".equals(value)) {
+						warn(Kind.INVALID_VALUE, null, lineNumber, "Warning: Invalid case for boolean value.  Expected 'true', found '"+value+"'");
+					}
+				} else if ("false".equals(value.toLowerCase())) {
+					pkg.add(p -> p.setFilesAnalyzed(false));
+					if (!"false".equals(value)) {
+						warn(Kind.INVALID_VALUE, null, lineNumber, "Warning: Invalid case for boolean value.  Expected 'false', found '"+value+"'");
+					}
+				} else {
+					throw(new InvalidSpdxTagFileException("Invalid value for files analyzed.  Must be 'true' or 'false'.  Found value: "+value+" at line number "+lineNumber));
 				}
-			} else {
-				throw(new InvalidSpdxTagFileException("Invalid value for files analyzed.  Must be 'true' or 'false'.  Found value: "+value+" at line number "+lineNumber));
-			}
-		} else {
-			throw(new InvalidSpdxTagFileException("Expecting a file definition, snippet definition or a package property.  Found "+value+" at line number "+lineNumber));
+				break;
+			default:
+				throw(new InvalidSpdxTagFileException("Expecting a file definition, snippet definition or a package property.  Found "+value+" at line number "+lineNumber));
 		}
 	}
 
@@ -1174,90 +1525,185 @@ public class BuildDocument implements TagValueBehavior {
 
 	/**
 	 * @param file
+	 * @param spdxTag
 	 * @param tag
 	 * @param value
 	 * @param lineNumber
 	 */
-	private void buildFile(SpdxFile file, String tag, String value, int lineNumber)
+	private void buildFile(ElementBuilder<SpdxFile> file, SpdxTag spdxTag, String tag, String value, int lineNumber)
 			throws Exception {
 		if (file == null) {
-			if (FILE_TAGS.contains(tag)) {
+			if (FILE_TAGS.contains(spdxTag)) {
 				throw(new InvalidSpdxTagFileException("Missing File Name - A file name must be specified before the file properties at line number "+lineNumber));
 			} else {
-				throw(new InvalidSpdxTagFileException("Unrecognized SPDX Tag: "+tag+" at line number "+lineNumber));
+				throw(new InvalidSpdxTagFileException("Unrecognized SPDX Tag: "+tag.trim()+"  at line number "+lineNumber));
 			}
 		}
-		if (tag.equals(constants.getProperty("PROP_ELEMENT_ID"))) {
-			if (Objects.nonNull(lastFileId)) {
-				throw new InvalidSpdxTagFileException("Multiple SPDX ID's defined for file at line "+lineNumber+"; old ID="+lastFileId);
-			}
-			lastFileId = value;
-		} else if (tag.equals(constants.getProperty("PROP_FILE_TYPE"))) {
-			FileType fileType = null;
-			try {
-				fileType = FileType.valueOf(value.trim());
-			} catch(IllegalArgumentException ex) {
+		switch (spdxTag) {
+			case ELEMENT_ID:
+				if (Objects.nonNull(lastFileId)) {
+					throw new InvalidSpdxTagFileException("Multiple SPDX ID's defined for file at line "+lineNumber+"; old ID="+lastFileId);
+				}
+				lastFileId = value;
+				break;
+			case FILE_TYPE:
+				FileType fileType = null;
 				try {
-					fileType = FileType.valueOf(value.trim().toUpperCase());
-					this.warningMessages.add("Invalid filetype - needs to be uppercased: "+value+" at line number "+lineNumber);
-				} catch(IllegalArgumentException ex2) {
-					throw(new InvalidSpdxTagFileException("Unknown file type: "+value+" at line number "+lineNumber));
+					fileType = FileType.valueOf(value.trim());
+				} catch(IllegalArgumentException ex) {
+					try {
+						fileType = FileType.valueOf(value.trim().toUpperCase());
+						warn(Kind.INVALID_VALUE, null, lineNumber, "Invalid filetype - needs to be uppercased: "+value+" at line number "+lineNumber);
+					} catch(IllegalArgumentException ex2) {
+						throw(new InvalidSpdxTagFileException("Unknown file type: "+value+" at line number "+lineNumber));
+					}
+				}
+				FileType type = fileType;
+				file.add(f -> f.addFileType(type));
+				break;
+			case FILE_CHECKSUM:
+				Checksum checksum = parseChecksum(value, lineNumber, analysis);
+				file.add(f -> f.addChecksum(checksum));
+				break;
+			case FILE_LICENSE:
+				// can not verify any licenses at this point since the extracted license infos may not be set
+				file.add(licenseSetter(value, lineNumber, SpdxFile::setLicenseConcluded));
+				break;
+			case FILE_SEEN_LICENSE:
+				// can not verify any licenses at this point since the extracted license infos may not be set
+				file.add(licenseSetter(value, lineNumber, (SpdxFile f, AnyLicenseInfo l) -> f.getLicenseInfoFromFiles().add(l)));
+				break;
+			case FILE_LIC_COMMENTS:
+				file.add(f -> f.setLicenseComments(value));
+				break;
+			case FILE_COPYRIGHT:
+				file.add(f -> f.setCopyrightText(value));
+				break;
+			case FILE_COMMENT:
+				file.add(f -> f.setComment(value));
+				break;
+			case FILE_NOTICE_TEXT:
+				file.add(f -> f.setNoticeText(value));
+				break;
+			case FILE_CONTRIBUTOR:
+				file.add(f -> f.getFileContributors().add(value));
+				break;
+			case FILE_DEPENDENCY:
+				this.lastFileDependencies.add(value);
+				break;
+			case FILE_ATTRIBUTION_TEXT:
+				file.add(f -> f.getAttributionText().add(value));
+				break;
+			case ANNOTATOR:
+				if (lastAnnotation != null) {
+					annotations.add(lastAnnotation);
+				}
+				this.inAnnotation = true;
+				lastAnnotation = new AnnotationWithId(value, lineNumber);
+				break;
+			case RELATIONSHIP:
+				if (lastRelationship != null) {
+					addToRelationships(lastRelationship);
+				}
+				lastRelationship = parseRelationship(value, lineNumber);
+				break;
+			case RELATIONSHIP_COMMENT:
+				if (lastRelationship == null) {
+					throw(new InvalidSpdxTagFileException("Relationship comment found outside of a relationship: "+value+" at line number "+lineNumber));
+				}
+				lastRelationship.setComment(value);
+				break;
+			default:
+				buildProject(file, spdxTag, tag, value, lineNumber);
+				break;
+		}
+	}
+
+	/**
+	 * Index a newly defined file and link it to any files depending on it and snippets from it defined before the file
+	 * @param file newly defined file
+	 * @param id SPDX ID of the file
+	 * @param name file name
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	@SuppressWarnings("deprecation")
+	private void linkFile(SpdxFile file, String id, String name) throws InvalidSPDXAnalysisException {
+		if (!filesByName.containsKey(name)) {
+			filesByName.put(name, file);
+			List<SpdxFile> filesHavingThisDependency = this.fileDependencyMap.remove(name);
+			if (Objects.nonNull(filesHavingThisDependency)) {
+				for (SpdxFile fileWithDependency:filesHavingThisDependency) {
+					fileWithDependency.getFileDependency().add(file);
 				}
 			}
-			file.addFileType(fileType);
-		} else if (constants.getProperty("PROP_FILE_CHECKSUM").startsWith(tag)) {
-			file.addChecksum(parseChecksum(value, lineNumber, analysis));
-		} else if (tag.equals(constants.getProperty("PROP_FILE_LICENSE"))) {
-			AnyLicenseInfo licenseSet = LicenseInfoFactory.parseSPDXLicenseStringCompatV2(value, modelStore, documentNamespace, copyManager);
-			// can not verify any licenses at this point since the extracted license infos may not be set
-			file.setLicenseConcluded(licenseSet);
-		} else if (tag.equals(constants.getProperty("PROP_FILE_SEEN_LICENSE"))) {
-			AnyLicenseInfo fileLicense = LicenseInfoFactory.parseSPDXLicenseStringCompatV2(value, modelStore, documentNamespace, copyManager);
-			// can not verify any licenses at this point since the extracted license infos may not be set
-			file.getLicenseInfoFromFiles().add(fileLicense);
-		} else if (tag.equals(constants.getProperty("PROP_FILE_LIC_COMMENTS"))) {
-			file.setLicenseComments(value);
-		} else if (tag.equals(constants.getProperty("PROP_FILE_COPYRIGHT"))) {
-			file.setCopyrightText(value);
-		} else if (tag.equals(constants.getProperty("PROP_FILE_COMMENT"))) {
-			file.setComment(value);
-		} else if (tag.equals(constants.getProperty("PROP_FILE_NOTICE_TEXT"))) {
-			file.setNoticeText(value);
-		} else if (tag.equals(constants.getProperty("PROP_FILE_CONTRIBUTOR"))) {
-			file.getFileContributors().add(value);
-		} else if (tag.equals(constants.getProperty("PROP_FILE_DEPENDENCY"))) {
-			this.lastFileDependencies.add(value);
-		} else if (tag.equals(constants.getProperty("PROP_FILE_ATTRIBUTION_TEXT"))) {
-			file.getAttributionText().add(value);
-		} else if (tag.equals(constants.getProperty("PROP_ANNOTATOR"))) {
-			if (lastAnnotation != null) {
-				annotations.add(lastAnnotation);
-			}
-			this.inAnnotation = true;
-			lastAnnotation = new AnnotationWithId(value, lineNumber);
-		} else if (tag.equals(constants.getProperty("PROP_RELATIONSHIP"))) {
-			if (lastRelationship != null) {
-				addToRelationships(lastRelationship);
-			}
-			lastRelationship = parseRelationship(value, lineNumber);
-		} else if (tag.equals(constants.getProperty("PROP_RELATIONSHIP_COMMENT"))) {
-			if (lastRelationship == null) {
-				throw(new InvalidSpdxTagFileException("Relationship comment found outside of a relationship: "+value+" at line number "+lineNumber));
+		}
+		List<SpdxSnippet> snippetsFromThisFile = this.snippetDependencyMap.remove(id);
+		if (Objects.nonNull(snippetsFromThisFile)) {
+			for (SpdxSnippet snippet:snippetsFromThisFile) {
+				linkSnippet(snippet, file);
 			}
-			lastRelationship.setComment(value);
-		} else {
-			buildProject(file, tag, value, lineNumber);
 		}
 	}
 
+	/**
+	 * Set the snippet file for a snippet along with any ranges already parsed for the snippet
+	 * @param snippet snippet
+	 * @param file file the snippet is from
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private void linkSnippet(SpdxSnippet snippet, SpdxFile file) throws InvalidSPDXAnalysisException {
+		snippet.setSnippetFromFile(file);
+		linkedSnippets.add(snippet);
+		int[] byteRange = snippetByteRangeMap.remove(snippet);
+		if (Objects.nonNull(byteRange)) {
+			snippet.setByteRange(byteRange[0], byteRange[1]);
+		}
+		int[] lineRange = snippetLineRangeMap.remove(snippet);
+		if (Objects.nonNull(lineRange)) {
+			snippet.setLineRange(lineRange[0], lineRange[1]);
+		}
+	}
+
+	/**
+	 * Parse a snippet range
+	 * @param value tag value in the form <code>start:end</code>
+	 * @param rangeType type of range for any error messages
+	 * @return start and end of the range
+	 * @throws InvalidSpdxTagFileException if the range is not valid
+	 */
+	static int[] parseSnippetRange(String value, String rangeType) throws InvalidSpdxTagFileException {
+		Matcher matcher = NUMBER_RANGE_PATTERN.matcher(value.trim());
+		if (!matcher.find()) {
+			throw(new InvalidSpdxTagFileException("Invalid snippet "+rangeType+" range: "+value));
+		}
+		int[] retval = new int[2];
+		try {
+			retval[0] = Integer.parseInt(matcher.group(1));
+		} catch (Exception ex) {
+			throw new InvalidSpdxTagFileException("Non integer start to snippet "+rangeType+" offset: "+value);
+		}
+		try {
+			retval[1] = Integer.parseInt(matcher.group(2));
+		} catch (Exception ex) {
+			throw new InvalidSpdxTagFileException("Non integer end to snippet "+rangeType+" offset: "+value);
+		}
+		return retval;
+	}
+
 	/**
 	 * Adds a file dependency to a file
 	 * @param file
 	 * @param dependentFileName
+	 * @throws InvalidSPDXAnalysisException
 	 */
-	private void addFileDependency(SpdxFile file, String dependentFileName) {
-		// Since the files have not all been parsed, we just keep track of the
-		// dependencies in a hashmap until we finish all processing and are building the package
+	@SuppressWarnings("deprecation")
+	private void addFileDependency(SpdxFile file, String dependentFileName) throws InvalidSPDXAnalysisException {
+		SpdxFile dependency = filesByName.get(dependentFileName);
+		if (Objects.nonNull(dependency)) {
+			file.getFileDependency().add(dependency);
+			return;
+		}
+		// The file has not yet been parsed, we just keep track of the dependencies in a hashmap until it is defined
 		List<SpdxFile> filesWithThisAsADependency = this.fileDependencyMap.get(dependentFileName);
 		if (filesWithThisAsADependency == null) {
 			filesWithThisAsADependency = new ArrayList<>();
@@ -1268,114 +1714,173 @@ public class BuildDocument implements TagValueBehavior {
 
 	/**
 	 * @param file
+	 * @param spdxTag
 	 * @param tag
 	 * @param value
 	 * @param lineNumber
 	 */
-	private void buildProject(SpdxFile file, String tag, String value, int lineNumber)
+	private void buildProject(ElementBuilder<SpdxFile> file, SpdxTag spdxTag, String tag, String value, int lineNumber)
 			throws Exception {
-		if (tag.equals(constants.getProperty("PROP_PROJECT_NAME"))) {
-			if (lastProject != null) {
-				verifyElement(lastProject.verify(), "DOAP Project", lastProjectLineNumber);
-			}
-			lastProject = new DoapProject(value, file);
-			lastProjectLineNumber = lineNumber;
-		} else {
-			if (tag.equals(constants.getProperty("PROP_PROJECT_HOMEPAGE"))) {
+		switch (spdxTag) {
+			case PROJECT_NAME:
+				if (lastProject != null) {
+					verifyElement(lastProject::verify, "DOAP Project", lastProjectLineNumber);
+				}
+				lastProject = new DoapProject(value, file);
+				lastProjectLineNumber = lineNumber;
+				break;
+			case PROJECT_HOMEPAGE:
 				if (lastProject == null) {
 					throw(new InvalidSpdxTagFileException("Missing Project Name - A project name must be provided before the project properties at line number" + lineNumber));
 				}
 				lastProject.setHomePage(value);
-			} else if (tag.equals(constants.getProperty("PROP_PROJECT_URI"))) {
+				break;
+			case PROJECT_URI:
 				lastProject.setProjectUri(value);
-			} else {
-				throw(new InvalidSpdxTagFileException("Unrecognized tag: "+tag+" at line number" + lineNumber));
-			}
+				break;
+			default:
+				throw(new InvalidSpdxTagFileException("Unrecognized tag: "+tag.trim()+"  at line number" + lineNumber));
 		}
 	}
 
-	private static String trim(String value) {
-		value = value.replaceAll("\u00A0", " ");
-		value = value.trim();
-		value = value.replaceAll("<text>", "").replaceAll("</text>", "");
+	static String trim(String value) {
+		value = value.replace('\u00A0', ' ').trim();
+		if (value.indexOf("<text>") >= 0) {
+			value = value.replace("<text>", "");
+		}
+		if (value.indexOf("</text>") >= 0) {
+			value = value.replace("</text>", "");
+		}
 		return value;
 	}
 
 	@Override
 	public void exit() throws Exception {
 		if (inExtractedLicenseDefinition && lastExtractedLicense != null) {
-			verifyElement(lastExtractedLicense.verify(), "Extracted License", lastExtractedLicenseLineNumber, false);
+			verifyElement(lastExtractedLicense::verify, "Extracted License", lastExtractedLicenseLineNumber, false);
 		}
+		publishLastExtractedLicense();
 		addLastFile();
 		addLastPackage();
-		if (this.lastPackage != null) {
-			elementIdLineNumberMap.put(this.lastPackage.getId(), this.lastPackageLineNumber);
+		checkFileAndSnippetDependencies();
+		// snippets are only complete once the snippet files have been resolved
+		for (SpdxSnippet snippet:snippetsToPublish) {
+			publish(snippet);
+		}
+		snippetsToPublish.clear();
+		if (verificationLevel == VerificationLevel.FULL) {
+			// full verification reads all of the licenses
+			resolveLicenses();
 		}
-		fixFileAndSnippetDependencies();
 		addRelationships();
 		checkSinglePackageDefault();
 		addAnnotations();
-		modelStore.getAllItems(documentNamespace, SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE).forEach(element -> {
-			if (modelStore.isAnon(element.getObjectUri())) {
-				this.warningMessages.add("Anonymous type was found for package");
-			}
-			String id;
-			try {
-				id = CompatibleModelStoreWrapper.objectUriToId(modelStore, element.getObjectUri(), documentNamespace);
-			} catch (InvalidSPDXAnalysisException e1) {
-				throw new RuntimeException(e1);
+		verifyElements();
+	}
+
+	/**
+	 * Verify all packages, snippets and files followed by the whole document.  Nothing is verified unless the
+	 * verification level is <code>FULL</code> since structural problems are reported while the document is built.
+	 * If a verification pool has been set
+	 * the elements are verified concurrently on the pool, otherwise one at a time.  In either case the warnings
+	 * are added on the calling thread in the order of the elements, so the warnings are the same for both.
+	 * @throws InvalidSPDXAnalysisException on errors verifying the document
+	 */
+	private void verifyElements() throws InvalidSPDXAnalysisException {
+		if (verificationLevel != VerificationLevel.FULL) {
+			return;
+		}
+		List<ElementVerification> verifications = new ArrayList<>();
+		addElementVerifications(ElementType.PACKAGE, "Package", verifications);
+		addElementVerifications(ElementType.SNIPPET, "Snippet", verifications);
+		addElementVerifications(ElementType.FILE, "File", verifications);
+		List<String> analysisVerify;
+		if (Objects.isNull(verificationPool)) {
+			for (ElementVerification verification:verifications) {
+				verification.run();
+			}
+			analysisVerify = analysis.verify();
+		} else {
+			List<ForkJoinTask<?>> tasks = new ArrayList<>(verifications.size());
+			for (ElementVerification verification:verifications) {
+				tasks.add(verificationPool.submit(verification));
 			}
-			if (elementIdLineNumberMap.containsKey(id)) {
-				try {
-					verifyElement(new SpdxPackage(modelStore, documentNamespace, id, copyManager, false).verify(), "Package", elementIdLineNumberMap.get(id));
-				} catch (InvalidSPDXAnalysisException e) {
-					this.warningMessages.add("Exception verifying element "+id+": "+e.getMessage());
-				}
+			Callable<List<String>> analysisVerification = analysis::verify;
+			ForkJoinTask<List<String>> analysisTask = verificationPool.submit(analysisVerification);
+			for (ForkJoinTask<?> task:tasks) {
+				task.join();
 			}
-		});
-		modelStore.getAllItems(documentNamespace, SpdxConstantsCompatV2.CLASS_SPDX_SNIPPET).forEach(element -> {
-			String id;
 			try {
-				id = CompatibleModelStoreWrapper.objectUriToId(modelStore, element.getObjectUri(), documentNamespace);
-			} catch (InvalidSPDXAnalysisException e1) {
-				throw new RuntimeException(e1);
-			}
-			if (elementIdLineNumberMap.containsKey(id)) {
-				try {
-					verifyElement(new SpdxSnippet(modelStore, documentNamespace, id, copyManager, false).verify(), "Snippet", elementIdLineNumberMap.get(id));
-				} catch (InvalidSPDXAnalysisException e) {
-					this.warningMessages.add("Exception verifying element "+id+": "+e.getMessage());
+				analysisVerify = analysisTask.join();
+			} catch (RuntimeException e) {
+				if (e.getCause() instanceof InvalidSPDXAnalysisException) {
+					throw (InvalidSPDXAnalysisException)e.getCause();
 				}
+				throw e;
 			}
-		});
-		modelStore.getAllItems(documentNamespace, SpdxConstantsCompatV2.CLASS_SPDX_FILE).forEach(element -> {
-			String id;
-			try {
-				id = CompatibleModelStoreWrapper.objectUriToId(modelStore, element.getObjectUri(), documentNamespace);
-			} catch (InvalidSPDXAnalysisException e1) {
-				throw new RuntimeException(e1);
-			}
-			if (elementIdLineNumberMap.containsKey(id)) {
-				try {
-					verifyElement(new SpdxFile(modelStore, documentNamespace, id, copyManager, false).verify(), "File", elementIdLineNumberMap.get(id));
-				} catch (InvalidSPDXAnalysisException e) {
-					this.warningMessages.add("Exception verifying element "+id+": "+e.getMessage());
-				}
+		}
+		for (ElementVerification verification:verifications) {
+			if (Objects.nonNull(verification.error)) {
+				warn(Kind.VERIFICATION, verification.id, verification.lineNumber, 
+						"Exception verifying element "+verification.id+": "+verification.error.getMessage());
+			} else {
+				verifyElement(verification.messages, verification.prefix, verification.id, verification.lineNumber, false);
 			}
-		});
-		
-		List<String> analysisVerify = analysis.verify();
+		}
 		for (String analysisVerifyMsg:analysisVerify) {
-			// add any missing messages
-			boolean found = false;
-			for (String warningMsg:warningMessages) {
-				if (warningMsg.contains(analysisVerifyMsg)) {
-					found = true;
-					break;
-				}
+			// add any messages not already reported for an element
+			if (!elementVerificationMessages.contains(analysisVerifyMsg)) {
+				warn(Kind.VERIFICATION, null, 0, analysisVerifyMsg);
 			}
-			if (!found) {
-				warningMessages.add(analysisVerifyMsg);
+		}
+	}
+
+	/**
+	 * Add a verification for each element of a type defined in the tag/value file
+	 * @param type type of the elements
+	 * @param prefix prefix for the warning messages
+	 * @param verifications list to add the verifications to
+	 */
+	private void addElementVerifications(ElementType type, String prefix, List<ElementVerification> verifications) {
+		for (String id:elementRegistry.getIds(type)) {
+			Integer lineNumber = elementIdLineNumberMap.get(id);
+			if (Objects.nonNull(lineNumber)) {
+				verifications.add(new ElementVerification(type, prefix, id, lineNumber));
+			}
+		}
+	}
+
+	/**
+	 * Verification of a single element which may run on any thread - the results are kept until the
+	 * warnings are added in <code>verifyElements()</code>
+	 */
+	private class ElementVerification implements Runnable {
+		private final ElementType type;
+		private final String prefix;
+		private final String id;
+		private final int lineNumber;
+		private List<String> messages = Collections.emptyList();
+		private InvalidSPDXAnalysisException error = null;
+
+		ElementVerification(ElementType type, String prefix, String id, int lineNumber) {
+			this.type = type;
+			this.prefix = prefix;
+			this.id = id;
+			this.lineNumber = lineNumber;
+		}
+
+		@Override
+		public void run() {
+			try {
+				SpdxElement element;
+				switch (type) {
+					case PACKAGE: element = new SpdxPackage(modelStore, documentNamespace, id, copyManager, false); break;
+					case SNIPPET: element = new SpdxSnippet(modelStore, documentNamespace, id, copyManager, false); break;
+					default: element = new SpdxFile(modelStore, documentNamespace, id, copyManager, false);
+				}
+				messages = element.verify();
+			} catch (InvalidSPDXAnalysisException e) {
+				error = e;
 			}
 		}
 	}
@@ -1387,26 +1892,23 @@ public class BuildDocument implements TagValueBehavior {
 	 * @throws InvalidSpdxTagFileException
 	 */
 	private void checkSinglePackageDefault() throws InvalidSPDXAnalysisException, InvalidSpdxTagFileException {
+		if (Objects.nonNull(projection) && 
+				(!projection.includes(Section.PACKAGE) || !projection.includes(Section.RELATIONSHIP))) {
+			return;	// the describes relationship or the package may not have been parsed
+		}
 		for (Relationship relationship:this.analysis.getRelationships()) {
 			if (relationship.getRelationshipType() == RelationshipType.DESCRIBES) {
 				return;	// We found at least one document describes, we don't need to add a default
 			}
 		}
-		List<SpdxPackage> pkgs = new ArrayList<>();
-		modelStore.getAllItems(documentNamespace, SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE).forEach(element -> {
-			try {
-				String id = CompatibleModelStoreWrapper.objectUriToId(modelStore, element.getObjectUri(), documentNamespace);
-				pkgs.add(new SpdxPackage(modelStore, documentNamespace, id, copyManager, true));
-			} catch (InvalidSPDXAnalysisException e) {
-				warningMessages.add("Error adding default document describes: "+e.getMessage());
-			}
-		});
-		if (pkgs.size() == 0) {
+		SpdxPackage firstPackage = elementRegistry.getFirstPackage();
+		if (Objects.isNull(firstPackage)) {
 			throw new InvalidSpdxTagFileException("Missing describes relationship and there is no package to create a default - see SPDX specification relationship section under DESCRIBES relationship description for more information");
 		}
-		Relationship describesRelationship = analysis.createRelationship(pkgs.get(0), RelationshipType.DESCRIBES, 
+		Relationship describesRelationship = analysis.createRelationship(firstPackage, RelationshipType.DESCRIBES, 
 				"This describes relationship was added as a default relationship by the SPDX Tools Tag parser.");
 		this.analysis.addRelationship(describesRelationship);
+		publish(describesRelationship);
 	}
 
 	/**
@@ -1421,23 +1923,23 @@ public class BuildDocument implements TagValueBehavior {
 		for (int i = 0; i < annotations.size(); i++) {
 			String id = annotations.get(i).getId();
 			if (id == null) {
-				this.warningMessages.add("missing SPDXREF: tag in annotation " + annotations.get(i).getAnnotation().getComment() +
+				warn(Kind.INVALID_REFERENCE, null, annotations.get(i).getLineNumber(), "missing SPDXREF: tag in annotation " + annotations.get(i).getAnnotation().getComment() +
 						" at line number "+annotations.get(i).getLineNumber());
 				continue;
 			}
-			Optional<ModelObjectV2> mo = SpdxModelFactoryCompatV2.getModelObjectV2(modelStore, documentNamespace, id,  copyManager);
+			Optional<ModelObjectV2> mo = resolveElement(id);
 			if (!mo.isPresent()) {
-				this.warningMessages.add("Invalid element reference in annotation: " + id + " at line number "+annotations.get(i).getLineNumber());
+				warn(Kind.INVALID_REFERENCE, id, annotations.get(i).getLineNumber(), "Invalid element reference in annotation: " + id + " at line number "+annotations.get(i).getLineNumber());
 				continue;
 			}
 			SpdxElement element = null;
 			try {
 				element = (SpdxElement)mo.get();
 			} catch(ClassCastException ex) {
-				this.warningMessages.add("Invalid element reference in annotation: " + id + " at line number "+annotations.get(i).getLineNumber());
+				warn(Kind.INVALID_REFERENCE, id, annotations.get(i).getLineNumber(), "Invalid element reference in annotation: " + id + " at line number "+annotations.get(i).getLineNumber());
 				continue;
 			}
-			verifyElement(annotations.get(i).getAnnotation().verify(), "Annotation", annotations.get(i).getLineNumber());
+			verifyElement(annotations.get(i).getAnnotation()::verify, "Annotation", annotations.get(i).getLineNumber());
 			element.getAnnotations().add(annotations.get(i).getAnnotation());
 		}
 	}
@@ -1455,45 +1957,43 @@ public class BuildDocument implements TagValueBehavior {
 		Map<Integer, Relationship> lineNumberToRelationship = new HashMap<>();
 		for (Entry<String, Map<String, List<RelationshipWithId>>> entry : this.relationships.entrySet()) {
 			String id = entry.getKey();
-			Optional<ModelObjectV2> mo = SpdxModelFactoryCompatV2.getModelObjectV2(modelStore, documentNamespace, id,  copyManager);
+			Optional<ModelObjectV2> mo = resolveElement(id);
 			if (!mo.isPresent()) {
-				this.warningMessages.add("Invalid element reference in relationship: " + id + ".  The element itself was not defined in the SPDX document.");
+				warn(Kind.INVALID_REFERENCE, id, 0, "Invalid element reference in relationship: " + id + ".  The element itself was not defined in the SPDX document.");
 				continue;
 			}
 			SpdxElement element = null;
 			try {
 				element = (SpdxElement)mo.get();
 			} catch(ClassCastException ex) {
-				this.warningMessages.add("Invalid element reference in relationship: " + id + " The element itself could not be created do to SPDX exception ("+ex.getMessage()+").");
+				warn(Kind.INVALID_REFERENCE, id, 0, "Invalid element reference in relationship: " + id + " The element itself could not be created do to SPDX exception ("+ex.getMessage()+").");
 				continue;
 			}
-			Map<String, Set<RelationshipType>> existingRelationships = new HashMap<>();
-			for (Relationship existingRelationship:element.getRelationships()) {
-				Set<RelationshipType> existingRelationshipTypes = existingRelationships.get(existingRelationship.getId());
-				if (Objects.isNull(existingRelationshipTypes)) {
-					existingRelationshipTypes = new HashSet<>();
-					existingRelationships.put(existingRelationship.getId(), existingRelationshipTypes);
-				}
-				existingRelationshipTypes.add(existingRelationship.getRelationshipType());
-			}
+			Map<String, Set<RelationshipType>> existingRelationships = existingRelationshipTypes(element);
 			for (Entry<String, List<RelationshipWithId>> relatedElementEntry:entry.getValue().entrySet()) {
 				SpdxElement relatedElement = null;
 				String relatedElementId = relatedElementEntry.getKey();
 				
 				if (SpdxConstantsCompatV2.NONE_VALUE.equals(relatedElementId)) {
-					relatedElement = new SpdxNoneElement(modelStore, getDocumentUri());
+					if (Objects.isNull(noneElement)) {
+						noneElement = new SpdxNoneElement(modelStore, getDocumentUri());
+					}
+					relatedElement = noneElement;
 				} else if (SpdxConstantsCompatV2.NOASSERTION_VALUE.equals(relatedElementId)) {
-					relatedElement = new SpdxNoAssertionElement(modelStore, getDocumentUri());
+					if (Objects.isNull(noAssertionElement)) {
+						noAssertionElement = new SpdxNoAssertionElement(modelStore, getDocumentUri());
+					}
+					relatedElement = noAssertionElement;
 				} else {
-					Optional<ModelObjectV2> relatedMo = SpdxModelFactoryCompatV2.getModelObjectV2(modelStore, documentNamespace, relatedElementId,  copyManager);
+					Optional<ModelObjectV2> relatedMo = resolveElement(relatedElementId);
 					if (!relatedMo.isPresent()) {
-						this.warningMessages.add("Invalid related element reference in relationship: " + relatedElementId);
+						warn(Kind.INVALID_REFERENCE, relatedElementId, 0, "Invalid related element reference in relationship: " + relatedElementId);
 						continue;
 					}
 					try {
 						relatedElement = (SpdxElement)relatedMo.get();
 					} catch(ClassCastException ex) {
-						this.warningMessages.add("Invalid related element reference in relationship: " + id);
+						warn(Kind.INVALID_REFERENCE, id, 0, "Invalid related element reference in relationship: " + id);
 						continue;
 					}
 				}
@@ -1506,162 +2006,85 @@ public class BuildDocument implements TagValueBehavior {
 							relwId.getComment());
 					lineNumberToRelationship.put(relwId.getLineNumber(), newRelationship);
 					element.addRelationship(newRelationship);
+					publish(newRelationship);
 				}
 			}
 		}
 		// We need to verify after all relationships are added since missing relationships may cause a
 		// verification error
 		for (Entry<Integer, Relationship> entry:lineNumberToRelationship.entrySet()) {
-			verifyElement(entry.getValue().verify(), "Relationship", entry.getKey());
+			verifyElement(entry.getValue()::verify, "Relationship", entry.getKey());
 		}
 	}
 
 	/**
-	 * Go through all of the file dependencies and snippet dependencies and add them to the file
+	 * @param element element to collect the relationships for
+	 * @return the relationship types for each of the existing relationships of the element by the relationship ID
 	 * @throws InvalidSPDXAnalysisException
-	 * @throws InvalidSpdxTagFileException
 	 */
-	@SuppressWarnings("deprecation")
-	private void fixFileAndSnippetDependencies() throws InvalidSPDXAnalysisException, InvalidSpdxTagFileException,InvalidFileFormatException {
-		// be prepared - it is complicate to make this efficient
-		// the HashMap fileDependencyMap contains a map from a file name to all SPDX files which
-		// reference that file name as a dependency
-		// This method goes through all of the files in the analysis in a single pass and creates
-		// a new HashMap of files (as the key) and the dependency files (arraylist) as the values.
-		// We also take care of updating the files in the Snippet Dependencies in this pass.
-		// Once that hashmap is built, the actual dependencies and snippets are then updated.
-		// the key contains an SPDX file with one or more dependencies.  The value is the array list of file dependencies
-		Map<SpdxFile, List<SpdxFile>> filesWithDependencies = new HashMap<>();
-		Map<SpdxFile, List<SpdxSnippet>> filesWithSnippets = new HashMap<>();
-		this.checkAnalysisNull();
-		
-		List<SpdxFile> allFiles = new ArrayList<>();
-		try(@SuppressWarnings("unchecked")
-		Stream<SpdxFile> fileStream = (Stream<SpdxFile>)SpdxModelFactory.getSpdxObjects(modelStore, copyManager,
-				SpdxConstantsCompatV2.CLASS_SPDX_FILE, documentNamespace, documentNamespace + "#")) {
-		    fileStream.forEach(file -> {
-	            allFiles.add(file);
-	            if (modelStore.getIdType(((SpdxFile)file).getId()).equals(IdType.Anonymous)) {
-	                if (modelStore.getIdType(((SpdxFile)file).getId()).equals(IdType.Anonymous)) {
-	                    this.warningMessages.add("Anonymous type was found for file");
-	                }
-	            }
-	        });
-		}
-		
-		
-		// fill in the filesWithDependencies map
-		for (int i = 0;i < allFiles.size(); i++) {
-		    Optional<String> fileName = allFiles.get(i).getName();
-		    String name;
-		    if (fileName.isPresent()) {
-		        name = fileName.get();
-		    } else {
-		        name = "";
-		    } 
-			List<SpdxFile> alFilesHavingThisDependency = this.fileDependencyMap.get(name);
-			if (alFilesHavingThisDependency != null) {
-				for (int j = 0; j < alFilesHavingThisDependency.size(); j++) {
-					SpdxFile fileWithDependency = alFilesHavingThisDependency.get(j);
-					List<SpdxFile> alDepdenciesForThisFile = filesWithDependencies.get(fileWithDependency);
-					if (alDepdenciesForThisFile == null) {
-						alDepdenciesForThisFile = new ArrayList<>();
-						filesWithDependencies.put(fileWithDependency, alDepdenciesForThisFile);
-					}
-					alDepdenciesForThisFile.add(allFiles.get(i));
-				}
-				// remove from the file dependency map so we can keep track of any files which did
-				// not match at the end
-				this.fileDependencyMap.remove(name);
-			}
-			List<SpdxSnippet> alSnippetsWithThisFile = this.snippetDependencyMap.get(allFiles.get(i).getId());
-			if (alSnippetsWithThisFile != null) {
-				List<SpdxSnippet> snippets = new ArrayList<>();
-				filesWithSnippets.put(allFiles.get(i), snippets);
-				for (SpdxSnippet snippet:alSnippetsWithThisFile) {
-					snippets.add(snippet);
-				}
-			}
-			this.snippetDependencyMap.remove(allFiles.get(i).getId());
-		}
-		// Go through the file dependency hashmap we just created and add the dependent files
-		Iterator<Entry<SpdxFile, List<SpdxFile>>> iter = filesWithDependencies.entrySet().iterator();
-		while (iter.hasNext()) {
-			Entry<SpdxFile, List<SpdxFile>> entry = iter.next();
-			List<SpdxFile> alDependencies = entry.getValue();
-			if (alDependencies != null && alDependencies.size() > 0) {
-				// Convert the dependencies to relationship
-				SpdxFile fileWithDepdencies = entry.getKey();
-				fileWithDepdencies.getFileDependency().addAll(alDependencies);
-			}
+	private Map<String, Set<RelationshipType>> existingRelationshipTypes(SpdxElement element) throws InvalidSPDXAnalysisException {
+		Collection<Relationship> elementRelationships = element.getRelationships();
+		if (elementRelationships.isEmpty()) {
+			// most elements only have the relationships being added
+			return Collections.emptyMap();
+		}
+		Map<String, Set<RelationshipType>> existingRelationships = new HashMap<>();
+		for (Relationship existingRelationship:elementRelationships) {
+			Set<RelationshipType> existingRelationshipTypes = existingRelationships.get(existingRelationship.getId());
+			if (Objects.isNull(existingRelationshipTypes)) {
+				existingRelationshipTypes = new HashSet<>();
+				existingRelationships.put(existingRelationship.getId(), existingRelationshipTypes);
+			}
+			existingRelationshipTypes.add(existingRelationship.getRelationshipType());
+		}
+		return existingRelationships;
+	}
+
+	/**
+	 * Resolve an element referenced by its SPDX ID using the element index, looking up the store only for
+	 * elements not yet in the index
+	 * @param id SPDX ID of the element
+	 * @return the element or empty if it is not defined
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private Optional<ModelObjectV2> resolveElement(String id) throws InvalidSPDXAnalysisException {
+		ModelObjectV2 element = elementIndex.get(id);
+		if (Objects.nonNull(element)) {
+			return Optional.of(element);
 		}
-		// Now go through the snippets map
-		Iterator<Entry<SpdxFile, List<SpdxSnippet>>> snIter = filesWithSnippets.entrySet().iterator();
-		while (snIter.hasNext()) {
-			Entry<SpdxFile, List<SpdxSnippet>> entry = snIter.next();
-			List<SpdxSnippet> alSnippets = entry.getValue();
-			if (alSnippets != null) {
-				for (SpdxSnippet snippet:alSnippets) {
-					snippet.setSnippetFromFile(entry.getKey());
-					if (snippetByteRangeMap.containsKey(snippet)) {
-						String value = snippetByteRangeMap.get(snippet);
-						Matcher matcher = NUMBER_RANGE_PATTERN.matcher(value.trim());
-						if (!matcher.find()) {
-							throw(new InvalidSpdxTagFileException("Invalid snippet byte range: "+value));
-						}
-						int start = 0;
-						try {
-							start = Integer.parseInt(matcher.group(1));
-						} catch (Exception ex) {
-							throw new InvalidSpdxTagFileException("Non integer start to snippet byte offset: "+value);
-						}
-						int end = 0;
-						try {
-							end = Integer.parseInt(matcher.group(2));
-						} catch (Exception ex) {
-							throw new InvalidSpdxTagFileException("Non integer end to snippet byte offset: "+value);
-						}
-						snippet.setByteRange(start, end);
-					}
-					if (snippetLineRangeMap.containsKey(snippet)) {
-						String value = snippetLineRangeMap.get(snippet);
-						Matcher matcher = NUMBER_RANGE_PATTERN.matcher(value.trim());
-						if (!matcher.find()) {
-							throw(new InvalidSpdxTagFileException("Invalid snippet line range: "+ value));
-						}
-						int start = 0;
-						try {
-							start = Integer.parseInt(matcher.group(1));
-						} catch (Exception ex) {
-							throw new InvalidSpdxTagFileException("Non integer start to snippet line offset: "+value);
-						}
-						int end = 0;
-						try {
-							end = Integer.parseInt(matcher.group(2));
-						} catch (Exception ex) {
-							throw new InvalidSpdxTagFileException("Non integer end to snippet line offset: "+value);
-						}
-						snippet.setLineRange(start, end);
-					}
-				}
-			}
+		Optional<ModelObjectV2> retval = SpdxModelFactoryCompatV2.getModelObjectV2(modelStore, documentNamespace, id,  copyManager);
+		if (retval.isPresent()) {
+			elementIndex.put(id, retval.get());
 		}
+		return retval;
+	}
+
+	/**
+	 * Report any file dependencies and snippet files which were not found - files are linked to the files
+	 * depending on them and the snippets from them as they are defined
+	 * @throws InvalidSPDXAnalysisException
+	 * @throws InvalidSpdxTagFileException
+	 */
+	private void checkFileAndSnippetDependencies() throws InvalidSPDXAnalysisException, InvalidSpdxTagFileException,InvalidFileFormatException {
+		this.checkAnalysisNull();
 		// Check to see if there are any left over and and throw an error if the dependent files were
 		// not found
 		Set<String> missingDependencies = this.fileDependencyMap.keySet();
 		if (missingDependencies != null && missingDependencies.size() > 0) {
-			this.warningMessages.add("The following file names were listed as file dependencies but were not found in the list of files:");
+			warn(Kind.INVALID_REFERENCE, null, 0, "The following file names were listed as file dependencies but were not found in the list of files:");
 			Iterator<String> missingIter = missingDependencies.iterator();
 			while(missingIter.hasNext()) {
-				this.warningMessages.add("\t"+missingIter.next());
+				String missing = missingIter.next();
+				warn(Kind.INVALID_REFERENCE, missing, 0, "\t"+missing);
 			}
 		}
 		Set<String> missingSnippetFileIds = this.snippetDependencyMap.keySet();
 		if (missingSnippetFileIds != null && missingSnippetFileIds.size() > 0) {
-			this.warningMessages.add("The following file IDs were listed as files for snippets but were not found in the list of files:");
+			warn(Kind.INVALID_REFERENCE, null, 0, "The following file IDs were listed as files for snippets but were not found in the list of files:");
 			Iterator<String> missingIter = missingSnippetFileIds.iterator();
 			while(missingIter.hasNext()) {
-				this.warningMessages.add("\t"+missingIter.next());
+				String missing = missingIter.next();
+				warn(Kind.INVALID_REFERENCE, missing, 0, "\t"+missing);
 			}
 		}
 	}
@@ -0,0 +1,66 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.spdx.core.InvalidSPDXAnalysisException;
+import org.spdx.library.model.v2.SpdxElement;
+
+/**
+ * Collects the properties of a package or file until the element can be created with its SPDX ID.
+ * <p>
+ * The <code>SPDXID</code> tag of a package or file may follow any of its other properties, so the
+ * properties are kept until the end of the section and then set on the element, which is created
+ * once in the model store with its final ID.
+ *
+ * @author Gary O'Neall
+ */
+class ElementBuilder<T extends SpdxElement> {
+
+	/**
+	 * Sets a property on the element once it is created
+	 */
+	interface PropertySetter<T> {
+		void set(T element) throws InvalidSPDXAnalysisException;
+	}
+
+	private List<PropertySetter<? super T>> setters = new ArrayList<>();
+
+	/**
+	 * @param setter setter for a property of the element - setters are applied in the order they are added
+	 */
+	void add(PropertySetter<? super T> setter) {
+		setters.add(setter);
+	}
+
+	/**
+	 * Set all of the collected properties on the element
+	 * @param element newly created element
+	 * @return the element
+	 * @throws InvalidSPDXAnalysisException on errors setting the properties
+	 */
+	T build(T element) throws InvalidSPDXAnalysisException {
+		for (PropertySetter<? super T> setter:setters) {
+			setter.set(element);
+		}
+		return element;
+	}
+}
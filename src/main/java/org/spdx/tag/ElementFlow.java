@@ -0,0 +1,92 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+/**
+ * Reactive streams interfaces for publishing parsed SPDX elements.
+ * <p>
+ * The interfaces have the same methods and contracts as those in <code>java.util.concurrent.Flow</code>
+ * which is not available in Java 8.  On later Java versions, a publisher can be adapted to a
+ * <code>Flow.Publisher</code> by forwarding each of the methods.
+ *
+ * @author Gary O'Neall
+ */
+public final class ElementFlow {
+
+	private ElementFlow() {
+		// holder for the interfaces only
+	}
+
+	/**
+	 * Producer of items received by subscribers
+	 * @param <T> type of the published items
+	 */
+	public interface Publisher<T> {
+		/**
+		 * Add a subscriber.  {@link Subscriber#onSubscribe(Subscription)} is called before any other method on the subscriber.
+		 * @param subscriber subscriber to receive the items
+		 */
+		void subscribe(Subscriber<? super T> subscriber);
+	}
+
+	/**
+	 * Receiver of the published items
+	 * @param <T> type of the received items
+	 */
+	public interface Subscriber<T> {
+		/**
+		 * Called once before any other method with the subscription used to request items
+		 * @param subscription subscription for this subscriber
+		 */
+		void onSubscribe(Subscription subscription);
+
+		/**
+		 * Called with the next item - only called for items which have been requested
+		 * @param item next item
+		 */
+		void onNext(T item);
+
+		/**
+		 * Called once if the publisher fails - no other methods are called afterwards
+		 * @param throwable cause of the failure
+		 */
+		void onError(Throwable throwable);
+
+		/**
+		 * Called once when all items have been published - no other methods are called afterwards
+		 */
+		void onComplete();
+	}
+
+	/**
+	 * Link between a publisher and a subscriber
+	 */
+	public interface Subscription {
+		/**
+		 * Request additional items
+		 * @param n number of additional items - must be greater than zero
+		 */
+		void request(long n);
+
+		/**
+		 * Stop receiving items
+		 */
+		void cancel();
+	}
+}
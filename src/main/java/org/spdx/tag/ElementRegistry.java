@@ -0,0 +1,100 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import org.spdx.library.model.v2.SpdxPackage;
+
+/**
+ * Keeps track of the IDs of the packages, files and snippets created while parsing a document so that
+ * the document can be completed without scanning the model store, which may hold other documents.
+ *
+ * @author Gary O'Neall
+ */
+class ElementRegistry {
+
+	enum ElementType {
+		PACKAGE,
+		FILE,
+		SNIPPET
+	}
+
+	private Map<ElementType, List<String>> idsByType = new EnumMap<>(ElementType.class);
+	private SpdxPackage firstPackage = null;
+	private SpdxPackage firstDoapPackage = null;
+
+	/**
+	 * @param type type of the element
+	 * @param id SPDX ID of the newly created element
+	 */
+	void add(ElementType type, String id) {
+		List<String> ids = idsByType.get(type);
+		if (Objects.isNull(ids)) {
+			ids = new ArrayList<>();
+			idsByType.put(type, ids);
+		}
+		ids.add(id);
+	}
+
+	/**
+	 * @param pkg newly created package declared in the tag/value file
+	 */
+	void addPackage(SpdxPackage pkg) {
+		add(ElementType.PACKAGE, pkg.getId());
+		if (Objects.isNull(firstPackage)) {
+			firstPackage = pkg;
+		}
+	}
+
+	/**
+	 * @param pkg newly created package replacing a deprecated DOAP project - these are created while the file
+	 * is parsed, before the package containing the file is complete
+	 */
+	void addDoapPackage(SpdxPackage pkg) {
+		add(ElementType.PACKAGE, pkg.getId());
+		if (Objects.isNull(firstDoapPackage)) {
+			firstDoapPackage = pkg;
+		}
+	}
+
+	/**
+	 * @param type type of the elements
+	 * @return the IDs of the elements of the type in the order they were created
+	 */
+	List<String> getIds(ElementType type) {
+		List<String> ids = idsByType.get(type);
+		return Objects.isNull(ids) ? Collections.emptyList() : Collections.unmodifiableList(ids);
+	}
+
+	/**
+	 * @return the first package declared in the document, the first package replacing a DOAP project if no packages
+	 * are declared, or null if no packages have been created
+	 */
+	@Nullable SpdxPackage getFirstPackage() {
+		return Objects.nonNull(firstPackage) ? firstPackage : firstDoapPackage;
+	}
+}
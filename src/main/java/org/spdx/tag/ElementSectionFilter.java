@@ -0,0 +1,151 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Passes the tags of a section of a tag/value document to a behavior building a single element, dropping the
+ * relationships and annotations of any other element.
+ * <p>
+ * Relationships are passed if the element is the subject of the relationship and annotations are passed if the
+ * element is the <code>SPDXREF</code> of the annotation.  The tags of an annotation are held until the annotation
+ * is complete, since the element annotated may follow the start of the annotation.  For a section which defines
+ * a different element, only the relationships and annotations of the element are passed.
+ *
+ * @author Gary O'Neall
+ */
+class ElementSectionFilter implements TagValueBehavior {
+
+	private TagValueBehavior behavior;
+	private String id;
+	private boolean otherElement;
+	private boolean relationshipIncluded = false;
+	private boolean inAnnotation = false;
+	private String annotationId = null;
+	private List<SpdxTag> annotationSpdxTags = new ArrayList<>();
+	private List<String> annotationTags = new ArrayList<>();
+	private List<String> annotationValues = new ArrayList<>();
+	private List<Integer> annotationLineNumbers = new ArrayList<>();
+
+	/**
+	 * @param behavior behavior building the element
+	 * @param id ID of the element
+	 * @param otherElement true if the section defines a different element
+	 */
+	ElementSectionFilter(TagValueBehavior behavior, String id, boolean otherElement) {
+		this.behavior = behavior;
+		this.id = id;
+		this.otherElement = otherElement;
+	}
+
+	@Override
+	public void buildDocument(String tag, String value, int lineNumber) throws Exception {
+		buildDocument(TagDictionary.lookup(tag), tag, value, lineNumber);
+	}
+
+	@Override
+	public void buildDocument(SpdxTag spdxTag, String tag, String value, int lineNumber) throws Exception {
+		if (inAnnotation && BuildDocument.ANNOTATION_TAGS.contains(spdxTag)) {
+			if (spdxTag == SpdxTag.ANNOTATION_ID) {
+				annotationId = BuildDocument.trim(value);
+			}
+			annotationSpdxTags.add(spdxTag);
+			annotationTags.add(tag);
+			annotationValues.add(value);
+			annotationLineNumbers.add(lineNumber);
+			return;
+		}
+		flush();
+		switch (spdxTag) {
+			case ANNOTATOR:
+				inAnnotation = true;
+				annotationSpdxTags.add(spdxTag);
+				annotationTags.add(tag);
+				annotationValues.add(value);
+				annotationLineNumbers.add(lineNumber);
+				break;
+			case RELATIONSHIP:
+				relationshipIncluded = id.equals(subject(value));
+				if (relationshipIncluded) {
+					behavior.buildDocument(spdxTag, tag, value, lineNumber);
+				}
+				break;
+			case RELATIONSHIP_COMMENT:
+				if (relationshipIncluded) {
+					behavior.buildDocument(spdxTag, tag, value, lineNumber);
+				}
+				break;
+			default:
+				relationshipIncluded = false;
+				if (!otherElement) {
+					behavior.buildDocument(spdxTag, tag, value, lineNumber);
+				}
+		}
+	}
+
+	/**
+	 * Pass any annotation held by this filter to the behavior if it annotates the element
+	 * @throws Exception on errors building the annotation
+	 */
+	private void flush() throws Exception {
+		if (!inAnnotation) {
+			return;
+		}
+		if (id.equals(annotationId)) {
+			for (int i = 0; i < annotationTags.size(); i++) {
+				behavior.buildDocument(annotationSpdxTags.get(i), annotationTags.get(i), annotationValues.get(i),
+						annotationLineNumbers.get(i));
+			}
+		}
+		inAnnotation = false;
+		annotationId = null;
+		annotationSpdxTags.clear();
+		annotationTags.clear();
+		annotationValues.clear();
+		annotationLineNumbers.clear();
+	}
+
+	/**
+	 * @param relationship value of a relationship tag
+	 * @return the ID of the subject of the relationship
+	 */
+	static String subject(String relationship) {
+		String trimmed = BuildDocument.trim(relationship);
+		int end = 0;
+		while (end < trimmed.length() && !Character.isWhitespace(trimmed.charAt(end))) {
+			end++;
+		}
+		return trimmed.substring(0, end);
+	}
+
+	@Override
+	public void enter() throws Exception {
+		// the behavior is entered once for the element rather than once for each section
+	}
+
+	/**
+	 * Complete the section.  The behavior is not exited since the element may be built from more than one section.
+	 */
+	@Override
+	public void exit() throws Exception {
+		flush();
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Supplies the lexer with bytes pushed to it by the caller rather than pulled from an input.
+ * <p>
+ * When all of the fed bytes have been consumed the source returns {@link TagValueLexer.ByteWindowSource#NEED_INPUT}
+ * until more bytes are fed or the end of the input is signaled.
+ *
+ * @author Gary O'Neall
+ */
+class FeedWindowSource extends TagValueLexer.ByteWindowSource {
+
+	private byte[] buffer;
+	/**
+	 * Number of valid bytes in the buffer - the current window followed by any bytes fed since the last refill
+	 */
+	private int length = 0;
+	private boolean endOfInput = false;
+
+	FeedWindowSource(int initialSize) {
+		this.buffer = new byte[initialSize];
+	}
+
+	/**
+	 * Add the remaining bytes in a buffer to the input
+	 * @param bytes bytes to add - the position is advanced to the limit
+	 */
+	void feed(ByteBuffer bytes) {
+		if (endOfInput) {
+			throw new IllegalStateException("Input can not be fed after the end of the input");
+		}
+		int count = bytes.remaining();
+		if (length + count > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(length + count, buffer.length * 2));
+		}
+		bytes.get(buffer, length, count);
+		length += count;
+	}
+
+	/**
+	 * Signal that no more input will be fed
+	 */
+	void endOfInput() {
+		endOfInput = true;
+	}
+
+	@Override
+	ByteBuffer initialWindow() {
+		return ByteBuffer.wrap(buffer, 0, 0);
+	}
+
+	@Override
+	ByteBuffer refill(ByteBuffer window, int keepFrom) {
+		if (length == window.limit()) {
+			return endOfInput ? null : NEED_INPUT;
+		}
+		int kept = length - keepFrom;
+		if (keepFrom > 0 && kept > 0) {
+			System.arraycopy(buffer, keepFrom, buffer, 0, kept);
+		}
+		length = kept;
+		return ByteBuffer.wrap(buffer, 0, kept);
+	}
+
+	@Override
+	public void close() {
+		// nothing to close
+	}
+}
@@ -0,0 +1,143 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+
+/**
+ * Incremental parser for SPDX tag/value data which arrives in chunks.
+ * <p>
+ * Each call to {@link #feed(ByteBuffer)} passes every complete tag/value pair in the input received
+ * so far to the behavior.  Partial lines and unterminated text blocks are kept until the rest of the
+ * data is fed, so the caller never blocks waiting for input and never needs to buffer the entire document.
+ * {@link #endOfInput()} completes the parsing and calls <code>exit()</code> on the behavior.
+ *
+ * @author Gary O'Neall
+ */
+public class IncrementalTagValueParser implements Closeable {
+
+	static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	private TagValueBehavior buildDocument;
+	private FeedWindowSource source;
+	private TagValueLexer lexer;
+	private ByteBuffer readBuffer = null;
+	private boolean complete = false;
+
+	/**
+	 * @param buildDocument behavior receiving the parsed tag/value pairs
+	 */
+	public IncrementalTagValueParser(TagValueBehavior buildDocument) {
+		this.buildDocument = buildDocument;
+		this.source = new FeedWindowSource(DEFAULT_BUFFER_SIZE);
+		this.lexer = new TagValueLexer(source);
+	}
+
+	/**
+	 * @param maxTextLength maximum number of characters in a multi-line text value - see {@link TagValueLexer#setMaxTextLength(int)}
+	 */
+	public void setMaxTextLength(int maxTextLength) {
+		lexer.setMaxTextLength(maxTextLength);
+	}
+
+	/**
+	 * Parse the next chunk of the input
+	 * @param bytes UTF-8 encoded bytes following any previously fed bytes - the position is advanced to the limit
+	 * @throws Exception on any errors parsing the tag/value pairs completed by this chunk
+	 */
+	public void feed(ByteBuffer bytes) throws Exception {
+		if (complete) {
+			throw new IllegalStateException("Input can not be fed after the end of the input");
+		}
+		source.feed(bytes);
+		drain();
+	}
+
+	/**
+	 * Parse any remaining input and complete the document
+	 * @throws Exception on any errors parsing the remaining input or completing the document
+	 */
+	public void endOfInput() throws Exception {
+		if (complete) {
+			return;
+		}
+		complete = true;
+		try {
+			source.endOfInput();
+			drain();
+			buildDocument.exit();
+		} finally {
+			lexer.close();
+		}
+	}
+
+	/**
+	 * Read and parse the bytes currently available from a channel.  For a non-blocking channel, this
+	 * returns as soon as no more bytes are available without waiting.
+	 * @param channel channel to read from
+	 * @return false if the end of the channel was reached and the document has been completed
+	 * @throws Exception on errors reading the channel or parsing the input
+	 */
+	public boolean read(ReadableByteChannel channel) throws Exception {
+		if (Objects.isNull(readBuffer)) {
+			readBuffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+		}
+		while (true) {
+			((Buffer)readBuffer).clear();
+			int bytesRead = channel.read(readBuffer);
+			if (bytesRead < 0) {
+				endOfInput();
+				return false;
+			}
+			if (bytesRead == 0) {
+				return true;
+			}
+			((Buffer)readBuffer).flip();
+			feed(readBuffer);
+		}
+	}
+
+	/**
+	 * Pass all complete tag/value pairs to the behavior
+	 * @throws Exception
+	 */
+	private void drain() throws Exception {
+		while (lexer.next()) {
+			buildDocument.buildDocument(lexer.getSpdxTag(), lexer.getTag(), lexer.getValue(), lexer.getLineNumber());
+		}
+	}
+
+	/**
+	 * @return true once the end of the input has been processed
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	@Override
+	public void close() throws IOException {
+		complete = true;
+		lexer.close();
+	}
+}
@@ -0,0 +1,101 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.spdx.core.InvalidSPDXAnalysisException;
+import org.spdx.library.LicenseInfoFactory;
+import org.spdx.library.ModelCopyManager;
+import org.spdx.library.model.v2.license.AnyLicenseInfo;
+import org.spdx.storage.IModelStore;
+
+/**
+ * Memoizes the license expressions parsed for a document.
+ * <p>
+ * Most documents use a small number of distinct license expressions for a large number of files, so each
+ * distinct expression is parsed once and the resulting license is shared by every element using the expression
+ * rather than creating new license sets in the model store for each occurrence.  Whether an ID is a listed
+ * license or listed exception ID is cached for the whole process.
+ *
+ * @author Gary O'Neall
+ */
+class LicenseExpressionCache {
+
+	/**
+	 * Maximum number of IDs kept in the process wide listed ID cache - IDs looked up after the cache is full
+	 * are not cached
+	 */
+	static final int MAX_LISTED_ID_LOOKUPS = 10000;
+
+	private static final Map<String, Boolean> LISTED_IDS = new ConcurrentHashMap<>();
+
+	private IModelStore modelStore;
+	private ModelCopyManager copyManager;
+	private Map<String, AnyLicenseInfo> licenses = new HashMap<>();
+
+	/**
+	 * @param modelStore store the licenses are created in
+	 * @param copyManager copy manager used for listed licenses
+	 */
+	LicenseExpressionCache(IModelStore modelStore, ModelCopyManager copyManager) {
+		this.modelStore = modelStore;
+		this.copyManager = copyManager;
+	}
+
+	/**
+	 * @param expression SPDX license expression
+	 * @param documentUri URI of the document the license is used in
+	 * @return the license for the expression - the same license is returned for each occurrence of the expression
+	 * @throws InvalidSPDXAnalysisException if the expression is not valid
+	 */
+	AnyLicenseInfo parse(String expression, String documentUri) throws InvalidSPDXAnalysisException {
+		AnyLicenseInfo retval = licenses.get(expression);
+		if (Objects.isNull(retval)) {
+			retval = LicenseInfoFactory.parseSPDXLicenseStringCompatV2(expression, modelStore, documentUri, copyManager);
+			licenses.put(expression, retval);
+		}
+		return retval;
+	}
+
+	/**
+	 * @return number of distinct expressions parsed
+	 */
+	int size() {
+		return licenses.size();
+	}
+
+	/**
+	 * @param id license or exception ID
+	 * @return true if the ID is a listed license ID or listed exception ID
+	 */
+	static boolean isListedLicenseOrExceptionId(String id) {
+		Boolean retval = LISTED_IDS.get(id);
+		if (Objects.isNull(retval)) {
+			retval = LicenseInfoFactory.isSpdxListedLicenseId(id) || LicenseInfoFactory.isSpdxListedExceptionId(id);
+			if (LISTED_IDS.size() < MAX_LISTED_ID_LOOKUPS) {
+				LISTED_IDS.put(id, retval);
+			}
+		}
+		return retval;
+	}
+}
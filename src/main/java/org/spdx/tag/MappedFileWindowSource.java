@@ -0,0 +1,90 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Supplies the lexer with windows memory mapped directly from a file.
+ * <p>
+ * Files which fit in a single window are mapped once.  Larger files, including files over 2GB
+ * which can not be mapped into a single <code>ByteBuffer</code>, are mapped one window at a time
+ * with each new window starting at the first byte the lexer has not yet consumed.
+ *
+ * @author Gary O'Neall
+ */
+class MappedFileWindowSource extends TagValueLexer.ByteWindowSource {
+
+	/**
+	 * Default maximum number of bytes mapped at one time
+	 */
+	static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+	private FileChannel channel;
+	private long fileSize;
+	private int windowSize;
+	/**
+	 * Offset in the file of the start of the current window
+	 */
+	private long windowOffset = 0;
+
+	/**
+	 * @param file file to map
+	 * @param windowSize maximum number of bytes to map at one time
+	 * @throws IOException
+	 */
+	MappedFileWindowSource(Path file, int windowSize) throws IOException {
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		this.fileSize = channel.size();
+		this.windowSize = windowSize;
+	}
+
+	@Override
+	ByteBuffer initialWindow() {
+		return ByteBuffer.allocate(0);
+	}
+
+	@Override
+	ByteBuffer refill(ByteBuffer window, int keepFrom) throws IOException {
+		long newOffset = windowOffset + keepFrom;
+		if (windowOffset + window.limit() >= fileSize) {
+			return null;
+		}
+		int mapSize = windowSize;
+		if (window.limit() - keepFrom >= mapSize) {
+			// a single line is larger than the window
+			mapSize = (int)Math.min(Integer.MAX_VALUE, (long)mapSize * 2);
+			windowSize = mapSize;
+		}
+		long length = Math.min(fileSize - newOffset, mapSize);
+		ByteBuffer retval = channel.map(MapMode.READ_ONLY, newOffset, length);
+		windowOffset = newOffset;
+		return retval;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,89 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Finds the tags starting the lines of a tag/value document without lexing the values.
+ * <p>
+ * The lines are scanned in document order.  Lines within a <code>&lt;text&gt;</code> block, blank lines
+ * and comments are skipped following the same rules as the {@link TagValueLexer}, so a line where a tag
+ * is found can be used as the start of an independently lexed range of the document.
+ *
+ * @author Gary O'Neall
+ */
+class SectionScanner {
+
+	private boolean commentFilterInText = false;
+	private boolean inTextBlock = false;
+
+	/**
+	 * Scan the next line of the document
+	 * @param document buffer containing the line
+	 * @param lineStart index of the first byte of the line
+	 * @param lineEnd index following the last byte of the line excluding the line terminator
+	 * @return index following the <code>:</code> of the tag starting the line or -1 if the line is blank, a comment,
+	 * within a text block or does not start with a tag
+	 */
+	int scanLine(ByteBuffer document, int lineStart, int lineEnd) {
+		if (!commentFilterInText && (lineStart == lineEnd || document.get(lineStart) == '#')) {
+			return -1;
+		}
+		int tagEnd = tagEnd(document, lineStart, lineEnd);
+		int retval = commentFilterInText || inTextBlock ? -1 : tagEnd;
+		if (commentFilterInText) {
+			if (TagValueLexer.indexOf(document, TagValueLexer.END_TEXT, lineStart, lineEnd) >= 0) {
+				commentFilterInText = false;
+			}
+		} else if (TagValueLexer.indexOf(document, TagValueLexer.START_TEXT, lineStart, lineEnd) >= 0 &&
+				TagValueLexer.indexOf(document, TagValueLexer.END_TEXT, lineStart, lineEnd) < 0) {
+			commentFilterInText = true;
+		}
+		if (inTextBlock) {
+			if (TagValueLexer.indexOf(document, TagValueLexer.END_TEXT, lineStart, lineEnd) >= 0) {
+				inTextBlock = false;
+			}
+		} else if (tagEnd > 0) {
+			int startText = TagValueLexer.indexOf(document, TagValueLexer.START_TEXT, lineStart, lineEnd);
+			if (startText > lineStart) {
+				int valueStart = TagValueLexer.trimStart(document, startText + TagValueLexer.START_TEXT.length, lineEnd);
+				int valueEnd = TagValueLexer.trimEnd(document, valueStart, lineEnd);
+				if (TagValueLexer.indexOf(document, TagValueLexer.END_TEXT, valueStart, valueEnd) < 0) {
+					inTextBlock = true;
+				}
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * @return index following the <code>:</code> of a tag at the start of the line or -1 if the line does not start with a tag
+	 */
+	private static int tagEnd(ByteBuffer document, int lineStart, int lineEnd) {
+		int tagEnd = lineStart;
+		while (tagEnd < lineEnd && TagValueLexer.isWordByte(document.get(tagEnd))) {
+			tagEnd++;
+		}
+		if (tagEnd == lineStart || tagEnd >= lineEnd || document.get(tagEnd) != ':') {
+			return -1;
+		}
+		return tagEnd + 1;
+	}
+}
@@ -0,0 +1,134 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+/**
+ * Tags recognized in an SPDX tag/value file.
+ * <p>
+ * Each tag corresponds to a <code>PROP_</code> property in <code>SpdxTagValueConstants.properties</code>
+ * with the same name.  The text of the tags is resolved once through the {@link TagDictionary}.
+ *
+ * @author Gary O'Neall
+ */
+public enum SpdxTag {
+	NAME,
+	ELEMENT_ID,
+	EXTERNAL_DOC_URI,
+	ANNOTATOR,
+	ANNOTATION_DATE,
+	ANNOTATION_COMMENT,
+	ANNOTATION_ID,
+	ANNOTATION_TYPE,
+	RELATIONSHIP,
+	RELATIONSHIP_COMMENT,
+	PROJECT_NAME,
+	PROJECT_HOMEPAGE,
+	PROJECT_URI,
+	SPDX_VERSION,
+	SPDX_DATA_LICENSE,
+	SPDX_COMMENT,
+	DOCUMENT_NAME,
+	DOCUMENT_NAMESPACE,
+	CREATION_CREATOR,
+	CREATION_CREATED,
+	CREATION_COMMENT,
+	LICENSE_LIST_VERSION,
+	PACKAGE_DECLARED_NAME,
+	PACKAGE_COMMENT,
+	PACKAGE_FILE_NAME,
+	PACKAGE_CHECKSUM,
+	PACKAGE_DOWNLOAD_URL,
+	PACKAGE_SOURCE_INFO,
+	PACKAGE_DECLARED_LICENSE,
+	PACKAGE_CONCLUDED_LICENSE,
+	PACKAGE_DECLARED_COPYRIGHT,
+	PACKAGE_SHORT_DESC,
+	PACKAGE_DESCRIPTION,
+	PACKAGE_VERIFICATION_CODE,
+	PACKAGE_LICENSE_INFO_FROM_FILES,
+	PACKAGE_LICENSE_COMMENT,
+	PACKAGE_VERSION_INFO,
+	PACKAGE_ORIGINATOR,
+	PACKAGE_SUPPLIER,
+	PACKAGE_HOMEPAGE_URL,
+	PACKAGE_FILES_ANALYZED,
+	EXTERNAL_REFERENCE,
+	EXTERNAL_REFERENCE_COMMENT,
+	PACKAGE_ATTRIBUTION_TEXT,
+	PRIMARY_PACKAGE_PURPOSE,
+	PACKAGE_BUILT_DATE,
+	PACKAGE_RELEASE_DATE,
+	PACKAGE_VALID_UNTIL_DATE,
+	LICENSE_ID,
+	LICENSE_TEXT,
+	EXTRACTED_TEXT,
+	LICENSE_COMMENT,
+	LICENSE_NAME,
+	SOURCE_URLS,
+	FILE_NAME,
+	FILE_TYPE,
+	FILE_LICENSE,
+	FILE_COPYRIGHT,
+	FILE_CHECKSUM,
+	FILE_SEEN_LICENSE,
+	FILE_LIC_COMMENTS,
+	FILE_COMMENT,
+	FILE_DEPENDENCY,
+	FILE_CONTRIBUTOR,
+	FILE_NOTICE_TEXT,
+	FILE_ATTRIBUTION_TEXT,
+	SNIPPET_SPDX_ID,
+	SNIPPET_FROM_FILE_ID,
+	SNIPPET_BYTE_RANGE,
+	SNIPPET_LINE_RANGE,
+	SNIPPET_CONCLUDED_LICENSE,
+	SNIPPET_LIC_COMMENTS,
+	SNIPPET_COPYRIGHT,
+	SNIPPET_COMMENT,
+	SNIPPET_NAME,
+	SNIPPET_SEEN_LICENSE,
+	REVIEW_REVIEWER,
+	REVIEW_DATE,
+	REVIEW_COMMENT,
+	/**
+	 * Any tag which is not defined in the SPDX tag/value constants
+	 */
+	UNKNOWN;
+
+	/**
+	 * @return name of the property in <code>SpdxTagValueConstants.properties</code> defining this tag or null for {@link #UNKNOWN}
+	 */
+	public String getPropertyKey() {
+		return this == UNKNOWN ? null : "PROP_" + name();
+	}
+
+	/**
+	 * @return true if this tag starts a new package, file, snippet or extracted license section
+	 */
+	public boolean isSectionStart() {
+		return this == PACKAGE_DECLARED_NAME || this == FILE_NAME || this == SNIPPET_SPDX_ID || this == LICENSE_ID;
+	}
+
+	/**
+	 * @return text of the tag including the trailing <code>:</code> or null for {@link #UNKNOWN}
+	 */
+	public String getTag() {
+		return TagDictionary.getTag(this);
+	}
+}
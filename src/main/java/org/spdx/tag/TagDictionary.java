@@ -0,0 +1,158 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Process wide, immutable dictionary mapping the text of SPDX tags to {@link SpdxTag}.
+ * <p>
+ * The dictionary is built once from <code>SpdxTagValueConstants.properties</code> when the class is
+ * loaded.  Tags can be looked up either as a <code>String</code> or directly from the raw bytes
+ * scanned by the {@link TagValueLexer} without decoding them.
+ *
+ * @author Gary O'Neall
+ */
+public final class TagDictionary {
+
+	static final String CONSTANTS_PATH = "org/spdx/tag/SpdxTagValueConstants.properties";
+
+	/**
+	 * Tag text (including the trailing <code>:</code>) indexed by the ordinal of the tag
+	 */
+	private static final String[] TAG_TEXT = new String[SpdxTag.values().length];
+	private static final Map<String, SpdxTag> TAGS_BY_TEXT;
+	/**
+	 * Open addressing hash table of the UTF-8 tag bytes
+	 */
+	private static final byte[][] BYTE_KEYS;
+	private static final SpdxTag[] BYTE_VALUES;
+	private static final int BYTE_MASK;
+
+	static {
+		Properties constants;
+		try {
+			constants = CommonCode.getTextFromProperties(CONSTANTS_PATH);
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to load the SPDX tag/value constants", e);
+		}
+		Map<String, SpdxTag> tagsByText = new HashMap<>();
+		for (SpdxTag spdxTag:SpdxTag.values()) {
+			if (spdxTag == SpdxTag.UNKNOWN) {
+				continue;
+			}
+			String text = constants.getProperty(spdxTag.getPropertyKey());
+			if (Objects.isNull(text)) {
+				throw new RuntimeException("Missing tag/value constant "+spdxTag.getPropertyKey());
+			}
+			text = text.trim();
+			if (Objects.nonNull(tagsByText.put(text, spdxTag))) {
+				throw new RuntimeException("Duplicate tag/value constant "+text);
+			}
+			TAG_TEXT[spdxTag.ordinal()] = text;
+		}
+		TAGS_BY_TEXT = Collections.unmodifiableMap(tagsByText);
+		int tableSize = Integer.highestOneBit(tagsByText.size() * 4);
+		BYTE_KEYS = new byte[tableSize][];
+		BYTE_VALUES = new SpdxTag[tableSize];
+		BYTE_MASK = tableSize - 1;
+		for (Map.Entry<String, SpdxTag> entry:tagsByText.entrySet()) {
+			byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+			int slot = hash(ByteBuffer.wrap(key), 0, key.length) & BYTE_MASK;
+			while (Objects.nonNull(BYTE_KEYS[slot])) {
+				slot = (slot + 1) & BYTE_MASK;
+			}
+			BYTE_KEYS[slot] = key;
+			BYTE_VALUES[slot] = entry.getValue();
+		}
+	}
+
+	private TagDictionary() {
+		// static lookups only
+	}
+
+	/**
+	 * @param tag text of the tag including the trailing <code>:</code> - surrounding whitespace is ignored
+	 * @return the SPDX tag or {@link SpdxTag#UNKNOWN} if the tag is not defined
+	 */
+	public static SpdxTag lookup(String tag) {
+		SpdxTag retval = TAGS_BY_TEXT.get(tag);
+		if (Objects.isNull(retval)) {
+			String trimmed = tag.trim();
+			if (trimmed.length() != tag.length()) {
+				retval = TAGS_BY_TEXT.get(trimmed);
+			}
+		}
+		return Objects.isNull(retval) ? SpdxTag.UNKNOWN : retval;
+	}
+
+	/**
+	 * Look up a tag directly from UTF-8 encoded bytes
+	 * @param bytes buffer containing the tag - the position and limit are not used or modified
+	 * @param start index of the first byte of the tag
+	 * @param end index following the trailing <code>:</code> of the tag
+	 * @return the SPDX tag or {@link SpdxTag#UNKNOWN} if the tag is not defined
+	 */
+	public static SpdxTag lookup(ByteBuffer bytes, int start, int end) {
+		int slot = hash(bytes, start, end) & BYTE_MASK;
+		byte[] key;
+		while (Objects.nonNull(key = BYTE_KEYS[slot])) {
+			if (matches(key, bytes, start, end)) {
+				return BYTE_VALUES[slot];
+			}
+			slot = (slot + 1) & BYTE_MASK;
+		}
+		return SpdxTag.UNKNOWN;
+	}
+
+	/**
+	 * @param spdxTag SPDX tag
+	 * @return text of the tag including the trailing <code>:</code> or null for {@link SpdxTag#UNKNOWN}
+	 */
+	public static String getTag(SpdxTag spdxTag) {
+		return TAG_TEXT[spdxTag.ordinal()];
+	}
+
+	private static int hash(ByteBuffer bytes, int start, int end) {
+		int h = 0;
+		for (int i = start; i < end; i++) {
+			h = 31 * h + bytes.get(i);
+		}
+		return h ^ (h >>> 16);
+	}
+
+	private static boolean matches(byte[] key, ByteBuffer bytes, int start, int end) {
+		if (key.length != end - start) {
+			return false;
+		}
+		for (int i = 0; i < key.length; i++) {
+			if (key[i] != bytes.get(start + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
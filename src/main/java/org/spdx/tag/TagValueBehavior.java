@@ -27,6 +27,18 @@ package org.spdx.tag;
 
 public interface TagValueBehavior {
   public void buildDocument(String tag, String value, int lineNumber) throws Exception;
+  /**
+   * Build a tag/value pair whose tag has already been looked up in the {@link TagDictionary}.  Parsers driven by
+   * the {@link TagValueLexer} call this method so that behaviors dispatching on the tag do not look it up again.
+   * @param spdxTag dictionary entry for the tag - {@link SpdxTag#UNKNOWN} if the tag is not an SPDX tag
+   * @param tag the tag including the trailing <code>:</code>
+   * @param value the value
+   * @param lineNumber line number of the tag/value pair
+   * @throws Exception
+   */
+  public default void buildDocument(SpdxTag spdxTag, String tag, String value, int lineNumber) throws Exception {
+    buildDocument(tag, value, lineNumber);
+  }
   public void enter() throws Exception;
   public void exit() throws Exception;
 }
@@ -0,0 +1,251 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.spdx.library.model.v2.ModelObjectV2;
+
+/**
+ * Publishes the SPDX elements of a tag/value document as they are parsed.
+ * <p>
+ * Files and extracted licenses are published as soon as the section following them starts and packages
+ * once the following package starts, while snippets and relationships are published once the end of the
+ * document has been reached (see {@link BuildDocument#setElementListener(java.util.function.Consumer)}).  The document is only
+ * parsed as far as needed to satisfy the items requested by the subscriber, so a slow subscriber
+ * limits the parsing rather than completed elements queuing up for the subscriber.  Every element is still
+ * built into the store of the behavior, so the memory used by the store is the same as deserializing the
+ * whole document regardless of the demand.  Parsing takes place on the thread calling
+ * {@link ElementFlow.Subscription#request(long)} and a cancellation from another thread takes effect once the
+ * tag being parsed is complete.
+ * <p>
+ * The publisher supports a single subscriber.  The input is closed once the document is complete,
+ * an error occurs or the subscription is cancelled.
+ *
+ * @author Gary O'Neall
+ */
+public class TagValueElementPublisher implements ElementFlow.Publisher<ModelObjectV2> {
+
+	private static final ElementFlow.Subscription NO_SUBSCRIPTION = new ElementFlow.Subscription() {
+		@Override
+		public void request(long n) {
+			// nothing to request
+		}
+
+		@Override
+		public void cancel() {
+			// nothing to cancel
+		}
+	};
+
+	/**
+	 * Called once the document has been completely built, before the subscriber is notified of the completion
+	 */
+	@FunctionalInterface
+	public interface CompletionHandler {
+		void complete(BuildDocument buildDocument) throws Exception;
+	}
+
+	private TagValueLexer lexer;
+	private Supplier<BuildDocument> buildDocumentFactory;
+	private BuildDocument buildDocument = null;
+	private Function<Exception, ? extends Throwable> errorMapper = e -> e;
+	private CompletionHandler completionHandler = buildDocument -> {};
+	private boolean subscribed = false;
+
+	/**
+	 * @param lexer lexer for the tag/value document
+	 * @param buildDocument behavior building the document - elements are published through its element listener
+	 */
+	public TagValueElementPublisher(TagValueLexer lexer, BuildDocument buildDocument) {
+		this(lexer, () -> buildDocument);
+	}
+
+	/**
+	 * @param lexer lexer for the tag/value document
+	 * @param buildDocumentFactory creates the behavior building the document when the subscriber subscribes -
+	 * elements are published through its element listener
+	 */
+	public TagValueElementPublisher(TagValueLexer lexer, Supplier<BuildDocument> buildDocumentFactory) {
+		this.lexer = lexer;
+		this.buildDocumentFactory = buildDocumentFactory;
+	}
+
+	/**
+	 * @param errorMapper converts exceptions thrown while parsing to the error passed to the subscriber
+	 */
+	public void setErrorMapper(Function<Exception, ? extends Throwable> errorMapper) {
+		this.errorMapper = errorMapper;
+	}
+
+	/**
+	 * @param completionHandler called once the document is complete - an exception thrown by the handler is passed
+	 * to the subscriber through the error mapper instead of the completion
+	 */
+	public void setCompletionHandler(CompletionHandler completionHandler) {
+		this.completionHandler = Objects.requireNonNull(completionHandler, "Completion handler can not be null");
+	}
+
+	@Override
+	public synchronized void subscribe(ElementFlow.Subscriber<? super ModelObjectV2> subscriber) {
+		Objects.requireNonNull(subscriber, "Subscriber can not be null");
+		if (subscribed) {
+			subscriber.onSubscribe(NO_SUBSCRIPTION);
+			subscriber.onError(new IllegalStateException("Tag/value element publisher only supports a single subscriber"));
+			return;
+		}
+		subscribed = true;
+		buildDocument = buildDocumentFactory.get();
+		ParsingSubscription subscription = new ParsingSubscription(subscriber);
+		buildDocument.setElementListener(subscription.completed::addLast);
+		subscriber.onSubscribe(subscription);
+	}
+
+	/**
+	 * Subscription parsing the document on demand
+	 */
+	private class ParsingSubscription implements ElementFlow.Subscription {
+
+		private ElementFlow.Subscriber<? super ModelObjectV2> subscriber;
+		/**
+		 * Elements completed by the parser which have not yet been requested
+		 */
+		private Deque<ModelObjectV2> completed = new ArrayDeque<>();
+		private long demand = 0;
+		/**
+		 * True while items are being passed to the subscriber - requests made by the subscriber in
+		 * <code>onNext</code> only add to the demand so that the call stack does not grow
+		 */
+		private boolean emitting = false;
+		private boolean parsed = false;
+		/**
+		 * Set without holding the lock by a cancellation so that a request parsing the document stops after the
+		 * current tag
+		 */
+		private volatile boolean terminated = false;
+		/**
+		 * Held while parsing and passing elements to the subscriber
+		 */
+		private final ReentrantLock lock = new ReentrantLock();
+
+		ParsingSubscription(ElementFlow.Subscriber<? super ModelObjectV2> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(long n) {
+			lock.lock();
+			try {
+				if (terminated) {
+					return;
+				}
+				if (n <= 0) {
+					terminated = true;
+					subscriber.onError(new IllegalArgumentException("Number of requested elements must be positive: "+n));
+					return;
+				}
+				demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+				if (emitting) {
+					return;
+				}
+				emitting = true;
+				try {
+					emit();
+				} finally {
+					emitting = false;
+				}
+			} finally {
+				if (terminated) {
+					release();
+				}
+				lock.unlock();
+			}
+			// a cancellation which could not take the lock while the elements were emitted
+			releaseIfCancelled();
+		}
+
+		/**
+		 * Pass completed elements to the subscriber, parsing more of the document as needed, until the demand
+		 * is met or the document is complete
+		 */
+		private void emit() {
+			while (!terminated) {
+				if (!completed.isEmpty()) {
+					if (demand == 0) {
+						return;
+					}
+					demand--;
+					subscriber.onNext(completed.removeFirst());
+				} else if (parsed) {
+					terminated = true;
+					subscriber.onComplete();
+				} else if (demand == 0) {
+					return;
+				} else {
+					try {
+						if (lexer.next()) {
+							buildDocument.buildDocument(lexer.getSpdxTag(), lexer.getTag(), lexer.getValue(), lexer.getLineNumber());
+						} else {
+							buildDocument.exit();
+							lexer.close();
+							completionHandler.complete(buildDocument);
+							parsed = true;
+						}
+					} catch (Exception e) {
+						terminated = true;
+						subscriber.onError(errorMapper.apply(e));
+					}
+				}
+			}
+		}
+
+		@Override
+		public void cancel() {
+			terminated = true;
+			releaseIfCancelled();
+		}
+
+		/**
+		 * Release the parsing resources unless a request is still parsing, in which case the request releases them
+		 */
+		private void releaseIfCancelled() {
+			if (terminated && lock.tryLock()) {
+				try {
+					release();
+				} finally {
+					lock.unlock();
+				}
+			}
+		}
+
+		/**
+		 * Release the completed elements and the input - only called while holding the lock
+		 */
+		private void release() {
+			completed.clear();
+			buildDocument.setElementListener(null);
+			lexer.close();
+		}
+	}
+}
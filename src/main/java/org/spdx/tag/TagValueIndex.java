@@ -0,0 +1,585 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+/**
+ * Index of the byte offsets of the sections of a tag/value file.
+ * <p>
+ * The index maps the ID of the document header and of each package, file, snippet and extracted license to the
+ * byte offset, length and starting line of its section, so a single section can be read from a memory mapped
+ * region of the file without parsing the sections preceding it.  A section extends to the start of the following
+ * section and includes any relationships or annotations between the two.  The index also records the sections
+ * holding relationships or annotations of an element other than the section defining the element, so an element
+ * can be built from only the sections which describe it (see {@link #parseElement(Path, String, TagValueBehavior)}).
+ * <p>
+ * The index is keyed by the SHA-256 hash of the content of the file and can be saved to a sidecar file
+ * (see {@link #sidecar(Path)}) to be reused as long as the content of the file is unchanged.
+ *
+ * @author Gary O'Neall
+ */
+public class TagValueIndex {
+
+	/**
+	 * Extension appended to the name of a tag/value file to form the name of its index sidecar
+	 */
+	public static final String SIDECAR_EXTENSION = ".idx";
+
+	static final String HASH_ALGORITHM = "SHA-256";
+	static final int BUFFER_SIZE = 64 * 1024;
+	private static final int MAGIC = 0x53504958; // SPIX
+	private static final int VERSION = 2;
+	/**
+	 * Projection of the document header of a section other than the header, excluding the relationships and annotations of the document
+	 */
+	private static final TagValueProjection HEADER_PROJECTION = TagValueProjection.of(TagValueProjection.Section.PACKAGE,
+			TagValueProjection.Section.FILE, TagValueProjection.Section.SNIPPET, TagValueProjection.Section.EXTRACTED_LICENSE);
+
+	/**
+	 * Location of a single section of the file
+	 */
+	public static class Entry {
+		private int ordinal;
+		private SpdxTag sectionTag;
+		private String id = null;
+		private long offset;
+		private long length = 0;
+		private int lineNumber;
+
+		Entry(int ordinal, @Nullable SpdxTag sectionTag, long offset, int lineNumber) {
+			this.ordinal = ordinal;
+			this.sectionTag = sectionTag;
+			this.offset = offset;
+			this.lineNumber = lineNumber;
+		}
+
+		/**
+		 * @return position of the section in the file - 0 for the document header
+		 */
+		public int getOrdinal() {
+			return ordinal;
+		}
+
+		/**
+		 * @return the tag starting the section or null for the document header
+		 */
+		public @Nullable SpdxTag getSectionTag() {
+			return sectionTag;
+		}
+
+		/**
+		 * @return the SPDX ID of the document, package or file, the ID of the snippet or the license ID of the
+		 * extracted license, or null if the section has no ID
+		 */
+		public @Nullable String getId() {
+			return id;
+		}
+
+		/**
+		 * @return byte offset of the start of the section in the file
+		 */
+		public long getOffset() {
+			return offset;
+		}
+
+		/**
+		 * @return number of bytes in the section
+		 */
+		public long getLength() {
+			return length;
+		}
+
+		/**
+		 * @return the line number where the section starts
+		 */
+		public int getLineNumber() {
+			return lineNumber;
+		}
+
+		/**
+		 * @return the tag holding the ID of the section
+		 */
+		private SpdxTag idTag() {
+			return sectionTag == SpdxTag.SNIPPET_SPDX_ID || sectionTag == SpdxTag.LICENSE_ID ? sectionTag : SpdxTag.ELEMENT_ID;
+		}
+	}
+
+	private byte[] contentHash;
+	private long contentLength;
+	private long lastModified;
+	private List<Entry> entries;
+	private Map<String, Entry> entriesById = new HashMap<>();
+	/**
+	 * Map of an ID to the sections, other than the section defining the ID, holding relationships or annotations of the ID
+	 */
+	private Map<String, List<Entry>> referencingEntries;
+
+	private TagValueIndex(byte[] contentHash, long contentLength, long lastModified, List<Entry> entries, 
+			Map<String, List<Entry>> referencingEntries) {
+		this.contentHash = contentHash;
+		this.contentLength = contentLength;
+		this.lastModified = lastModified;
+		this.entries = entries;
+		this.referencingEntries = referencingEntries;
+		for (Entry entry:entries) {
+			if (Objects.nonNull(entry.id)) {
+				entriesById.putIfAbsent(entry.id, entry);
+			}
+		}
+	}
+
+	/**
+	 * Index a tag/value file in a single pass over its bytes
+	 * @param file uncompressed tag/value file
+	 * @return index of the sections of the file
+	 * @throws IOException on errors reading the file
+	 */
+	public static TagValueIndex build(Path file) throws IOException {
+		long lastModified = Files.getLastModifiedTime(file).toMillis();
+		try (InputStream stream = Files.newInputStream(file)) {
+			TagValueIndex retval = build(stream);
+			retval.lastModified = lastModified;
+			return retval;
+		}
+	}
+
+	/**
+	 * Index tag/value data in a single pass over its bytes
+	 * @param stream uncompressed UTF-8 encoded tag/value data - read to the end but not closed
+	 * @return index of the sections of the data
+	 * @throws IOException on errors reading the stream
+	 */
+	public static TagValueIndex build(InputStream stream) throws IOException {
+		MessageDigest digest = newDigest();
+		List<Entry> entries = new ArrayList<>();
+		Map<String, List<Entry>> referencingEntries = new HashMap<>();
+		SectionScanner scanner = new SectionScanner();
+		byte[] buffer = new byte[BUFFER_SIZE];
+		ByteBuffer window = ByteBuffer.wrap(buffer);
+		int length = 0;			// number of valid bytes in the buffer
+		int position = 0;		// start of the next line in the buffer
+		long bufferOffset = 0;	// offset of the start of the buffer in the data
+		boolean endOfInput = false;
+		int lineNumber = 0;
+		Entry section = new Entry(0, null, 0, 1);
+		while (true) {
+			int lineEnd = position;
+			while (lineEnd < length && buffer[lineEnd] != '\n' && buffer[lineEnd] != '\r') {
+				lineEnd++;
+			}
+			if (!endOfInput && (lineEnd == length || (buffer[lineEnd] == '\r' && lineEnd + 1 == length))) {
+				// the line, or a CRLF terminator, may continue past the end of the buffer
+				if (position > 0) {
+					System.arraycopy(buffer, position, buffer, 0, length - position);
+					bufferOffset += position;
+					length -= position;
+					position = 0;
+				}
+				if (length == buffer.length) {
+					buffer = Arrays.copyOf(buffer, buffer.length * 2);
+					window = ByteBuffer.wrap(buffer);
+				}
+				int bytesRead = stream.read(buffer, length, buffer.length - length);
+				if (bytesRead < 0) {
+					endOfInput = true;
+				} else {
+					digest.update(buffer, length, bytesRead);
+					length += bytesRead;
+				}
+				continue;
+			}
+			if (position >= length) {
+				break;
+			}
+			int lineStart = position;
+			if (lineEnd < length && buffer[lineEnd] == '\r' && lineEnd + 1 < length && buffer[lineEnd + 1] == '\n') {
+				position = lineEnd + 2;
+			} else {
+				position = Math.min(lineEnd + 1, length);
+			}
+			lineNumber++;
+			int tagEnd = scanner.scanLine(window, lineStart, lineEnd);
+			if (tagEnd < 0) {
+				continue;
+			}
+			SpdxTag tag = TagDictionary.lookup(window, lineStart, tagEnd);
+			if (tag.isSectionStart()) {
+				long sectionOffset = bufferOffset + lineStart;
+				section.length = sectionOffset - section.offset;
+				entries.add(section);
+				section = new Entry(entries.size(), tag, sectionOffset, lineNumber);
+			}
+			if (Objects.isNull(section.id) && tag == section.idTag()) {
+				String id = BuildDocument.trim(new String(buffer, tagEnd, lineEnd - tagEnd, StandardCharsets.UTF_8));
+				if (!id.isEmpty()) {
+					section.id = id;
+				}
+			} else if (tag == SpdxTag.RELATIONSHIP || tag == SpdxTag.ANNOTATION_ID) {
+				String value = new String(buffer, tagEnd, lineEnd - tagEnd, StandardCharsets.UTF_8);
+				String subject = tag == SpdxTag.RELATIONSHIP ? ElementSectionFilter.subject(value) : BuildDocument.trim(value);
+				if (!subject.isEmpty() && !subject.equals(section.id)) {
+					List<Entry> referencing = referencingEntries.get(subject);
+					if (Objects.isNull(referencing)) {
+						referencing = new ArrayList<>(1);
+						referencingEntries.put(subject, referencing);
+					}
+					if (referencing.isEmpty() || referencing.get(referencing.size() - 1) != section) {
+						referencing.add(section);
+					}
+				}
+			}
+		}
+		long contentLength = bufferOffset + length;
+		section.length = contentLength - section.offset;
+		entries.add(section);
+		return new TagValueIndex(digest.digest(), contentLength, 0, entries, referencingEntries);
+	}
+
+	/**
+	 * @param file tag/value file
+	 * @return path of the index sidecar for the file
+	 */
+	public static Path sidecar(Path file) {
+		return file.resolveSibling(file.getFileName().toString() + SIDECAR_EXTENSION);
+	}
+
+	/**
+	 * Read an index saved by {@link #write(Path)}
+	 * @param indexFile index file
+	 * @return the index
+	 * @throws IOException on errors reading the index or if the file is not a tag/value index
+	 */
+	public static TagValueIndex read(Path indexFile) throws IOException {
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+			if (input.readInt() != MAGIC) {
+				throw new IOException(indexFile + " is not a tag/value index");
+			}
+			int version = input.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported tag/value index version " + version + " in " + indexFile);
+			}
+			byte[] contentHash = new byte[input.readUnsignedByte()];
+			input.readFully(contentHash);
+			long contentLength = input.readLong();
+			long lastModified = input.readLong();
+			int count = input.readInt();
+			List<Entry> entries = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				String sectionTag = input.readUTF();
+				Entry entry;
+				try {
+					entry = new Entry(i, sectionTag.isEmpty() ? null : SpdxTag.valueOf(sectionTag), input.readLong(), input.readInt());
+				} catch (IllegalArgumentException e) {
+					throw new IOException("Unknown section tag " + sectionTag + " in " + indexFile);
+				}
+				entry.length = input.readLong();
+				String id = input.readUTF();
+				entry.id = id.isEmpty() ? null : id;
+				entries.add(entry);
+			}
+			int referencedCount = input.readInt();
+			Map<String, List<Entry>> referencingEntries = new HashMap<>();
+			for (int i = 0; i < referencedCount; i++) {
+				String id = input.readUTF();
+				int referencingCount = input.readInt();
+				List<Entry> referencing = new ArrayList<>(referencingCount);
+				for (int j = 0; j < referencingCount; j++) {
+					int ordinal = input.readInt();
+					if (ordinal < 0 || ordinal >= entries.size()) {
+						throw new IOException("Invalid section number " + ordinal + " in " + indexFile);
+					}
+					referencing.add(entries.get(ordinal));
+				}
+				referencingEntries.put(id, referencing);
+			}
+			return new TagValueIndex(contentHash, contentLength, lastModified, entries, referencingEntries);
+		}
+	}
+
+	/**
+	 * Save this index
+	 * @param indexFile file to write the index to - replaced if it exists
+	 * @throws IOException on errors writing the index
+	 */
+	public void write(Path indexFile) throws IOException {
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeByte(contentHash.length);
+			output.write(contentHash);
+			output.writeLong(contentLength);
+			output.writeLong(lastModified);
+			output.writeInt(entries.size());
+			for (Entry entry:entries) {
+				output.writeUTF(Objects.isNull(entry.sectionTag) ? "" : entry.sectionTag.name());
+				output.writeLong(entry.offset);
+				output.writeInt(entry.lineNumber);
+				output.writeLong(entry.length);
+				output.writeUTF(Objects.isNull(entry.id) ? "" : entry.id);
+			}
+			output.writeInt(referencingEntries.size());
+			for (Map.Entry<String, List<Entry>> referencing:referencingEntries.entrySet()) {
+				output.writeUTF(referencing.getKey());
+				output.writeInt(referencing.getValue().size());
+				for (Entry entry:referencing.getValue()) {
+					output.writeInt(entry.ordinal);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Check whether this index describes the current content of a file.  If the size and modification time of the
+	 * file match those when the index was built, the content is assumed to be unchanged.  Otherwise, the hash of the
+	 * content is compared.
+	 * @param file tag/value file
+	 * @return true if this index can be used to read the file
+	 * @throws IOException on errors reading the file
+	 */
+	public boolean isCurrent(Path file) throws IOException {
+		if (Files.size(file) != contentLength) {
+			return false;
+		}
+		if (lastModified != 0 && Files.getLastModifiedTime(file).toMillis() == lastModified) {
+			return true;
+		}
+		MessageDigest digest = newDigest();
+		byte[] buffer = new byte[BUFFER_SIZE];
+		try (InputStream stream = Files.newInputStream(file)) {
+			int bytesRead;
+			while ((bytesRead = stream.read(buffer)) >= 0) {
+				digest.update(buffer, 0, bytesRead);
+			}
+		}
+		return MessageDigest.isEqual(digest.digest(), contentHash);
+	}
+
+	/**
+	 * Load the index of a file from its sidecar, building and saving a new index if the sidecar is missing,
+	 * unreadable or out of date.  If the sidecar can not be written, e.g. in a read only directory, the new
+	 * index is returned without being saved.
+	 * @param file uncompressed tag/value file
+	 * @return current index of the file
+	 * @throws IOException on errors reading the file
+	 */
+	public static TagValueIndex load(Path file) throws IOException {
+		Path sidecar = sidecar(file);
+		if (Files.isRegularFile(sidecar)) {
+			try {
+				TagValueIndex existing = read(sidecar);
+				if (existing.isCurrent(file)) {
+					return existing;
+				}
+			} catch (IOException e) {
+				// rebuild below
+			}
+		}
+		TagValueIndex retval = build(file);
+		try {
+			retval.write(sidecar);
+		} catch (IOException e) {
+			// the index is still usable without the sidecar
+		}
+		return retval;
+	}
+
+	/**
+	 * @return the sections of the file in document order starting with the document header
+	 */
+	public List<Entry> getEntries() {
+		return Collections.unmodifiableList(entries);
+	}
+
+	/**
+	 * @param id SPDX ID of the document, package, file or snippet, or the license ID of an extracted license
+	 * @return the first section with the ID or empty if no section has the ID
+	 */
+	public Optional<Entry> getEntry(String id) {
+		return Optional.ofNullable(entriesById.get(id));
+	}
+
+	/**
+	 * @param id SPDX ID of the document, package, file or snippet
+	 * @return the sections, other than the section defining the element, holding relationships or annotations of the element
+	 */
+	public List<Entry> getReferencingEntries(String id) {
+		List<Entry> retval = referencingEntries.get(id);
+		return Objects.isNull(retval) ? Collections.emptyList() : Collections.unmodifiableList(retval);
+	}
+
+	/**
+	 * @return the SHA-256 hash of the indexed content
+	 */
+	public byte[] getContentHash() {
+		return contentHash.clone();
+	}
+
+	/**
+	 * @return number of bytes in the indexed content
+	 */
+	public long getContentLength() {
+		return contentLength;
+	}
+
+	/**
+	 * Read a single section from a memory mapped region of the indexed file
+	 * @param file the indexed tag/value file
+	 * @param entry section to read
+	 * @return the tag/value pairs of the section
+	 * @throws IOException on errors mapping the file
+	 * @throws RecognitionException if a text block in the section is not properly formed
+	 */
+	public TagValueSection readSection(Path file, Entry entry) throws IOException, RecognitionException {
+		TagValueSection retval = new TagValueSection(entry.sectionTag, entry.lineNumber);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+				TagValueLexer lexer = lexer(channel, entry)) {
+			while (lexer.next()) {
+				retval.add(lexer.getSpdxTag(), BuildDocument.trim(lexer.getValue()));
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Build a single element from the indexed file.  The document header, the section defining the element and
+	 * any other sections holding relationships or annotations of the element are read from memory mapped regions
+	 * of the file.  A package is passed a contains relationship for each file following it.  Only the relationships and annotations of the element are passed to the behavior, along with
+	 * the document creation information and the tags defining the element.  <code>enter()</code> is called on the
+	 * behavior once the document creation information has been passed and before the tags of the element, and
+	 * <code>exit()</code> is called once all of the sections have been read.
+	 * @param file the indexed tag/value file
+	 * @param id SPDX ID of the document, package, file or snippet, or the license ID of an extracted license
+	 * @param behavior behavior building the element
+	 * @return false if no section has the ID
+	 * @throws Exception on errors reading the file or building the element
+	 */
+	public boolean parseElement(Path file, String id, TagValueBehavior behavior) throws Exception {
+		Entry entry = entriesById.get(id);
+		if (Objects.isNull(entry)) {
+			return false;
+		}
+		Entry header = entries.get(0);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (entry == header) {
+				behavior.enter();
+				parseSection(channel, header, new ElementSectionFilter(behavior, id, false));
+			} else {
+				try (TagValueLexer lexer = lexer(channel, header)) {
+					lexer.setProjection(HEADER_PROJECTION);
+					while (lexer.next()) {
+						behavior.buildDocument(lexer.getSpdxTag(), lexer.getTag(), lexer.getValue(), lexer.getLineNumber());
+					}
+				}
+				behavior.enter();
+			}
+			for (Entry referencing:getReferencingEntries(id)) {
+				parseSection(channel, referencing, new ElementSectionFilter(behavior, id, true));
+			}
+			if (entry != header) {
+				parseSection(channel, entry, new ElementSectionFilter(behavior, id, false));
+			}
+		}
+		if (entry.sectionTag == SpdxTag.PACKAGE_DECLARED_NAME) {
+			// files following a package are contained by the package
+			for (Entry contained:entries.subList(entry.ordinal + 1, entries.size())) {
+				if (contained.sectionTag == SpdxTag.PACKAGE_DECLARED_NAME) {
+					break;
+				}
+				if (contained.sectionTag == SpdxTag.FILE_NAME && Objects.nonNull(contained.id)) {
+					behavior.buildDocument(SpdxTag.RELATIONSHIP, SpdxTag.RELATIONSHIP.getTag(), id + " CONTAINS " + contained.id, contained.lineNumber);
+				}
+			}
+		}
+		behavior.exit();
+		return true;
+	}
+
+	/**
+	 * Pass the tags of a section to a section filter
+	 */
+	private static void parseSection(FileChannel channel, Entry entry, ElementSectionFilter filter) throws Exception {
+		try (TagValueLexer lexer = lexer(channel, entry)) {
+			while (lexer.next()) {
+				filter.buildDocument(lexer.getSpdxTag(), lexer.getTag(), lexer.getValue(), lexer.getLineNumber());
+			}
+		}
+		filter.exit();
+	}
+
+	/**
+	 * @param channel channel for the indexed file
+	 * @param entry section to lex
+	 * @return lexer for a memory mapped region of the file holding the section
+	 * @throws IOException on errors mapping the file
+	 */
+	private static TagValueLexer lexer(FileChannel channel, Entry entry) throws IOException {
+		if (entry.length > Integer.MAX_VALUE) {
+			throw new IOException("Section at line " + entry.lineNumber + " is too large to map");
+		}
+		ByteBuffer region = channel.map(MapMode.READ_ONLY, entry.offset, entry.length);
+		return new TagValueLexer(new TagValueLexer.BufferWindowSource(region, 0, region.limit()), entry.lineNumber);
+	}
+
+	/**
+	 * Read the section with an ID from a memory mapped region of the indexed file
+	 * @param file the indexed tag/value file
+	 * @param id SPDX ID of the document, package, file or snippet, or the license ID of an extracted license
+	 * @return the tag/value pairs of the section or empty if no section has the ID
+	 * @throws IOException on errors mapping the file
+	 * @throws RecognitionException if a text block in the section is not properly formed
+	 */
+	public Optional<TagValueSection> readSection(Path file, String id) throws IOException, RecognitionException {
+		Optional<Entry> entry = getEntry(id);
+		return entry.isPresent() ? Optional.of(readSection(file, entry.get())) : Optional.empty();
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform is required to support SHA-256
+			throw new RuntimeException(e);
+		}
+	}
+}
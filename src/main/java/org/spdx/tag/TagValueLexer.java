@@ -0,0 +1,633 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Byte oriented lexer for SPDX tag/value files.
+ * <p>
+ * The lexer scans the raw UTF-8 bytes of the input through a <code>ByteBuffer</code> window,
+ * skipping comments and empty lines and locating the <code>Tag:</code> prefix and any
+ * <code>&lt;text&gt; &lt;/text&gt;</code> blocks without decoding the input.  Strings are only
+ * created for the tags and values returned by {@link #getTag()} and {@link #getValue()}.
+ * Multi-line text values are collected in a {@link TextBlockAccumulator} and are only converted
+ * to a <code>String</code> when {@link #getValue()} is called.
+ * <p>
+ * The comment and text block rules are the same as those implemented by the
+ * {@link NoCommentInputStream} and the original line based {@link HandBuiltParser}.
+ * <p>
+ * If a {@link TagValueProjection} is set, tags which are not included in the projection are skipped
+ * at the byte level - their values, including any text blocks, are never decoded or accumulated.
+ *
+ * @author Gary O'Neall
+ */
+public class TagValueLexer implements Closeable {
+
+	static final Logger logger = LoggerFactory.getLogger(TagValueLexer.class.getName());
+
+	static final byte[] START_TEXT = "<text>".getBytes(StandardCharsets.US_ASCII);
+	static final byte[] END_TEXT = "</text>".getBytes(StandardCharsets.US_ASCII);
+	private static final byte COMMENT_CHAR = '#';
+	static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Supplies the windows of bytes scanned by the lexer
+	 */
+	abstract static class ByteWindowSource implements Closeable {
+		/**
+		 * Returned by {@link #refill(ByteBuffer, int)} when no more input is available yet but the end of the input has not been reached
+		 */
+		static final ByteBuffer NEED_INPUT = ByteBuffer.allocate(0);
+
+		/**
+		 * Read more of the input into a window
+		 * @param window current window
+		 * @param keepFrom index in the current window of the first byte which has not been consumed
+		 * @return window containing the unconsumed bytes starting at index 0 followed by at least one more byte,
+		 * null at the end of the input, or {@link #NEED_INPUT} if more input has not yet been supplied
+		 * @throws IOException
+		 */
+		abstract ByteBuffer refill(ByteBuffer window, int keepFrom) throws IOException;
+
+		/**
+		 * @return the initial (possibly empty) window
+		 */
+		abstract ByteBuffer initialWindow();
+	}
+
+	/**
+	 * Window source reading from an input stream into a reusable array
+	 */
+	static class InputStreamWindowSource extends ByteWindowSource {
+
+		private InputStream inputStream;
+		private byte[] buffer;
+
+		InputStreamWindowSource(InputStream inputStream, int bufferSize) {
+			this.inputStream = inputStream;
+			this.buffer = new byte[bufferSize];
+		}
+
+		@Override
+		ByteBuffer initialWindow() {
+			return ByteBuffer.wrap(buffer, 0, 0);
+		}
+
+		@Override
+		ByteBuffer refill(ByteBuffer window, int keepFrom) throws IOException {
+			int kept = window.limit() - keepFrom;
+			if (keepFrom > 0 && kept > 0) {
+				System.arraycopy(buffer, keepFrom, buffer, 0, kept);
+			}
+			if (kept == buffer.length) {
+				// a single line is larger than the buffer
+				buffer = Arrays.copyOf(buffer, buffer.length * 2);
+			}
+			int bytesRead = inputStream.read(buffer, kept, buffer.length - kept);
+			if (bytesRead < 0) {
+				return null;
+			}
+			return ByteBuffer.wrap(buffer, 0, kept + bytesRead);
+		}
+
+		@Override
+		public void close() throws IOException {
+			inputStream.close();
+		}
+	}
+
+	/**
+	 * Window source for input which is already entirely in a buffer
+	 */
+	static class BufferWindowSource extends ByteWindowSource {
+
+		private ByteBuffer buffer;
+
+		/**
+		 * @param buffer buffer containing the input
+		 * @param start index in the buffer of the first byte of the input
+		 * @param end index in the buffer following the last byte of the input
+		 */
+		BufferWindowSource(ByteBuffer buffer, int start, int end) {
+			ByteBuffer slice = buffer.duplicate();
+			((Buffer)slice).limit(end);
+			((Buffer)slice).position(start);
+			this.buffer = slice.slice();
+		}
+
+		@Override
+		ByteBuffer initialWindow() {
+			return buffer;
+		}
+
+		@Override
+		ByteBuffer refill(ByteBuffer window, int keepFrom) {
+			return null;
+		}
+
+		@Override
+		public void close() {
+			// nothing to close
+		}
+	}
+
+	private ByteWindowSource source;
+	/**
+	 * Input which has already been filtered for comments - only used by the line based constructor
+	 */
+	private NoCommentInputStream lineInput;
+	private ByteBuffer window;
+	/**
+	 * Index in the window of the first byte not yet consumed
+	 */
+	private int position = 0;
+	private int lineStart;
+	private int lineEnd;
+	/**
+	 * True if the last line ended with a carriage return which may be followed by a line feed
+	 */
+	private boolean skipLineFeed = false;
+	private boolean endOfInput = false;
+	/**
+	 * True if the last call to next() stopped because more input is needed
+	 */
+	private boolean needInput = false;
+	/**
+	 * Index in the window where scanning for the end of the line resumes once more input is available
+	 */
+	private int resumeScan = 0;
+	private int lineNumber = 0;
+	/**
+	 * Text block state used for filtering comments - kept separate from the parser state
+	 * to match the behavior of the NoCommentInputStream
+	 */
+	private boolean commentFilterInText = false;
+	private boolean inTextBlock = false;
+	private TextBlockAccumulator textBlock = new TextBlockAccumulator();
+	private int maxTextLength = Integer.MAX_VALUE;
+	/**
+	 * Line number where the current text block starts
+	 */
+	private int textBlockLineNumber = 0;
+	private TagValueProjection.Filter projectionFilter = null;
+	/**
+	 * True if the lines are part of a text block for a tag which is not included in the projection
+	 */
+	private boolean skippingTextBlock = false;
+	private byte[] scratch = new byte[256];
+
+	private String tag;
+	private SpdxTag spdxTag;
+	private String value;
+	/**
+	 * Value for the current tag - either a String or the text block accumulator
+	 */
+	private CharSequence valueSequence;
+	private int tokenLineNumber;
+
+	/**
+	 * @param inputStream Input stream containing the UTF-8 encoded tag/value data including any comments
+	 */
+	public TagValueLexer(InputStream inputStream) {
+		this(inputStream, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param inputStream Input stream containing the UTF-8 encoded tag/value data including any comments
+	 * @param bufferSize initial size of the read buffer in bytes
+	 */
+	public TagValueLexer(InputStream inputStream, int bufferSize) {
+		this(new InputStreamWindowSource(inputStream, Math.max(bufferSize, 16)));
+	}
+
+	/**
+	 * Creates a lexer which memory maps the file and scans the mapped bytes directly
+	 * @param file file containing the UTF-8 encoded tag/value data including any comments
+	 * @throws IOException on errors opening or mapping the file
+	 */
+	public TagValueLexer(Path file) throws IOException {
+		this(file, MappedFileWindowSource.DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Creates a lexer which memory maps the file and scans the mapped bytes directly
+	 * @param file file containing the UTF-8 encoded tag/value data including any comments
+	 * @param windowSize maximum number of bytes to map at one time
+	 * @throws IOException on errors opening or mapping the file
+	 */
+	public TagValueLexer(Path file, int windowSize) throws IOException {
+		this(new MappedFileWindowSource(file, Math.max(windowSize, 16)));
+	}
+
+	/**
+	 * Creates a lexer reading lines which have already been filtered by a <code>NoCommentInputStream</code>.
+	 * Line numbers are taken from the <code>NoCommentInputStream</code> so that they refer to the original input.
+	 * @param textInput input stream with the comments removed
+	 */
+	public TagValueLexer(NoCommentInputStream textInput) {
+		this.lineInput = textInput;
+		this.window = ByteBuffer.allocate(0);
+	}
+
+	TagValueLexer(ByteWindowSource source) {
+		this.source = source;
+		this.window = source.initialWindow();
+	}
+
+	/**
+	 * @param source source of the input
+	 * @param firstLineNumber line number of the first line supplied by the source
+	 */
+	TagValueLexer(ByteWindowSource source, int firstLineNumber) {
+		this(source);
+		this.lineNumber = firstLineNumber - 1;
+	}
+
+	/**
+	 * Advances to the next tag/value pair
+	 * @return true if a tag and value are available, false at the end of the input
+	 * @throws IOException on errors reading the input
+	 * @throws RecognitionException if a text block is not properly formed
+	 */
+	public boolean next() throws IOException, RecognitionException {
+		if (!inTextBlock) {
+			// the tag is kept while waiting for more input in the middle of a text block
+			tag = null;
+			spdxTag = null;
+		}
+		value = null;
+		valueSequence = null;
+		needInput = false;
+		while (nextLine()) {
+			if (Objects.isNull(lineInput)) {
+				if (!commentFilterInText && (lineStart == lineEnd || window.get(lineStart) == COMMENT_CHAR)) {
+					continue;
+				}
+				if (commentFilterInText) {
+					if (indexOf(END_TEXT, lineStart, lineEnd) >= 0) {
+						commentFilterInText = false;
+					}
+				} else if (indexOf(START_TEXT, lineStart, lineEnd) >= 0 && indexOf(END_TEXT, lineStart, lineEnd) < 0) {
+					commentFilterInText = true;
+				}
+			}
+			if (tokenizeLine()) {
+				return true;
+			}
+		}
+		if (needInput) {
+			return false;
+		}
+		if (inTextBlock || skippingTextBlock) {
+			inTextBlock = false;
+			skippingTextBlock = false;
+			throw new RecognitionException("Unterminated text block at line " + lineNumber + " Expecting </text>");
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if the last call to {@link #next()} returned false because more input must be supplied
+	 * before the next tag/value pair is available rather than because the end of the input was reached
+	 */
+	public boolean needsInput() {
+		return needInput;
+	}
+
+	/**
+	 * @return the tag, including the trailing <code>:</code>, for the current tag/value pair
+	 */
+	public String getTag() {
+		return tag;
+	}
+
+	/**
+	 * @return the dictionary entry for the current tag or {@link SpdxTag#UNKNOWN} if the tag is not an SPDX tag
+	 */
+	public SpdxTag getSpdxTag() {
+		return spdxTag;
+	}
+
+	/**
+	 * @return the value for the current tag/value pair with any text block wrapper removed
+	 */
+	public String getValue() {
+		if (Objects.isNull(value) && Objects.nonNull(valueSequence)) {
+			value = valueSequence.toString();
+		}
+		return value;
+	}
+
+	/**
+	 * The returned sequence may be backed by the lexer's text block buffer and is only valid until the next call to {@link #next()}
+	 * @return the value for the current tag/value pair without converting multi-line text values to a String
+	 */
+	public CharSequence getValueSequence() {
+		return Objects.nonNull(value) ? value : valueSequence;
+	}
+
+	/**
+	 * Limit the size of multi-line text values.  A text value longer than the limit is rejected with a
+	 * {@link RecognitionException} as soon as the limit is exceeded, so a single large text can not
+	 * exhaust the heap.
+	 * @param maxTextLength maximum number of characters in a text value - defaults to no limit
+	 */
+	public void setMaxTextLength(int maxTextLength) {
+		if (maxTextLength <= 0) {
+			throw new IllegalArgumentException("Maximum text length must be positive");
+		}
+		this.maxTextLength = maxTextLength;
+	}
+
+	/**
+	 * @return maximum number of characters in a multi-line text value
+	 */
+	public int getMaxTextLength() {
+		return maxTextLength;
+	}
+
+	/**
+	 * Only return the tag/value pairs included in a projection.  Takes effect for the next tag.
+	 * @param projection sections and tags to return or null to return all tag/value pairs
+	 */
+	public void setProjection(@Nullable TagValueProjection projection) {
+		this.projectionFilter = Objects.isNull(projection) ? null : projection.newFilter();
+	}
+
+	/**
+	 * @return line number where the current tag/value pair ends
+	 */
+	public int getLineNumber() {
+		return tokenLineNumber;
+	}
+
+	/**
+	 * Processes a single line of input
+	 * @return true if the line completes a tag/value pair
+	 * @throws RecognitionException
+	 */
+	private boolean tokenizeLine() throws RecognitionException {
+		if (skippingTextBlock) {
+			if (indexOf(END_TEXT, lineStart, lineEnd) >= 0) {
+				skippingTextBlock = false;
+			}
+			return false;
+		}
+		if (inTextBlock) {
+			if (indexOf(START_TEXT, lineStart, lineEnd) > lineStart) {
+				throw new RecognitionException("Found a text block inside another text block at line " +
+						lineNumber + ".  Expecting </text>");
+			}
+			int endText = indexOf(END_TEXT, lineStart, lineEnd);
+			textBlock.append('\n');
+			if (endText >= 0) {
+				int start = trimStart(lineStart, endText);
+				textBlock.append(window, start, trimEnd(start, endText));
+				inTextBlock = false;	//NOTE: we are skipping any text after the </text>
+				checkTextLength();
+				valueSequence = textBlock;
+				tokenLineNumber = lineNumber;
+				return true;
+			} else {
+				textBlock.append(window, lineStart, lineEnd);
+				checkTextLength();
+				return false;
+			}
+		}
+		int tagEnd = lineStart;
+		while (tagEnd < lineEnd && isWordByte(window.get(tagEnd))) {
+			tagEnd++;
+		}
+		if (tagEnd == lineStart || tagEnd >= lineEnd || window.get(tagEnd) != ':') {
+			// note - we just ignore any lines that do not start with a tag
+			return false;
+		}
+		tagEnd++;
+		spdxTag = TagDictionary.lookup(window, lineStart, tagEnd);
+		if (Objects.nonNull(projectionFilter) && !projectionFilter.accept(spdxTag)) {
+			int startText = indexOf(START_TEXT, tagEnd, lineEnd);
+			if (startText >= 0 && indexOf(END_TEXT, startText + START_TEXT.length, lineEnd) < 0) {
+				skippingTextBlock = true;
+			}
+			spdxTag = null;
+			return false;
+		}
+		tag = spdxTag == SpdxTag.UNKNOWN ? decode(lineStart, tagEnd) : spdxTag.getTag();
+		tokenLineNumber = lineNumber;
+		int startText = indexOf(START_TEXT, lineStart, lineEnd);
+		if (startText > lineStart) {
+			int valueStart = trimStart(startText + START_TEXT.length, lineEnd);
+			int valueEnd = trimEnd(valueStart, lineEnd);
+			int endText = indexOf(END_TEXT, valueStart, valueEnd);
+			if (endText >= 0) {
+				valueEnd = trimEnd(valueStart, endText);
+				value = decode(valueStart, valueEnd);
+				return true;
+			} else {
+				textBlock.clear();
+				textBlock.append(window, valueStart, valueEnd);
+				textBlockLineNumber = lineNumber;
+				inTextBlock = true;
+				checkTextLength();
+				return false;
+			}
+		} else {
+			int valueStart = trimStart(tagEnd, lineEnd);
+			value = decode(valueStart, trimEnd(valueStart, lineEnd));
+			return true;
+		}
+	}
+
+	/**
+	 * @throws RecognitionException if the current text block is longer than the maximum text length
+	 */
+	private void checkTextLength() throws RecognitionException {
+		if (textBlock.length() > maxTextLength) {
+			throw new RecognitionException("Text starting at line " + textBlockLineNumber + 
+					" is longer than the maximum of " + maxTextLength + " characters");
+		}
+	}
+
+	/**
+	 * Locates the next line in the input setting <code>lineStart</code> and <code>lineEnd</code>
+	 * @return true if a line was found, false at the end of the input
+	 * @throws IOException
+	 */
+	private boolean nextLine() throws IOException {
+		if (Objects.nonNull(lineInput)) {
+			String line = lineInput.readLine();
+			if (Objects.isNull(line)) {
+				return false;
+			}
+			window = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+			lineStart = 0;
+			lineEnd = window.limit();
+			lineNumber = lineInput.getCurrentLineNo();
+			return true;
+		}
+		int scan = Math.max(position, resumeScan);
+		resumeScan = 0;
+		while (true) {
+			int limit = window.limit();
+			if (skipLineFeed && position < limit) {
+				if (window.get(position) == '\n') {
+					position++;
+					scan = Math.max(scan, position);
+				}
+				skipLineFeed = false;
+			}
+			for (int i = scan; i < limit; i++) {
+				byte b = window.get(i);
+				if (b == '\n' || b == '\r') {
+					lineStart = position;
+					lineEnd = i;
+					position = i + 1;
+					if (b == '\r') {
+						skipLineFeed = true;
+					}
+					lineNumber++;
+					return true;
+				}
+			}
+			scan = limit;
+			if (!endOfInput) {
+				ByteBuffer newWindow = source.refill(window, position);
+				if (newWindow == ByteWindowSource.NEED_INPUT) {
+					needInput = true;
+					resumeScan = limit;
+					return false;
+				}
+				if (Objects.nonNull(newWindow)) {
+					window = newWindow;
+					scan = scan - position;
+					position = 0;
+					continue;
+				}
+				endOfInput = true;
+			}
+			if (position < window.limit()) {
+				lineStart = position;
+				lineEnd = window.limit();
+				position = lineEnd;
+				lineNumber++;
+				return true;
+			}
+			return false;
+		}
+	}
+
+	static boolean isWordByte(byte b) {
+		return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '_';
+	}
+
+	/**
+	 * @return index of the first byte at or after start which is not whitespace
+	 */
+	private int trimStart(int start, int end) {
+		return trimStart(window, start, end);
+	}
+
+	static int trimStart(ByteBuffer bytes, int start, int end) {
+		while (start < end && (bytes.get(start) & 0xFF) <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	/**
+	 * @return index following the last byte before end which is not whitespace
+	 */
+	private int trimEnd(int start, int end) {
+		return trimEnd(window, start, end);
+	}
+
+	static int trimEnd(ByteBuffer bytes, int start, int end) {
+		while (end > start && (bytes.get(end - 1) & 0xFF) <= ' ') {
+			end--;
+		}
+		return end;
+	}
+
+	/**
+	 * @return index in the window of the first occurrence of pattern between start and end or -1 if not found
+	 */
+	private int indexOf(byte[] pattern, int start, int end) {
+		return indexOf(window, pattern, start, end);
+	}
+
+	static int indexOf(ByteBuffer bytes, byte[] pattern, int start, int end) {
+		int last = end - pattern.length;
+		byte first = pattern[0];
+		for (int i = start; i <= last; i++) {
+			if (bytes.get(i) == first) {
+				int j = 1;
+				while (j < pattern.length && bytes.get(i + j) == pattern[j]) {
+					j++;
+				}
+				if (j == pattern.length) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	private String decode(int start, int end) {
+		if (window.hasArray()) {
+			return new String(window.array(), window.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+		}
+		int len = end - start;
+		if (scratch.length < len) {
+			scratch = new byte[Math.max(len, scratch.length * 2)];
+		}
+		for (int i = 0; i < len; i++) {
+			scratch[i] = window.get(start + i);
+		}
+		return new String(scratch, 0, len, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void close() {
+		if (Objects.nonNull(lineInput)) {
+			lineInput.close();
+		}
+		textBlock.clear();
+		if (Objects.nonNull(source)) {
+			try {
+				source.close();
+			} catch (IOException e) {
+				logger.error("IO Error closing input: "+e.getMessage());
+			}
+		}
+	}
+}
@@ -0,0 +1,246 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Selects the sections and tags of a tag/value document which are parsed.
+ * <p>
+ * The document level properties, such as the SPDX version, document namespace and creation information, are
+ * always included.  Packages, files, snippets, extracted licenses, relationships and annotations are only
+ * included if their section is included.  For an included section, either all tags or only the tags listed are
+ * included - the tag starting the section and the SPDX ID of the element are always included.  Relationships and
+ * annotations which are part of an element which is not included are not included.
+ * <p>
+ * A lexer with a projection skips the tags which are not included, including any multi-line text values, without
+ * decoding them, so they are never passed to the <code>TagValueBehavior</code>.
+ *
+ * @author Gary O'Neall
+ */
+public class TagValueProjection {
+
+	/**
+	 * Sections of a tag/value document which may be included in a projection
+	 */
+	public enum Section {
+		PACKAGE,
+		FILE,
+		SNIPPET,
+		EXTRACTED_LICENSE,
+		RELATIONSHIP,
+		ANNOTATION
+	}
+
+	private static final Map<Section, Set<SpdxTag>> REQUIRED_TAGS = new EnumMap<>(Section.class);
+	static {
+		REQUIRED_TAGS.put(Section.PACKAGE, EnumSet.of(SpdxTag.PACKAGE_DECLARED_NAME, SpdxTag.ELEMENT_ID));
+		REQUIRED_TAGS.put(Section.FILE, EnumSet.of(SpdxTag.FILE_NAME, SpdxTag.ELEMENT_ID));
+		REQUIRED_TAGS.put(Section.SNIPPET, EnumSet.of(SpdxTag.SNIPPET_SPDX_ID));
+		REQUIRED_TAGS.put(Section.EXTRACTED_LICENSE, EnumSet.of(SpdxTag.LICENSE_ID));
+		REQUIRED_TAGS.put(Section.RELATIONSHIP, EnumSet.of(SpdxTag.RELATIONSHIP));
+		REQUIRED_TAGS.put(Section.ANNOTATION, EnumSet.of(SpdxTag.ANNOTATOR, SpdxTag.ANNOTATION_ID));
+	}
+
+	/**
+	 * Included tags by section - a null value includes all of the tags of the section
+	 */
+	private Map<Section, Set<SpdxTag>> sections = new EnumMap<>(Section.class);
+
+	/**
+	 * @param sections sections to include with all of their tags
+	 * @return a projection including the sections
+	 */
+	public static TagValueProjection of(Section... sections) {
+		TagValueProjection projection = new TagValueProjection();
+		for (Section section:sections) {
+			projection.include(section);
+		}
+		return projection;
+	}
+
+	/**
+	 * Include a section with all of its tags
+	 * @param section section to include
+	 * @return this projection
+	 */
+	public TagValueProjection include(Section section) {
+		Objects.requireNonNull(section, "Section can not be null");
+		sections.put(section, null);
+		return this;
+	}
+
+	/**
+	 * Include a section with only some of its tags.  If the section is already included, the tags are
+	 * added to the tags already included.
+	 * @param section section to include
+	 * @param tags tags of the section to include in addition to the tag starting the section and the SPDX ID
+	 * @return this projection
+	 */
+	public TagValueProjection include(Section section, SpdxTag... tags) {
+		Objects.requireNonNull(section, "Section can not be null");
+		if (sections.containsKey(section) && Objects.isNull(sections.get(section))) {
+			return this;	// already includes all tags
+		}
+		Set<SpdxTag> includedTags = sections.get(section);
+		if (Objects.isNull(includedTags)) {
+			includedTags = EnumSet.copyOf(REQUIRED_TAGS.get(section));
+			sections.put(section, includedTags);
+		}
+		Collections.addAll(includedTags, tags);
+		return this;
+	}
+
+	/**
+	 * @param section section
+	 * @return true if the section is included
+	 */
+	public boolean includes(Section section) {
+		return sections.containsKey(section);
+	}
+
+	/**
+	 * @param section section
+	 * @param tag tag within the section
+	 * @return true if the tag is included in the section
+	 */
+	public boolean includes(Section section, SpdxTag tag) {
+		if (!sections.containsKey(section)) {
+			return false;
+		}
+		Set<SpdxTag> includedTags = sections.get(section);
+		return Objects.isNull(includedTags) || includedTags.contains(tag);
+	}
+
+	/**
+	 * @return a new filter for a single pass through a document
+	 */
+	Filter newFilter() {
+		return new Filter();
+	}
+
+	/**
+	 * Decides whether each tag of a document is included, tracking the section the tag is part of using the
+	 * same rules as {@link BuildDocument}
+	 */
+	class Filter {
+
+		private boolean inAnnotation = false;
+		private boolean inFileDefinition = false;
+		private boolean inSnippetDefinition = false;
+		private boolean inPackageDefinition = false;
+		private boolean inExtractedLicenseDefinition = false;
+		private boolean annotationIncluded = false;
+		private boolean relationshipIncluded = false;
+
+		/**
+		 * @param tag next tag in the document
+		 * @return true if the tag is included in the projection
+		 */
+		boolean accept(SpdxTag tag) {
+			if (inAnnotation && BuildDocument.ANNOTATION_TAGS.contains(tag)) {
+				return annotationIncluded && includes(Section.ANNOTATION, tag);
+			} else if (inFileDefinition && BuildDocument.FILE_TAGS.contains(tag)) {
+				return acceptElementTag(Section.FILE, tag);
+			} else if (inSnippetDefinition && BuildDocument.SNIPPET_TAGS.contains(tag)) {
+				return acceptElementTag(Section.SNIPPET, tag);
+			} else if (inPackageDefinition && BuildDocument.PACKAGE_TAGS.contains(tag)) {
+				if (tag == SpdxTag.FILE_NAME) {
+					// a file following a package
+					inFileDefinition = true;
+					inSnippetDefinition = false;
+					inAnnotation = false;
+					return includes(Section.FILE);
+				}
+				return acceptElementTag(Section.PACKAGE, tag);
+			} else if (inExtractedLicenseDefinition && BuildDocument.EXTRACTED_LICENSE_TAGS.contains(tag)) {
+				return includes(Section.EXTRACTED_LICENSE, tag);
+			}
+			inAnnotation = false;
+			inFileDefinition = false;
+			inPackageDefinition = false;
+			inSnippetDefinition = false;
+			switch (tag) {
+				case PACKAGE_DECLARED_NAME:
+					inPackageDefinition = true;
+					inExtractedLicenseDefinition = false;
+					return includes(Section.PACKAGE);
+				case FILE_NAME:
+					inFileDefinition = true;
+					inExtractedLicenseDefinition = false;
+					return includes(Section.FILE);
+				case SNIPPET_SPDX_ID:
+					inSnippetDefinition = true;
+					inExtractedLicenseDefinition = false;
+					return includes(Section.SNIPPET);
+				case LICENSE_ID:
+					inExtractedLicenseDefinition = true;
+					return includes(Section.EXTRACTED_LICENSE);
+				case ANNOTATOR:
+					return startAnnotation(true);
+				case RELATIONSHIP:
+					return startRelationship(true);
+				case RELATIONSHIP_COMMENT:
+					return relationshipIncluded;
+				case REVIEW_REVIEWER:
+				case REVIEW_DATE:
+				case REVIEW_COMMENT:
+					// reviews are converted to annotations
+					return includes(Section.ANNOTATION);
+				default:
+					// document level properties are always included
+					return true;
+			}
+		}
+
+		/**
+		 * @param section section of the element being defined
+		 * @param tag tag within the element definition
+		 * @return true if the tag is included in the projection
+		 */
+		private boolean acceptElementTag(Section section, SpdxTag tag) {
+			switch (tag) {
+				case ANNOTATOR:
+					return startAnnotation(includes(section));
+				case RELATIONSHIP:
+					return startRelationship(includes(section));
+				case RELATIONSHIP_COMMENT:
+					return relationshipIncluded;
+				default:
+					return includes(section, tag);
+			}
+		}
+
+		private boolean startAnnotation(boolean elementIncluded) {
+			inAnnotation = true;
+			annotationIncluded = elementIncluded && includes(Section.ANNOTATION);
+			return annotationIncluded;
+		}
+
+		private boolean startRelationship(boolean elementIncluded) {
+			relationshipIncluded = elementIncluded && includes(Section.RELATIONSHIP);
+			return relationshipIncluded;
+		}
+	}
+}
@@ -0,0 +1,142 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+
+/**
+ * Queries over tag/value documents which stop reading as soon as they have an answer.
+ * <p>
+ * The document is read section by section through a {@link TagValueReader} without building a model.
+ * Each query closes the reader, and with it the input, as soon as the answer is found, so finding an
+ * element near the start of a large document, or reading the document header, only reads that part
+ * of the document.
+ *
+ * @author Gary O'Neall
+ */
+public final class TagValueQuery {
+
+	/**
+	 * External reference type of package URLs
+	 */
+	public static final String PURL_REFERENCE_TYPE = "purl";
+
+	private TagValueQuery() {
+		// static queries only
+	}
+
+	/**
+	 * Read the document header - the document creation information and any other tags preceding the
+	 * first package, file, snippet or extracted license
+	 * @param reader reader positioned at the start of the document - closed once the header is read
+	 * @return the document header
+	 * @throws IOException on errors reading the input
+	 * @throws RecognitionException if a text block is not properly formed
+	 */
+	public static TagValueSection readHeader(TagValueReader reader) throws IOException, RecognitionException {
+		try {
+			TagValueSection header = new TagValueSection(null, 0);
+			while (reader.next() && !reader.spdxTag().isSectionStart()) {
+				header.add(reader.spdxTag(), BuildDocument.trim(reader.value()));
+			}
+			return header;
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Find the first section matching a predicate, starting with the document header
+	 * @param reader reader positioned at the start of the document - closed once a matching section is found
+	 * @param predicate test for a matching section
+	 * @return the first matching section or empty if no section matches
+	 * @throws IOException on errors reading the input
+	 * @throws RecognitionException if a text block is not properly formed
+	 */
+	public static Optional<TagValueSection> findFirst(TagValueReader reader, Predicate<TagValueSection> predicate) throws IOException, RecognitionException {
+		Objects.requireNonNull(predicate, "Predicate can not be null");
+		try {
+			TagValueSection section = new TagValueSection(null, 0);
+			while (reader.next()) {
+				SpdxTag tag = reader.spdxTag();
+				if (tag.isSectionStart()) {
+					if (predicate.test(section)) {
+						return Optional.of(section);
+					}
+					section = new TagValueSection(tag, reader.lineNumber());
+				}
+				section.add(tag, BuildDocument.trim(reader.value()));
+			}
+			return predicate.test(section) ? Optional.of(section) : Optional.empty();
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Find the first package with an external reference to a package URL
+	 * @param reader reader positioned at the start of the document - closed once the package is found
+	 * @param purl package URL
+	 * @return the package section or empty if no package refers to the package URL
+	 * @throws IOException on errors reading the input
+	 * @throws RecognitionException if a text block is not properly formed
+	 */
+	public static Optional<TagValueSection> findPackageByPurl(TagValueReader reader, String purl) throws IOException, RecognitionException {
+		return findFirst(reader, hasExternalRef(PURL_REFERENCE_TYPE, purl));
+	}
+
+	/**
+	 * Find the section defining an element, snippet or extracted license
+	 * @param reader reader positioned at the start of the document - closed once the section is found
+	 * @param id SPDX ID of the package, file or snippet, or the license ID of an extracted license
+	 * @return the section or empty if the ID is not defined
+	 * @throws IOException on errors reading the input
+	 * @throws RecognitionException if a text block is not properly formed
+	 */
+	public static Optional<TagValueSection> findById(TagValueReader reader, String id) throws IOException, RecognitionException {
+		Objects.requireNonNull(id, "ID can not be null");
+		return findFirst(reader, section -> !section.isHeader() && id.equals(section.getId().orElse(null)));
+	}
+
+	/**
+	 * @param referenceType external reference type, e.g. <code>purl</code>
+	 * @param locator external reference locator
+	 * @return predicate matching packages with an external reference of the type to the locator
+	 */
+	public static Predicate<TagValueSection> hasExternalRef(String referenceType, String locator) {
+		Objects.requireNonNull(referenceType, "Reference type can not be null");
+		Objects.requireNonNull(locator, "Locator can not be null");
+		return section -> {
+			if (section.getSectionTag() != SpdxTag.PACKAGE_DECLARED_NAME) {
+				return false;
+			}
+			for (String externalRef:section.getValues(SpdxTag.EXTERNAL_REFERENCE)) {
+				Matcher matcher = BuildDocument.EXTERNAL_REF_PATTERN.matcher(externalRef);
+				if (matcher.find() && referenceType.equals(matcher.group(2).trim()) && locator.equals(matcher.group(3).trim())) {
+					return true;
+				}
+			}
+			return false;
+		};
+	}
+}
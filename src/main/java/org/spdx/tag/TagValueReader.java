@@ -0,0 +1,164 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Pull style reader for SPDX tag/value files.
+ * <p>
+ * Tag/value pairs are only read from the input when {@link #next()} is called, so callers can
+ * interleave the reading with their own processing and stop as soon as they have what they need.
+ * The document is made up of sections - the document header followed by packages, files, snippets
+ * and extracted licenses, each started by one of the tags where {@link SpdxTag#isSectionStart()} is true.
+ * {@link #skipSection()} skips the remainder of the current section.
+ * <p>
+ * The input is closed when the reader is closed, whether or not the end of the input was reached.
+ *
+ * @author Gary O'Neall
+ */
+public class TagValueReader implements Closeable {
+
+	private TagValueLexer lexer;
+	/**
+	 * True if the lexer is positioned on a section start which has not yet been returned by next()
+	 */
+	private boolean pending = false;
+	private boolean started = false;
+	private boolean finished = false;
+
+	/**
+	 * @param inputStream Input stream containing the UTF-8 encoded tag/value data
+	 */
+	public TagValueReader(InputStream inputStream) {
+		this(new TagValueLexer(inputStream));
+	}
+
+	/**
+	 * @param file file containing the UTF-8 encoded tag/value data - the file is memory mapped
+	 * @throws IOException on errors opening or mapping the file
+	 */
+	public TagValueReader(Path file) throws IOException {
+		this(new TagValueLexer(file));
+	}
+
+	/**
+	 * @param lexer lexer supplying the tag/value pairs
+	 */
+	public TagValueReader(TagValueLexer lexer) {
+		this.lexer = lexer;
+	}
+
+	/**
+	 * Advance to the next tag/value pair
+	 * @return true if a tag/value pair is available, false at the end of the input
+	 * @throws IOException on errors reading the input
+	 * @throws RecognitionException if a text block is not properly formed
+	 */
+	public boolean next() throws IOException, RecognitionException {
+		if (pending) {
+			pending = false;
+			return true;
+		}
+		if (finished) {
+			return false;
+		}
+		started = true;
+		if (!lexer.next()) {
+			finished = true;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Skip the remaining tag/value pairs in the current section.  If called before the first
+	 * call to {@link #next()}, the document header is skipped.  Following a successful skip,
+	 * {@link #next()} returns the tag which starts the following section.
+	 * @return true if another section follows, false if the end of the input was reached
+	 * @throws IOException on errors reading the input
+	 * @throws RecognitionException if a text block is not properly formed
+	 */
+	public boolean skipSection() throws IOException, RecognitionException {
+		pending = false;
+		if (finished) {
+			return false;
+		}
+		started = true;
+		while (lexer.next()) {
+			if (lexer.getSpdxTag().isSectionStart()) {
+				pending = true;
+				return true;
+			}
+		}
+		finished = true;
+		return false;
+	}
+
+	/**
+	 * @return the current tag including the trailing <code>:</code> or null if there is no current tag/value pair
+	 */
+	public String tag() {
+		return isPositioned() ? lexer.getTag() : null;
+	}
+
+	/**
+	 * @return the dictionary entry for the current tag, {@link SpdxTag#UNKNOWN} if the tag is not an SPDX tag,
+	 * or null if there is no current tag/value pair
+	 */
+	public SpdxTag spdxTag() {
+		return isPositioned() ? lexer.getSpdxTag() : null;
+	}
+
+	/**
+	 * @return the current value or null if there is no current tag/value pair
+	 */
+	public String value() {
+		return isPositioned() ? lexer.getValue() : null;
+	}
+
+	/**
+	 * The returned sequence is only valid until the next call to {@link #next()} or {@link #skipSection()}
+	 * @return the current value without converting multi-line text values to a String
+	 */
+	public CharSequence valueSequence() {
+		return isPositioned() ? lexer.getValueSequence() : null;
+	}
+
+	/**
+	 * @return the line number where the current tag/value pair ends or 0 if there is no current tag/value pair
+	 */
+	public int lineNumber() {
+		return isPositioned() ? lexer.getLineNumber() : 0;
+	}
+
+	private boolean isPositioned() {
+		return started && !finished && !pending;
+	}
+
+	@Override
+	public void close() {
+		finished = true;
+		pending = false;
+		lexer.close();
+	}
+}
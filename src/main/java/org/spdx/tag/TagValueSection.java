@@ -0,0 +1,115 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+/**
+ * Tag/value pairs of a single section of a tag/value document - either the document header or a
+ * package, file, snippet or extracted license started by a tag where {@link SpdxTag#isSectionStart()} is true.
+ * <p>
+ * The values are kept as strings by their tag without building any model objects.
+ *
+ * @author Gary O'Neall
+ */
+public class TagValueSection {
+
+	private SpdxTag sectionTag;
+	private int lineNumber;
+	private Map<SpdxTag, List<String>> values = new EnumMap<>(SpdxTag.class);
+
+	/**
+	 * @param sectionTag tag starting the section or null for the document header
+	 * @param lineNumber line number where the section starts
+	 */
+	TagValueSection(@Nullable SpdxTag sectionTag, int lineNumber) {
+		this.sectionTag = sectionTag;
+		this.lineNumber = lineNumber;
+	}
+
+	/**
+	 * @param tag tag within the section
+	 * @param value value for the tag
+	 */
+	void add(SpdxTag tag, String value) {
+		List<String> tagValues = values.get(tag);
+		if (Objects.isNull(tagValues)) {
+			tagValues = new ArrayList<>(1);
+			values.put(tag, tagValues);
+		}
+		tagValues.add(value);
+	}
+
+	/**
+	 * @return the tag starting the section or null for the document header
+	 */
+	public @Nullable SpdxTag getSectionTag() {
+		return sectionTag;
+	}
+
+	/**
+	 * @return true if this is the document header
+	 */
+	public boolean isHeader() {
+		return Objects.isNull(sectionTag);
+	}
+
+	/**
+	 * @return the line number where the section starts
+	 */
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * @return the SPDX ID of the document, package or file, the ID of the snippet or the license ID of the extracted license
+	 */
+	public Optional<String> getId() {
+		if (sectionTag == SpdxTag.SNIPPET_SPDX_ID || sectionTag == SpdxTag.LICENSE_ID) {
+			return getValue(sectionTag);
+		}
+		return getValue(SpdxTag.ELEMENT_ID);
+	}
+
+	/**
+	 * @param tag tag within the section
+	 * @return the first value for the tag
+	 */
+	public Optional<String> getValue(SpdxTag tag) {
+		List<String> tagValues = values.get(tag);
+		return Objects.isNull(tagValues) ? Optional.empty() : Optional.of(tagValues.get(0));
+	}
+
+	/**
+	 * @param tag tag within the section
+	 * @return all values for the tag in the order they appear in the section
+	 */
+	public List<String> getValues(SpdxTag tag) {
+		List<String> tagValues = values.get(tag);
+		return Objects.isNull(tagValues) ? Collections.emptyList() : Collections.unmodifiableList(tagValues);
+	}
+}
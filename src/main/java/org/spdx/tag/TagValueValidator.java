@@ -0,0 +1,832 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.spdx.library.model.v2.SpdxConstantsCompatV2;
+import org.spdx.library.model.v2.enumerations.AnnotationType;
+import org.spdx.library.model.v2.enumerations.ChecksumAlgorithm;
+import org.spdx.library.model.v2.enumerations.FileType;
+import org.spdx.library.model.v2.enumerations.Purpose;
+import org.spdx.library.model.v2.enumerations.ReferenceCategory;
+import org.spdx.library.model.v2.enumerations.RelationshipType;
+import org.spdx.library.model.v2.license.InvalidLicenseStringException;
+import org.spdx.tag.TagValueWarning.Kind;
+
+/**
+ * Validates an SPDX tag/value document without building a model.
+ * <p>
+ * The tags are checked as they are parsed using the same section rules as {@link BuildDocument}, so a
+ * document fails validation with the same exceptions it would fail deserialization with.  Values are
+ * checked for syntax, and IDs defined and referenced are kept in sets so that references are checked
+ * once the whole document has been read.  Only the IDs, file names and the line numbers of the first
+ * reference to each ID are kept, so the memory used is proportional to the number of distinct IDs
+ * rather than the size of the document.
+ * <p>
+ * Problems which would not prevent the document from being deserialized are added to the warning collector.
+ *
+ * @author Gary O'Neall
+ */
+public class TagValueValidator implements TagValueBehavior {
+
+	private static final Pattern SPDX_ID_PATTERN = Pattern.compile(SpdxConstantsCompatV2.SPDX_ELEMENT_REF_PRENUM + "[A-Za-z0-9.\\-]+");
+	private static final Pattern DATE_PATTERN = Pattern.compile("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}Z");
+	private static final Pattern SPEC_VERSION_PATTERN = Pattern.compile("SPDX-\\d+\\.\\d+");
+	private static final Pattern VERIFICATION_CODE_PATTERN = Pattern.compile("[0-9a-fA-F]{40}");
+	private static final Pattern HEX_PATTERN = Pattern.compile("[0-9a-fA-F]+");
+	private static final Pattern LICENSE_TOKEN_PATTERN = Pattern.compile("\\(|\\)|[^\\s()]+");
+	private static final String[] CREATOR_PREFIXES = new String[] {"Person:", "Organization:", "Tool:"};
+	private static final String DOCUMENT_REF_PREFIX = "DocumentRef-";
+
+	private WarningCollector warnings;
+
+	private boolean inAnnotation = false;
+	private boolean inFileDefinition = false;
+	private boolean inSnippetDefinition = false;
+	private boolean inPackageDefinition = false;
+	private boolean inExtractedLicenseDefinition = false;
+
+	private String specVersion = null;
+	private boolean namespaceDefined = false;
+	private boolean documentNamespaceSet = false;
+	private boolean relationshipFound = false;
+	private boolean describesFound = false;
+	private boolean reviewerFound = false;
+	private boolean packageFound = false;
+
+	private boolean packageOpen = false;
+	private String packageId = null;
+	private int packageLineNumber = 0;
+	private boolean externalRefFound = false;
+	private boolean externalRefCommented = false;
+
+	private boolean fileOpen = false;
+	private String fileId = null;
+	private String fileName = null;
+	private int fileLineNumber = 0;
+	private boolean projectFound = false;
+
+	private int annotationLineNumber = 0;
+	private String annotationId = null;
+
+	/**
+	 * SPDX IDs of all elements defined, including the document
+	 */
+	private Set<String> elementIds = new HashSet<>();
+	private Set<String> fileIds = new HashSet<>();
+	private Set<String> fileNames = new HashSet<>();
+	private Set<String> extractedLicenseIds = new HashSet<>();
+	private Set<String> documentRefIds = new HashSet<>();
+
+	// References by the line number of their first use - checked at the end of the document
+	private Map<String, Integer> elementReferences = new LinkedHashMap<>();
+	private Map<String, Integer> fileDependencies = new LinkedHashMap<>();
+	private Map<String, Integer> snippetFileReferences = new LinkedHashMap<>();
+	private Map<String, Integer> licenseReferences = new LinkedHashMap<>();
+	private Map<String, Integer> documentReferences = new LinkedHashMap<>();
+
+	/**
+	 * @param warnings collector receiving the warnings found
+	 */
+	public TagValueValidator(WarningCollector warnings) {
+		Objects.requireNonNull(warnings, "Warnings can not be null");
+		this.warnings = warnings;
+		elementIds.add(SpdxConstantsCompatV2.SPDX_DOCUMENT_ID);
+	}
+
+	/**
+	 * @return collector receiving the warnings found
+	 */
+	public WarningCollector getWarningCollector() {
+		return warnings;
+	}
+
+	@Override
+	public void enter() throws Exception {
+		// nothing to initialize
+	}
+
+	@Override
+	public void buildDocument(String tag, String value, int lineNumber) throws Exception {
+		buildDocument(TagDictionary.lookup(tag), tag, value, lineNumber);
+	}
+
+	@Override
+	public void buildDocument(SpdxTag spdxTag, String tag, String value, int lineNumber) throws Exception {
+		value = BuildDocument.trim(value);
+		if (inAnnotation && BuildDocument.ANNOTATION_TAGS.contains(spdxTag)) {
+			validateAnnotation(spdxTag, value, lineNumber);
+		} else if (inFileDefinition && BuildDocument.FILE_TAGS.contains(spdxTag)) {
+			validateFile(spdxTag, tag, value, lineNumber);
+		} else if (inSnippetDefinition && BuildDocument.SNIPPET_TAGS.contains(spdxTag)) {
+			validateSnippet(spdxTag, value, lineNumber);
+		} else if (inPackageDefinition && BuildDocument.PACKAGE_TAGS.contains(spdxTag)) {
+			validatePackage(spdxTag, value, lineNumber);
+		} else if (inExtractedLicenseDefinition && BuildDocument.EXTRACTED_LICENSE_TAGS.contains(spdxTag)) {
+			// any extracted license text, name, comment or URLs are valid
+		} else {
+			if (inFileDefinition) {
+				completeFile();
+			}
+			inAnnotation = false;
+			inFileDefinition = false;
+			inPackageDefinition = false;
+			inSnippetDefinition = false;
+			validateDocumentProperty(spdxTag, tag, value, lineNumber);
+		}
+	}
+
+	private void validateDocumentProperty(SpdxTag spdxTag, String tag, String value, int lineNumber) throws Exception {
+		switch (spdxTag) {
+			case SPDX_VERSION:
+				specVersion = value;
+				if (!SPEC_VERSION_PATTERN.matcher(value).matches()) {
+					warn(Kind.INVALID_VALUE, null, lineNumber, "Invalid SPDX version "+value+" at line number "+lineNumber);
+				}
+				break;
+			case SPDX_DATA_LICENSE:
+				if (!SpdxConstantsCompatV2.SPDX_DATA_LICENSE_ID.equals(value)) {
+					warn(Kind.INVALID_VALUE, null, lineNumber, "Invalid data license "+value+" - must be "+
+							SpdxConstantsCompatV2.SPDX_DATA_LICENSE_ID+" at line number "+lineNumber);
+				}
+				break;
+			case DOCUMENT_NAME:
+				break;
+			case DOCUMENT_NAMESPACE:
+				if (documentNamespaceSet) {
+					throw(new InvalidSpdxTagFileException("More than one document namespace was specified at line number "+lineNumber));
+				}
+				documentNamespaceSet = true;
+				namespaceDefined = true;
+				if (value.contains("#") || value.indexOf(':') < 1) {
+					warn(Kind.INVALID_VALUE, null, lineNumber, "Invalid document namespace "+value+
+							" - must be an absolute URI without a # at line number "+lineNumber);
+				}
+				break;
+			case ELEMENT_ID:
+				if (!value.equals(SpdxConstantsCompatV2.SPDX_DOCUMENT_ID)) {
+					throw(new InvalidSpdxTagFileException("SPDX Document "+value
+							+" is invalid.  Document IDs must be "+SpdxConstantsCompatV2.SPDX_DOCUMENT_ID + " at line number "+lineNumber));
+				}
+				break;
+			case EXTERNAL_DOC_URI:
+				checkNamespace();
+				validateExternalDocumentRef(value, lineNumber);
+				break;
+			case RELATIONSHIP:
+				validateRelationship(value, lineNumber);
+				break;
+			case RELATIONSHIP_COMMENT:
+				checkRelationshipFound(value, lineNumber);
+				break;
+			case ANNOTATOR:
+				startAnnotation(value, lineNumber);
+				break;
+			case ANNOTATION_DATE:
+				throw(new InvalidSpdxTagFileException("Annotation date found outside of an annotation: "+value + " at line number "+lineNumber));
+			case ANNOTATION_COMMENT:
+				throw(new InvalidSpdxTagFileException("Annotation comment found outside of an annotation: "+value + " at line number "+lineNumber));
+			case ANNOTATION_ID:
+				throw(new InvalidSpdxTagFileException("Annotation ID found outside of an annotation: "+value + " at line number "+lineNumber));
+			case ANNOTATION_TYPE:
+				throw(new InvalidSpdxTagFileException("Annotation type found outside of an annotation: "+value + " at line number "+lineNumber));
+			case CREATION_CREATOR:
+				checkNamespace();
+				validateCreator(value, "creator", lineNumber);
+				break;
+			case CREATION_CREATED:
+				checkNamespace();
+				validateDate(value, lineNumber);
+				break;
+			case CREATION_COMMENT:
+			case LICENSE_LIST_VERSION:
+			case SPDX_COMMENT:
+				checkNamespace();
+				break;
+			case REVIEW_REVIEWER:
+				checkNamespace();
+				reviewerFound = true;
+				warn(Kind.DEPRECATED, null, lineNumber, "Converted deprecated Reviewer to annotation for reviewer "+value);
+				validateCreator(value, "reviewer", lineNumber);
+				break;
+			case REVIEW_DATE:
+				checkNamespace();
+				if (!reviewerFound) {
+					throw(new InvalidSpdxTagFileException("Missing Reviewer - A reviewer must be provided before a review date"));
+				}
+				validateDate(value, lineNumber);
+				break;
+			case REVIEW_COMMENT:
+				checkNamespace();
+				if (!reviewerFound) {
+					throw(new InvalidSpdxTagFileException("Missing Reviewer - A reviewer must be provided before a review comment"));
+				}
+				break;
+			case LICENSE_ID:
+				checkNamespace();
+				if (!value.startsWith(SpdxConstantsCompatV2.NON_STD_LICENSE_ID_PRENUM)) {
+					if (LicenseExpressionCache.isListedLicenseOrExceptionId(value)) {
+						throw new InvalidSpdxTagFileException("Attempting to redefine a listed license or listed exception with ID "+value);
+					} else {
+						warn(Kind.INVALID_VALUE, value, lineNumber, "Invalid SPDX Listed License ID - must start with " +
+								SpdxConstantsCompatV2.NON_STD_LICENSE_ID_PRENUM + ":" + value);
+					}
+				}
+				if (!extractedLicenseIds.add(value)) {
+					warn(Kind.INVALID_VALUE, value, lineNumber, "Duplicate extracted license ID: "+value);
+				}
+				inExtractedLicenseDefinition = true;
+				break;
+			case PACKAGE_DECLARED_NAME:
+				checkNamespace();
+				inPackageDefinition = true;
+				inFileDefinition = false;
+				inAnnotation = false;
+				inSnippetDefinition = false;
+				inExtractedLicenseDefinition = false;
+				completePackage();
+				packageOpen = true;
+				packageFound = true;
+				packageLineNumber = lineNumber;
+				externalRefFound = false;
+				break;
+			case FILE_NAME:
+				checkNamespace();
+				completeFile();
+				inFileDefinition = true;
+				inPackageDefinition = false;
+				inAnnotation = false;
+				inSnippetDefinition = false;
+				inExtractedLicenseDefinition = false;
+				startFile(value, lineNumber);
+				break;
+			case SNIPPET_SPDX_ID:
+				checkNamespace();
+				inSnippetDefinition = true;
+				inFileDefinition = false;
+				inPackageDefinition = false;
+				inAnnotation = false;
+				inExtractedLicenseDefinition = false;
+				defineElement(value, lineNumber);
+				break;
+			default:
+				throw new InvalidSpdxTagFileException("Expecting a definition of a file, package, license information, or document property at "+tag.trim()+" "+value+" line number "+lineNumber);
+		}
+	}
+
+	private void validatePackage(SpdxTag spdxTag, String value, int lineNumber) throws Exception {
+		switch (spdxTag) {
+			case ELEMENT_ID:
+				if (packageId != null) {
+					throw new InvalidSpdxTagFileException("SPDX ID "+packageId+" was not consumed before new SPDX ID "+value+" was used for a package");
+				}
+				packageId = value;
+				defineElement(value, lineNumber);
+				break;
+			case PACKAGE_VERIFICATION_CODE:
+				String verificationCode = value.contains("(") ? value.substring(0, value.indexOf('(')).trim() : value;
+				if (!VERIFICATION_CODE_PATTERN.matcher(verificationCode).matches()) {
+					warn(Kind.INVALID_VALUE, packageId, lineNumber, "Invalid package verification code "+value+" at line number "+lineNumber);
+				}
+				break;
+			case PACKAGE_CHECKSUM:
+				validateChecksum(value, lineNumber);
+				break;
+			case PACKAGE_BUILT_DATE:
+			case PACKAGE_RELEASE_DATE:
+			case PACKAGE_VALID_UNTIL_DATE:
+				validateDate(value, lineNumber);
+				break;
+			case PACKAGE_CONCLUDED_LICENSE:
+			case PACKAGE_LICENSE_INFO_FROM_FILES:
+			case PACKAGE_DECLARED_LICENSE:
+				validateLicenseExpression(value, lineNumber);
+				break;
+			case EXTERNAL_REFERENCE:
+				validateExternalRef(value, lineNumber);
+				break;
+			case EXTERNAL_REFERENCE_COMMENT:
+				if (!externalRefFound) {
+					throw new InvalidSpdxTagFileException("External reference comment found without an external reference: "+value + " at line number "+lineNumber);
+				}
+				if (externalRefCommented) {
+					throw new InvalidSpdxTagFileException("Second reference comment found for the same external reference: "+value + " at line number "+lineNumber);
+				}
+				externalRefCommented = true;
+				break;
+			case ANNOTATOR:
+				startAnnotation(value, lineNumber);
+				break;
+			case RELATIONSHIP:
+				validateRelationship(value, lineNumber);
+				break;
+			case RELATIONSHIP_COMMENT:
+				checkRelationshipFound(value, lineNumber);
+				break;
+			case FILE_NAME:
+				completeFile();
+				startFile(value, lineNumber);
+				inFileDefinition = true;
+				inSnippetDefinition = false;
+				inAnnotation = false;
+				break;
+			case PRIMARY_PACKAGE_PURPOSE:
+				try {
+					Purpose.valueOf(value.trim());
+				} catch(IllegalArgumentException ex) {
+					try {
+						Purpose.valueOf(value.trim().toUpperCase());
+						warn(Kind.INVALID_VALUE, null, lineNumber, "Invalid Package Purpose - needs to be uppercased: "+value+" at line number "+lineNumber);
+					} catch(IllegalArgumentException ex2) {
+						try {
+							Purpose.valueOf(value.trim().toUpperCase().replaceAll("-", "_"));
+						} catch(IllegalArgumentException ex3) {
+							throw(new InvalidSpdxTagFileException("Unknown Package Purpose: "+value+" at line number "+lineNumber));
+						}
+					}
+				}
+				break;
+			case PACKAGE_FILES_ANALYZED:
+				if ("true".equals(value.toLowerCase()) || "false".equals(value.toLowerCase())) {
+					if (!value.equals(value.toLowerCase())) {
+						warn(Kind.INVALID_VALUE, null, lineNumber, "Warning: Invalid case for boolean value.  Expected '"+
+								value.toLowerCase()+"', found '"+value+"'");
+					}
+				} else {
+					throw(new InvalidSpdxTagFileException("Invalid value for files analyzed.  Must be 'true' or 'false'.  Found value: "+value+" at line number "+lineNumber));
+				}
+				break;
+			default:
+				// the remaining package properties are free text
+				break;
+		}
+	}
+
+	private void validateFile(SpdxTag spdxTag, String tag, String value, int lineNumber) throws Exception {
+		switch (spdxTag) {
+			case ELEMENT_ID:
+				if (Objects.nonNull(fileId)) {
+					throw new InvalidSpdxTagFileException("Multiple SPDX ID's defined for file at line "+lineNumber+"; old ID="+fileId);
+				}
+				fileId = value;
+				defineElement(value, lineNumber);
+				fileIds.add(value);
+				break;
+			case FILE_TYPE:
+				try {
+					FileType.valueOf(value.trim());
+				} catch(IllegalArgumentException ex) {
+					try {
+						FileType.valueOf(value.trim().toUpperCase());
+						warn(Kind.INVALID_VALUE, null, lineNumber, "Invalid filetype - needs to be uppercased: "+value+" at line number "+lineNumber);
+					} catch(IllegalArgumentException ex2) {
+						throw(new InvalidSpdxTagFileException("Unknown file type: "+value+" at line number "+lineNumber));
+					}
+				}
+				break;
+			case FILE_CHECKSUM:
+				validateChecksum(value, lineNumber);
+				break;
+			case FILE_LICENSE:
+			case FILE_SEEN_LICENSE:
+				validateLicenseExpression(value, lineNumber);
+				break;
+			case FILE_DEPENDENCY:
+				addReference(fileDependencies, value, lineNumber);
+				break;
+			case ANNOTATOR:
+				startAnnotation(value, lineNumber);
+				break;
+			case RELATIONSHIP:
+				validateRelationship(value, lineNumber);
+				break;
+			case RELATIONSHIP_COMMENT:
+				checkRelationshipFound(value, lineNumber);
+				break;
+			case PROJECT_NAME:
+				projectFound = true;
+				break;
+			case PROJECT_HOMEPAGE:
+			case PROJECT_URI:
+				if (!projectFound) {
+					throw(new InvalidSpdxTagFileException("Missing Project Name - A project name must be provided before the project properties at line number" + lineNumber));
+				}
+				break;
+			case FILE_COPYRIGHT:
+			case FILE_LIC_COMMENTS:
+			case FILE_COMMENT:
+			case FILE_CONTRIBUTOR:
+			case FILE_NOTICE_TEXT:
+			case FILE_ATTRIBUTION_TEXT:
+				break;
+			default:
+				throw(new InvalidSpdxTagFileException("Unrecognized tag: "+tag.trim()+"  at line number" + lineNumber));
+		}
+	}
+
+	private void validateSnippet(SpdxTag spdxTag, String value, int lineNumber) throws Exception {
+		switch (spdxTag) {
+			case SNIPPET_FROM_FILE_ID:
+				addReference(snippetFileReferences, value, lineNumber);
+				break;
+			case SNIPPET_BYTE_RANGE:
+				BuildDocument.parseSnippetRange(value, "byte");
+				break;
+			case SNIPPET_LINE_RANGE:
+				BuildDocument.parseSnippetRange(value, "line");
+				break;
+			case SNIPPET_CONCLUDED_LICENSE:
+			case SNIPPET_SEEN_LICENSE:
+				validateLicenseExpression(value, lineNumber);
+				break;
+			case ANNOTATOR:
+				startAnnotation(value, lineNumber);
+				break;
+			case RELATIONSHIP:
+				validateRelationship(value, lineNumber);
+				break;
+			case RELATIONSHIP_COMMENT:
+				checkRelationshipFound(value, lineNumber);
+				break;
+			default:
+				// the remaining snippet properties are free text
+				break;
+		}
+	}
+
+	private void validateAnnotation(SpdxTag spdxTag, String value, int lineNumber) throws Exception {
+		switch (spdxTag) {
+			case ANNOTATION_DATE:
+				validateDate(value, lineNumber);
+				break;
+			case ANNOTATION_ID:
+				annotationId = value;
+				addElementReference(value, lineNumber);
+				break;
+			case ANNOTATION_TYPE:
+				try {
+					AnnotationType.valueOf(value);
+				} catch (IllegalArgumentException ex) {
+					throw(new InvalidSpdxTagFileException("Invalid annotation type: "+value + " at line number "+annotationLineNumber));
+				}
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Start a new file definition
+	 * @param name file name
+	 * @param lineNumber line number of the file name
+	 */
+	private void startFile(String name, int lineNumber) {
+		fileOpen = true;
+		fileId = null;
+		fileName = name;
+		fileLineNumber = lineNumber;
+		projectFound = false;
+	}
+
+	/**
+	 * Complete the last file defined, if any
+	 */
+	private void completeFile() {
+		if (!fileOpen) {
+			return;
+		}
+		if (Objects.isNull(fileId)) {
+			warn(Kind.MISSING_ID, null, fileLineNumber, "Missing SPDX ID for file defined at line "+fileLineNumber);
+		}
+		fileNames.add(fileName);
+		fileOpen = false;
+		fileId = null;
+		fileName = null;
+	}
+
+	/**
+	 * Complete the last package defined, if any
+	 */
+	private void completePackage() {
+		if (!packageOpen) {
+			return;
+		}
+		if (Objects.isNull(packageId)) {
+			warn(Kind.MISSING_ID, null, packageLineNumber, "Missing SPDX ID for package defined at "+packageLineNumber);
+		}
+		packageOpen = false;
+		packageId = null;
+	}
+
+	/**
+	 * Start a new annotation, checking the annotation it follows
+	 * @param annotator annotator
+	 * @param lineNumber line number of the annotator
+	 */
+	private void startAnnotation(String annotator, int lineNumber) {
+		completeAnnotation();
+		inAnnotation = true;
+		annotationLineNumber = lineNumber;
+		annotationId = null;
+		validateCreator(annotator, "annotator", lineNumber);
+	}
+
+	/**
+	 * Check the last annotation, if any, refers to an element
+	 */
+	private void completeAnnotation() {
+		if (annotationLineNumber > 0 && Objects.isNull(annotationId)) {
+			warn(Kind.INVALID_REFERENCE, null, annotationLineNumber, "missing SPDXREF: tag in annotation at line number "+annotationLineNumber);
+		}
+		annotationLineNumber = 0;
+	}
+
+	/**
+	 * Record the definition of an element
+	 * @param id SPDX ID of the element
+	 * @param lineNumber line number of the SPDX ID
+	 */
+	private void defineElement(String id, int lineNumber) {
+		if (!SPDX_ID_PATTERN.matcher(id).matches()) {
+			warn(Kind.INVALID_VALUE, id, lineNumber, "Invalid SPDX ID "+id+" at line number "+lineNumber+
+					" - must be "+SpdxConstantsCompatV2.SPDX_ELEMENT_REF_PRENUM+" followed by letters, numbers, . or -");
+		}
+		if (!elementIds.add(id)) {
+			warn(Kind.INVALID_VALUE, id, lineNumber, "Duplicate SPDX ID "+id+" at line number "+lineNumber);
+		}
+	}
+
+	private void validateRelationship(String value, int lineNumber) throws InvalidSpdxTagFileException {
+		Matcher matcher = BuildDocument.RELATIONSHIP_PATTERN.matcher(value.trim());
+		if (!matcher.find()) {
+			throw(new InvalidSpdxTagFileException("Invalid relationship: "+value + " at line number "+lineNumber));
+		}
+		RelationshipType relationshipType;
+		try {
+			relationshipType = RelationshipType.valueOf(matcher.group(2).toUpperCase());
+		} catch (IllegalArgumentException ex) {
+			throw(new InvalidSpdxTagFileException("Invalid relationship type: "+value + " at line number "+lineNumber));
+		}
+		relationshipFound = true;
+		String id = matcher.group(1);
+		String relatedId = matcher.group(3);
+		if (relationshipType == RelationshipType.DESCRIBES && SpdxConstantsCompatV2.SPDX_DOCUMENT_ID.equals(id)) {
+			describesFound = true;
+		}
+		addElementReference(id, lineNumber);
+		if (!SpdxConstantsCompatV2.NONE_VALUE.equals(relatedId) && !SpdxConstantsCompatV2.NOASSERTION_VALUE.equals(relatedId)) {
+			addElementReference(relatedId, lineNumber);
+		}
+	}
+
+	private void checkRelationshipFound(String value, int lineNumber) throws InvalidSpdxTagFileException {
+		if (!relationshipFound) {
+			throw(new InvalidSpdxTagFileException("Relationship comment found outside of a relationship: "+value + " at line number "+lineNumber));
+		}
+	}
+
+	private void validateExternalDocumentRef(String value, int lineNumber) throws InvalidSpdxTagFileException {
+		Matcher matcher = BuildDocument.EXTERNAL_DOC_REF_PATTERN.matcher(value.trim());
+		if (!matcher.find()) {
+			throw(new InvalidSpdxTagFileException("Invalid external document reference: "+value+" at line number "+lineNumber));
+		}
+		try {
+			ChecksumAlgorithm.valueOf(matcher.group(3));
+		} catch(IllegalArgumentException ex) {
+			throw(new InvalidSpdxTagFileException("Invalid checksum algorithm: "+value+" at line number "+lineNumber));
+		}
+		String documentRefId = matcher.group(1);
+		if (!documentRefId.startsWith(DOCUMENT_REF_PREFIX)) {
+			warn(Kind.INVALID_VALUE, documentRefId, lineNumber, "Invalid external document reference ID "+documentRefId+
+					" - must start with "+DOCUMENT_REF_PREFIX+" at line number "+lineNumber);
+		}
+		if (!documentRefIds.add(documentRefId)) {
+			warn(Kind.INVALID_VALUE, documentRefId, lineNumber, "Duplicate external document reference ID "+documentRefId+" at line number "+lineNumber);
+		}
+		checkHex(matcher.group(5), value, lineNumber);
+	}
+
+	private void validateExternalRef(String value, int lineNumber) throws InvalidSpdxTagFileException {
+		Matcher matcher = BuildDocument.EXTERNAL_REF_PATTERN.matcher(value);
+		if (!matcher.find()) {
+			throw new InvalidSpdxTagFileException("Invalid External Ref format: "+value+" at line number "+lineNumber);
+		}
+		try {
+			ReferenceCategory.valueOf(matcher.group(1).trim().replace("-", "_"));
+		} catch(IllegalArgumentException ex) {
+			throw new InvalidSpdxTagFileException("Invalid External Ref category: "+value+" at line number "+lineNumber);
+		}
+		externalRefFound = true;
+		externalRefCommented = false;
+	}
+
+	private void validateChecksum(String value, int lineNumber) throws InvalidSpdxTagFileException {
+		Matcher matcher = BuildDocument.CHECKSUM_PATTERN.matcher(value.trim());
+		if (!matcher.find()) {
+			throw(new InvalidSpdxTagFileException("Invalid checksum: "+value+" at line number "+lineNumber));
+		}
+		try {
+			ChecksumAlgorithm.valueOf(matcher.group(1).replaceAll("-","_"));
+		} catch(IllegalArgumentException ex) {
+			throw(new InvalidSpdxTagFileException("Invalid checksum algorithm: "+value+" at line number "+lineNumber));
+		}
+		checkHex(matcher.group(3), value, lineNumber);
+	}
+
+	private void checkHex(String checksumValue, String value, int lineNumber) {
+		if (!HEX_PATTERN.matcher(checksumValue).matches()) {
+			warn(Kind.INVALID_VALUE, null, lineNumber, "Invalid checksum value - must be hexadecimal: "+value+" at line number "+lineNumber);
+		}
+	}
+
+	private void validateDate(String value, int lineNumber) {
+		if (!DATE_PATTERN.matcher(value).matches()) {
+			warn(Kind.INVALID_VALUE, null, lineNumber, "Invalid date "+value+" - must be of the form YYYY-MM-DDThh:mm:ssZ at line number "+lineNumber);
+		}
+	}
+
+	private void validateCreator(String value, String role, int lineNumber) {
+		for (String prefix:CREATOR_PREFIXES) {
+			if (value.startsWith(prefix)) {
+				return;
+			}
+		}
+		warn(Kind.INVALID_VALUE, null, lineNumber, "Invalid "+role+" "+value+
+				" - must start with Person:, Organization: or Tool: at line number "+lineNumber);
+	}
+
+	/**
+	 * Check the syntax of a license expression recording any license references.  Operators are not case
+	 * sensitive, matching the license expression parser.
+	 * @param expression license expression
+	 * @param lineNumber line number of the expression
+	 * @throws InvalidLicenseStringException if the expression could not be parsed
+	 */
+	private void validateLicenseExpression(String expression, int lineNumber) throws InvalidLicenseStringException {
+		int depth = 0;
+		boolean expectOperand = true;
+		boolean afterWith = false;
+		Matcher tokens = LICENSE_TOKEN_PATTERN.matcher(expression);
+		while (tokens.find()) {
+			String token = tokens.group();
+			if ("(".equals(token)) {
+				if (!expectOperand || afterWith) {
+					throw invalidLicenseExpression(expression, lineNumber);
+				}
+				depth++;
+			} else if (")".equals(token)) {
+				if (expectOperand || depth == 0) {
+					throw invalidLicenseExpression(expression, lineNumber);
+				}
+				depth--;
+			} else if ("AND".equalsIgnoreCase(token) || "OR".equalsIgnoreCase(token) || "WITH".equalsIgnoreCase(token)) {
+				if (expectOperand) {
+					throw invalidLicenseExpression(expression, lineNumber);
+				}
+				expectOperand = true;
+				afterWith = "WITH".equalsIgnoreCase(token);
+			} else {
+				if (!expectOperand) {
+					throw invalidLicenseExpression(expression, lineNumber);
+				}
+				validateLicenseId(token, lineNumber);
+				expectOperand = false;
+				afterWith = false;
+			}
+		}
+		if (expectOperand || depth != 0) {
+			throw invalidLicenseExpression(expression, lineNumber);
+		}
+	}
+
+	private static InvalidLicenseStringException invalidLicenseExpression(String expression, int lineNumber) {
+		return new InvalidLicenseStringException("Invalid license expression at line number "+lineNumber+": "+expression);
+	}
+
+	/**
+	 * @param token license or exception ID in a license expression
+	 * @param lineNumber line number of the expression
+	 */
+	private void validateLicenseId(String token, int lineNumber) {
+		String id = token.endsWith("+") ? token.substring(0, token.length() - 1) : token;
+		int colon = id.indexOf(':');
+		if (colon > 0 && id.startsWith(DOCUMENT_REF_PREFIX)) {
+			addReference(documentReferences, id.substring(0, colon), lineNumber);
+		} else if (id.startsWith(SpdxConstantsCompatV2.NON_STD_LICENSE_ID_PRENUM)) {
+			addReference(licenseReferences, id, lineNumber);
+		} else if (!SpdxConstantsCompatV2.NONE_VALUE.equals(id) && !SpdxConstantsCompatV2.NOASSERTION_VALUE.equals(id) &&
+				!LicenseExpressionCache.isListedLicenseOrExceptionId(id)) {
+			warn(Kind.INVALID_VALUE, id, lineNumber, "Unknown license ID "+id+" at line number "+lineNumber);
+		}
+	}
+
+	/**
+	 * Record a reference to an element which must be defined somewhere in the document
+	 * @param id SPDX ID of the element, possibly prefixed by an external document reference
+	 * @param lineNumber line number of the reference
+	 */
+	private void addElementReference(String id, int lineNumber) {
+		int colon = id.indexOf(':');
+		if (colon > 0 && id.startsWith(DOCUMENT_REF_PREFIX)) {
+			addReference(documentReferences, id.substring(0, colon), lineNumber);
+		} else {
+			addReference(elementReferences, id, lineNumber);
+		}
+	}
+
+	/**
+	 * Record the first reference to an ID
+	 * @param references references by the line number of their first use
+	 * @param id referenced ID
+	 * @param lineNumber line number of the reference
+	 */
+	private static void addReference(Map<String, Integer> references, String id, int lineNumber) {
+		if (!references.containsKey(id)) {
+			references.put(id, lineNumber);
+		}
+	}
+
+	/**
+	 * The document namespace must be set before any other document properties unless the document
+	 * predates SPDX 2.0, in which case a namespace is generated
+	 * @throws InvalidFileFormatException
+	 */
+	private void checkNamespace() throws InvalidFileFormatException {
+		if (!namespaceDefined) {
+			if (specVersion != null && specVersion.compareTo("SPDX-2.0") < 0) {
+				namespaceDefined = true;
+			} else {
+				throw(new InvalidFileFormatException("The SPDX Document Namespace must be set before other SPDX document properties are set."));
+			}
+		}
+	}
+
+	@Override
+	public void exit() throws Exception {
+		completeFile();
+		completePackage();
+		completeAnnotation();
+		checkNamespace();
+		for (Entry<String, Integer> dependency:fileDependencies.entrySet()) {
+			if (!fileNames.contains(dependency.getKey())) {
+				warn(Kind.INVALID_REFERENCE, dependency.getKey(), dependency.getValue(), "File dependency "+dependency.getKey()+
+						" at line number "+dependency.getValue()+" was not found in the list of files");
+			}
+		}
+		for (Entry<String, Integer> snippetFile:snippetFileReferences.entrySet()) {
+			if (!fileIds.contains(snippetFile.getKey())) {
+				warn(Kind.INVALID_REFERENCE, snippetFile.getKey(), snippetFile.getValue(), "Snippet file ID "+snippetFile.getKey()+
+						" at line number "+snippetFile.getValue()+" was not found in the list of files");
+			}
+		}
+		for (Entry<String, Integer> reference:elementReferences.entrySet()) {
+			if (!elementIds.contains(reference.getKey())) {
+				warn(Kind.INVALID_REFERENCE, reference.getKey(), reference.getValue(), "Invalid element reference "+reference.getKey()+
+						" at line number "+reference.getValue()+".  The element itself was not defined in the SPDX document.");
+			}
+		}
+		for (Entry<String, Integer> reference:documentReferences.entrySet()) {
+			if (!documentRefIds.contains(reference.getKey())) {
+				warn(Kind.INVALID_REFERENCE, reference.getKey(), reference.getValue(), "Invalid external document reference "+reference.getKey()+
+						" at line number "+reference.getValue()+".  The external document reference was not defined in the SPDX document.");
+			}
+		}
+		for (Entry<String, Integer> reference:licenseReferences.entrySet()) {
+			if (!extractedLicenseIds.contains(reference.getKey())) {
+				warn(Kind.INVALID_REFERENCE, reference.getKey(), reference.getValue(), "Invalid license reference "+reference.getKey()+
+						" at line number "+reference.getValue()+".  The extracted license was not defined in the SPDX document.");
+			}
+		}
+		if (!describesFound && !packageFound) {
+			throw new InvalidSpdxTagFileException("Missing describes relationship and there is no package to create a default - see SPDX specification relationship section under DESCRIBES relationship description for more information");
+		}
+	}
+
+	private void warn(Kind kind, String elementId, int lineNumber, String message) {
+		warnings.add(kind, elementId, lineNumber, message);
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+/**
+ * Warning found while parsing an SPDX tag/value document
+ *
+ * @author Gary O'Neall
+ */
+public class TagValueWarning {
+
+	/**
+	 * Category of the warning
+	 */
+	public enum Kind {
+		/**
+		 * An element or the document does not pass verification
+		 */
+		VERIFICATION,
+		/**
+		 * A value was accepted but does not follow the specification - e.g. the wrong case
+		 */
+		INVALID_VALUE,
+		/**
+		 * An element is missing its SPDX ID and an ID was generated
+		 */
+		MISSING_ID,
+		/**
+		 * A relationship, annotation, file dependency or snippet refers to an element which is not defined
+		 */
+		INVALID_REFERENCE,
+		/**
+		 * A deprecated property was converted
+		 */
+		DEPRECATED
+	}
+
+	private Kind kind;
+	private String elementId;
+	private int lineNumber;
+	private String message;
+
+	/**
+	 * @param kind category of the warning
+	 * @param elementId ID of the element the warning applies to or null if not known
+	 * @param lineNumber line number where the warning was found or 0 if not known
+	 * @param message warning message
+	 */
+	public TagValueWarning(Kind kind, @Nullable String elementId, int lineNumber, String message) {
+		Objects.requireNonNull(kind, "Kind can not be null");
+		Objects.requireNonNull(message, "Message can not be null");
+		this.kind = kind;
+		this.elementId = elementId;
+		this.lineNumber = lineNumber;
+		this.message = message;
+	}
+
+	/**
+	 * @return the category of the warning
+	 */
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * @return the ID of the element the warning applies to or null if not known
+	 */
+	public @Nullable String getElementId() {
+		return elementId;
+	}
+
+	/**
+	 * @return the line number where the warning was found or 0 if not known
+	 */
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * @return the warning message
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	@Override
+	public String toString() {
+		return message;
+	}
+}
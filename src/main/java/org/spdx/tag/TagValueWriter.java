@@ -0,0 +1,298 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+/**
+ * Writer for tag/value output which encodes the characters as UTF-8 directly into a single reusable buffer.
+ * <p>
+ * The bytes are only written to the output when the buffer is full, when {@link #flush()} is called or when
+ * the writer is closed - there is no flushing at the end of each line.  The output can be an output stream,
+ * a channel or a file.  Unpaired surrogate characters are written as <code>?</code>, the same as the standard
+ * UTF-8 encoder.
+ * <p>
+ * The output is closed when the writer is closed.
+ *
+ * @author Gary O'Neall
+ */
+public class TagValueWriter extends Writer {
+
+	/**
+	 * Default size of the output buffer in bytes
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+	/**
+	 * Smallest size of the output buffer in bytes
+	 */
+	public static final int MIN_BUFFER_SIZE = 4;
+
+	/**
+	 * Most bytes written when encoding a single character - the low surrogate of a pair writes all 4 bytes of the
+	 * pair, and a character following an unpaired high surrogate writes a replacement followed by up to 3 bytes
+	 */
+	private static final int MAX_ENCODED_BYTES = MIN_BUFFER_SIZE;
+	private static final byte REPLACEMENT = (byte)'?';
+
+	private byte[] bytes;
+	private ByteBuffer buffer;
+	private int position = 0;
+	private @Nullable OutputStream stream;
+	private @Nullable WritableByteChannel channel;
+	/**
+	 * High surrogate of a surrogate pair split between two writes, or 0
+	 */
+	private char highSurrogate = 0;
+	private boolean closed = false;
+
+	/**
+	 * @param stream output stream to write the UTF-8 encoded tag/value data to
+	 */
+	public TagValueWriter(OutputStream stream) {
+		this(stream, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param stream output stream to write the UTF-8 encoded tag/value data to
+	 * @param bufferSize size of the output buffer in bytes
+	 */
+	public TagValueWriter(OutputStream stream, int bufferSize) {
+		this(bufferSize);
+		this.stream = Objects.requireNonNull(stream, "Output stream can not be null");
+	}
+
+	/**
+	 * @param channel channel to write the UTF-8 encoded tag/value data to
+	 */
+	public TagValueWriter(WritableByteChannel channel) {
+		this(channel, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param channel channel to write the UTF-8 encoded tag/value data to
+	 * @param bufferSize size of the output buffer in bytes
+	 */
+	public TagValueWriter(WritableByteChannel channel, int bufferSize) {
+		this(bufferSize);
+		this.channel = Objects.requireNonNull(channel, "Channel can not be null");
+	}
+
+	/**
+	 * @param file file to write the UTF-8 encoded tag/value data to - any existing file is replaced
+	 * @throws IOException on errors opening the file
+	 */
+	public TagValueWriter(Path file) throws IOException {
+		this(file, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param file file to write the UTF-8 encoded tag/value data to - any existing file is replaced
+	 * @param bufferSize size of the output buffer in bytes
+	 * @throws IOException on errors opening the file
+	 */
+	public TagValueWriter(Path file, int bufferSize) throws IOException {
+		this(bufferSize);
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE);
+	}
+
+	private TagValueWriter(int bufferSize) {
+		if (bufferSize < MIN_BUFFER_SIZE) {
+			throw new IllegalArgumentException("Buffer size must be at least " + MIN_BUFFER_SIZE + " bytes");
+		}
+		this.bytes = new byte[bufferSize];
+		this.buffer = ByteBuffer.wrap(bytes);
+	}
+
+	@Override
+	public void write(int c) throws IOException {
+		ensureOpen();
+		if (bytes.length - position < MAX_ENCODED_BYTES) {
+			writeBuffer();
+		}
+		encode((char)c);
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException {
+		ensureOpen();
+		if (off < 0 || len < 0 || off + len > cbuf.length) {
+			throw new IndexOutOfBoundsException();
+		}
+		int end = off + len;
+		int i = off;
+		while (i < end) {
+			// the chunk ends where the room left for the current character could be less than MAX_ENCODED_BYTES
+			int chunkEnd = Math.min(end, i + bytes.length - position - MAX_ENCODED_BYTES + 1);
+			if (chunkEnd <= i) {
+				writeBuffer();
+				continue;
+			}
+			while (i < chunkEnd) {
+				char c = cbuf[i++];
+				if (c < 0x80 && highSurrogate == 0) {
+					bytes[position++] = (byte)c;
+				} else {
+					encode(c);
+					// a multibyte character may use more than its share of the chunk
+					chunkEnd = Math.min(chunkEnd, i + bytes.length - position - MAX_ENCODED_BYTES + 1);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void write(String str, int off, int len) throws IOException {
+		ensureOpen();
+		if (off < 0 || len < 0 || off + len > str.length()) {
+			throw new IndexOutOfBoundsException();
+		}
+		int end = off + len;
+		int i = off;
+		while (i < end) {
+			int chunkEnd = Math.min(end, i + bytes.length - position - MAX_ENCODED_BYTES + 1);
+			if (chunkEnd <= i) {
+				writeBuffer();
+				continue;
+			}
+			while (i < chunkEnd) {
+				char c = str.charAt(i++);
+				if (c < 0x80 && highSurrogate == 0) {
+					bytes[position++] = (byte)c;
+				} else {
+					encode(c);
+					chunkEnd = Math.min(chunkEnd, i + bytes.length - position - MAX_ENCODED_BYTES + 1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Encode a single character into the buffer - the buffer must have room for {@link #MAX_ENCODED_BYTES} bytes
+	 */
+	private void encode(char c) {
+		if (highSurrogate != 0) {
+			char high = highSurrogate;
+			highSurrogate = 0;
+			if (Character.isLowSurrogate(c)) {
+				int codePoint = Character.toCodePoint(high, c);
+				bytes[position++] = (byte)(0xF0 | (codePoint >> 18));
+				bytes[position++] = (byte)(0x80 | ((codePoint >> 12) & 0x3F));
+				bytes[position++] = (byte)(0x80 | ((codePoint >> 6) & 0x3F));
+				bytes[position++] = (byte)(0x80 | (codePoint & 0x3F));
+				return;
+			}
+			bytes[position++] = REPLACEMENT;
+		}
+		if (c < 0x80) {
+			bytes[position++] = (byte)c;
+		} else if (c < 0x800) {
+			bytes[position++] = (byte)(0xC0 | (c >> 6));
+			bytes[position++] = (byte)(0x80 | (c & 0x3F));
+		} else if (Character.isHighSurrogate(c)) {
+			highSurrogate = c;
+		} else if (Character.isLowSurrogate(c)) {
+			bytes[position++] = REPLACEMENT;
+		} else {
+			bytes[position++] = (byte)(0xE0 | (c >> 12));
+			bytes[position++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+			bytes[position++] = (byte)(0x80 | (c & 0x3F));
+		}
+	}
+
+	/**
+	 * Write the bytes in the buffer to the output
+	 * @throws IOException on errors writing the output
+	 */
+	private void writeBuffer() throws IOException {
+		if (position == 0) {
+			return;
+		}
+		if (Objects.nonNull(stream)) {
+			stream.write(bytes, 0, position);
+		} else {
+			((Buffer)buffer).clear();
+			((Buffer)buffer).limit(position);
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+		position = 0;
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Tag/value writer is closed");
+		}
+	}
+
+	/**
+	 * @return number of bytes encoded but not yet written to the output
+	 */
+	public int getBufferedByteCount() {
+		return position;
+	}
+
+	/**
+	 * Write all buffered bytes to the output and flush the output.  A high surrogate waiting for the rest of its
+	 * surrogate pair is kept in the writer.
+	 */
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+		writeBuffer();
+		if (Objects.nonNull(stream)) {
+			stream.flush();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		try {
+			writeBuffer();
+			if (highSurrogate != 0) {
+				highSurrogate = 0;
+				bytes[position++] = REPLACEMENT;
+				writeBuffer();
+			}
+		} finally {
+			closed = true;
+			if (Objects.nonNull(stream)) {
+				stream.close();
+			} else {
+				channel.close();
+			}
+		}
+	}
+}
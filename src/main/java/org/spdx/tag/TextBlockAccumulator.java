@@ -0,0 +1,129 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Accumulates the lines of a multi-line <code>&lt;text&gt;</code> value.
+ * <p>
+ * Appending is linear in the size of the text.  The accumulated text is available as a
+ * <code>CharSequence</code> without creating a <code>String</code>.  A buffer which grew to hold
+ * a large text is released when the accumulator is cleared.
+ *
+ * @author Gary O'Neall
+ */
+public class TextBlockAccumulator implements CharSequence {
+
+	private static final int INITIAL_CAPACITY = 256;
+	/**
+	 * Largest buffer kept for the next text once the accumulator is cleared
+	 */
+	private static final int RETAINED_CAPACITY = 64 * 1024;
+
+	private char[] chars = new char[INITIAL_CAPACITY];
+	private int length = 0;
+	private CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+	/**
+	 * Append a single character
+	 * @param c character to append
+	 */
+	public void append(char c) {
+		ensureCapacity(1);
+		chars[length++] = c;
+	}
+
+	/**
+	 * Decode and append UTF-8 bytes
+	 * @param bytes buffer containing the bytes - the position and limit are not modified
+	 * @param start index of the first byte to append
+	 * @param end index following the last byte to append
+	 */
+	public void append(ByteBuffer bytes, int start, int end) {
+		if (end <= start) {
+			return;
+		}
+		// UTF-8 never decodes to more characters than bytes
+		ensureCapacity(end - start);
+		ByteBuffer in = bytes.duplicate();
+		((Buffer)in).limit(end);
+		((Buffer)in).position(start);
+		CharBuffer out = CharBuffer.wrap(chars, length, chars.length - length);
+		decoder.reset();
+		decoder.decode(in, out, true);
+		decoder.flush(out);
+		length = out.position();
+	}
+
+	/**
+	 * Remove all text
+	 */
+	public void clear() {
+		length = 0;
+		if (chars.length > RETAINED_CAPACITY) {
+			chars = new char[INITIAL_CAPACITY];
+		}
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("Index "+index+" out of range for text of length "+length);
+		}
+		return chars[index];
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if (start < 0 || end > length || start > end) {
+			throw new IndexOutOfBoundsException("Invalid range "+start+" to "+end+" for text of length "+length);
+		}
+		return new String(chars, start, end - start);
+	}
+
+	@Override
+	public String toString() {
+		return new String(chars, 0, length);
+	}
+
+	/**
+	 * Make room for additional characters
+	 * @param additional number of additional characters
+	 */
+	private void ensureCapacity(int additional) {
+		if (length + additional > chars.length) {
+			long newCapacity = Math.max((long)length + additional, (long)chars.length * 2);
+			chars = Arrays.copyOf(chars, (int)Math.min(newCapacity, Integer.MAX_VALUE - 8));
+		}
+	}
+}
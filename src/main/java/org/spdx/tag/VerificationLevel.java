@@ -0,0 +1,39 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+/**
+ * How thoroughly a tag/value document is verified while it is parsed
+ *
+ * @author Gary O'Neall
+ */
+public enum VerificationLevel {
+	/**
+	 * No verification - only errors which prevent the document from being built are reported
+	 */
+	NONE,
+	/**
+	 * Only missing IDs and references to elements which are not defined are reported
+	 */
+	STRUCTURAL,
+	/**
+	 * Every element and the document as a whole are verified
+	 */
+	FULL
+}
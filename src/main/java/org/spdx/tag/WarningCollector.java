@@ -0,0 +1,182 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import org.spdx.tag.TagValueWarning.Kind;
+
+/**
+ * Collects the warnings found while parsing a tag/value document.
+ * <p>
+ * Warnings are de-duplicated by their message using a hash index, so adding a warning takes constant time
+ * regardless of the number of warnings already collected.  All warnings are kept unless a limit is set using
+ * {@link #setMaxWarnings(int)}, in which case at most that many warnings are kept - any further warnings are counted and passed to the listener, if any, but are not kept or de-duplicated.
+ * <p>
+ * The collector is not thread safe - each document being parsed should use its own collector.
+ *
+ * @author Gary O'Neall
+ */
+public class WarningCollector {
+
+	/**
+	 * Default maximum number of warnings kept - no limit
+	 */
+	public static final int DEFAULT_MAX_WARNINGS = Integer.MAX_VALUE;
+
+	private List<TagValueWarning> warnings = new ArrayList<>();
+	private Set<String> messages = new HashSet<>();
+	private int maxWarnings = DEFAULT_MAX_WARNINGS;
+	private int droppedCount = 0;
+	private Consumer<TagValueWarning> listener = null;
+	/**
+	 * List receiving the messages of the kept warnings for callers using the list based API
+	 */
+	private List<String> messageList = null;
+	private List<String> messageView = Collections.unmodifiableList(new AbstractList<String>() {
+		@Override
+		public String get(int index) {
+			return warnings.get(index).getMessage();
+		}
+
+		@Override
+		public int size() {
+			return warnings.size();
+		}
+	});
+
+	public WarningCollector() {
+		// default configuration
+	}
+
+	/**
+	 * @param messageList list to which the message of each kept warning is also added
+	 */
+	public WarningCollector(List<String> messageList) {
+		this.messageList = messageList;
+	}
+
+	/**
+	 * Add a warning unless a warning with the same message has already been added
+	 * @param kind category of the warning
+	 * @param elementId ID of the element the warning applies to or null if not known
+	 * @param lineNumber line number where the warning was found or 0 if not known
+	 * @param message warning message
+	 * @return true if the warning was kept
+	 */
+	public boolean add(Kind kind, @Nullable String elementId, int lineNumber, String message) {
+		if (messages.contains(message)) {
+			return false;
+		}
+		TagValueWarning warning = new TagValueWarning(kind, elementId, lineNumber, message);
+		boolean kept = warnings.size() < maxWarnings;
+		if (kept) {
+			messages.add(message);
+			warnings.add(warning);
+			if (Objects.nonNull(messageList)) {
+				messageList.add(message);
+			}
+		} else {
+			droppedCount++;
+		}
+		if (Objects.nonNull(listener)) {
+			listener.accept(warning);
+		}
+		return kept;
+	}
+
+	/**
+	 * @param message warning message
+	 * @return true if a warning with the message has been kept
+	 */
+	public boolean contains(String message) {
+		return messages.contains(message);
+	}
+
+	/**
+	 * @return the kept warnings in the order they were found
+	 */
+	public List<TagValueWarning> getWarnings() {
+		return Collections.unmodifiableList(warnings);
+	}
+
+	/**
+	 * @return view of the messages of the kept warnings in the order they were found
+	 */
+	public List<String> getMessages() {
+		return messageView;
+	}
+
+	/**
+	 * @return number of warnings which were not kept since the maximum number of warnings was reached
+	 */
+	public int getDroppedCount() {
+		return droppedCount;
+	}
+
+	/**
+	 * @return maximum number of warnings kept
+	 */
+	public int getMaxWarnings() {
+		return maxWarnings;
+	}
+
+	/**
+	 * @param maxWarnings maximum number of warnings kept
+	 */
+	public void setMaxWarnings(int maxWarnings) {
+		this.maxWarnings = Math.max(maxWarnings, 0);
+	}
+
+	/**
+	 * @param listener listener called with each new warning as it is found, including warnings which are not kept,
+	 * or null for no listener
+	 */
+	public void setListener(@Nullable Consumer<TagValueWarning> listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * @return listener called with each new warning or null if there is no listener
+	 */
+	public @Nullable Consumer<TagValueWarning> getListener() {
+		return listener;
+	}
+
+	/**
+	 * Remove all warnings - the maximum number of warnings and the listener are unchanged
+	 */
+	public void clear() {
+		warnings.clear();
+		messages.clear();
+		droppedCount = 0;
+		if (Objects.nonNull(messageList)) {
+			messageList.clear();
+		}
+	}
+}
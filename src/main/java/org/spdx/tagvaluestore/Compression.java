@@ -0,0 +1,239 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Detection and streaming of compressed tag/value data.
+ * <p>
+ * Gzip and zlib compressed input is recognized by the magic bytes at the start of the data - neither
+ * can start a valid tag/value file.  The data is inflated as it is read, so compressed documents are
+ * parsed without first being decompressed to a file or into memory.  The buffers of the compressed streams
+ * are returned to a small pool when the streams are closed and reused by later streams.
+ *
+ * @author Gary O'Neall
+ */
+final class Compression {
+
+	/**
+	 * Size of the buffers used to read the compressed input and write the compressed output
+	 */
+	static final int BUFFER_SIZE = 64 * 1024;
+	
+	/**
+	 * Maximum number of buffers kept for reuse
+	 */
+	static final int MAX_POOLED_BUFFERS = 16;
+
+	private static final int GZIP_MAGIC_0 = 0x1f;
+	private static final int GZIP_MAGIC_1 = 0x8b;
+	private static final int ZLIB_DEFLATE = 0x78;
+	
+	private static final Queue<byte[]> buffers = new ConcurrentLinkedQueue<>();
+	
+	/**
+	 * Gzip input stream reading through a pooled buffer
+	 */
+	private static final class PooledGzipInputStream extends GZIPInputStream {
+		private boolean released = false;
+		
+		PooledGzipInputStream(InputStream in) throws IOException {
+			super(in, 1);
+			buf = takeBuffer();
+		}
+		
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				if (!released) {
+					released = true;
+					returnBuffer(buf);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Zlib input stream reading through a pooled buffer which ends its inflater when closed
+	 */
+	private static final class PooledZlibInputStream extends InflaterInputStream {
+		private boolean released = false;
+		
+		PooledZlibInputStream(InputStream in) {
+			super(in, new Inflater(), 1);
+			buf = takeBuffer();
+		}
+		
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				if (!released) {
+					released = true;
+					inf.end();
+					returnBuffer(buf);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gzip output stream writing through a pooled buffer
+	 */
+	private static final class PooledGzipOutputStream extends GZIPOutputStream {
+		private boolean released = false;
+		
+		PooledGzipOutputStream(OutputStream out) throws IOException {
+			super(out, 1);
+			buf = takeBuffer();
+		}
+		
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				if (!released) {
+					released = true;
+					returnBuffer(buf);
+				}
+			}
+		}
+	}
+
+	private Compression() {
+		// static methods only
+	}
+
+	/**
+	 * @return a buffer of <code>BUFFER_SIZE</code> bytes from the pool, or a new buffer if the pool is empty
+	 */
+	static byte[] takeBuffer() {
+		byte[] buffer = buffers.poll();
+		return Objects.nonNull(buffer) ? buffer : new byte[BUFFER_SIZE];
+	}
+	
+	/**
+	 * @param buffer buffer no longer used by a stream - kept for reuse unless the pool is full
+	 */
+	static void returnBuffer(byte[] buffer) {
+		if (buffers.size() < MAX_POOLED_BUFFERS) {
+			buffers.offer(buffer);
+		}
+	}
+	
+	/**
+	 * @return number of buffers in the pool
+	 */
+	static int pooledBuffers() {
+		return buffers.size();
+	}
+
+	/**
+	 * @param first first byte of the data
+	 * @param second second byte of the data
+	 * @return true if the data starts with a gzip or zlib header
+	 */
+	static boolean isCompressed(int first, int second) {
+		return isGzip(first, second) || isZlib(first, second);
+	}
+
+	private static boolean isGzip(int first, int second) {
+		return first == GZIP_MAGIC_0 && second == GZIP_MAGIC_1;
+	}
+
+	/**
+	 * Only the zlib headers where the second byte is not a printable character are recognized
+	 */
+	private static boolean isZlib(int first, int second) {
+		return first == ZLIB_DEFLATE && (second == 0x01 || second == 0x9c || second == 0xda);
+	}
+
+	/**
+	 * @param stream input stream which may be compressed
+	 * @return stream returning the uncompressed data
+	 * @throws IOException on errors reading the start of the stream
+	 */
+	static InputStream decompress(InputStream stream) throws IOException {
+		PushbackInputStream pushback = new PushbackInputStream(stream, 2);
+		byte[] magic = new byte[2];
+		int length = 0;
+		int bytesRead;
+		while (length < magic.length && (bytesRead = pushback.read(magic, length, magic.length - length)) >= 0) {
+			length += bytesRead;
+		}
+		if (length > 0) {
+			pushback.unread(magic, 0, length);
+		}
+		if (length < magic.length) {
+			return pushback;
+		}
+		int first = magic[0] & 0xff;
+		int second = magic[1] & 0xff;
+		if (isGzip(first, second)) {
+			return new PooledGzipInputStream(pushback);
+		} else if (isZlib(first, second)) {
+			return new PooledZlibInputStream(pushback);
+		} else {
+			return pushback;
+		}
+	}
+
+	/**
+	 * @param file file which may be compressed
+	 * @return true if the file starts with a gzip or zlib header
+	 * @throws IOException on errors reading the file
+	 */
+	static boolean isCompressed(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer magic = ByteBuffer.allocate(2);
+			while (magic.hasRemaining() && channel.read(magic) >= 0) {
+				// keep reading until the magic bytes are read or the end of the file
+			}
+			return !magic.hasRemaining() && isCompressed(magic.get(0) & 0xff, magic.get(1) & 0xff);
+		}
+	}
+
+	/**
+	 * @param stream stream to receive the compressed output - closed when the returned stream is closed
+	 * @return stream gzip compressing the data written to it
+	 * @throws IOException on errors writing the gzip header
+	 */
+	static OutputStream gzip(OutputStream stream) throws IOException {
+		return new PooledGzipOutputStream(stream);
+	}
+}
@@ -0,0 +1,635 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import org.spdx.core.InvalidSPDXAnalysisException;
+import org.spdx.core.TypedValue;
+import org.spdx.library.ModelCopyManager;
+import org.spdx.library.SpdxModelFactory;
+import org.spdx.library.model.v2.SpdxConstantsCompatV2;
+import org.spdx.library.model.v2.SpdxDocument;
+import org.spdx.storage.IModelStore;
+import org.spdx.storage.PropertyDescriptor;
+import org.spdx.storage.simple.InMemSpdxStore;
+import org.spdx.tag.BuildDocument;
+import org.spdx.tag.RecognitionException;
+import org.spdx.tag.SpdxTag;
+import org.spdx.tag.TagValueBehavior;
+import org.spdx.tag.TagValueIndex;
+import org.spdx.tag.TagValueIndex.Entry;
+import org.spdx.tag.TagValueProjection;
+import org.spdx.tag.TagValueProjection.Section;
+import org.spdx.tag.TagValueWarning;
+import org.spdx.tag.VerificationLevel;
+import org.spdx.tag.WarningCollector;
+
+/**
+ * Read only model store for a tag/value file which builds the elements of the document from the file only
+ * when they are used.
+ * <p>
+ * Opening the store indexes the sections of the file in a single pass, or reads the index from its sidecar
+ * (see {@link TagValueIndex}), and builds only the document itself.  Each package, file, snippet and extracted
+ * license, along with its relationships, annotations and other anonymous objects, is built from the sections
+ * of the file describing it the first time one of its properties is read.  The elements built are kept in a
+ * cache holding at most a fixed number of elements - the least recently used elements are evicted and rebuilt
+ * from the file if they are used again.  The IDs of the anonymous objects of an element are the same each
+ * time the element is built.
+ * <p>
+ * Listing the packages, files, snippets or extracted licenses with {@link #getAllItems(String, String)} uses
+ * only the index.  Listing any other type of object builds each of the elements in turn.
+ * <p>
+ * The document is not verified, and since each element is built on its own, a default describes relationship is
+ * not added for a document with a single package and file dependencies are not resolved.
+ *
+ * @author Gary O'Neall
+ */
+public class LazyTagValueStore implements IModelStore {
+
+	/**
+	 * Default maximum number of elements kept in the cache
+	 */
+	public static final int DEFAULT_MAX_CACHED_ELEMENTS = 1024;
+
+	/**
+	 * Prefix of the anonymous IDs recognized by {@link InMemSpdxStore#isAnon(String)}
+	 */
+	private static final String ANON_ID_PREFIX = InMemSpdxStore.ANON_PREFIX + "gnrtd";
+	/**
+	 * Separates the section of the element from the sequence number in an anonymous ID
+	 */
+	private static final char ANON_ID_SEPARATOR = '-';
+	/**
+	 * Sections parsed when building an element - since the relationships of the other elements are not parsed,
+	 * the relationship section is excluded so that no default describes relationship is added
+	 */
+	private static final TagValueProjection ELEMENT_PROJECTION = TagValueProjection.of(Section.PACKAGE, Section.FILE, 
+			Section.SNIPPET, Section.EXTRACTED_LICENSE, Section.ANNOTATION);
+	private static final String READ_ONLY_MESSAGE = "Lazy tag/value stores are read only";
+
+	/**
+	 * Store holding the objects built for a single element of the document.  The other elements in the index are
+	 * created in this store without any properties when they are first referenced, so references to them can be
+	 * built without building them.
+	 */
+	private class ElementStore extends InMemSpdxStore {
+		private Entry entry;
+		private int nextAnonId = 0;
+		/**
+		 * Sequence number of the first anonymous object belonging to the element rather than to the document
+		 */
+		private int firstElementAnonId = 0;
+
+		ElementStore(Entry entry) {
+			this.entry = entry;
+		}
+
+		@Override
+		public synchronized String getNextId(IdType idType) throws InvalidSPDXAnalysisException {
+			if (idType == IdType.Anonymous) {
+				return ANON_ID_PREFIX + entry.getOrdinal() + ANON_ID_SEPARATOR + nextAnonId++;
+			}
+			return super.getNextId(idType);
+		}
+
+		@Override
+		public boolean exists(String objectUri) {
+			if (super.exists(objectUri)) {
+				return true;
+			}
+			return isOtherElement(objectUri) && createReference(objectUri);
+		}
+
+		@Override
+		public Optional<TypedValue> getTypedValue(String objectUri) throws InvalidSPDXAnalysisException {
+			exists(objectUri);
+			return super.getTypedValue(objectUri);
+		}
+
+		/**
+		 * @param objectUri URI of an element defined in another section
+		 * @return true if the element was created
+		 */
+		private synchronized boolean createReference(String objectUri) {
+			try {
+				if (!super.exists(objectUri)) {
+					create(typedValue(objectUri, entryFor(objectUri)));
+				}
+				return true;
+			} catch (InvalidSPDXAnalysisException e) {
+				return false;
+			}
+		}
+
+		/**
+		 * @param objectUri URI of an object
+		 * @return true if the object is a package, file, snippet or extracted license defined in another section
+		 */
+		private boolean isOtherElement(String objectUri) {
+			Entry other = entryFor(objectUri);
+			// the document is built into the store of every element
+			return Objects.nonNull(other) && other != entry && other.getOrdinal() != 0;
+		}
+
+		/**
+		 * @param objectUri URI of an object in this store
+		 * @return true if the object belongs to the element rather than to the document
+		 */
+		private boolean isElementObject(String objectUri) {
+			if (isAnon(objectUri)) {
+				return anonSequence(objectUri) >= firstElementAnonId;
+			}
+			Entry owner = entryFor(objectUri);
+			// objects which are not packages, files, snippets or extracted licenses belong to the document
+			return entry.getOrdinal() == 0 ? Objects.isNull(owner) || owner == entry : owner == entry;
+		}
+	}
+
+	/**
+	 * Builds an element into its store, noting the start of the anonymous objects of the element
+	 */
+	private static class ElementBehavior implements TagValueBehavior {
+		private BuildDocument buildDocument;
+		private ElementStore store;
+
+		ElementBehavior(BuildDocument buildDocument, ElementStore store) {
+			this.buildDocument = buildDocument;
+			this.store = store;
+		}
+
+		@Override
+		public void buildDocument(String tag, String value, int lineNumber) throws Exception {
+			buildDocument.buildDocument(tag, value, lineNumber);
+		}
+
+		@Override
+		public void buildDocument(SpdxTag spdxTag, String tag, String value, int lineNumber) throws Exception {
+			buildDocument.buildDocument(spdxTag, tag, value, lineNumber);
+		}
+
+		@Override
+		public void enter() throws Exception {
+			synchronized (store) {
+				store.firstElementAnonId = store.nextAnonId;
+			}
+		}
+
+		@Override
+		public void exit() throws Exception {
+			buildDocument.exit();
+		}
+	}
+
+	private Path file;
+	private TagValueIndex index;
+	private WarningCollector warnings = new WarningCollector();
+	private ElementStore documentStore;
+	private String documentUri;
+	private Map<Integer, ElementStore> cache;
+	private ModelCopyManager copyManager = new ModelCopyManager();
+	private ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * @param file uncompressed tag/value file
+	 * @throws InvalidSPDXAnalysisException on errors in the document header
+	 * @throws IOException on errors reading or indexing the file
+	 */
+	public LazyTagValueStore(Path file) throws InvalidSPDXAnalysisException, IOException {
+		this(file, DEFAULT_MAX_CACHED_ELEMENTS);
+	}
+
+	/**
+	 * @param file uncompressed tag/value file
+	 * @param maxCachedElements maximum number of elements kept in the cache
+	 * @throws InvalidSPDXAnalysisException on errors in the document header
+	 * @throws IOException on errors reading or indexing the file
+	 */
+	public LazyTagValueStore(Path file, int maxCachedElements) throws InvalidSPDXAnalysisException, IOException {
+		if (Compression.isCompressed(file)) {
+			throw new IOException("Compressed tag/value file "+file+" can not be indexed");
+		}
+		this.file = file;
+		this.index = TagValueIndex.load(file);
+		int maxEntries = Math.max(maxCachedElements, 1);
+		this.cache = new LinkedHashMap<Integer, ElementStore>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, ElementStore> eldest) {
+				return size() > maxEntries;
+			}
+		};
+		Entry header = index.getEntries().get(0);
+		if (Objects.isNull(header.getId())) {
+			throw new InvalidSPDXAnalysisException("Missing SPDX ID for the document in "+file);
+		}
+		try {
+			// the document URI is needed to recognize references to the other elements while building the document
+			Optional<String> documentNamespace = index.readSection(file, header).getValue(SpdxTag.DOCUMENT_NAMESPACE);
+			if (!documentNamespace.isPresent()) {
+				throw new InvalidSPDXAnalysisException("Missing document namespace in "+file);
+			}
+			this.documentUri = documentNamespace.get();
+		} catch (RecognitionException e) {
+			throw TagValueStore.toSpdxException(e);
+		}
+		this.documentStore = new ElementStore(header);
+		build(documentStore);
+	}
+
+	/**
+	 * Build an element from the file into its store
+	 * @param store store for the element
+	 * @return behavior which built the element
+	 * @throws InvalidSPDXAnalysisException on errors in the sections of the element
+	 */
+	private BuildDocument build(ElementStore store) throws InvalidSPDXAnalysisException {
+		try {
+			BuildDocument buildDocument = new BuildDocument(store, warnings);
+			buildDocument.setVerificationLevel(VerificationLevel.NONE);
+			buildDocument.setProjection(ELEMENT_PROJECTION);
+			index.parseElement(file, store.entry.getId(), new ElementBehavior(buildDocument, store));
+			return buildDocument;
+		} catch (Exception e) {
+			throw TagValueStore.toSpdxException(e);
+		}
+	}
+
+	/**
+	 * @param entry section of an element
+	 * @return the store for the element, building the element if it is not in the cache
+	 * @throws InvalidSPDXAnalysisException on errors in the sections of the element
+	 */
+	private synchronized ElementStore elementStore(Entry entry) throws InvalidSPDXAnalysisException {
+		if (entry.getOrdinal() == 0) {
+			return documentStore;
+		}
+		ElementStore retval = cache.get(entry.getOrdinal());
+		if (Objects.isNull(retval)) {
+			retval = new ElementStore(entry);
+			build(retval);
+			copyExternalObjects(retval);
+			cache.put(entry.getOrdinal(), retval);
+		}
+		return retval;
+	}
+
+	/**
+	 * Copy the objects outside of the document namespace, such as listed licenses, from the store of an element
+	 * to the document store so that they remain available when the element is evicted from the cache
+	 * @param store store for an element
+	 * @throws InvalidSPDXAnalysisException on errors copying the objects
+	 */
+	private void copyExternalObjects(ElementStore store) throws InvalidSPDXAnalysisException {
+		List<TypedValue> external = store.getAllItems(null, null)
+				.filter(item -> !store.isAnon(item.getObjectUri()) && !item.getObjectUri().startsWith(documentUri + "#") &&
+						!documentStore.exists(item.getObjectUri()))
+				.collect(Collectors.toList());
+		for (TypedValue item:external) {
+			copyManager.copy(documentStore, item.getObjectUri(), store, item.getObjectUri(), item.getSpecVersion(), documentUri + "#");
+		}
+	}
+
+	/**
+	 * @param objectUri URI of an object in the document
+	 * @return the store holding the object
+	 * @throws InvalidSPDXAnalysisException on errors building the element the object belongs to
+	 */
+	private ElementStore storeFor(String objectUri) throws InvalidSPDXAnalysisException {
+		Entry entry;
+		if (isAnon(objectUri)) {
+			entry = anonEntry(objectUri);
+		} else {
+			entry = entryFor(objectUri);
+		}
+		return Objects.isNull(entry) ? documentStore : elementStore(entry);
+	}
+
+	/**
+	 * @param objectUri URI of an object
+	 * @return the section defining the object or null if the object is not a package, file, snippet, extracted
+	 * license or the document
+	 */
+	private @Nullable Entry entryFor(String objectUri) {
+		if (Objects.isNull(documentUri) || !objectUri.startsWith(documentUri) || objectUri.length() <= documentUri.length() ||
+				objectUri.charAt(documentUri.length()) != '#') {
+			return null;
+		}
+		return index.getEntry(objectUri.substring(documentUri.length() + 1)).orElse(null);
+	}
+
+	/**
+	 * @param anonId anonymous ID
+	 * @return the section of the element the anonymous object belongs to or null if the ID was not created by this store
+	 */
+	private @Nullable Entry anonEntry(String anonId) {
+		int separator = anonId.indexOf(ANON_ID_SEPARATOR, ANON_ID_PREFIX.length());
+		if (separator < 0) {
+			return null;
+		}
+		try {
+			int ordinal = Integer.parseInt(anonId.substring(ANON_ID_PREFIX.length(), separator));
+			List<Entry> entries = index.getEntries();
+			return ordinal >= 0 && ordinal < entries.size() ? entries.get(ordinal) : null;
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @param anonId anonymous ID created by this store
+	 * @return the sequence number of the ID within the store of its element
+	 */
+	private static int anonSequence(String anonId) {
+		try {
+			return Integer.parseInt(anonId.substring(anonId.indexOf(ANON_ID_SEPARATOR, ANON_ID_PREFIX.length()) + 1));
+		} catch (NumberFormatException | IndexOutOfBoundsException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * @param objectUri URI of an element
+	 * @param entry section defining the element
+	 * @return the typed value for the element
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private TypedValue typedValue(String objectUri, Entry entry) throws InvalidSPDXAnalysisException {
+		return new TypedValue(objectUri, elementType(entry), SpdxConstantsCompatV2.SPEC_TWO_POINT_THREE_VERSION);
+	}
+
+	/**
+	 * @param entry section defining an element
+	 * @return the type of the element
+	 */
+	private static String elementType(Entry entry) {
+		SpdxTag sectionTag = entry.getSectionTag();
+		if (Objects.isNull(sectionTag)) {
+			return SpdxConstantsCompatV2.CLASS_SPDX_DOCUMENT;
+		}
+		switch (sectionTag) {
+			case PACKAGE_DECLARED_NAME: return SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE;
+			case FILE_NAME: return SpdxConstantsCompatV2.CLASS_SPDX_FILE;
+			case SNIPPET_SPDX_ID: return SpdxConstantsCompatV2.CLASS_SPDX_SNIPPET;
+			default: return SpdxConstantsCompatV2.CLASS_SPDX_EXTRACTED_LICENSING_INFO;
+		}
+	}
+
+	/**
+	 * @return the SPDX document in this store
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public SpdxDocument getDocument() throws InvalidSPDXAnalysisException {
+		return (SpdxDocument)SpdxModelFactory.inflateModelObject(this, documentUri + "#" + SpdxConstantsCompatV2.SPDX_DOCUMENT_ID, 
+				SpdxConstantsCompatV2.CLASS_SPDX_DOCUMENT, copyManager, 
+				SpdxConstantsCompatV2.SPEC_TWO_POINT_THREE_VERSION, false, documentUri);
+	}
+
+	/**
+	 * @return the document URI
+	 */
+	public String getDocumentUri() {
+		return documentUri;
+	}
+
+	/**
+	 * @return the index of the sections of the file
+	 */
+	public TagValueIndex getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return number of elements currently built and held in the cache
+	 */
+	public synchronized int getCachedElementCount() {
+		return cache.size();
+	}
+
+	/**
+	 * An element which is evicted from the cache and built again reports its warnings again
+	 * @return warnings found building the document and the elements used so far
+	 */
+	public List<TagValueWarning> getWarnings() {
+		return warnings.getWarnings();
+	}
+
+	@Override
+	public boolean exists(String objectUri) {
+		Entry entry = entryFor(objectUri);
+		if (Objects.nonNull(entry)) {
+			return true;
+		}
+		try {
+			return storeFor(objectUri).exists(objectUri);
+		} catch (InvalidSPDXAnalysisException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public Optional<TypedValue> getTypedValue(String objectUri) throws InvalidSPDXAnalysisException {
+		Entry entry = entryFor(objectUri);
+		if (Objects.nonNull(entry)) {
+			return Optional.of(typedValue(objectUri, entry));
+		}
+		return storeFor(objectUri).getTypedValue(objectUri);
+	}
+
+	@Override
+	public void create(TypedValue typedValue) throws InvalidSPDXAnalysisException {
+		throw new InvalidSPDXAnalysisException(READ_ONLY_MESSAGE);
+	}
+
+	@Override
+	public List<PropertyDescriptor> getPropertyValueDescriptors(String objectUri) throws InvalidSPDXAnalysisException {
+		return storeFor(objectUri).getPropertyValueDescriptors(objectUri);
+	}
+
+	@Override
+	public void setValue(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		// the model objects set some properties, such as the license ID, to their existing values when constructed
+		if (!Objects.equals(value, storeFor(objectUri).getValue(objectUri, propertyDescriptor).orElse(null))) {
+			throw new InvalidSPDXAnalysisException(READ_ONLY_MESSAGE);
+		}
+	}
+
+	@Override
+	public Optional<Object> getValue(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		return storeFor(objectUri).getValue(objectUri, propertyDescriptor);
+	}
+
+	@Override
+	public String getNextId(IdType idType) throws InvalidSPDXAnalysisException {
+		// anonymous IDs are used for values such as NOASSERTION which are never stored
+		if (idType == IdType.Anonymous) {
+			return documentStore.getNextId(idType);
+		}
+		throw new InvalidSPDXAnalysisException(READ_ONLY_MESSAGE);
+	}
+
+	@Override
+	public void removeProperty(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		throw new InvalidSPDXAnalysisException(READ_ONLY_MESSAGE);
+	}
+
+	@Override
+	public Stream<TypedValue> getAllItems(@Nullable String nameSpace, @Nullable String typeFilter) throws InvalidSPDXAnalysisException {
+		Stream<TypedValue> documentItems = documentStore.getAllItems(nameSpace, typeFilter)
+				.filter(item -> documentStore.isElementObject(item.getObjectUri()));
+		List<Entry> elements = index.getEntries().subList(1, index.getEntries().size());
+		if (Objects.nonNull(typeFilter) && isElementType(typeFilter)) {
+			if (Objects.nonNull(nameSpace) && !documentUri.startsWith(nameSpace)) {
+				return documentItems;
+			}
+			return Stream.concat(documentItems, elements.stream()
+					.filter(entry -> Objects.nonNull(entry.getId()) && typeFilter.equals(elementType(entry)))
+					.map(entry -> {
+						try {
+							return typedValue(documentUri + "#" + entry.getId(), entry);
+						} catch (InvalidSPDXAnalysisException e) {
+							throw new RuntimeException(e);
+						}
+					}));
+		}
+		return Stream.concat(documentItems, elements.stream()
+				.filter(entry -> Objects.nonNull(entry.getId()))
+				.flatMap(entry -> {
+					try {
+						ElementStore store = elementStore(entry);
+						return store.getAllItems(nameSpace, typeFilter).filter(item -> store.isElementObject(item.getObjectUri()));
+					} catch (InvalidSPDXAnalysisException e) {
+						throw new RuntimeException(e);
+					}
+				}));
+	}
+
+	/**
+	 * @param type SPDX type
+	 * @return true if elements of the type are defined by their own section of the document
+	 */
+	private static boolean isElementType(String type) {
+		return SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE.equals(type) || SpdxConstantsCompatV2.CLASS_SPDX_FILE.equals(type) ||
+				SpdxConstantsCompatV2.CLASS_SPDX_SNIPPET.equals(type) || SpdxConstantsCompatV2.CLASS_SPDX_EXTRACTED_LICENSING_INFO.equals(type);
+	}
+
+	@Override
+	public IModelStoreLock enterCriticalSection(boolean readLockRequested) throws InvalidSPDXAnalysisException {
+		if (readLockRequested) {
+			lock.readLock().lock();
+			return () -> lock.readLock().unlock();
+		} else {
+			lock.writeLock().lock();
+			return () -> lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void leaveCriticalSection(IModelStoreLock lock) {
+		lock.unlock();
+	}
+
+	@Override
+	public boolean removeValueFromCollection(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		throw new InvalidSPDXAnalysisException(READ_ONLY_MESSAGE);
+	}
+
+	@Override
+	public int collectionSize(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		return storeFor(objectUri).collectionSize(objectUri, propertyDescriptor);
+	}
+
+	@Override
+	public boolean collectionContains(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		return storeFor(objectUri).collectionContains(objectUri, propertyDescriptor, value);
+	}
+
+	@Override
+	public void clearValueCollection(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		throw new InvalidSPDXAnalysisException(READ_ONLY_MESSAGE);
+	}
+
+	@Override
+	public boolean addValueToCollection(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		throw new InvalidSPDXAnalysisException(READ_ONLY_MESSAGE);
+	}
+
+	@Override
+	public Iterator<Object> listValues(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		return storeFor(objectUri).listValues(objectUri, propertyDescriptor);
+	}
+
+	@Override
+	public boolean isCollectionMembersAssignableTo(String objectUri, PropertyDescriptor propertyDescriptor, Class<?> clazz) throws InvalidSPDXAnalysisException {
+		return storeFor(objectUri).isCollectionMembersAssignableTo(objectUri, propertyDescriptor, clazz);
+	}
+
+	@Override
+	public boolean isPropertyValueAssignableTo(String objectUri, PropertyDescriptor propertyDescriptor, Class<?> clazz, String specVersion) throws InvalidSPDXAnalysisException {
+		return storeFor(objectUri).isPropertyValueAssignableTo(objectUri, propertyDescriptor, clazz, specVersion);
+	}
+
+	@Override
+	public boolean isCollectionProperty(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		return storeFor(objectUri).isCollectionProperty(objectUri, propertyDescriptor);
+	}
+
+	@Override
+	public IdType getIdType(String objectUri) {
+		return documentStore.getIdType(objectUri);
+	}
+
+	@Override
+	public Optional<String> getCaseSensitiveId(String nameSpace, String caseInsensisitiveId) {
+		if (index.getEntry(caseInsensisitiveId).isPresent()) {
+			return Optional.of(caseInsensisitiveId);
+		}
+		return documentStore.getCaseSensitiveId(nameSpace, caseInsensisitiveId);
+	}
+
+	@Override
+	public void delete(String objectUri) throws InvalidSPDXAnalysisException {
+		throw new InvalidSPDXAnalysisException(READ_ONLY_MESSAGE);
+	}
+
+	@Override
+	public boolean isAnon(String objectUri) {
+		return objectUri.startsWith(ANON_ID_PREFIX);
+	}
+
+	@Override
+	public synchronized void close() throws Exception {
+		cache.clear();
+		documentStore.close();
+	}
+}
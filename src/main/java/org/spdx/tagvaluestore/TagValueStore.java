@@ -18,36 +18,85 @@
  */
 package org.spdx.tagvaluestore;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
-import java.nio.charset.StandardCharsets;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.spdx.core.CoreModelObject;
 import org.spdx.core.InvalidSPDXAnalysisException;
+import org.spdx.core.TypedValue;
 import org.spdx.library.ModelCopyManager;
 import org.spdx.library.SpdxModelFactory;
+import org.spdx.library.model.v2.ModelObjectV2;
 import org.spdx.library.model.v2.SpdxConstantsCompatV2;
 import org.spdx.library.model.v2.SpdxDocument;
 import org.spdx.storage.IModelStore;
 import org.spdx.storage.ISerializableModelStore;
+import org.spdx.storage.PropertyDescriptor;
+import org.spdx.storage.IModelStore.IdType;
 import org.spdx.storage.simple.ExtendedSpdxStore;
+import org.spdx.storage.simple.InMemSpdxStore;
 import org.spdx.tag.BuildDocument;
 import org.spdx.tag.CommonCode;
+import org.spdx.tag.ElementFlow;
 import org.spdx.tag.HandBuiltParser;
+import org.spdx.tag.IncrementalTagValueParser;
 import org.spdx.tag.InvalidFileFormatException;
 import org.spdx.tag.InvalidSpdxTagFileException;
-import org.spdx.tag.NoCommentInputStream;
 import org.spdx.tag.RecognitionException;
+import org.spdx.tag.TagValueElementPublisher;
+import org.spdx.tag.TagValueIndex;
+import org.spdx.tag.TagValueLexer;
+import org.spdx.tag.TagValueProjection;
+import org.spdx.tag.TagValueProjection.Section;
+import org.spdx.tag.TagValueQuery;
+import org.spdx.tag.TagValueReader;
+import org.spdx.tag.TagValueSection;
+import org.spdx.tag.TagValueValidator;
+import org.spdx.tag.TagValueWarning;
+import org.spdx.tag.TagValueWriter;
+import org.spdx.tag.VerificationLevel;
+import org.spdx.tag.WarningCollector;
 
 /**
  * SPDX Store implementing serializers and deserializers for the Tag/Value format
@@ -56,7 +105,73 @@ import org.spdx.tag.RecognitionException;
  */
 public class TagValueStore extends ExtendedSpdxStore implements ISerializableModelStore {
 	
-	List<String> warnings = new ArrayList<String>();
+	static final Logger logger = LoggerFactory.getLogger(TagValueStore.class.getName());
+	
+	/**
+	 * Parses a document using the supplied behavior
+	 */
+	private interface DocumentParser {
+		void parse(BuildDocument buildDocument) throws Exception;
+	}
+	
+	/**
+	 * Default maximum number of documents deserialized at the same time by {@link #deSerializeAll(Collection, boolean)}
+	 */
+	public static final int DEFAULT_BATCH_CONCURRENCY = Runtime.getRuntime().availableProcessors() * 2;
+	
+	/**
+	 * Types of the items which may be created when deferred license expressions are parsed
+	 */
+	static final Set<String> LICENSE_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+			SpdxConstantsCompatV2.CLASS_SPDX_CONJUNCTIVE_LICENSE_SET,
+			SpdxConstantsCompatV2.CLASS_SPDX_DISJUNCTIVE_LICENSE_SET,
+			SpdxConstantsCompatV2.CLASS_SPDX_EXTRACTED_LICENSING_INFO,
+			SpdxConstantsCompatV2.CLASS_EXTERNAL_EXTRACTED_LICENSE,
+			SpdxConstantsCompatV2.CLASS_SPDX_LICENSE,
+			SpdxConstantsCompatV2.CLASS_SPDX_LISTED_LICENSE,
+			SpdxConstantsCompatV2.CLASS_SPDX_LICENSE_EXCEPTION,
+			SpdxConstantsCompatV2.CLASS_SPDX_LISTED_LICENSE_EXCEPTION,
+			SpdxConstantsCompatV2.CLASS_OR_LATER_OPERATOR,
+			SpdxConstantsCompatV2.CLASS_WITH_EXCEPTION_OPERATOR,
+			SpdxConstantsCompatV2.CLASS_NONE_LICENSE,
+			SpdxConstantsCompatV2.CLASS_NOASSERTION_LICENSE,
+			SpdxConstantsCompatV2.CLASS_CROSS_REF)));
+	
+	WarningCollector warnings = new WarningCollector();
+	private boolean parallelVerification = false;
+	private VerificationLevel verificationLevel = VerificationLevel.FULL;
+	/**
+	 * Documents deserialized without full verification in the order they were deserialized - map of document URI
+	 * to the behavior which built the document
+	 */
+	private Map<String, BuildDocument> unverifiedDocuments = Collections.synchronizedMap(new LinkedHashMap<>());
+	private boolean deferLicenseParsing = false;
+	/**
+	 * Documents with license expressions which have not yet been parsed - map of document URI to the behavior
+	 * which built the document
+	 */
+	private Map<String, BuildDocument> deferredLicenseDocuments = new ConcurrentHashMap<>();
+	private boolean compressedOutput = false;
+	private int outputBufferSize = TagValueWriter.DEFAULT_BUFFER_SIZE;
+	private int maxTextLength = Integer.MAX_VALUE;
+	/**
+	 * Section offset indexes loaded by {@link #index(Path)} - map of the absolute path of the file to its index
+	 */
+	private Map<Path, TagValueIndex> indexes = new ConcurrentHashMap<>();
+	/**
+	 * Namespaces of the documents being copied into this store by {@link #deSerializeAll(Collection, boolean)}
+	 */
+	private Set<String> mergingNamespaces = ConcurrentHashMap.newKeySet();
+	/**
+	 * Held while copying items shared between documents, such as listed licenses, into this store
+	 */
+	private final Object sharedItemLock = new Object();
+	/**
+	 * Documents are copied into this store under the read lock so that they are copied concurrently.  The write lock
+	 * is held while listing the items of a namespace since the store may not support listing items while they are
+	 * being created.
+	 */
+	private final ReadWriteLock mergeLock = new ReentrantReadWriteLock();
 
 	public TagValueStore(IModelStore baseStore) {
 		super(baseStore);
@@ -72,28 +187,53 @@ public class TagValueStore extends ExtendedSpdxStore implements ISerializableMod
 	 */
 	@Override
 	public void serialize(OutputStream stream, @Nullable CoreModelObject modelObject) throws InvalidSPDXAnalysisException, IOException {
+		if (compressedOutput) {
+			stream = Compression.gzip(stream);
+		}
+		serialize(new TagValueWriter(stream, outputBufferSize), modelObject);
+	}
+	
+	/**
+	 * Serialize a document, or all documents in this store, to a file on the local file system.  The file is
+	 * written through a channel unless the output is compressed.
+	 * @param file file to write - any existing file is replaced
+	 * @param modelObject document to serialize or null to serialize all documents in this store
+	 * @throws InvalidSPDXAnalysisException on errors reading the documents from the store
+	 * @throws IOException on errors writing the file
+	 */
+	public void serialize(Path file, @Nullable CoreModelObject modelObject) throws InvalidSPDXAnalysisException, IOException {
+		if (compressedOutput) {
+			serialize(Files.newOutputStream(file), modelObject);
+		} else {
+			serialize(new TagValueWriter(file, outputBufferSize), modelObject);
+		}
+	}
+	
+	/**
+	 * Print the documents to a tag/value writer, closing the writer once the documents have been printed
+	 */
+	private void serialize(TagValueWriter output, @Nullable CoreModelObject modelObject) throws InvalidSPDXAnalysisException, IOException {
 		Properties constants = CommonCode
 				.getTextFromProperties("org/spdx/tag/SpdxTagValueConstants.properties");
-		if (Objects.nonNull(modelObject)) {
-			if (modelObject instanceof SpdxDocument) {
-				try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(
-				stream, StandardCharsets.UTF_8), true)) {
+		// the output is only flushed once all of the documents are printed
+		try (PrintWriter writer = new PrintWriter(output, false)) {
+			if (Objects.nonNull(modelObject)) {
+				if (modelObject instanceof SpdxDocument) {
 					CommonCode.printDoc((SpdxDocument)modelObject, writer, constants);
-					writer.flush();
+				} else {
+					throw new InvalidSPDXAnalysisException("Can not serialize "+modelObject.getClass().toString()+".  Only SpdxDocument is supported");
 				}
 			} else {
-				throw new InvalidSPDXAnalysisException("Can not serialize "+modelObject.getClass().toString()+".  Only SpdxDocument is supported");
-			}
-		} else {
-			@SuppressWarnings("unchecked")
-			List<SpdxDocument> allDocs = (List<SpdxDocument>)SpdxModelFactory.getSpdxObjects(this, null, 
-					SpdxConstantsCompatV2.CLASS_SPDX_DOCUMENT, null, null).collect(Collectors.toList());
-			try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(
-					stream, StandardCharsets.UTF_8), true)) {
+				@SuppressWarnings("unchecked")
+				List<SpdxDocument> allDocs = (List<SpdxDocument>)SpdxModelFactory.getSpdxObjects(this, null, 
+						SpdxConstantsCompatV2.CLASS_SPDX_DOCUMENT, null, null).collect(Collectors.toList());
 				for (SpdxDocument doc:allDocs) {
 					CommonCode.printDoc(doc, writer, constants);
 				}
-				writer.flush();
+			}
+			writer.flush();
+			if (writer.checkError()) {
+				throw new IOException("Error writing the tag/value output");
 			}
 		}
 	}
@@ -103,33 +243,1095 @@ public class TagValueStore extends ExtendedSpdxStore implements ISerializableMod
 	 */
 	@Override
 	public SpdxDocument deSerialize(InputStream stream, boolean overwrite) throws InvalidSPDXAnalysisException, IOException {
-		warnings.clear();
-		Properties constants = CommonCode.getTextFromProperties("org/spdx/tag/SpdxTagValueConstants.properties");
-		NoCommentInputStream nci = new NoCommentInputStream(stream);
-		try{
-			HandBuiltParser parser = new HandBuiltParser(nci);
-			BuildDocument buildDocument = new BuildDocument(this, constants, warnings);
+		return deSerialize(new TagValueLexer(Compression.decompress(stream)));
+	}
+	
+	/**
+	 * Deserialize a tag/value file from the local file system.  The file is memory mapped and
+	 * parsed directly from the mapped region unless it is gzip or zlib compressed, in which case
+	 * it is inflated as it is read.
+	 * @param file tag/value file
+	 * @param overwrite if true, overwrite any existing data in the store
+	 * @return the deserialized SPDX document
+	 * @throws InvalidSPDXAnalysisException on errors in the tag/value file
+	 * @throws IOException on errors reading or mapping the file
+	 */
+	public SpdxDocument deSerialize(Path file, boolean overwrite) throws InvalidSPDXAnalysisException, IOException {
+		if (Compression.isCompressed(file)) {
+			return deSerialize(Files.newInputStream(file), overwrite);
+		}
+		return deSerialize(new TagValueLexer(file));
+	}
+	
+	/**
+	 * Deserialize only the sections and tags of a tag/value document included in a projection.  The tags which are not
+	 * included are skipped without being decoded and nothing is added to this store for them.  Since the document is
+	 * incomplete, it is not verified and references to elements which were not included are not reported.  The
+	 * projected document can be verified later using {@link #verify(String)}.
+	 * @param stream input stream containing the tag/value document
+	 * @param projection sections and tags of the document to deserialize
+	 * @return the deserialized SPDX document containing only the included sections and tags
+	 * @throws InvalidSPDXAnalysisException on errors in the included tags
+	 * @throws IOException on errors reading the stream
+	 */
+	public SpdxDocument deSerialize(InputStream stream, TagValueProjection projection) throws InvalidSPDXAnalysisException, IOException {
+		Objects.requireNonNull(projection, "Projection can not be null");
+		return deSerialize(new TagValueLexer(Compression.decompress(stream)), projection);
+	}
+	
+	/**
+	 * Deserialize only the sections and tags of a tag/value file from the local file system included in a projection.
+	 * The file is memory mapped unless it is compressed.  See {@link #deSerialize(InputStream, TagValueProjection)}.
+	 * @param file tag/value file
+	 * @param projection sections and tags of the document to deserialize
+	 * @return the deserialized SPDX document containing only the included sections and tags
+	 * @throws InvalidSPDXAnalysisException on errors in the included tags
+	 * @throws IOException on errors reading or mapping the file
+	 */
+	public SpdxDocument deSerialize(Path file, TagValueProjection projection) throws InvalidSPDXAnalysisException, IOException {
+		Objects.requireNonNull(projection, "Projection can not be null");
+		if (Compression.isCompressed(file)) {
+			return deSerialize(Files.newInputStream(file), projection);
+		}
+		return deSerialize(new TagValueLexer(file), projection);
+	}
+	
+	/**
+	 * Deserialize a batch of tag/value files from the local file system into this store.  The files are
+	 * parsed concurrently with each document collecting its own warnings, and a failure to parse one
+	 * document does not affect the others or leave any of its elements in this store.  Each document must
+	 * have a unique document namespace.
+	 * <p>
+	 * Each document is built in its own store and then copied into this store, so the license expressions are always
+	 * parsed while deserializing - {@link #setDeferLicenseParsing(boolean)} does not apply and a warning is logged if it
+	 * is set.  If a document fails while it is being copied, the items already copied for it are removed from this store.
+	 * With <code>overwrite</code>, the existing document is removed before the new document is copied, so neither
+	 * document is left in this store if the copy fails.  The warning listener of this store, if any, is called for the
+	 * documents one warning at a time.  The verification level, parallel verification,
+	 * maximum text length and maximum number of warnings are the same as for {@link #deSerialize(Path, boolean)}.  A
+	 * document deserialized with a verification level other than <code>FULL</code> keeps its own store until it is
+	 * verified.
+	 * @param files tag/value files to deserialize
+	 * @param overwrite if true, an existing document with the same namespace is removed from this store before the new
+	 * document is copied, otherwise a document with the same namespace as an existing document fails to deserialize
+	 * @return results for each of the files in the order of the collection
+	 * @throws IOException if interrupted while waiting for the results
+	 */
+	public List<DeSerializeResult> deSerializeAll(Collection<Path> files, boolean overwrite) throws IOException {
+		return deSerializeAll(files, overwrite, DEFAULT_BATCH_CONCURRENCY);
+	}
+	
+	/**
+	 * Deserialize a batch of tag/value files from the local file system into this store.  On Java 21 and later
+	 * each file is parsed on its own virtual thread, otherwise a pool of <code>maxConcurrentDocuments</code>
+	 * platform threads is used.
+	 * @param files tag/value files to deserialize
+	 * @param overwrite if true, replace existing documents with the same namespace, otherwise fail the documents whose
+	 * namespace already exists in this store
+	 * @param maxConcurrentDocuments maximum number of documents parsed at the same time - limits the number of open files
+	 * @return results for each of the files in the order of the collection
+	 * @throws IOException if interrupted while waiting for the results
+	 */
+	public List<DeSerializeResult> deSerializeAll(Collection<Path> files, boolean overwrite, 
+			int maxConcurrentDocuments) throws IOException {
+		if (deferLicenseParsing) {
+			logger.warn("License parsing is not deferred for documents deserialized in a batch");
+		}
+		int concurrency = Math.max(maxConcurrentDocuments, 1);
+		Semaphore permits = new Semaphore(concurrency);
+		ExecutorService executor = newBatchExecutor(concurrency);
+		try {
+			List<Future<DeSerializeResult>> futures = new ArrayList<>(files.size());
+			for (Path file:files) {
+				futures.add(executor.submit(() -> {
+					permits.acquire();
+					try {
+						return deSerializeFile(file, overwrite);
+					} finally {
+						permits.release();
+					}
+				}));
+			}
+			List<DeSerializeResult> retval = new ArrayList<>(futures.size());
+			for (Future<DeSerializeResult> future:futures) {
+				try {
+					retval.add(future.get());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while deserializing tag/value files");
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof Error) {
+						throw (Error)e.getCause();
+					}
+					throw new IOException("Unexpected error deserializing tag/value files", e.getCause());
+				}
+			}
+			return retval;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Deserialize a single file from a batch
+	 * @param file tag/value file
+	 * @param overwrite if true, replace any existing document with the same namespace
+	 * @return result of the deserialization including any error
+	 */
+	private DeSerializeResult deSerializeFile(Path file, boolean overwrite) {
+		WarningCollector documentWarnings = new WarningCollector();
+		documentWarnings.setMaxWarnings(warnings.getMaxWarnings());
+		Consumer<TagValueWarning> listener = warnings.getListener();
+		if (Objects.nonNull(listener)) {
+			// the documents share the listener, which need not be thread safe
+			documentWarnings.setListener(warning -> {
+				synchronized (listener) {
+					listener.accept(warning);
+				}
+			});
+		}
+		// Each document is built in its own store so that elements shared between documents, such as listed
+		// licenses, are not seen by other documents before they are complete
+		IModelStore documentStore = new InMemSpdxStore();
+		BuildDocument buildDocument = new BuildDocument(documentStore, documentWarnings);
+		buildDocument.setVerificationLevel(verificationLevel);
+		if (parallelVerification) {
+			buildDocument.setVerificationPool(ForkJoinPool.commonPool());
+		}
+		try (TagValueLexer lexer = Compression.isCompressed(file) ? 
+				new TagValueLexer(Compression.decompress(Files.newInputStream(file))) : new TagValueLexer(file)) {
+			lexer.setMaxTextLength(maxTextLength);
+			HandBuiltParser parser = new HandBuiltParser(lexer);
 			parser.setBehavior(buildDocument);
 			parser.data();
-			String documentUri = buildDocument.getDocumentUri();
-			return (SpdxDocument)SpdxModelFactory.inflateModelObject(this, documentUri + "#" + SpdxConstantsCompatV2.SPDX_DOCUMENT_ID, 
-					SpdxConstantsCompatV2.CLASS_SPDX_DOCUMENT, new ModelCopyManager(), 
-					SpdxConstantsCompatV2.SPEC_TWO_POINT_THREE_VERSION, false, documentUri);
-		} catch (RecognitionException e) {
+			merge(documentStore, buildDocument.getDocumentUri(), overwrite);
+			return new DeSerializeResult(file, inflateDocument(buildDocument), documentWarnings, null);
+		} catch (IOException e) {
+			return new DeSerializeResult(file, null, documentWarnings, e);
+		} catch (Exception e) {
+			return new DeSerializeResult(file, null, documentWarnings, toSpdxException(e));
+		}
+	}
+	
+	/**
+	 * Copy a document from a store containing only that document into this store.  The items in the document
+	 * namespace are copied concurrently with other documents since no other document in the batch may use the
+	 * namespace.  Items shared between documents, such as listed licenses, are only copied if they do not already exist
+	 * in this store.  Anonymous items are given new IDs in this store and are only copied when they are referenced by a
+	 * copied item.
+	 * @param documentStore store containing the document
+	 * @param documentUri namespace of the document
+	 * @param overwrite if true, replace any existing document with the same namespace
+	 * @throws InvalidSPDXAnalysisException if the namespace already exists and overwrite is false, or on errors copying
+	 */
+	private void merge(IModelStore documentStore, String documentUri, boolean overwrite) throws InvalidSPDXAnalysisException {
+		if (!mergingNamespaces.add(documentUri)) {
+			throw new InvalidSPDXAnalysisException("Document namespace " + documentUri + " is used by more than one document in the batch");
+		}
+		try {
+			mergeLock.writeLock().lock();
+			try {
+				if (overwrite) {
+					removeDocument(documentUri);
+				} else if (hasItems(documentUri)) {
+					throw new InvalidSPDXAnalysisException("Document namespace " + documentUri + " already exists in the store");
+				}
+			} finally {
+				mergeLock.writeLock().unlock();
+			}
+			String prefix = documentUri + "#";
+			List<TypedValue> documentItems = new ArrayList<>();
+			List<TypedValue> sharedItems = new ArrayList<>();
+			try (Stream<TypedValue> allItems = documentStore.getAllItems(null, null)) {
+				allItems.filter(item -> !documentStore.isAnon(item.getObjectUri())).forEach(item -> {
+					if (item.getObjectUri().startsWith(prefix)) {
+						documentItems.add(item);
+					} else {
+						sharedItems.add(item);
+					}
+				});
+			}
+			Map<String, String> anonIds = new HashMap<>();
+			mergeLock.readLock().lock();
+			try {
+				synchronized (sharedItemLock) {
+					List<TypedValue> newSharedItems = new ArrayList<>();
+					for (TypedValue item:sharedItems) {
+						if (!exists(item.getObjectUri())) {
+							newSharedItems.add(item);
+						}
+					}
+					// no other document can refer to the new shared items until the lock is released
+					copyItemsOrRemove(documentStore, newSharedItems, anonIds);
+				}
+				copyItemsOrRemove(documentStore, documentItems, anonIds);
+			} finally {
+				mergeLock.readLock().unlock();
+			}
+		} finally {
+			mergingNamespaces.remove(documentUri);
+		}
+	}
+	
+	/**
+	 * Copy items and the anonymous items they reference from a document store into this store, removing the items
+	 * created by the copy if it fails
+	 * @param documentStore store containing the items
+	 * @param items items which are not anonymous to copy
+	 * @param anonIds map of anonymous IDs in the document store to the IDs of the anonymous items already copied
+	 * @throws InvalidSPDXAnalysisException on errors copying the items
+	 */
+	private void copyItemsOrRemove(IModelStore documentStore, List<TypedValue> items, Map<String, String> anonIds) throws InvalidSPDXAnalysisException {
+		List<String> created = new ArrayList<>();
+		try {
+			copyItems(documentStore, items, anonIds, created);
+		} catch (InvalidSPDXAnalysisException | RuntimeException e) {
+			try {
+				// anonymous items referenced from earlier copies may also be referenced by items which are kept
+				removeItems(created, false);
+			} catch (InvalidSPDXAnalysisException | RuntimeException removeError) {
+				e.addSuppressed(removeError);
+			}
+			throw e;
+		}
+	}
+	
+	/**
+	 * Copy items and the anonymous items they reference from a document store into this store
+	 * @param documentStore store containing the items
+	 * @param items items which are not anonymous to copy
+	 * @param anonIds map of anonymous IDs in the document store to the IDs of the anonymous items already copied
+	 * @param created URIs of the items created in this store
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private void copyItems(IModelStore documentStore, List<TypedValue> items, Map<String, String> anonIds, 
+			List<String> created) throws InvalidSPDXAnalysisException {
+		// all items are created before copying the properties since property values may refer to any of the items
+		for (TypedValue item:items) {
+			create(item);
+			created.add(item.getObjectUri());
+		}
+		// anonymous items are added to the list as they are first referenced
+		List<TypedValue> copied = new ArrayList<>(items);
+		for (int i = 0; i < copied.size(); i++) {
+			String objectUri = copied.get(i).getObjectUri();
+			String toUri = documentStore.isAnon(objectUri) ? anonIds.get(objectUri) : objectUri;
+			for (PropertyDescriptor property:documentStore.getPropertyValueDescriptors(objectUri)) {
+				if (documentStore.isCollectionProperty(objectUri, property)) {
+					Iterator<Object> values = documentStore.listValues(objectUri, property);
+					while (values.hasNext()) {
+						addValueToCollection(toUri, property, mergedValue(documentStore, values.next(), anonIds, copied, created));
+					}
+				} else {
+					Optional<Object> value = documentStore.getValue(objectUri, property);
+					if (value.isPresent()) {
+						setValue(toUri, property, mergedValue(documentStore, value.get(), anonIds, copied, created));
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @param documentStore store containing the document
+	 * @param value property value in the document store
+	 * @param anonIds map of anonymous IDs in the document store to the IDs of the anonymous items already copied
+	 * @param copied items copied into this store - an anonymous item referenced for the first time is created in this
+	 * store and added to the list so that its properties are copied
+	 * @param created URIs of the items created in this store
+	 * @return the value in this store for a property value in the document store
+	 */
+	private Object mergedValue(IModelStore documentStore, Object value, Map<String, String> anonIds, 
+			List<TypedValue> copied, List<String> created) throws InvalidSPDXAnalysisException {
+		if (!(value instanceof TypedValue) || !documentStore.isAnon(((TypedValue)value).getObjectUri())) {
+			return value;
+		}
+		TypedValue typedValue = (TypedValue)value;
+		String toUri = anonIds.get(typedValue.getObjectUri());
+		if (Objects.isNull(toUri)) {
+			toUri = getNextId(IdType.Anonymous);
+			anonIds.put(typedValue.getObjectUri(), toUri);
+			create(new TypedValue(toUri, typedValue.getType(), typedValue.getSpecVersion()));
+			created.add(toUri);
+			copied.add(typedValue);
+		}
+		return new TypedValue(toUri, typedValue.getType(), typedValue.getSpecVersion());
+	}
+	
+	/**
+	 * @param documentUri document namespace
+	 * @return true if this store contains any items in the document namespace
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private boolean hasItems(String documentUri) throws InvalidSPDXAnalysisException {
+		try (Stream<TypedValue> items = getAllItems(documentUri + "#", null)) {
+			return items.findAny().isPresent();
+		}
+	}
+	
+	/**
+	 * Remove all items in a document namespace and the anonymous items they reference from this store
+	 * @param documentUri document namespace
+	 * @throws InvalidSPDXAnalysisException if an item of the document is referenced from outside the document
+	 */
+	private void removeDocument(String documentUri) throws InvalidSPDXAnalysisException {
+		unverifiedDocuments.remove(documentUri);
+		deferredLicenseDocuments.remove(documentUri);
+		List<String> removed;
+		try (Stream<TypedValue> items = getAllItems(documentUri + "#", null)) {
+			removed = items.map(TypedValue::getObjectUri).collect(Collectors.toList());
+		}
+		removeItems(removed, true);
+	}
+	
+	/**
+	 * Remove items from this store
+	 * @param removed URIs of the items to remove
+	 * @param referencedAnon if true, the anonymous items referenced by the removed items are also removed and added to
+	 * the list
+	 * @throws InvalidSPDXAnalysisException if an item is referenced by an item which is not removed
+	 */
+	private void removeItems(List<String> removed, boolean referencedAnon) throws InvalidSPDXAnalysisException {
+		// the properties are removed first so that no removed item is still referenced when it is deleted
+		Set<String> found = new HashSet<>(removed);
+		for (int i = 0; i < removed.size(); i++) {
+			String objectUri = removed.get(i);
+			for (PropertyDescriptor property:getPropertyValueDescriptors(objectUri)) {
+				List<Object> values = new ArrayList<>();
+				if (isCollectionProperty(objectUri, property)) {
+					listValues(objectUri, property).forEachRemaining(values::add);
+					clearValueCollection(objectUri, property);
+				} else {
+					getValue(objectUri, property).ifPresent(values::add);
+				}
+				removeProperty(objectUri, property);
+				for (Object value:values) {
+					if (referencedAnon && value instanceof TypedValue && isAnon(((TypedValue)value).getObjectUri()) && 
+							found.add(((TypedValue)value).getObjectUri())) {
+						removed.add(((TypedValue)value).getObjectUri());
+					}
+				}
+			}
+		}
+		for (String objectUri:removed) {
+			delete(objectUri);
+		}
+	}
+	
+	/**
+	 * @param concurrency number of platform threads to use if virtual threads are not available
+	 * @return executor starting a virtual thread per task when supported by the runtime, otherwise a fixed pool of
+	 * daemon platform threads
+	 */
+	private static ExecutorService newBatchExecutor(int concurrency) {
+		try {
+			Method newVirtualThreadExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService)newVirtualThreadExecutor.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			// Virtual threads require Java 21 or later
+			AtomicInteger threadCount = new AtomicInteger();
+			return Executors.newFixedThreadPool(concurrency, runnable -> {
+				Thread thread = new Thread(runnable, "spdx-tagvalue-batch-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+	
+	/**
+	 * Result of deserializing one of the files in a batch
+	 */
+	public static class DeSerializeResult {
+		private Path file;
+		private SpdxDocument document;
+		private WarningCollector warnings;
+		private Exception error;
+		
+		DeSerializeResult(Path file, @Nullable SpdxDocument document, WarningCollector warnings, @Nullable Exception error) {
+			this.file = file;
+			this.document = document;
+			this.warnings = warnings;
+			this.error = error;
+		}
+		
+		/**
+		 * @return the deserialized file
+		 */
+		public Path getFile() {
+			return file;
+		}
+		
+		/**
+		 * @return the deserialized document or null if the file could not be deserialized
+		 */
+		public @Nullable SpdxDocument getDocument() {
+			return document;
+		}
+		
+		/**
+		 * @return warnings found while parsing this file
+		 */
+		public List<String> getWarnings() {
+			return warnings.getMessages();
+		}
+		
+		/**
+		 * @return warnings found while parsing this file including their kind, element ID and line number
+		 */
+		public List<TagValueWarning> getStructuredWarnings() {
+			return warnings.getWarnings();
+		}
+		
+		/**
+		 * @return the error which prevented the file from being deserialized or null if it was successful
+		 */
+		public @Nullable Exception getError() {
+			return error;
+		}
+		
+		/**
+		 * @return true if the file was deserialized
+		 */
+		public boolean isSuccess() {
+			return Objects.isNull(error);
+		}
+	}
+	
+	/**
+	 * @param parallelVerification if true, the packages, snippets and files of a document are verified concurrently
+	 * on the common fork-join pool once the document is parsed.  The warnings are the same, and in the same order,
+	 * as those from sequential verification.
+	 */
+	public void setParallelVerification(boolean parallelVerification) {
+		this.parallelVerification = parallelVerification;
+	}
+	
+	/**
+	 * @return true if the elements of a document are verified concurrently
+	 */
+	public boolean isParallelVerification() {
+		return parallelVerification;
+	}
+	
+	/**
+	 * @param verificationLevel how thoroughly documents are verified while they are deserialized - defaults to
+	 * <code>FULL</code>.  The verification skipped can be run later with {@link #verify()}.  The parsing state
+	 * needed to verify a document is kept until the document is verified.
+	 */
+	public void setVerificationLevel(VerificationLevel verificationLevel) {
+		this.verificationLevel = Objects.requireNonNull(verificationLevel, "Verification level can not be null");
+	}
+	
+	/**
+	 * @return how thoroughly documents are verified while they are deserialized
+	 */
+	public VerificationLevel getVerificationLevel() {
+		return verificationLevel;
+	}
+	
+	/**
+	 * Fully verify all documents deserialized with a verification level other than <code>FULL</code> which
+	 * have not yet been verified
+	 * @return the verification warnings for the documents in the order the documents were deserialized
+	 * @throws InvalidSPDXAnalysisException on errors verifying the documents
+	 */
+	public List<String> verify() throws InvalidSPDXAnalysisException {
+		List<String> documentUris;
+		synchronized (unverifiedDocuments) {
+			documentUris = new ArrayList<>(unverifiedDocuments.keySet());
+		}
+		List<String> retval = new ArrayList<>();
+		for (String documentUri:documentUris) {
+			retval.addAll(verify(documentUri));
+		}
+		return retval;
+	}
+	
+	/**
+	 * Fully verify a document in this store.  If the document was deserialized without full verification, the
+	 * warnings are the same as those reported by a full verification while deserializing.  Otherwise the
+	 * SPDX document verification is used.
+	 * @param documentUri URI of the document to verify
+	 * @return the verification warnings
+	 * @throws InvalidSPDXAnalysisException on errors verifying the document
+	 */
+	public List<String> verify(String documentUri) throws InvalidSPDXAnalysisException {
+		BuildDocument buildDocument = unverifiedDocuments.remove(documentUri);
+		if (Objects.nonNull(buildDocument)) {
+			List<String> retval = buildDocument.verify();
+			deferredLicenseDocuments.remove(documentUri);
+			return retval;
+		} else {
+			buildDocument = deferredLicenseDocuments.get(documentUri);
+			if (Objects.nonNull(buildDocument)) {
+				buildDocument.resolveLicenses();
+				deferredLicenseDocuments.remove(documentUri);
+			}
+			return inflateDocument(documentUri).verify();
+		}
+	}
+	
+	/**
+	 * @param deferLicenseParsing if true, license expressions of deserialized documents are kept as text and only
+	 * parsed when the element is first accessed, when the document is verified or when {@link #resolveLicenses()} is
+	 * called.  Listing all items or license items of this store parses the remaining expressions of the documents in
+	 * the listed namespace since the parsed licenses are new items.  Invalid
+	 * license expressions are then reported on access rather than while deserializing.  Documents deserialized by
+	 * {@link #deSerializeAll(Collection, boolean)} and documents which are fully verified always have their licenses
+	 * parsed while deserializing.
+	 */
+	public void setDeferLicenseParsing(boolean deferLicenseParsing) {
+		this.deferLicenseParsing = deferLicenseParsing;
+	}
+	
+	/**
+	 * @return true if license expressions are parsed when the licenses are first accessed
+	 */
+	public boolean isDeferLicenseParsing() {
+		return deferLicenseParsing;
+	}
+	
+	/**
+	 * Parse all license expressions not yet parsed for the documents in this store
+	 * @throws InvalidSPDXAnalysisException on invalid license expressions
+	 */
+	public void resolveLicenses() throws InvalidSPDXAnalysisException {
+		for (String documentUri:new ArrayList<>(deferredLicenseDocuments.keySet())) {
+			BuildDocument buildDocument = deferredLicenseDocuments.get(documentUri);
+			if (Objects.nonNull(buildDocument)) {
+				buildDocument.resolveLicenses();
+				deferredLicenseDocuments.remove(documentUri);
+			}
+		}
+	}
+	
+	/**
+	 * Parse any license expressions not yet parsed for an element before the element is accessed
+	 * @param objectUri URI of the element
+	 * @throws InvalidSPDXAnalysisException on invalid license expressions
+	 */
+	private void resolveLicenses(String objectUri) throws InvalidSPDXAnalysisException {
+		if (deferredLicenseDocuments.isEmpty()) {
+			return;
+		}
+		int hashIndex = objectUri.indexOf('#');
+		if (hashIndex < 0) {
+			return;
+		}
+		String documentUri = objectUri.substring(0, hashIndex);
+		BuildDocument buildDocument = deferredLicenseDocuments.get(documentUri);
+		if (Objects.nonNull(buildDocument)) {
+			buildDocument.resolveLicenses(objectUri);
+			if (!buildDocument.hasDeferredLicenses()) {
+				deferredLicenseDocuments.remove(documentUri);
+			}
+		}
+	}
+	
+	@Override
+	public Stream<TypedValue> getAllItems(@Nullable String nameSpace, @Nullable String typeFilter) throws InvalidSPDXAnalysisException {
+		// the licenses parsed from deferred expressions are new items, so only listing licenses needs them resolved
+		if (!deferredLicenseDocuments.isEmpty() && (Objects.isNull(typeFilter) || LICENSE_TYPES.contains(typeFilter))) {
+			for (String documentUri:new ArrayList<>(deferredLicenseDocuments.keySet())) {
+				if (Objects.isNull(nameSpace) || nameSpace.startsWith(documentUri) || (documentUri + "#").startsWith(nameSpace)) {
+					BuildDocument buildDocument = deferredLicenseDocuments.get(documentUri);
+					if (Objects.nonNull(buildDocument)) {
+						buildDocument.resolveLicenses();
+						deferredLicenseDocuments.remove(documentUri);
+					}
+				}
+			}
+		}
+		return super.getAllItems(nameSpace, typeFilter);
+	}
+	
+	@Override
+	public Optional<TypedValue> getTypedValue(String objectUri) throws InvalidSPDXAnalysisException {
+		resolveLicenses(objectUri);
+		return super.getTypedValue(objectUri);
+	}
+	
+	@Override
+	public void delete(String objectUri) throws InvalidSPDXAnalysisException {
+		resolveLicenses(objectUri);
+		super.delete(objectUri);
+	}
+	
+	@Override
+	public List<PropertyDescriptor> getPropertyValueDescriptors(String objectUri) throws InvalidSPDXAnalysisException {
+		resolveLicenses(objectUri);
+		return super.getPropertyValueDescriptors(objectUri);
+	}
+	
+	@Override
+	public void setValue(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		resolveLicenses(objectUri);
+		super.setValue(objectUri, propertyDescriptor, value);
+	}
+	
+	@Override
+	public Optional<Object> getValue(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		resolveLicenses(objectUri);
+		return super.getValue(objectUri, propertyDescriptor);
+	}
+	
+	@Override
+	public void removeProperty(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		resolveLicenses(objectUri);
+		super.removeProperty(objectUri, propertyDescriptor);
+	}
+	
+	@Override
+	public boolean removeValueFromCollection(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		resolveLicenses(objectUri);
+		return super.removeValueFromCollection(objectUri, propertyDescriptor, value);
+	}
+	
+	@Override
+	public int collectionSize(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		resolveLicenses(objectUri);
+		return super.collectionSize(objectUri, propertyDescriptor);
+	}
+	
+	@Override
+	public boolean collectionContains(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		resolveLicenses(objectUri);
+		return super.collectionContains(objectUri, propertyDescriptor, value);
+	}
+	
+	@Override
+	public void clearValueCollection(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		resolveLicenses(objectUri);
+		super.clearValueCollection(objectUri, propertyDescriptor);
+	}
+	
+	@Override
+	public boolean addValueToCollection(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		resolveLicenses(objectUri);
+		return super.addValueToCollection(objectUri, propertyDescriptor, value);
+	}
+	
+	@Override
+	public Iterator<Object> listValues(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		resolveLicenses(objectUri);
+		return super.listValues(objectUri, propertyDescriptor);
+	}
+	
+	@Override
+	public boolean isCollectionMembersAssignableTo(String objectUri, PropertyDescriptor propertyDescriptor, Class<?> clazz) throws InvalidSPDXAnalysisException {
+		resolveLicenses(objectUri);
+		return super.isCollectionMembersAssignableTo(objectUri, propertyDescriptor, clazz);
+	}
+	
+	@Override
+	public boolean isPropertyValueAssignableTo(String objectUri, PropertyDescriptor propertyDescriptor, Class<?> clazz, String specVersion) throws InvalidSPDXAnalysisException {
+		resolveLicenses(objectUri);
+		return super.isPropertyValueAssignableTo(objectUri, propertyDescriptor, clazz, specVersion);
+	}
+	
+	@Override
+	public boolean isCollectionProperty(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		resolveLicenses(objectUri);
+		return super.isCollectionProperty(objectUri, propertyDescriptor);
+	}
+	
+	/**
+	 * @param compressedOutput if true, serialized documents are gzip compressed.  Compressed input is
+	 * always detected and decompressed when deserializing.
+	 */
+	public void setCompressedOutput(boolean compressedOutput) {
+		this.compressedOutput = compressedOutput;
+	}
+	
+	/**
+	 * @return true if serialized documents are gzip compressed
+	 */
+	public boolean isCompressedOutput() {
+		return compressedOutput;
+	}
+	
+	/**
+	 * @param outputBufferSize size in bytes of the buffer the serialized documents are encoded into - the output is
+	 * only written when the buffer is full.  Defaults to {@link TagValueWriter#DEFAULT_BUFFER_SIZE}.
+	 */
+	public void setOutputBufferSize(int outputBufferSize) {
+		if (outputBufferSize < TagValueWriter.MIN_BUFFER_SIZE) {
+			throw new IllegalArgumentException("Output buffer size must be at least " + TagValueWriter.MIN_BUFFER_SIZE + " bytes");
+		}
+		this.outputBufferSize = outputBufferSize;
+	}
+	
+	/**
+	 * @return size in bytes of the buffer the serialized documents are encoded into
+	 */
+	public int getOutputBufferSize() {
+		return outputBufferSize;
+	}
+	
+	/**
+	 * @param maxTextLength maximum number of characters in a multi-line <code>&lt;text&gt;</code> value of a deserialized
+	 * or validated document - defaults to no limit.  A document with a longer text value is rejected as soon as the limit
+	 * is exceeded, so a single large text, such as an extracted license, can not exhaust the heap.
+	 */
+	public void setMaxTextLength(int maxTextLength) {
+		if (maxTextLength <= 0) {
+			throw new IllegalArgumentException("Maximum text length must be positive");
+		}
+		this.maxTextLength = maxTextLength;
+	}
+	
+	/**
+	 * @return maximum number of characters in a multi-line text value
+	 */
+	public int getMaxTextLength() {
+		return maxTextLength;
+	}
+	
+	/**
+	 * Parse the tag/value data from the lexer into this store
+	 * @param lexer lexer for the tag/value data - closed once the parsing is complete
+	 * @return the deserialized SPDX document
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private SpdxDocument deSerialize(TagValueLexer lexer) throws InvalidSPDXAnalysisException {
+		return deSerialize(lexer, null);
+	}
+	
+	/**
+	 * @param lexer lexer for the tag/value data
+	 * @param projection sections and tags of the document to deserialize or null for the whole document
+	 * @return the deserialized SPDX document
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private SpdxDocument deSerialize(TagValueLexer lexer, @Nullable TagValueProjection projection) throws InvalidSPDXAnalysisException {
+		try {
+			return parse(buildDocument -> {
+				lexer.setMaxTextLength(maxTextLength);
+				if (Objects.nonNull(projection)) {
+					lexer.setProjection(projection);
+					buildDocument.setProjection(projection);
+					buildDocument.setVerificationLevel(VerificationLevel.NONE);
+				}
+				HandBuiltParser parser = new HandBuiltParser(lexer);
+				parser.setBehavior(buildDocument);
+				parser.data();
+			});
+		} finally {
+			lexer.close();
+		}
+	}
+	
+	/**
+	 * Run a parser building the document into this store
+	 * @param parser parser to run
+	 * @return the deserialized SPDX document
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private SpdxDocument parse(DocumentParser parser) throws InvalidSPDXAnalysisException {
+		try{
+			BuildDocument buildDocument = newBuildDocument();
+			parser.parse(buildDocument);
+			return inflateDocument(buildDocument);
+		} catch (Exception e){
+			throw toSpdxException(e);
+		}
+	}
+	
+	/**
+	 * Start a new document - clearing any existing warnings
+	 * @return behavior building the document into this store
+	 */
+	private BuildDocument newBuildDocument() {
+		warnings.clear();
+		BuildDocument buildDocument = new BuildDocument(this, warnings);
+		buildDocument.setVerificationLevel(verificationLevel);
+		buildDocument.setDeferLicenseParsing(deferLicenseParsing);
+		if (parallelVerification) {
+			buildDocument.setVerificationPool(ForkJoinPool.commonPool());
+		}
+		return buildDocument;
+	}
+	
+	/**
+	 * @param buildDocument behavior which has completed building a document
+	 * @return the SPDX document built
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private SpdxDocument inflateDocument(BuildDocument buildDocument) throws InvalidSPDXAnalysisException {
+		String documentUri = buildDocument.getDocumentUri();
+		if (buildDocument.getVerificationLevel() == VerificationLevel.FULL) {
+			unverifiedDocuments.remove(documentUri);
+		} else {
+			unverifiedDocuments.put(documentUri, buildDocument);
+		}
+		if (buildDocument.hasDeferredLicenses()) {
+			deferredLicenseDocuments.put(documentUri, buildDocument);
+		} else {
+			deferredLicenseDocuments.remove(documentUri);
+		}
+		return inflateDocument(documentUri);
+	}
+	
+	/**
+	 * @param documentUri URI of a document in this store
+	 * @return the SPDX document
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private SpdxDocument inflateDocument(String documentUri) throws InvalidSPDXAnalysisException {
+		return (SpdxDocument)SpdxModelFactory.inflateModelObject(this, documentUri + "#" + SpdxConstantsCompatV2.SPDX_DOCUMENT_ID, 
+				SpdxConstantsCompatV2.CLASS_SPDX_DOCUMENT, new ModelCopyManager(), 
+				SpdxConstantsCompatV2.SPEC_TWO_POINT_THREE_VERSION, false, documentUri);
+	}
+	
+	/**
+	 * @param e exception thrown while parsing
+	 * @return the exception to report to the caller
+	 */
+	static InvalidSPDXAnalysisException toSpdxException(Exception e) {
+		if (e instanceof RecognitionException) {
 			// error in tag value file
-			throw(new InvalidSpdxTagFileException(e.getMessage()));
-		} catch (InvalidFileFormatException e) {
+			return new InvalidSpdxTagFileException(e.getMessage());
+		} else if (e instanceof InvalidFileFormatException) {
 			// invalid spdx file format
-			throw(new InvalidFileFormatException(e.getMessage()));
-		} catch (InvalidSPDXAnalysisException e) {
-			throw(e);
-		} catch (Exception e){
+			return new InvalidFileFormatException(e.getMessage());
+		} else if (e instanceof InvalidSPDXAnalysisException) {
+			return (InvalidSPDXAnalysisException)e;
+		} else {
 			// If any other exception - assume this is an RDF/XML file.
-			throw(new InvalidSPDXAnalysisException("Unexpected Error: "+e.getMessage(), e));
+			return new InvalidSPDXAnalysisException("Unexpected Error: "+e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * Validate a tag/value document without adding anything to this store.  The grammar, the placement of the tags,
+	 * the syntax of the values and the uniqueness and integrity of the IDs are checked as the document is read, keeping
+	 * only the IDs rather than the elements of the document.  The warnings of this store are not changed.
+	 * @param stream input stream containing the tag/value document - closed once the document is validated
+	 * @return warnings found in the document
+	 * @throws InvalidSPDXAnalysisException if the document is not valid tag/value
+	 * @throws IOException on errors reading the stream
+	 */
+	public List<TagValueWarning> validate(InputStream stream) throws InvalidSPDXAnalysisException, IOException {
+		WarningCollector documentWarnings = new WarningCollector();
+		documentWarnings.setMaxWarnings(warnings.getMaxWarnings());
+		documentWarnings.setListener(warnings.getListener());
+		try (TagValueLexer lexer = new TagValueLexer(Compression.decompress(stream))) {
+			lexer.setMaxTextLength(maxTextLength);
+			HandBuiltParser parser = new HandBuiltParser(lexer);
+			parser.setBehavior(new TagValueValidator(documentWarnings));
+			parser.data();
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw toSpdxException(e);
+		}
+		return documentWarnings.getWarnings();
+	}
+	
+	/**
+	 * Read the header of a tag/value document without adding anything to this store.  Reading stops, and the
+	 * stream is closed, at the first package, file, snippet or extracted license.
+	 * @param stream input stream containing the tag/value document
+	 * @return the document header
+	 * @throws InvalidSPDXAnalysisException if the header is not valid tag/value
+	 * @throws IOException on errors reading the stream
+	 */
+	public TagValueSection readHeader(InputStream stream) throws InvalidSPDXAnalysisException, IOException {
+		try {
+			return TagValueQuery.readHeader(new TagValueReader(Compression.decompress(stream)));
+		} catch (RecognitionException e) {
+			throw toSpdxException(e);
+		}
+	}
+	
+	/**
+	 * Find the first section of a tag/value document matching a predicate without adding anything to this store.
+	 * Reading stops, and the stream is closed, as soon as a matching section is found.
+	 * @param stream input stream containing the tag/value document
+	 * @param predicate test for a matching section
+	 * @return the first matching section or empty if no section matches
+	 * @throws InvalidSPDXAnalysisException if the document is not valid tag/value
+	 * @throws IOException on errors reading the stream
+	 */
+	public Optional<TagValueSection> findSection(InputStream stream, Predicate<TagValueSection> predicate) throws InvalidSPDXAnalysisException, IOException {
+		try {
+			return TagValueQuery.findFirst(new TagValueReader(Compression.decompress(stream)), predicate);
+		} catch (RecognitionException e) {
+			throw toSpdxException(e);
+		}
+	}
+	
+	/**
+	 * Find the first package in a tag/value document with an external reference to a package URL without adding
+	 * anything to this store.  Only the package sections are decoded and reading stops, and the stream is closed,
+	 * as soon as the package is found.
+	 * @param stream input stream containing the tag/value document
+	 * @param purl package URL
+	 * @return the package section or empty if no package refers to the package URL
+	 * @throws InvalidSPDXAnalysisException if the document is not valid tag/value
+	 * @throws IOException on errors reading the stream
+	 */
+	public Optional<TagValueSection> findPackageByPurl(InputStream stream, String purl) throws InvalidSPDXAnalysisException, IOException {
+		TagValueLexer lexer = new TagValueLexer(Compression.decompress(stream));
+		lexer.setProjection(TagValueProjection.of(Section.PACKAGE));
+		try {
+			return TagValueQuery.findPackageByPurl(new TagValueReader(lexer), purl);
+		} catch (RecognitionException e) {
+			throw toSpdxException(e);
+		}
+	}
+	
+	/**
+	 * Load the section offset index of a tag/value file.  The index is read from the sidecar next to the file
+	 * (see {@link TagValueIndex#sidecar(Path)}), or built in a single pass over the file and saved to the sidecar
+	 * if the sidecar does not exist or the content of the file has changed.  The index is kept by this store for
+	 * later reads of the same file.
+	 * @param file uncompressed tag/value file
+	 * @return index of the sections of the file
+	 * @throws IOException on errors reading the file or if the file is compressed
+	 */
+	public TagValueIndex index(Path file) throws IOException {
+		if (Compression.isCompressed(file)) {
+			throw new IOException("Compressed tag/value file "+file+" can not be indexed");
+		}
+		Path key = file.toAbsolutePath();
+		TagValueIndex retval = indexes.get(key);
+		if (Objects.isNull(retval) || !retval.isCurrent(file)) {
+			retval = TagValueIndex.load(file);
+			indexes.put(key, retval);
+		}
+		return retval;
+	}
+	
+	/**
+	 * Read the section of a tag/value file defining the document, an element, a snippet or an extracted license without
+	 * adding anything to this store.  Only the section is read, from a memory mapped region of the file located using
+	 * the index of the file (see {@link #index(Path)}).  Compressed files can not be indexed and are read from the start
+	 * until the section is found.
+	 * @param file tag/value file
+	 * @param id SPDX ID of the document, package, file or snippet, or the license ID of an extracted license
+	 * @return the section or empty if the ID is not defined in the file
+	 * @throws InvalidSPDXAnalysisException if the section is not valid tag/value
+	 * @throws IOException on errors reading the file or its index
+	 */
+	public Optional<TagValueSection> readSection(Path file, String id) throws InvalidSPDXAnalysisException, IOException {
+		Objects.requireNonNull(id, "ID can not be null");
+		if (Compression.isCompressed(file)) {
+			return findSection(Files.newInputStream(file), section -> id.equals(section.getId().orElse(null)));
+		}
+		try {
+			return index(file).readSection(file, id);
+		} catch (RecognitionException e) {
+			throw toSpdxException(e);
 		}
 	}
 	
+	/**
+	 * Deserialize a tag/value document into this store, publishing each element as soon as it is complete.
+	 * The document is parsed as the subscriber requests elements, so processing of the elements can start
+	 * before the entire document has been read.  All of the elements are still added to this store.  The warnings
+	 * of this store are cleared when the subscriber subscribes, and once the document is complete it is registered
+	 * for deferred license parsing and later verification the same as a document returned by
+	 * {@link #deSerialize(InputStream, boolean)}.
+	 * @param stream input stream containing the tag/value document - closed once the document is complete
+	 * @return publisher of the deserialized elements - errors in the tag/value data are passed to the
+	 * subscriber as <code>InvalidSPDXAnalysisException</code>s
+	 * @throws IOException on errors reading the tag/value constants
+	 */
+	public ElementFlow.Publisher<ModelObjectV2> publishElements(InputStream stream) throws IOException {
+		TagValueLexer lexer = new TagValueLexer(Compression.decompress(stream));
+		lexer.setMaxTextLength(maxTextLength);
+		TagValueElementPublisher publisher = new TagValueElementPublisher(lexer, this::newBuildDocument);
+		publisher.setErrorMapper(TagValueStore::toSpdxException);
+		publisher.setCompletionHandler(this::inflateDocument);
+		return publisher;
+	}
+	
+	/**
+	 * Start deserializing a document which is supplied in chunks as it arrives
+	 * @param overwrite if true, overwrite any existing data in the store
+	 * @return deserializer accepting the chunks of the document
+	 * @throws IOException on errors reading the tag/value constants
+	 */
+	public IncrementalDeSerializer incrementalDeSerialize(boolean overwrite) throws IOException {
+		return new IncrementalDeSerializer(newBuildDocument());
+	}
+	
+	/**
+	 * Deserializes a tag/value document fed to it in chunks.  Parsing of each chunk overlaps with
+	 * the transfer of the rest of the document and only incomplete lines and text blocks are buffered.
+	 */
+	public class IncrementalDeSerializer implements Closeable {
+		
+		private BuildDocument buildDocument;
+		private IncrementalTagValueParser parser;
+		
+		private IncrementalDeSerializer(BuildDocument buildDocument) {
+			this.buildDocument = buildDocument;
+			this.parser = new IncrementalTagValueParser(buildDocument);
+			this.parser.setMaxTextLength(maxTextLength);
+		}
+		
+		/**
+		 * Parse the next chunk of the document
+		 * @param bytes UTF-8 encoded bytes following any previously fed bytes - the position is advanced to the limit
+		 * @throws InvalidSPDXAnalysisException on errors in the tag/value data
+		 */
+		public void feed(ByteBuffer bytes) throws InvalidSPDXAnalysisException {
+			try {
+				parser.feed(bytes);
+			} catch (Exception e) {
+				throw toSpdxException(e);
+			}
+		}
+		
+		/**
+		 * Read and parse the bytes currently available from a channel without waiting on a non-blocking channel
+		 * @param channel channel supplying the document
+		 * @return false once the end of the channel has been reached and the document is complete
+		 * @throws InvalidSPDXAnalysisException on errors in the tag/value data
+		 */
+		public boolean read(ReadableByteChannel channel) throws InvalidSPDXAnalysisException {
+			try {
+				return parser.read(channel);
+			} catch (Exception e) {
+				throw toSpdxException(e);
+			}
+		}
+		
+		/**
+		 * Complete the document once all of the input has been fed
+		 * @return the deserialized SPDX document
+		 * @throws InvalidSPDXAnalysisException on errors in the tag/value data
+		 */
+		public SpdxDocument endOfInput() throws InvalidSPDXAnalysisException {
+			try {
+				parser.endOfInput();
+				return inflateDocument(buildDocument);
+			} catch (Exception e) {
+				throw toSpdxException(e);
+			}
+		}
+		
+		@Override
+		public void close() throws IOException {
+			parser.close();
+		}
+	}
+	
+	/**
+	 * @return messages of the warnings found while deserializing the last document
+	 */
 	public List<String> getWarnings() {
+		return this.warnings.getMessages();
+	}
+	
+	/**
+	 * The collector can be used to limit the number of warnings kept, to receive the warnings as they are
+	 * found and to retrieve the warnings along with their kind, element ID and line number
+	 * @return the collector for the warnings found while deserializing documents
+	 */
+	public WarningCollector getWarningCollector() {
 		return this.warnings;
 	}
 
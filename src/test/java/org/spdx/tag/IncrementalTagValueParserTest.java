@@ -0,0 +1,148 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class IncrementalTagValueParserTest extends TestCase {
+
+	static final String TAG_VALUE_FILE_PATH = "testResources" + File.separator + "SPDXTagExample-v2.3.spdx";
+
+	/**
+	 * Records the tag/value pairs passed to the behavior
+	 */
+	static class RecordingBehavior implements TagValueBehavior {
+		List<String> pairs = new ArrayList<>();
+		int exitCount = 0;
+
+		@Override
+		public void buildDocument(String tag, String value, int lineNumber) throws Exception {
+			pairs.add(tag + "|" + value + "|" + lineNumber);
+		}
+
+		@Override
+		public void enter() throws Exception {
+		}
+
+		@Override
+		public void exit() throws Exception {
+			exitCount++;
+		}
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	private static RecordingBehavior sequential(InputStream is) throws Exception {
+		RecordingBehavior retval = new RecordingBehavior();
+		HandBuiltParser parser = new HandBuiltParser(new TagValueLexer(is));
+		parser.setBehavior(retval);
+		parser.data();
+		return retval;
+	}
+
+	public void testFeedChunks() throws Exception {
+		RecordingBehavior expected;
+		try (InputStream is = new FileInputStream(TAG_VALUE_FILE_PATH)) {
+			expected = sequential(is);
+		}
+		byte[] document = Files.readAllBytes(Paths.get(TAG_VALUE_FILE_PATH));
+		for (int chunkSize:new int[] {1, 7, 1000, document.length}) {
+			RecordingBehavior result = new RecordingBehavior();
+			try (IncrementalTagValueParser parser = new IncrementalTagValueParser(result)) {
+				for (int start = 0; start < document.length; start += chunkSize) {
+					parser.feed(ByteBuffer.wrap(document, start, Math.min(chunkSize, document.length - start)));
+				}
+				assertEquals(0, result.exitCount);
+				parser.endOfInput();
+				assertTrue(parser.isComplete());
+			}
+			assertEquals(expected.pairs, result.pairs);
+			assertEquals(1, result.exitCount);
+		}
+	}
+
+	public void testPartialLines() throws Exception {
+		RecordingBehavior result = new RecordingBehavior();
+		try (IncrementalTagValueParser parser = new IncrementalTagValueParser(result)) {
+			parser.feed(ByteBuffer.wrap("Tag1: val".getBytes(StandardCharsets.UTF_8)));
+			assertEquals(0, result.pairs.size());
+			parser.feed(ByteBuffer.wrap("ue1\r".getBytes(StandardCharsets.UTF_8)));
+			assertEquals(1, result.pairs.size());
+			assertEquals("Tag1:|value1|1", result.pairs.get(0));
+			parser.feed(ByteBuffer.wrap("\nTag2: <text>first\n".getBytes(StandardCharsets.UTF_8)));
+			parser.feed(ByteBuffer.wrap("second</text>\nTag3: last".getBytes(StandardCharsets.UTF_8)));
+			assertEquals(2, result.pairs.size());
+			assertEquals("Tag2:|first\nsecond|3", result.pairs.get(1));
+			parser.endOfInput();
+		}
+		assertEquals(3, result.pairs.size());
+		assertEquals("Tag3:|last|4", result.pairs.get(2));
+	}
+
+	public void testUnterminatedText() throws Exception {
+		RecordingBehavior result = new RecordingBehavior();
+		try (IncrementalTagValueParser parser = new IncrementalTagValueParser(result)) {
+			parser.feed(ByteBuffer.wrap("Tag: <text>never\nends".getBytes(StandardCharsets.UTF_8)));
+			try {
+				parser.endOfInput();
+				fail("Expected exception for unterminated text");
+			} catch (RecognitionException ex) {
+				assertTrue(ex.getMessage().contains("Unterminated"));
+			}
+		}
+		assertEquals(0, result.exitCount);
+	}
+
+	public void testReadChannel() throws Exception {
+		RecordingBehavior expected;
+		try (InputStream is = new FileInputStream(TAG_VALUE_FILE_PATH)) {
+			expected = sequential(is);
+		}
+		RecordingBehavior result = new RecordingBehavior();
+		try (ReadableByteChannel channel = Channels.newChannel(new FileInputStream(TAG_VALUE_FILE_PATH));
+				IncrementalTagValueParser parser = new IncrementalTagValueParser(result)) {
+			while (parser.read(channel)) {
+				// keep reading
+			}
+		}
+		assertEquals(expected.pairs, result.pairs);
+		assertEquals(1, result.exitCount);
+	}
+}
@@ -0,0 +1,70 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import org.spdx.core.ModelRegistry;
+import org.spdx.library.ModelCopyManager;
+import org.spdx.library.model.v2.SpdxModelInfoV2_X;
+import org.spdx.library.model.v2.license.AnyLicenseInfo;
+import org.spdx.library.model.v3_0_1.SpdxModelInfoV3_0;
+import org.spdx.storage.IModelStore;
+import org.spdx.storage.compatv2.CompatibleModelStoreWrapper;
+import org.spdx.storage.simple.InMemSpdxStore;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class LicenseExpressionCacheTest extends TestCase {
+
+	static final String DOCUMENT_URI = "http://spdx.org/documents/license-cache-test";
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV2_X());
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV3_0());
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	public void testParse() throws Exception {
+		IModelStore modelStore = new CompatibleModelStoreWrapper(new InMemSpdxStore());
+		LicenseExpressionCache cache = new LicenseExpressionCache(modelStore, new ModelCopyManager());
+		AnyLicenseInfo mitOrApache = cache.parse("MIT OR Apache-2.0", DOCUMENT_URI);
+		assertEquals("(MIT OR Apache-2.0)", mitOrApache.toString());
+		long itemCount = modelStore.getAllItems(null, null).count();
+		assertSame(mitOrApache, cache.parse("MIT OR Apache-2.0", DOCUMENT_URI));
+		assertEquals(itemCount, modelStore.getAllItems(null, null).count());
+		AnyLicenseInfo mit = cache.parse("MIT", DOCUMENT_URI);
+		assertEquals("MIT", mit.toString());
+		assertSame(mit, cache.parse("MIT", DOCUMENT_URI));
+		assertEquals(2, cache.size());
+	}
+
+	public void testIsListedLicenseOrExceptionId() throws Exception {
+		assertTrue(LicenseExpressionCache.isListedLicenseOrExceptionId("Apache-2.0"));
+		assertTrue(LicenseExpressionCache.isListedLicenseOrExceptionId("Apache-2.0"));
+		assertTrue(LicenseExpressionCache.isListedLicenseOrExceptionId("Classpath-exception-2.0"));
+		assertFalse(LicenseExpressionCache.isListedLicenseOrExceptionId("NotAListedLicense"));
+		assertFalse(LicenseExpressionCache.isListedLicenseOrExceptionId("NotAListedLicense"));
+	}
+}
@@ -0,0 +1,108 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class TagDictionaryTest extends TestCase {
+
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	public void testAllTagsMatchConstants() throws Exception {
+		Properties constants = CommonCode.getTextFromProperties(TagDictionary.CONSTANTS_PATH);
+		for (SpdxTag spdxTag:SpdxTag.values()) {
+			if (spdxTag == SpdxTag.UNKNOWN) {
+				assertNull(spdxTag.getTag());
+				continue;
+			}
+			String tag = constants.getProperty(spdxTag.getPropertyKey()).trim();
+			assertEquals(tag, spdxTag.getTag());
+			assertEquals(spdxTag, TagDictionary.lookup(tag));
+			assertEquals(spdxTag, TagDictionary.lookup(tag + " "));
+			byte[] bytes = ("xx" + tag + " value").getBytes(StandardCharsets.UTF_8);
+			assertEquals(spdxTag, TagDictionary.lookup(ByteBuffer.wrap(bytes), 2, 2 + tag.length()));
+		}
+	}
+
+	public void testUnknown() throws Exception {
+		assertEquals(SpdxTag.UNKNOWN, TagDictionary.lookup("NotATag:"));
+		assertEquals(SpdxTag.UNKNOWN, TagDictionary.lookup("PackageName"));
+		byte[] bytes = "PackageNam:".getBytes(StandardCharsets.UTF_8);
+		assertEquals(SpdxTag.UNKNOWN, TagDictionary.lookup(ByteBuffer.wrap(bytes), 0, bytes.length));
+	}
+
+	public void testLexerUsesDictionary() throws Exception {
+		TagValueLexer lexer = new TagValueLexer(new ByteArrayInputStream(
+				"PackageName: foo\nCustomTag: bar\n".getBytes(StandardCharsets.UTF_8)));
+		try {
+			assertTrue(lexer.next());
+			assertEquals(SpdxTag.PACKAGE_DECLARED_NAME, lexer.getSpdxTag());
+			assertSame(SpdxTag.PACKAGE_DECLARED_NAME.getTag(), lexer.getTag());
+			assertTrue(lexer.next());
+			assertEquals(SpdxTag.UNKNOWN, lexer.getSpdxTag());
+			assertEquals("CustomTag:", lexer.getTag());
+			assertFalse(lexer.next());
+		} finally {
+			lexer.close();
+		}
+	}
+
+	public void testParserPassesResolvedTag() throws Exception {
+		List<SpdxTag> resolved = new ArrayList<>();
+		TagValueBehavior behavior = new TagValueBehavior() {
+			@Override
+			public void buildDocument(String tag, String value, int lineNumber) throws Exception {
+				fail("The parser should pass the tag resolved by the lexer");
+			}
+			@Override
+			public void buildDocument(SpdxTag spdxTag, String tag, String value, int lineNumber) throws Exception {
+				assertEquals(TagDictionary.lookup(tag), spdxTag);
+				resolved.add(spdxTag);
+			}
+			@Override
+			public void enter() throws Exception {
+			}
+			@Override
+			public void exit() throws Exception {
+			}
+		};
+		String input = "PackageName: test\nNotATag: value\nPackageComment: <text>multi\nline</text>\n";
+		HandBuiltParser parser = new HandBuiltParser(new TagValueLexer(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))));
+		parser.setBehavior(behavior);
+		parser.data();
+		assertEquals(Arrays.asList(SpdxTag.PACKAGE_DECLARED_NAME, SpdxTag.UNKNOWN, SpdxTag.PACKAGE_COMMENT), resolved);
+	}
+}
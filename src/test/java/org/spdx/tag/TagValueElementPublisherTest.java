@@ -0,0 +1,238 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.spdx.core.DefaultModelStore;
+import org.spdx.core.ModelRegistry;
+import org.spdx.library.ModelCopyManager;
+import org.spdx.library.model.v2.ModelObjectV2;
+import org.spdx.library.model.v2.Relationship;
+import org.spdx.library.model.v2.SpdxFile;
+import org.spdx.library.model.v2.SpdxModelInfoV2_X;
+import org.spdx.library.model.v2.SpdxPackage;
+import org.spdx.library.model.v2.SpdxSnippet;
+import org.spdx.library.model.v2.license.ExtractedLicenseInfo;
+import org.spdx.library.model.v3_0_1.SpdxModelInfoV3_0;
+import org.spdx.storage.simple.InMemSpdxStore;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class TagValueElementPublisherTest extends TestCase {
+
+	static final String TAG_VALUE_FILE_PATH = "testResources" + File.separator + "SPDXTagExample-v2.3.spdx";
+
+	/**
+	 * Subscriber recording the elements received and requesting one more element for each element received
+	 */
+	static class RecordingSubscriber implements ElementFlow.Subscriber<ModelObjectV2> {
+		ElementFlow.Subscription subscription;
+		List<ModelObjectV2> elements = new ArrayList<>();
+		Throwable error = null;
+		int completeCount = 0;
+		boolean requestMore = true;
+
+		@Override
+		public void onSubscribe(ElementFlow.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(ModelObjectV2 item) {
+			elements.add(item);
+			if (requestMore) {
+				subscription.request(1);
+			}
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			completeCount++;
+		}
+	}
+
+	private List<String> warnings;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV2_X());
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV3_0());
+		DefaultModelStore.initialize(new InMemSpdxStore(), "https://default.doc", new ModelCopyManager());
+		warnings = new ArrayList<>();
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	private BuildDocument newBuildDocument() throws Exception {
+		Properties constants = CommonCode.getTextFromProperties("org/spdx/tag/SpdxTagValueConstants.properties");
+		return new BuildDocument(new InMemSpdxStore(), constants, warnings);
+	}
+
+	private static int count(List<ModelObjectV2> elements, Class<?> type) {
+		int retval = 0;
+		for (ModelObjectV2 element:elements) {
+			if (type.isInstance(element)) {
+				retval++;
+			}
+		}
+		return retval;
+	}
+
+	public void testPublishAll() throws Exception {
+		TagValueElementPublisher publisher = new TagValueElementPublisher(
+				new TagValueLexer(new FileInputStream(TAG_VALUE_FILE_PATH)), newBuildDocument());
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+		assertTrue(subscriber.elements.isEmpty());
+		subscriber.subscription.request(1);
+		assertNull(subscriber.error);
+		assertEquals(1, subscriber.completeCount);
+		assertEquals(4, count(subscriber.elements, SpdxPackage.class));
+		assertEquals(5, count(subscriber.elements, SpdxFile.class));
+		assertEquals(1, count(subscriber.elements, SpdxSnippet.class));
+		assertEquals(5, count(subscriber.elements, ExtractedLicenseInfo.class));
+		assertTrue(count(subscriber.elements, Relationship.class) > 0);
+		assertEquals("SPDXRef-File", subscriber.elements.get(0).getId());
+		assertEquals("SPDXRef-Specification", subscriber.elements.get(1).getId());
+		assertTrue(warnings.isEmpty());
+	}
+
+	public void testBackpressure() throws Exception {
+		TagValueLexer lexer = new TagValueLexer(new FileInputStream(TAG_VALUE_FILE_PATH));
+		TagValueElementPublisher publisher = new TagValueElementPublisher(lexer, newBuildDocument());
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		subscriber.requestMore = false;
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(1);
+		assertEquals(1, subscriber.elements.size());
+		assertEquals("SPDXRef-File", subscriber.elements.get(0).getId());
+		// the file is complete once the following package section starts
+		assertEquals(71, lexer.getLineNumber());
+		subscriber.subscription.request(1);
+		assertEquals(2, subscriber.elements.size());
+		assertEquals("SPDXRef-Specification", subscriber.elements.get(1).getId());
+		assertEquals(122, lexer.getLineNumber());
+		subscriber.subscription.cancel();
+		subscriber.subscription.request(5);
+		assertEquals(2, subscriber.elements.size());
+		assertEquals(0, subscriber.completeCount);
+		assertNull(subscriber.error);
+	}
+
+	public void testCancelFromAnotherThread() throws Exception {
+		TagValueElementPublisher publisher = new TagValueElementPublisher(
+				new TagValueLexer(new FileInputStream(TAG_VALUE_FILE_PATH)), newBuildDocument());
+		List<Boolean> cancelled = new ArrayList<>();
+		RecordingSubscriber subscriber = new RecordingSubscriber() {
+			@Override
+			public void onNext(ModelObjectV2 item) {
+				super.onNext(item);
+				if (elements.size() == 1) {
+					// the request is still parsing on this thread
+					Thread canceller = new Thread(subscription::cancel);
+					canceller.start();
+					try {
+						canceller.join(5000);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					cancelled.add(!canceller.isAlive());
+				}
+			}
+		};
+		subscriber.requestMore = false;
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(Long.MAX_VALUE);
+		assertEquals(Collections.singletonList(true), cancelled);
+		assertEquals(1, subscriber.elements.size());
+		assertEquals(0, subscriber.completeCount);
+		assertNull(subscriber.error);
+	}
+
+	public void testCompletionHandler() throws Exception {
+		BuildDocument buildDocument = newBuildDocument();
+		TagValueElementPublisher publisher = new TagValueElementPublisher(
+				new TagValueLexer(new FileInputStream(TAG_VALUE_FILE_PATH)), () -> buildDocument);
+		List<BuildDocument> completedDocuments = new ArrayList<>();
+		RecordingSubscriber subscriber = new RecordingSubscriber() {
+			@Override
+			public void onComplete() {
+				assertEquals(1, completedDocuments.size());
+				super.onComplete();
+			}
+		};
+		publisher.setCompletionHandler(completedDocuments::add);
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(Long.MAX_VALUE);
+		assertEquals(Collections.singletonList(buildDocument), completedDocuments);
+		assertEquals(1, subscriber.completeCount);
+	}
+
+	public void testInvalidRequest() throws Exception {
+		TagValueElementPublisher publisher = new TagValueElementPublisher(
+				new TagValueLexer(new FileInputStream(TAG_VALUE_FILE_PATH)), newBuildDocument());
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(0);
+		assertTrue(subscriber.error instanceof IllegalArgumentException);
+		assertTrue(subscriber.elements.isEmpty());
+	}
+
+	public void testSingleSubscriber() throws Exception {
+		TagValueElementPublisher publisher = new TagValueElementPublisher(
+				new TagValueLexer(new FileInputStream(TAG_VALUE_FILE_PATH)), newBuildDocument());
+		RecordingSubscriber first = new RecordingSubscriber();
+		publisher.subscribe(first);
+		RecordingSubscriber second = new RecordingSubscriber();
+		publisher.subscribe(second);
+		assertTrue(second.error instanceof IllegalStateException);
+		first.subscription.request(Long.MAX_VALUE);
+		assertEquals(1, first.completeCount);
+		assertNull(first.error);
+	}
+
+	public void testParseError() throws Exception {
+		String document = "SPDXVersion: SPDX-2.3\nDocumentComment: <text>not terminated\n";
+		TagValueElementPublisher publisher = new TagValueElementPublisher(
+				new TagValueLexer(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8))), newBuildDocument());
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(1);
+		assertTrue(subscriber.error instanceof RecognitionException);
+		assertEquals(0, subscriber.completeCount);
+	}
+}
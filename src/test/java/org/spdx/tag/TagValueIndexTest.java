@@ -0,0 +1,149 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.spdx.tag.TagValueIndex.Entry;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class TagValueIndexTest extends TestCase {
+
+	static final String TAG_VALUE_FILE_PATH = "testResources" + File.separator + "SPDXTagExample-v2.3.spdx";
+
+	private Path tempDir;
+	private Path file;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		tempDir = Files.createTempDirectory("spdx-index");
+		file = tempDir.resolve("example.spdx");
+		Files.copy(Paths.get(TAG_VALUE_FILE_PATH), file);
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		Files.deleteIfExists(TagValueIndex.sidecar(file));
+		Files.deleteIfExists(file);
+		Files.deleteIfExists(tempDir);
+	}
+
+	public void testBuild() throws Exception {
+		byte[] document = Files.readAllBytes(file);
+		TagValueIndex index = TagValueIndex.build(file);
+		assertEquals(document.length, index.getContentLength());
+		List<Entry> entries = index.getEntries();
+		assertEquals(16, entries.size());
+		Entry header = entries.get(0);
+		assertNull(header.getSectionTag());
+		assertEquals("SPDXRef-DOCUMENT", header.getId());
+		assertEquals(0, header.getOffset());
+		assertEquals(1, header.getLineNumber());
+		long offset = 0;
+		for (Entry entry:entries) {
+			assertEquals(offset, entry.getOffset());
+			assertNotNull(entry.getId());
+			if (entry != header) {
+				String tag = entry.getSectionTag().getTag();
+				assertEquals(tag, new String(document, (int)entry.getOffset(), tag.length(), StandardCharsets.UTF_8));
+			}
+			offset += entry.getLength();
+		}
+		assertEquals(document.length, offset);
+		Entry pkg = index.getEntry("SPDXRef-Package").get();
+		assertEquals(SpdxTag.PACKAGE_DECLARED_NAME, pkg.getSectionTag());
+		assertEquals(71, pkg.getLineNumber());
+		assertEquals(SpdxTag.FILE_NAME, index.getEntry("SPDXRef-File").get().getSectionTag());
+		assertEquals(204, index.getEntry("SPDXRef-Snippet").get().getLineNumber());
+		assertEquals(292, index.getEntry("LicenseRef-3").get().getLineNumber());
+		assertFalse(index.getEntry("SPDXRef-Unknown").isPresent());
+	}
+
+	public void testBuildCrLf() throws Exception {
+		String document = new String(Files.readAllBytes(file), StandardCharsets.UTF_8).replace("\n", "\r\n");
+		byte[] bytes = document.getBytes(StandardCharsets.UTF_8);
+		TagValueIndex index = TagValueIndex.build(new ByteArrayInputStream(bytes));
+		assertEquals(bytes.length, index.getContentLength());
+		Entry license = index.getEntry("LicenseRef-1").get();
+		assertEquals(217, license.getLineNumber());
+		assertTrue(new String(bytes, (int)license.getOffset(), (int)license.getLength(), StandardCharsets.UTF_8).startsWith("LicenseID: LicenseRef-1\r\n"));
+		assertFalse(Arrays.equals(index.getContentHash(), TagValueIndex.build(file).getContentHash()));
+	}
+
+	public void testSidecar() throws Exception {
+		Path sidecar = TagValueIndex.sidecar(file);
+		assertEquals("example.spdx.idx", sidecar.getFileName().toString());
+		TagValueIndex index = TagValueIndex.load(file);
+		assertTrue(Files.exists(sidecar));
+		TagValueIndex read = TagValueIndex.read(sidecar);
+		assertTrue(Arrays.equals(index.getContentHash(), read.getContentHash()));
+		assertEquals(index.getEntries().size(), read.getEntries().size());
+		for (int i = 0; i < index.getEntries().size(); i++) {
+			Entry expected = index.getEntries().get(i);
+			Entry result = read.getEntries().get(i);
+			assertEquals(expected.getSectionTag(), result.getSectionTag());
+			assertEquals(expected.getId(), result.getId());
+			assertEquals(expected.getOffset(), result.getOffset());
+			assertEquals(expected.getLength(), result.getLength());
+			assertEquals(expected.getLineNumber(), result.getLineNumber());
+		}
+		assertTrue(read.isCurrent(file));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10000));
+		assertTrue(read.isCurrent(file));
+		
+		String document = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+		Files.write(file, document.replace("PackageName: glibc", "PackageName: glibc-2").getBytes(StandardCharsets.UTF_8));
+		assertFalse(read.isCurrent(file));
+		TagValueIndex reloaded = TagValueIndex.load(file);
+		assertFalse(Arrays.equals(index.getContentHash(), reloaded.getContentHash()));
+		assertTrue(TagValueIndex.read(sidecar).isCurrent(file));
+	}
+
+	public void testReadSection() throws Exception {
+		TagValueIndex index = TagValueIndex.build(file);
+		TagValueSection pkg = index.readSection(file, "SPDXRef-Package").get();
+		assertEquals(SpdxTag.PACKAGE_DECLARED_NAME, pkg.getSectionTag());
+		assertEquals(71, pkg.getLineNumber());
+		assertEquals("glibc", pkg.getValue(SpdxTag.PACKAGE_DECLARED_NAME).get());
+		assertEquals("2.11.1", pkg.getValue(SpdxTag.PACKAGE_VERSION_INFO).get());
+		assertEquals(2, pkg.getValues(SpdxTag.EXTERNAL_REFERENCE).size());
+		assertFalse(pkg.getValue(SpdxTag.FILE_NAME).isPresent());
+		
+		TagValueSection license = index.readSection(file, "LicenseRef-3").get();
+		assertEquals("LicenseRef-3", license.getId().get());
+		assertTrue(license.getValue(SpdxTag.EXTRACTED_TEXT).get().startsWith("The CyberNeko Software License"));
+		
+		TagValueSection header = index.readSection(file, "SPDXRef-DOCUMENT").get();
+		assertTrue(header.isHeader());
+		assertEquals("SPDX-2.3", header.getValue(SpdxTag.SPDX_VERSION).get());
+		assertFalse(index.readSection(file, "SPDXRef-Unknown").isPresent());
+	}
+}
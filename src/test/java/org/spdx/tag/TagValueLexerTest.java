@@ -0,0 +1,212 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class TagValueLexerTest extends TestCase {
+
+	static final String TAG_VALUE_FILE_PATH = "testResources" + File.separator + "SPDXTagExample-v2.3.spdx";
+
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	private static List<String[]> lex(TagValueLexer lexer) throws Exception {
+		List<String[]> retval = new ArrayList<>();
+		try {
+			while (lexer.next()) {
+				retval.add(new String[] {lexer.getTag(), lexer.getValue(), String.valueOf(lexer.getLineNumber())});
+			}
+		} finally {
+			lexer.close();
+		}
+		return retval;
+	}
+
+	private static List<String[]> lex(String input, int bufferSize) throws Exception {
+		return lex(new TagValueLexer(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), bufferSize));
+	}
+
+	public void testSimpleTags() throws Exception {
+		List<String[]> result = lex("Tag1: value1\n#Comment: skipped\n\nTag2:   value2  \r\nnot a tag\rTag3:value3", 16);
+		assertEquals(3, result.size());
+		assertEquals("Tag1:", result.get(0)[0]);
+		assertEquals("value1", result.get(0)[1]);
+		assertEquals("1", result.get(0)[2]);
+		assertEquals("Tag2:", result.get(1)[0]);
+		assertEquals("value2", result.get(1)[1]);
+		assertEquals("4", result.get(1)[2]);
+		assertEquals("Tag3:", result.get(2)[0]);
+		assertEquals("value3", result.get(2)[1]);
+		assertEquals("6", result.get(2)[2]);
+	}
+
+	public void testTextBlock() throws Exception {
+		String input = "Single: <text> one line </text>\n" +
+				"Multi: <text>first\n" +
+				"#not a comment\n" +
+				"\n" +
+				"Inner: not a tag\n" +
+				"  last  </text> ignored\n" +
+				"After: été";
+		List<String[]> result = lex(input, 16);
+		assertEquals(3, result.size());
+		assertEquals("Single:", result.get(0)[0]);
+		assertEquals("one line", result.get(0)[1]);
+		assertEquals("Multi:", result.get(1)[0]);
+		assertEquals("first\n#not a comment\n\nInner: not a tag\nlast", result.get(1)[1]);
+		assertEquals("6", result.get(1)[2]);
+		assertEquals("After:", result.get(2)[0]);
+		assertEquals("été", result.get(2)[1]);
+	}
+
+	public void testUnterminatedTextBlock() throws Exception {
+		try {
+			lex("Tag: <text>never\nends", 1024);
+			fail("Expected exception for unterminated text");
+		} catch (RecognitionException ex) {
+			assertTrue(ex.getMessage().contains("Unterminated"));
+		}
+	}
+
+	public void testNestedTextBlock() throws Exception {
+		try {
+			lex("Tag: <text>first\nsecond <text>\n</text>", 1024);
+			fail("Expected exception for nested text");
+		} catch (RecognitionException ex) {
+			assertTrue(ex.getMessage().contains("inside another text block"));
+		}
+	}
+
+	public void testMatchesLineBasedLexer() throws Exception {
+		List<String[]> expected;
+		try (InputStream is = new FileInputStream(TAG_VALUE_FILE_PATH)) {
+			expected = lex(new TagValueLexer(new NoCommentInputStream(is)));
+		}
+		for (int bufferSize:new int[] {16, 1000, TagValueLexer.DEFAULT_BUFFER_SIZE}) {
+			List<String[]> result;
+			try (InputStream is = new FileInputStream(TAG_VALUE_FILE_PATH)) {
+				result = lex(new TagValueLexer(is, bufferSize));
+			}
+			assertEquals(expected.size(), result.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i)[0], result.get(i)[0]);
+				assertEquals(expected.get(i)[1], result.get(i)[1]);
+				assertEquals(expected.get(i)[2], result.get(i)[2]);
+			}
+		}
+	}
+
+	public void testProjection() throws Exception {
+		String input = "DocumentNamespace: http://example.com/doc\n" +
+				"PackageName: pkg\n" +
+				"SPDXID: SPDXRef-pkg\n" +
+				"PackageVersion: 1.0\n" +
+				"PackageDescription: <text>multi\n" +
+				"PackageName: not a tag\n" +
+				"</text>\n" +
+				"FileName: ./file.c\n" +
+				"SPDXID: SPDXRef-file\n" +
+				"FileComment: <text>\n" +
+				"PackageName: also not a tag\n" +
+				"</text>\n" +
+				"Relationship: SPDXRef-file CONTAINED_BY SPDXRef-pkg\n" +
+				"RelationshipComment: skipped\n" +
+				"LicenseID: LicenseRef-1\n" +
+				"ExtractedText: <text>text\n" +
+				"</text>\n" +
+				"Relationship: SPDXRef-DOCUMENT DESCRIBES SPDXRef-pkg\n" +
+				"RelationshipComment: kept\n";
+		TagValueProjection projection = new TagValueProjection()
+				.include(TagValueProjection.Section.PACKAGE, SpdxTag.PACKAGE_VERSION_INFO)
+				.include(TagValueProjection.Section.RELATIONSHIP);
+		TagValueLexer lexer = new TagValueLexer(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), 16);
+		lexer.setProjection(projection);
+		List<String[]> result = lex(lexer);
+		assertEquals(6, result.size());
+		assertEquals("DocumentNamespace:", result.get(0)[0]);
+		assertEquals("PackageName:", result.get(1)[0]);
+		assertEquals("pkg", result.get(1)[1]);
+		assertEquals("SPDXID:", result.get(2)[0]);
+		assertEquals("SPDXRef-pkg", result.get(2)[1]);
+		assertEquals("PackageVersion:", result.get(3)[0]);
+		assertEquals("4", result.get(3)[2]);
+		assertEquals("Relationship:", result.get(4)[0]);
+		assertEquals("SPDXRef-DOCUMENT DESCRIBES SPDXRef-pkg", result.get(4)[1]);
+		assertEquals("18", result.get(4)[2]);
+		assertEquals("RelationshipComment:", result.get(5)[0]);
+		assertEquals("kept", result.get(5)[1]);
+		
+		lexer = new TagValueLexer(new ByteArrayInputStream("FileName: a\nFileComment: <text>unterminated\n".getBytes(StandardCharsets.UTF_8)));
+		lexer.setProjection(TagValueProjection.of(TagValueProjection.Section.PACKAGE));
+		try {
+			lex(lexer);
+			fail("Unterminated text block in a skipped section");
+		} catch (RecognitionException ex) {
+			// expected
+		}
+	}
+
+	public void testMappedFile() throws Exception {
+		List<String[]> expected;
+		try (InputStream is = new FileInputStream(TAG_VALUE_FILE_PATH)) {
+			expected = lex(new TagValueLexer(is));
+		}
+		for (int windowSize:new int[] {64, 1000, Integer.MAX_VALUE}) {
+			List<String[]> result = lex(new TagValueLexer(Paths.get(TAG_VALUE_FILE_PATH), windowSize));
+			assertEquals(expected.size(), result.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i)[0], result.get(i)[0]);
+				assertEquals(expected.get(i)[1], result.get(i)[1]);
+				assertEquals(expected.get(i)[2], result.get(i)[2]);
+			}
+		}
+	}
+
+	public void testClose() throws IOException, Exception {
+		final boolean[] closed = new boolean[] {false};
+		InputStream is = new ByteArrayInputStream("Tag: value".getBytes()) {
+			@Override
+			public void close() throws IOException {
+				closed[0] = true;
+				super.close();
+			}
+		};
+		lex(new TagValueLexer(is));
+		assertTrue(closed[0]);
+	}
+}
@@ -0,0 +1,126 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class TagValueQueryTest extends TestCase {
+
+	static final String TAG_VALUE_FILE_PATH = "testResources" + File.separator + "SPDXTagExample-v2.3.spdx";
+
+	/**
+	 * Input stream counting the bytes read and recording when it is closed
+	 */
+	static class TrackingInputStream extends ByteArrayInputStream {
+		int bytesRead = 0;
+		boolean closed = false;
+
+		TrackingInputStream(byte[] bytes) {
+			super(bytes);
+		}
+
+		@Override
+		public synchronized int read(byte[] b, int off, int len) {
+			int count = super.read(b, off, len);
+			if (count > 0) {
+				bytesRead += count;
+			}
+			return count;
+		}
+
+		@Override
+		public void close() throws IOException {
+			closed = true;
+			super.close();
+		}
+	}
+
+	private byte[] document;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		document = Files.readAllBytes(Paths.get(TAG_VALUE_FILE_PATH));
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	private static TagValueReader reader(InputStream is) {
+		return new TagValueReader(new TagValueLexer(is, 256));
+	}
+
+	public void testReadHeader() throws Exception {
+		TrackingInputStream is = new TrackingInputStream(document);
+		TagValueSection header = TagValueQuery.readHeader(reader(is));
+		assertTrue(is.closed);
+		assertTrue(is.bytesRead < document.length);
+		assertTrue(header.isHeader());
+		assertEquals("SPDX-2.3", header.getValue(SpdxTag.SPDX_VERSION).get());
+		assertEquals("http://spdx.org/spdxdocs/spdx-example-444504E0-4F89-41D3-9A0C-0305E82C3301", 
+				header.getValue(SpdxTag.DOCUMENT_NAMESPACE).get());
+		assertEquals("SPDXRef-DOCUMENT", header.getId().get());
+		assertEquals(3, header.getValues(SpdxTag.CREATION_CREATOR).size());
+		assertEquals("Tool: LicenseFind-1.0", header.getValues(SpdxTag.CREATION_CREATOR).get(0));
+		assertEquals("2010-01-29T18:30:22Z", header.getValue(SpdxTag.CREATION_CREATED).get());
+		assertFalse(header.getValue(SpdxTag.PACKAGE_DECLARED_NAME).isPresent());
+	}
+
+	public void testFindById() throws Exception {
+		TrackingInputStream is = new TrackingInputStream(document);
+		Optional<TagValueSection> file = TagValueQuery.findById(reader(is), "SPDXRef-File");
+		assertTrue(is.closed);
+		assertTrue(is.bytesRead < document.length);
+		assertEquals(SpdxTag.FILE_NAME, file.get().getSectionTag());
+		assertEquals("./package/foo.c", file.get().getValue(SpdxTag.FILE_NAME).get());
+		
+		Optional<TagValueSection> license = TagValueQuery.findById(reader(new ByteArrayInputStream(document)), "LicenseRef-3");
+		assertEquals(SpdxTag.LICENSE_ID, license.get().getSectionTag());
+		assertEquals("CyberNeko License", license.get().getValue(SpdxTag.LICENSE_NAME).get());
+		
+		is = new TrackingInputStream(document);
+		assertFalse(TagValueQuery.findById(reader(is), "SPDXRef-Missing").isPresent());
+		assertTrue(is.closed);
+	}
+
+	public void testFindPackageByPurl() throws Exception {
+		String purlDocument = new String(document, StandardCharsets.UTF_8).replace(
+				"ExternalRef: SECURITY cpe23Type cpe:2.3:a:pivotal_software:spring_framework:4.1.0:*:*:*:*:*:*:*", 
+				"ExternalRef: PACKAGE-MANAGER purl pkg:gnu/glibc@2.11.1");
+		TrackingInputStream is = new TrackingInputStream(purlDocument.getBytes(StandardCharsets.UTF_8));
+		Optional<TagValueSection> pkg = TagValueQuery.findPackageByPurl(reader(is), "pkg:gnu/glibc@2.11.1");
+		assertTrue(is.closed);
+		assertTrue(is.bytesRead < document.length);
+		assertEquals("SPDXRef-Package", pkg.get().getId().get());
+		assertEquals("glibc", pkg.get().getValue(SpdxTag.PACKAGE_DECLARED_NAME).get());
+		assertFalse(TagValueQuery.findPackageByPurl(reader(new ByteArrayInputStream(document)), "pkg:gnu/glibc@2.11.1").isPresent());
+	}
+}
@@ -0,0 +1,112 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class TagValueReaderTest extends TestCase {
+
+	static final String TAG_VALUE_FILE_PATH = "testResources" + File.separator + "SPDXTagExample-v2.3.spdx";
+
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	public void testHeaderAndFirstPackage() throws Exception {
+		final boolean[] closed = new boolean[] {false};
+		InputStream is = new FileInputStream(TAG_VALUE_FILE_PATH) {
+			@Override
+			public void close() throws IOException {
+				closed[0] = true;
+				super.close();
+			}
+		};
+		String documentName = null;
+		String packageName = null;
+		String packageId = null;
+		try (TagValueReader reader = new TagValueReader(is)) {
+			assertNull(reader.tag());
+			while (reader.next() && !reader.spdxTag().isSectionStart()) {
+				if (reader.spdxTag() == SpdxTag.DOCUMENT_NAME) {
+					documentName = reader.value();
+					assertEquals(4, reader.lineNumber());
+				}
+			}
+			while (reader.spdxTag() != SpdxTag.PACKAGE_DECLARED_NAME) {
+				assertTrue(reader.skipSection());
+				assertNull(reader.tag());
+				assertTrue(reader.next());
+			}
+			packageName = reader.value();
+			assertTrue(reader.next());
+			assertEquals(SpdxTag.ELEMENT_ID, reader.spdxTag());
+			packageId = reader.value();
+		}
+		assertTrue(closed[0]);
+		assertEquals("SPDX-Tools-v2.0", documentName);
+		assertEquals("glibc", packageName);
+		assertEquals("SPDXRef-Package", packageId);
+	}
+
+	public void testSkipSection() throws Exception {
+		int sections = 0;
+		try (TagValueReader reader = new TagValueReader(Paths.get(TAG_VALUE_FILE_PATH))) {
+			while (reader.skipSection()) {
+				sections++;
+				assertTrue(reader.next());
+				assertTrue(reader.spdxTag().isSectionStart());
+			}
+			assertFalse(reader.next());
+			assertFalse(reader.skipSection());
+			assertNull(reader.value());
+		}
+		assertEquals(15, sections);
+	}
+
+	public void testMatchesLexer() throws Exception {
+		try (InputStream expectedIs = new FileInputStream(TAG_VALUE_FILE_PATH);
+				TagValueReader reader = new TagValueReader(new FileInputStream(TAG_VALUE_FILE_PATH))) {
+			TagValueLexer lexer = new TagValueLexer(expectedIs);
+			try {
+				while (lexer.next()) {
+					assertTrue(reader.next());
+					assertEquals(lexer.getTag(), reader.tag());
+					assertEquals(lexer.getValue(), reader.value());
+					assertEquals(lexer.getLineNumber(), reader.lineNumber());
+				}
+				assertFalse(reader.next());
+			} finally {
+				lexer.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class TagValueWriterTest extends TestCase {
+
+	static final String TEXT = "PackageName: ünïcödé 中文 😀 emoji\nFileComment: <text>tab\tand ascii</text>\n";
+
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	private static byte[] write(String text, int bufferSize) throws IOException {
+		ByteArrayOutputStream bas = new ByteArrayOutputStream();
+		try (TagValueWriter writer = new TagValueWriter(bas, bufferSize)) {
+			writer.write(text);
+		}
+		return bas.toByteArray();
+	}
+
+	public void testEncoding() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			sb.append(TEXT);
+		}
+		String text = sb.toString();
+		byte[] expected = text.getBytes(StandardCharsets.UTF_8);
+		for (int bufferSize = TagValueWriter.MIN_BUFFER_SIZE; bufferSize < 20; bufferSize++) {
+			assertTrue(Arrays.equals(expected, write(text, bufferSize)));
+		}
+		assertTrue(Arrays.equals(expected, write(text, TagValueWriter.DEFAULT_BUFFER_SIZE)));
+	}
+
+	public void testCharacters() throws Exception {
+		ByteArrayOutputStream bas = new ByteArrayOutputStream();
+		try (TagValueWriter writer = new TagValueWriter(bas, TagValueWriter.MIN_BUFFER_SIZE)) {
+			for (char c:TEXT.toCharArray()) {
+				writer.write(c);
+			}
+			// surrogate pair split between writes
+			writer.write(TEXT.toCharArray(), 0, TEXT.indexOf('\uDE00'));
+			writer.write(TEXT.toCharArray(), TEXT.indexOf('\uDE00'), TEXT.length() - TEXT.indexOf('\uDE00'));
+		}
+		assertEquals(TEXT + TEXT, new String(bas.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	public void testUnpairedSurrogates() throws Exception {
+		String text = "a\uDE00b\uD83Dc\uD83D";
+		assertTrue(Arrays.equals(text.getBytes(StandardCharsets.UTF_8), write(text, TagValueWriter.MIN_BUFFER_SIZE)));
+		assertTrue(Arrays.equals(text.getBytes(StandardCharsets.UTF_8), write(text, 64)));
+	}
+
+	public void testNoFlushUntilFull() throws Exception {
+		int[] writes = new int[1];
+		OutputStream counting = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				writes[0]++;
+			}
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				writes[0]++;
+			}
+		};
+		try (TagValueWriter writer = new TagValueWriter(counting, 1024)) {
+			for (int i = 0; i < 10; i++) {
+				writer.write("Tag: value\n");
+			}
+			assertEquals(0, writes[0]);
+			assertEquals(110, writer.getBufferedByteCount());
+			writer.flush();
+			assertEquals(1, writes[0]);
+			assertEquals(0, writer.getBufferedByteCount());
+			for (int i = 0; i < 1000; i++) {
+				writer.write("Tag: value\n");
+			}
+			assertEquals(11000 / 1024 + 1, writes[0]);
+		}
+	}
+
+	public void testChannelAndPath() throws Exception {
+		byte[] expected = TEXT.getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream bas = new ByteArrayOutputStream();
+		try (TagValueWriter writer = new TagValueWriter(Channels.newChannel(bas), 16)) {
+			writer.write(TEXT);
+		}
+		assertTrue(Arrays.equals(expected, bas.toByteArray()));
+		Path file = Files.createTempFile("spdx-writer", ".spdx");
+		try {
+			Files.write(file, "previous content which is longer than the text written to the file".getBytes(StandardCharsets.UTF_8));
+			try (TagValueWriter writer = new TagValueWriter(file)) {
+				writer.write(TEXT);
+			}
+			assertTrue(Arrays.equals(expected, Files.readAllBytes(file)));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	public void testClosed() throws Exception {
+		TagValueWriter writer = new TagValueWriter(new ByteArrayOutputStream());
+		writer.close();
+		writer.close();
+		try {
+			writer.write("Tag: value");
+			fail("Writing to a closed writer should fail");
+		} catch (IOException e) {
+			// expected
+		}
+		try {
+			new TagValueWriter(new ByteArrayOutputStream(), TagValueWriter.MIN_BUFFER_SIZE - 1).close();
+			fail("Buffer size below the minimum should be rejected");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
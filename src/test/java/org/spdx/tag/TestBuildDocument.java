@@ -43,6 +43,8 @@ import org.spdx.library.model.v2.SpdxDocument;
 import org.spdx.library.model.v2.SpdxElement;
 import org.spdx.library.model.v2.SpdxFile;
 import org.spdx.library.model.v2.SpdxModelInfoV2_X;
+import org.spdx.library.model.v2.SpdxNoAssertionElement;
+import org.spdx.library.model.v2.SpdxNoneElement;
 import org.spdx.library.model.v2.SpdxPackage;
 import org.spdx.library.model.v2.SpdxSnippet;
 import org.spdx.library.model.v2.enumerations.ChecksumAlgorithm;
@@ -51,6 +53,7 @@ import org.spdx.library.model.v2.enumerations.Purpose;
 import org.spdx.library.model.v2.enumerations.ReferenceCategory;
 import org.spdx.library.model.v2.enumerations.RelationshipType;
 import org.spdx.library.model.v2.license.SpdxNoAssertionLicense;
+import org.spdx.library.model.v2.pointer.ByteOffsetPointer;
 import org.spdx.library.model.v3_0_1.SpdxModelInfoV3_0;
 import org.spdx.library.referencetype.ListedReferenceTypes;
 import org.spdx.storage.IModelStore;
@@ -397,6 +400,97 @@ public class TestBuildDocument extends TestCase {
 		assertEquals(0, new SpdxDocument(modelStore, DOC_NAMESPACE, null, false).verify().size());
 	}
 	
+	public void testRelationshipTargets() throws Exception {
+		String document = DOC_LEVEL_TAGS + "\n" + EXTERNAL_DOC_REF_TAGS + "\n" +
+				CREATOR_TAGS + "\n" + DOC_ANNOTATION_TAGS + "\n" + DOC_RELATIONSHIP_TAGS + "\n" +
+				"Relationship: " + PACKAGE_SPDXID + " DEPENDS_ON NONE\n" +
+				"Relationship: " + PACKAGE_SPDXID + " BUILD_DEPENDENCY_OF NOASSERTION\n" +
+				"Relationship: " + FILE_LIB_SPDXID + " DEPENDS_ON NONE\n" +
+				"Relationship: " + FILE_LIB_SPDXID + " GENERATES SPDXRef-NotDefined\n" +
+				PACKAGE_TAGS + "\n" + FILE_LIB_TAGS + "\n" + SNIPPET_LIB_TAGS + "\n" +
+				LICENSE_REF1_TAGS + "\n" + LICENSE_REF2_TAGS;
+		HandBuiltParser parser = new HandBuiltParser(new NoCommentInputStream(new ByteArrayInputStream(document.getBytes())));
+		List<String> warnings = new ArrayList<>();
+		Properties constants = CommonCode.getTextFromProperties("org/spdx/tag/SpdxTagValueConstants.properties");
+		IModelStore modelStore = new InMemSpdxStore();
+		parser.setBehavior(new BuildDocument(modelStore, constants, warnings));
+		parser.data();
+		assertEquals(1, warnings.size());
+		assertTrue(warnings.get(0).contains("SPDXRef-NotDefined"));
+		SpdxPackage pkg = new SpdxPackage(modelStore, DOC_NAMESPACE, PACKAGE_SPDXID, null, false);
+		boolean foundNone = false;
+		boolean foundNoAssertion = false;
+		for (Relationship rel:pkg.getRelationships()) {
+			if (rel.getRelationshipType() == RelationshipType.DEPENDS_ON) {
+				assertTrue(rel.getRelatedSpdxElement().get() instanceof SpdxNoneElement);
+				foundNone = true;
+			} else if (rel.getRelationshipType() == RelationshipType.BUILD_DEPENDENCY_OF) {
+				assertTrue(rel.getRelatedSpdxElement().get() instanceof SpdxNoAssertionElement);
+				foundNoAssertion = true;
+			}
+		}
+		assertTrue(foundNone);
+		assertTrue(foundNoAssertion);
+		SpdxFile file = new SpdxFile(modelStore, DOC_NAMESPACE, FILE_LIB_SPDXID, null, false);
+		foundNone = false;
+		for (Relationship rel:file.getRelationships()) {
+			if (rel.getRelationshipType() == RelationshipType.DEPENDS_ON) {
+				assertTrue(rel.getRelatedSpdxElement().get() instanceof SpdxNoneElement);
+				foundNone = true;
+			}
+			assertFalse(rel.getRelationshipType() == RelationshipType.GENERATES);
+		}
+		assertTrue(foundNone);
+	}
+	
+	public void testDefaultDescribesWithArtifactOf() throws Exception {
+		String document = DOC_LEVEL_TAGS + "\n" + CREATOR_TAGS + "\n" +
+				PACKAGE_TAGS + "\n" + FILE_LIB_TAGS + "\n" +
+				"ArtifactOfProjectName: Jena\n" +
+				LICENSE_REF1_TAGS + "\n" + LICENSE_REF2_TAGS;
+		HandBuiltParser parser = new HandBuiltParser(new NoCommentInputStream(new ByteArrayInputStream(document.getBytes())));
+		List<String> warnings = new ArrayList<>();
+		Properties constants = CommonCode.getTextFromProperties("org/spdx/tag/SpdxTagValueConstants.properties");
+		IModelStore modelStore = new InMemSpdxStore();
+		parser.setBehavior(new BuildDocument(modelStore, constants, warnings));
+		parser.data();
+		SpdxDocument doc = new SpdxDocument(modelStore, DOC_NAMESPACE, null, false);
+		assertEquals(1, doc.getDocumentDescribes().size());
+		assertEquals(PACKAGE_SPDXID, doc.getDocumentDescribes().iterator().next().getId());
+	}
+	
+	@SuppressWarnings("deprecation")
+	public void testForwardFileReferences() throws Exception {
+		String secondFileName = "./lib-source/second.c";
+		String document = DOC_LEVEL_TAGS + "\n" + EXTERNAL_DOC_REF_TAGS + "\n" +
+				CREATOR_TAGS + "\n" + DOC_ANNOTATION_TAGS + "\n" + DOC_RELATIONSHIP_TAGS + "\n" +
+				SNIPPET_LIB_TAGS + "\n" + PACKAGE_TAGS + "\n" + FILE_LIB_TAGS + "\n" +
+				"FileDependency: " + secondFileName + "\n" +
+				"FileName: " + secondFileName + "\n" +
+				"SPDXID: SPDXRef-Second\n" +
+				"FileDependency: " + FILE_LIB_FILENAME + "\n" +
+				"FileDependency: ./not/defined.c\n" +
+				LICENSE_REF1_TAGS + "\n" + LICENSE_REF2_TAGS;
+		HandBuiltParser parser = new HandBuiltParser(new NoCommentInputStream(new ByteArrayInputStream(document.getBytes())));
+		List<String> warnings = new ArrayList<>();
+		Properties constants = CommonCode.getTextFromProperties("org/spdx/tag/SpdxTagValueConstants.properties");
+		IModelStore modelStore = new InMemSpdxStore();
+		parser.setBehavior(new BuildDocument(modelStore, constants, warnings));
+		parser.data();
+		assertTrue(warnings.contains("\t./not/defined.c"));
+		SpdxSnippet snippet = new SpdxSnippet(modelStore, DOC_NAMESPACE, SNIPPET_LIB_ID, null, false);
+		assertEquals(FILE_LIB_SPDXID, snippet.getSnippetFromFile().getId());
+		assertEquals(SNIPPET_LIB_BYTE_START, ((ByteOffsetPointer)snippet.getByteRange().getStartPointer()).getOffset());
+		assertEquals(SNIPPET_LIB_BYTE_END, ((ByteOffsetPointer)snippet.getByteRange().getEndPointer()).getOffset());
+		assertTrue(snippet.getLineRange().isPresent());
+		SpdxFile libFile = new SpdxFile(modelStore, DOC_NAMESPACE, FILE_LIB_SPDXID, null, false);
+		SpdxFile secondFile = new SpdxFile(modelStore, DOC_NAMESPACE, "SPDXRef-Second", null, false);
+		assertEquals(1, libFile.getFileDependency().size());
+		assertTrue(libFile.getFileDependency().contains(secondFile));
+		assertEquals(1, secondFile.getFileDependency().size());
+		assertTrue(secondFile.getFileDependency().contains(libFile));
+	}
+	
 	public void testNoExtractedText() throws Exception {
 		InputStream bais = new ByteArrayInputStream(TAG_DOCUMENT_NO_EXTRACTED_TEXT.getBytes());
 		HandBuiltParser parser = new HandBuiltParser(new NoCommentInputStream(bais));
@@ -0,0 +1,121 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class TextBlockAccumulatorTest extends TestCase {
+
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	private static void appendLine(TextBlockAccumulator accumulator, StringBuilder expected, String line) throws Exception {
+		byte[] bytes = ("xx" + line + "yy").getBytes(StandardCharsets.UTF_8);
+		accumulator.append(ByteBuffer.wrap(bytes), 2, bytes.length - 2);
+		accumulator.append('\n');
+		expected.append(line);
+		expected.append('\n');
+	}
+
+	public void testAccumulate() throws Exception {
+		TextBlockAccumulator accumulator = new TextBlockAccumulator();
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			appendLine(accumulator, expected, "Line number " + i + " with ünïcödé");
+		}
+		assertEquals(expected.length(), accumulator.length());
+		assertEquals(expected.toString(), accumulator.toString());
+		assertEquals(expected.charAt(500), accumulator.charAt(500));
+		assertEquals(expected.subSequence(100, 200), accumulator.subSequence(100, 200));
+		accumulator.clear();
+		assertEquals(0, accumulator.length());
+		assertEquals("", accumulator.toString());
+		appendLine(accumulator, new StringBuilder(), "reused");
+		assertEquals("reused\n", accumulator.toString());
+	}
+
+	public void testLargeText() throws Exception {
+		TextBlockAccumulator accumulator = new TextBlockAccumulator();
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			appendLine(accumulator, expected, "Line number " + i + " with ünïcödé");
+		}
+		assertEquals(expected.length(), accumulator.length());
+		assertEquals(expected.toString(), accumulator.toString());
+		assertEquals(expected.subSequence(70000, 140000), accumulator.subSequence(70000, 140000).toString());
+		accumulator.clear();
+		assertEquals(0, accumulator.length());
+		appendLine(accumulator, new StringBuilder(), "reused");
+		assertEquals("reused\n", accumulator.toString());
+	}
+
+	public void testLexerMaxTextLength() throws Exception {
+		StringBuilder input = new StringBuilder("LicenseID: LicenseRef-big\nExtractedText: <text>first line\n");
+		StringBuilder expected = new StringBuilder("first line");
+		for (int i = 0; i < 5000; i++) {
+			input.append("License text line ");
+			input.append(i);
+			input.append('\n');
+			expected.append("\nLicense text line ");
+			expected.append(i);
+		}
+		input.append("</text>\nLicenseName: big\n");
+		expected.append('\n');
+		byte[] bytes = input.toString().getBytes(StandardCharsets.UTF_8);
+		TagValueLexer lexer = new TagValueLexer(new ByteArrayInputStream(bytes), 128);
+		try {
+			lexer.setMaxTextLength(expected.length());
+			assertTrue(lexer.next());
+			assertEquals("LicenseRef-big", lexer.getValue());
+			assertTrue(lexer.next());
+			assertEquals("ExtractedText:", lexer.getTag());
+			assertTrue(lexer.getValueSequence() instanceof TextBlockAccumulator);
+			assertEquals(expected.toString(), lexer.getValueSequence().toString());
+			assertEquals(expected.toString(), lexer.getValue());
+			assertTrue(lexer.next());
+			assertEquals("big", lexer.getValue());
+			assertFalse(lexer.next());
+		} finally {
+			lexer.close();
+		}
+		lexer = new TagValueLexer(new ByteArrayInputStream(bytes), 128);
+		try {
+			lexer.setMaxTextLength(1024);
+			assertTrue(lexer.next());
+			lexer.next();
+			fail("Text longer than the maximum should be rejected");
+		} catch (RecognitionException e) {
+			assertTrue(e.getMessage().contains("line 2"));
+		} finally {
+			lexer.close();
+		}
+	}
+}
@@ -0,0 +1,107 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.spdx.tag.TagValueWarning.Kind;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class WarningCollectorTest extends TestCase {
+
+	protected void setUp() throws Exception {
+		super.setUp();
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+
+	public void testAddDuplicates() {
+		WarningCollector collector = new WarningCollector();
+		assertTrue(collector.add(Kind.INVALID_VALUE, "SPDXRef-1", 10, "first"));
+		assertTrue(collector.add(Kind.MISSING_ID, null, 20, "second"));
+		assertFalse(collector.add(Kind.VERIFICATION, "SPDXRef-2", 30, "first"));
+		assertEquals(2, collector.getWarnings().size());
+		TagValueWarning warning = collector.getWarnings().get(0);
+		assertEquals(Kind.INVALID_VALUE, warning.getKind());
+		assertEquals("SPDXRef-1", warning.getElementId());
+		assertEquals(10, warning.getLineNumber());
+		assertEquals("first", warning.getMessage());
+		assertNull(collector.getWarnings().get(1).getElementId());
+		assertTrue(collector.contains("second"));
+		assertFalse(collector.contains("third"));
+		assertEquals(0, collector.getDroppedCount());
+	}
+
+	public void testDefaultKeepsAllWarnings() {
+		WarningCollector collector = new WarningCollector();
+		assertEquals(Integer.MAX_VALUE, collector.getMaxWarnings());
+		for (int i = 0; i < 20000; i++) {
+			assertTrue(collector.add(Kind.INVALID_VALUE, null, i, "warning " + i));
+		}
+		assertEquals(20000, collector.getWarnings().size());
+		assertEquals(0, collector.getDroppedCount());
+	}
+
+	public void testMaxWarnings() {
+		WarningCollector collector = new WarningCollector();
+		collector.setMaxWarnings(2);
+		List<TagValueWarning> heard = new ArrayList<>();
+		collector.setListener(heard::add);
+		collector.add(Kind.INVALID_VALUE, null, 1, "one");
+		collector.add(Kind.INVALID_VALUE, null, 2, "two");
+		assertFalse(collector.add(Kind.INVALID_VALUE, null, 3, "three"));
+		assertFalse(collector.add(Kind.INVALID_VALUE, null, 4, "four"));
+		assertFalse(collector.add(Kind.INVALID_VALUE, null, 5, "one"));
+		assertEquals(2, collector.getWarnings().size());
+		assertEquals(2, collector.getDroppedCount());
+		assertEquals(4, heard.size());
+		assertEquals("four", heard.get(3).getMessage());
+	}
+
+	public void testMessages() {
+		List<String> messageList = new ArrayList<>();
+		WarningCollector collector = new WarningCollector(messageList);
+		List<String> messages = collector.getMessages();
+		collector.add(Kind.DEPRECATED, null, 1, "one");
+		collector.add(Kind.DEPRECATED, null, 2, "one");
+		collector.add(Kind.INVALID_REFERENCE, null, 3, "two");
+		assertEquals(2, messages.size());
+		assertEquals("one", messages.get(0));
+		assertEquals("two", messages.get(1));
+		assertEquals(messages, messageList);
+		try {
+			messages.add("three");
+			fail("Messages should not be modifiable");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		collector.clear();
+		assertTrue(messages.isEmpty());
+		assertTrue(messageList.isEmpty());
+		assertFalse(collector.contains("one"));
+		assertTrue(collector.add(Kind.DEPRECATED, null, 1, "one"));
+	}
+}
@@ -0,0 +1,240 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2024 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.spdx.core.DefaultModelStore;
+import org.spdx.core.InvalidSPDXAnalysisException;
+import org.spdx.core.ModelRegistry;
+import org.spdx.core.TypedValue;
+import org.spdx.library.ModelCopyManager;
+import org.spdx.library.model.v2.Annotation;
+import org.spdx.library.model.v2.Checksum;
+import org.spdx.library.model.v2.ExternalRef;
+import org.spdx.library.model.v2.ModelObjectV2;
+import org.spdx.library.model.v2.Relationship;
+import org.spdx.library.model.v2.SpdxConstantsCompatV2;
+import org.spdx.library.model.v2.SpdxDocument;
+import org.spdx.library.model.v2.SpdxElement;
+import org.spdx.library.model.v2.SpdxFile;
+import org.spdx.library.model.v2.SpdxItem;
+import org.spdx.library.model.v2.SpdxModelFactoryCompatV2;
+import org.spdx.library.model.v2.SpdxModelInfoV2_X;
+import org.spdx.library.model.v2.SpdxPackage;
+import org.spdx.library.model.v2.SpdxSnippet;
+import org.spdx.library.model.v2.license.ExtractedLicenseInfo;
+import org.spdx.library.model.v3_0_1.SpdxModelInfoV3_0;
+import org.spdx.storage.IModelStore;
+import org.spdx.storage.simple.InMemSpdxStore;
+import org.spdx.tag.TagValueIndex;
+import org.spdx.tag.TagValueIndex.Entry;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class LazyTagValueStoreTest extends TestCase {
+
+	static final String TAG_VALUE_FILE_PATH = "testResources" + File.separator + "SPDXTagExample-v2.3.spdx";
+
+	private Path tempDir;
+	private Path file;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV2_X());
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV3_0());
+		DefaultModelStore.initialize(new InMemSpdxStore(), "https://default.doc", new ModelCopyManager());
+		tempDir = Files.createTempDirectory("spdx-lazy");
+		file = tempDir.resolve("example.spdx");
+		Files.copy(Paths.get(TAG_VALUE_FILE_PATH), file);
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		Files.deleteIfExists(TagValueIndex.sidecar(file));
+		Files.deleteIfExists(file);
+		Files.deleteIfExists(tempDir);
+	}
+
+	/**
+	 * @return summary of the properties of an element which should be the same however the element is built
+	 */
+	private static String describe(ModelObjectV2 element) throws InvalidSPDXAnalysisException {
+		List<String> retval = new ArrayList<>();
+		retval.add(element.getType());
+		if (element instanceof SpdxElement) {
+			SpdxElement spdxElement = (SpdxElement)element;
+			retval.add(spdxElement.getName().orElse(""));
+			retval.add(spdxElement.getComment().orElse(""));
+			List<String> relationships = new ArrayList<>();
+			for (Relationship relationship:spdxElement.getRelationships()) {
+				relationships.add(relationship.getRelationshipType() + " " + 
+						(relationship.getRelatedSpdxElement().isPresent() ? relationship.getRelatedSpdxElement().get().getId() : "") + 
+						" " + relationship.getComment().orElse(""));
+			}
+			retval.add(sorted(relationships));
+			List<String> annotations = new ArrayList<>();
+			for (Annotation annotation:spdxElement.getAnnotations()) {
+				annotations.add(annotation.getAnnotationType() + " " + annotation.getAnnotator() + " " + annotation.getComment());
+			}
+			retval.add(sorted(annotations));
+		}
+		if (element instanceof SpdxItem) {
+			SpdxItem item = (SpdxItem)element;
+			retval.add(item.getLicenseConcluded().toString());
+			retval.add(sorted(item.getLicenseInfoFromFiles().stream().map(Object::toString).collect(Collectors.toList())));
+			retval.add(item.getCopyrightText());
+		}
+		if (element instanceof SpdxPackage) {
+			SpdxPackage pkg = (SpdxPackage)element;
+			retval.add(pkg.getVersionInfo().orElse(""));
+			retval.add(pkg.getLicenseDeclared().toString());
+			retval.add(checksums(pkg.getChecksums()));
+			List<String> externalRefs = new ArrayList<>();
+			for (ExternalRef externalRef:pkg.getExternalRefs()) {
+				externalRefs.add(externalRef.getReferenceCategory() + " " + externalRef.getReferenceLocator());
+			}
+			retval.add(sorted(externalRefs));
+			retval.add(pkg.getPackageVerificationCode().isPresent() ? pkg.getPackageVerificationCode().get().getValue() : "");
+		}
+		if (element instanceof SpdxFile) {
+			SpdxFile spdxFile = (SpdxFile)element;
+			retval.add(checksums(spdxFile.getChecksums()));
+			retval.add(spdxFile.getNoticeText().orElse(""));
+		}
+		if (element instanceof SpdxSnippet) {
+			SpdxSnippet snippet = (SpdxSnippet)element;
+			retval.add(snippet.getSnippetFromFile().getId());
+			retval.add(snippet.getByteRange().toString());
+		}
+		if (element instanceof ExtractedLicenseInfo) {
+			ExtractedLicenseInfo license = (ExtractedLicenseInfo)element;
+			retval.add(license.getExtractedText());
+			retval.add(license.getName());
+			retval.add(sorted(new ArrayList<>(license.getSeeAlso())));
+		}
+		if (element instanceof SpdxDocument) {
+			SpdxDocument document = (SpdxDocument)element;
+			retval.add(document.getSpecVersion());
+			retval.add(sorted(new ArrayList<>(document.getCreationInfo().getCreators())));
+			retval.add(String.valueOf(document.getExternalDocumentRefs().size()));
+		}
+		return String.join("\n", retval);
+	}
+
+	private static String checksums(Collection<Checksum> checksums) throws InvalidSPDXAnalysisException {
+		List<String> retval = new ArrayList<>();
+		for (Checksum checksum:checksums) {
+			retval.add(checksum.getAlgorithm() + " " + checksum.getValue());
+		}
+		return sorted(retval);
+	}
+
+	private static String sorted(List<String> values) {
+		Collections.sort(values);
+		return values.toString();
+	}
+
+	private static ModelObjectV2 element(IModelStore store, String documentUri, String id) throws InvalidSPDXAnalysisException {
+		return SpdxModelFactoryCompatV2.getModelObjectV2(store, documentUri, id, new ModelCopyManager()).get();
+	}
+
+	public void testElements() throws Exception {
+		TagValueStore fullStore = new TagValueStore(new InMemSpdxStore());
+		fullStore.setVerificationLevel(org.spdx.tag.VerificationLevel.NONE);
+		String documentUri = fullStore.deSerialize(file, false).getDocumentUri();
+		try (LazyTagValueStore lazyStore = new LazyTagValueStore(file)) {
+			assertEquals(documentUri, lazyStore.getDocumentUri());
+			assertEquals(0, lazyStore.getCachedElementCount());
+			for (Entry entry:lazyStore.getIndex().getEntries()) {
+				assertEquals(entry.getId(), describe(element(fullStore, documentUri, entry.getId())), 
+						describe(element(lazyStore, documentUri, entry.getId())));
+			}
+			assertEquals(lazyStore.getIndex().getEntries().size() - 1, lazyStore.getCachedElementCount());
+		}
+	}
+
+	public void testEviction() throws Exception {
+		try (LazyTagValueStore lazyStore = new LazyTagValueStore(file, 2)) {
+			String documentUri = lazyStore.getDocumentUri();
+			List<String> expected = new ArrayList<>();
+			for (Entry entry:lazyStore.getIndex().getEntries()) {
+				expected.add(describe(element(lazyStore, documentUri, entry.getId())));
+				assertTrue(lazyStore.getCachedElementCount() <= 2);
+			}
+			List<String> result = new ArrayList<>();
+			for (Entry entry:lazyStore.getIndex().getEntries()) {
+				result.add(describe(element(lazyStore, documentUri, entry.getId())));
+			}
+			assertEquals(expected, result);
+			assertEquals(2, lazyStore.getCachedElementCount());
+		}
+	}
+
+	public void testGetAllItems() throws Exception {
+		try (LazyTagValueStore lazyStore = new LazyTagValueStore(file)) {
+			List<String> packages = lazyStore.getAllItems(null, SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE)
+					.map(TypedValue::getObjectUri).collect(Collectors.toList());
+			assertEquals(4, packages.size());
+			assertTrue(packages.contains(lazyStore.getDocumentUri() + "#SPDXRef-Package"));
+			assertEquals(5, lazyStore.getAllItems(null, SpdxConstantsCompatV2.CLASS_SPDX_FILE).count());
+			assertEquals(1, lazyStore.getAllItems(null, SpdxConstantsCompatV2.CLASS_SPDX_SNIPPET).count());
+			// listing the elements does not build them
+			assertEquals(0, lazyStore.getCachedElementCount());
+			assertEquals(1, lazyStore.getAllItems(null, SpdxConstantsCompatV2.CLASS_SPDX_DOCUMENT).count());
+			TagValueStore fullStore = new TagValueStore(new InMemSpdxStore());
+			fullStore.setVerificationLevel(org.spdx.tag.VerificationLevel.NONE);
+			fullStore.deSerialize(file, false);
+			assertEquals(fullStore.getAllItems(null, SpdxConstantsCompatV2.CLASS_RELATIONSHIP).count(),
+					lazyStore.getAllItems(null, SpdxConstantsCompatV2.CLASS_RELATIONSHIP).count());
+		}
+	}
+
+	public void testReadOnly() throws Exception {
+		try (LazyTagValueStore lazyStore = new LazyTagValueStore(file)) {
+			SpdxPackage pkg = (SpdxPackage)element(lazyStore, lazyStore.getDocumentUri(), "SPDXRef-Package");
+			String name = pkg.getName().get();
+			pkg.setName(name);
+			try {
+				pkg.setName("changed");
+				fail("Lazy store should be read only");
+			} catch (InvalidSPDXAnalysisException e) {
+				// expected
+			}
+			assertEquals(name, pkg.getName().get());
+			try {
+				lazyStore.delete(pkg.getObjectUri());
+				fail("Lazy store should be read only");
+			} catch (InvalidSPDXAnalysisException e) {
+				// expected
+			}
+		}
+	}
+}
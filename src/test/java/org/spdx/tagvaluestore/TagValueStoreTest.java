@@ -18,6 +18,7 @@
  */
 package org.spdx.tagvaluestore;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -25,14 +26,30 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.spdx.core.DefaultModelStore;
 import org.spdx.core.InvalidSPDXAnalysisException;
 import org.spdx.core.ModelRegistry;
+import org.spdx.core.TypedValue;
 import org.spdx.library.ModelCopyManager;
 import org.spdx.library.SpdxModelFactory;
+import org.spdx.library.model.v2.ModelObjectV2;
 import org.spdx.library.model.v2.Relationship;
 import org.spdx.library.model.v2.SpdxConstantsCompatV2;
 import org.spdx.library.model.v2.SpdxDocument;
@@ -41,7 +58,18 @@ import org.spdx.library.model.v2.SpdxModelInfoV2_X;
 import org.spdx.library.model.v2.SpdxPackage;
 import org.spdx.library.model.v2.enumerations.RelationshipType;
 import org.spdx.library.model.v3_0_1.SpdxModelInfoV3_0;
+import org.spdx.storage.PropertyDescriptor;
 import org.spdx.storage.simple.InMemSpdxStore;
+import org.spdx.tag.ElementFlow;
+import org.spdx.tag.InvalidSpdxTagFileException;
+import org.spdx.tag.SpdxTag;
+import org.spdx.tag.TagValueIndex;
+import org.spdx.tag.TagValueProjection;
+import org.spdx.tag.TagValueProjection.Section;
+import org.spdx.tag.TagValueSection;
+import org.spdx.tag.TagValueWarning;
+import org.spdx.tag.TagValueWarning.Kind;
+import org.spdx.tag.VerificationLevel;
 import org.spdx.utility.compare.SpdxCompareException;
 
 import junit.framework.TestCase;
@@ -112,6 +140,538 @@ public class TagValueStoreTest extends TestCase {
 		}
 	}
 	
+	public void testDeSerializePath() throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore streamStore = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument streamDoc;
+		try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+			streamDoc = streamStore.deSerialize(tagValueInput, false);
+		}
+		TagValueStore pathStore = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument pathDoc = pathStore.deSerialize(Paths.get(TAG_VALUE_FILE_PATH), false);
+		assertEquals(streamDoc.getDocumentUri(), pathDoc.getDocumentUri());
+		assertTrue(streamDoc.equivalent(pathDoc));
+		assertEquals(streamStore.getWarnings(), pathStore.getWarnings());
+	}
+	
+	public void testParallelVerification() throws InvalidSPDXAnalysisException, IOException {
+		// documents without download locations and file checksums so that each element has verification warnings
+		String document = new String(Files.readAllBytes(Paths.get(TAG_VALUE_FILE_PATH)), StandardCharsets.UTF_8)
+				.replaceAll("(?m)^(PackageDownloadLocation|FileChecksum):.*$", "");
+		TagValueStore sequentialStore = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument sequentialDoc = sequentialStore.deSerialize(
+				new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), false);
+		assertTrue(sequentialStore.getWarnings().size() > 5);
+		for (int i = 0; i < 5; i++) {
+			TagValueStore parallelStore = new TagValueStore(new InMemSpdxStore());
+			parallelStore.setParallelVerification(true);
+			assertTrue(parallelStore.isParallelVerification());
+			SpdxDocument parallelDoc = parallelStore.deSerialize(
+					new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), false);
+			assertTrue(sequentialDoc.equivalent(parallelDoc));
+			assertEquals(sequentialStore.getWarnings(), parallelStore.getWarnings());
+		}
+	}
+	
+	public void testVerificationLevel() throws InvalidSPDXAnalysisException, IOException {
+		String document = new String(Files.readAllBytes(Paths.get(TAG_VALUE_FILE_PATH)), StandardCharsets.UTF_8)
+				.replaceAll("(?m)^(PackageDownloadLocation|FileChecksum):.*$", "");
+		TagValueStore fullStore = new TagValueStore(new InMemSpdxStore());
+		assertEquals(VerificationLevel.FULL, fullStore.getVerificationLevel());
+		SpdxDocument fullDoc = fullStore.deSerialize(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), false);
+		assertFalse(fullStore.getWarnings().isEmpty());
+		assertTrue(fullStore.verify().isEmpty());
+		
+		TagValueStore noneStore = new TagValueStore(new InMemSpdxStore());
+		noneStore.setVerificationLevel(VerificationLevel.NONE);
+		SpdxDocument noneDoc = noneStore.deSerialize(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), false);
+		assertTrue(noneStore.getWarnings().isEmpty());
+		assertTrue(fullDoc.equivalent(noneDoc));
+		List<String> deferredWarnings = noneStore.verify();
+		int elementWarnings = 0;
+		for (String warning:fullStore.getWarnings()) {
+			if (warning.startsWith("Package ") || warning.startsWith("File ") || warning.startsWith("Snippet ")) {
+				assertTrue(deferredWarnings.contains(warning));
+				elementWarnings++;
+			}
+		}
+		assertTrue(elementWarnings > 0);
+		assertTrue(noneStore.verify().isEmpty());
+		assertFalse(noneStore.verify(noneDoc.getDocumentUri()).isEmpty());
+		
+		TagValueStore structuralStore = new TagValueStore(new InMemSpdxStore());
+		structuralStore.setVerificationLevel(VerificationLevel.STRUCTURAL);
+		String invalidReference = document.replace("Relationship: SPDXRef-DOCUMENT CONTAINS SPDXRef-Package", 
+				"Relationship: SPDXRef-DOCUMENT CONTAINS SPDXRef-Missing");
+		structuralStore.deSerialize(new ByteArrayInputStream(invalidReference.getBytes(StandardCharsets.UTF_8)), false);
+		assertFalse(structuralStore.getWarnings().isEmpty());
+		for (TagValueWarning warning:structuralStore.getWarningCollector().getWarnings()) {
+			assertEquals(TagValueWarning.Kind.INVALID_REFERENCE, warning.getKind());
+		}
+		assertFalse(structuralStore.verify().isEmpty());
+	}
+	
+	public void testDeferLicenseParsing() throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore eagerStore = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument eagerDoc = eagerStore.deSerialize(Paths.get(TAG_VALUE_FILE_PATH), false);
+		TagValueStore lazyStore = new TagValueStore(new InMemSpdxStore());
+		lazyStore.setDeferLicenseParsing(true);
+		assertTrue(lazyStore.isDeferLicenseParsing());
+		lazyStore.setVerificationLevel(VerificationLevel.NONE);
+		SpdxDocument lazyDoc = lazyStore.deSerialize(Paths.get(TAG_VALUE_FILE_PATH), false);
+		SpdxPackage eagerPackage = new SpdxPackage(eagerStore, eagerDoc.getDocumentUri(), "SPDXRef-Package", null, false);
+		SpdxPackage lazyPackage = new SpdxPackage(lazyStore, lazyDoc.getDocumentUri(), "SPDXRef-Package", null, false);
+		assertEquals(eagerPackage.getName(), lazyPackage.getName());
+		assertEquals(eagerPackage.getLicenseConcluded().toString(), lazyPackage.getLicenseConcluded().toString());
+		assertEquals(eagerPackage.getLicenseInfoFromFiles().size(), lazyPackage.getLicenseInfoFromFiles().size());
+		lazyStore.resolveLicenses();
+		assertTrue(eagerDoc.equivalent(lazyDoc));
+		
+		// invalid expressions are only reported when the licenses are accessed
+		String document = new String(Files.readAllBytes(Paths.get(TAG_VALUE_FILE_PATH)), StandardCharsets.UTF_8)
+				.replace("PackageLicenseConcluded: (LGPL-2.0-only OR LicenseRef-3)", "PackageLicenseConcluded: (MIT OR");
+		TagValueStore invalidStore = new TagValueStore(new InMemSpdxStore());
+		invalidStore.setDeferLicenseParsing(true);
+		invalidStore.setVerificationLevel(VerificationLevel.STRUCTURAL);
+		SpdxDocument invalidDoc = invalidStore.deSerialize(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), false);
+		try {
+			new SpdxPackage(invalidStore, invalidDoc.getDocumentUri(), "SPDXRef-Package", null, false).getLicenseConcluded();
+			fail("Invalid license expression should be reported on access");
+		} catch (InvalidSPDXAnalysisException e) {
+			assertTrue(e.getMessage().contains("line number"));
+		}
+	}
+	
+	public void testDeferLicenseParsingAccess() throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore eagerStore = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument eagerDoc = eagerStore.deSerialize(Paths.get(TAG_VALUE_FILE_PATH), false);
+		String packageUri = eagerDoc.getDocumentUri() + "#SPDXRef-Package";
+		
+		// verifying a document parses its licenses before the elements are verified
+		InMemSpdxStore verifyBaseStore = new InMemSpdxStore();
+		TagValueStore verifyStore = new TagValueStore(verifyBaseStore);
+		verifyStore.setDeferLicenseParsing(true);
+		verifyStore.setVerificationLevel(VerificationLevel.NONE);
+		SpdxDocument verifyDoc = verifyStore.deSerialize(Paths.get(TAG_VALUE_FILE_PATH), false);
+		int unresolvedProperties = verifyBaseStore.getPropertyValueDescriptors(packageUri).size();
+		assertEquals(eagerStore.getWarnings(), verifyStore.verify(verifyDoc.getDocumentUri()));
+		assertEquals(eagerStore.getPropertyValueDescriptors(packageUri).size(), 
+				verifyBaseStore.getPropertyValueDescriptors(packageUri).size());
+		assertTrue(unresolvedProperties < verifyBaseStore.getPropertyValueDescriptors(packageUri).size());
+		
+		// listing other types or other namespaces does not parse the licenses
+		InMemSpdxStore listBaseStore = new InMemSpdxStore();
+		TagValueStore listStore = new TagValueStore(listBaseStore);
+		listStore.setDeferLicenseParsing(true);
+		listStore.setVerificationLevel(VerificationLevel.NONE);
+		listStore.deSerialize(Paths.get(TAG_VALUE_FILE_PATH), false);
+		try (Stream<TypedValue> packages = listStore.getAllItems(null, SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE)) {
+			assertTrue(packages.count() > 0);
+		}
+		try (Stream<TypedValue> licenses = listStore.getAllItems("http://other.namespace#", 
+				SpdxConstantsCompatV2.CLASS_SPDX_LISTED_LICENSE)) {
+			assertEquals(0, licenses.count());
+		}
+		assertEquals(unresolvedProperties, listBaseStore.getPropertyValueDescriptors(packageUri).size());
+		
+		// listing the licenses of the document includes the parsed licenses
+		try (Stream<TypedValue> licenses = listStore.getAllItems(verifyDoc.getDocumentUri() + "#", 
+				SpdxConstantsCompatV2.CLASS_SPDX_EXTRACTED_LICENSING_INFO)) {
+			assertTrue(licenses.count() > 0);
+		}
+		assertEquals(eagerStore.getPropertyValueDescriptors(packageUri).size(), 
+				listBaseStore.getPropertyValueDescriptors(packageUri).size());
+		
+		// listing all items includes the parsed licenses
+		TagValueStore allStore = new TagValueStore(new InMemSpdxStore());
+		allStore.setDeferLicenseParsing(true);
+		allStore.setVerificationLevel(VerificationLevel.NONE);
+		allStore.deSerialize(Paths.get(TAG_VALUE_FILE_PATH), false);
+		assertEquals(countItems(eagerStore), countItems(allStore));
+		
+		// the typed value of an element is available before its licenses are accessed
+		TagValueStore typedStore = new TagValueStore(new InMemSpdxStore());
+		typedStore.setDeferLicenseParsing(true);
+		typedStore.setVerificationLevel(VerificationLevel.NONE);
+		typedStore.deSerialize(Paths.get(TAG_VALUE_FILE_PATH), false);
+		assertEquals(eagerStore.getTypedValue(packageUri), typedStore.getTypedValue(packageUri));
+		assertEquals(eagerStore.getPropertyValueDescriptors(packageUri).size(), 
+				typedStore.getPropertyValueDescriptors(packageUri).size());
+	}
+	
+	public void testIncrementalDeSerialize() throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore streamStore = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument streamDoc;
+		try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+			streamDoc = streamStore.deSerialize(tagValueInput, false);
+		}
+		TagValueStore incrementalStore = new TagValueStore(new InMemSpdxStore());
+		byte[] document = Files.readAllBytes(Paths.get(TAG_VALUE_FILE_PATH));
+		SpdxDocument incrementalDoc;
+		try (TagValueStore.IncrementalDeSerializer deSerializer = incrementalStore.incrementalDeSerialize(false)) {
+			for (int start = 0; start < document.length; start += 100) {
+				deSerializer.feed(ByteBuffer.wrap(document, start, Math.min(100, document.length - start)));
+			}
+			incrementalDoc = deSerializer.endOfInput();
+		}
+		assertTrue(streamDoc.equivalent(incrementalDoc));
+		assertEquals(streamStore.getWarnings(), incrementalStore.getWarnings());
+	}
+	
+	public void testPublishElements() throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore streamStore = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument streamDoc;
+		try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+			streamDoc = streamStore.deSerialize(tagValueInput, false);
+		}
+		TagValueStore publishStore = new TagValueStore(new InMemSpdxStore());
+		List<ModelObjectV2> published = new ArrayList<>();
+		List<Throwable> errors = new ArrayList<>();
+		publishStore.publishElements(new FileInputStream(new File(TAG_VALUE_FILE_PATH))).subscribe(new ElementFlow.Subscriber<ModelObjectV2>() {
+			@Override
+			public void onSubscribe(ElementFlow.Subscription subscription) {
+				subscription.request(Long.MAX_VALUE);
+			}
+
+			@Override
+			public void onNext(ModelObjectV2 item) {
+				published.add(item);
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+				errors.add(throwable);
+			}
+
+			@Override
+			public void onComplete() {
+				// nothing to complete
+			}
+		});
+		assertTrue(errors.isEmpty());
+		List<String> expectedPackages = ((List<SpdxPackage>)SpdxModelFactory.getSpdxObjects(streamStore, null, 
+				SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE, null, null).collect(Collectors.toList()))
+				.stream().map(ModelObjectV2::getId).sorted().collect(Collectors.toList());
+		List<String> publishedPackages = published.stream().filter(element -> element instanceof SpdxPackage)
+				.map(ModelObjectV2::getId).sorted().collect(Collectors.toList());
+		assertEquals(expectedPackages, publishedPackages);
+		SpdxDocument publishedDoc = new SpdxDocument(publishStore, streamDoc.getDocumentUri(), null, false);
+		assertTrue(streamDoc.equivalent(publishedDoc));
+		assertEquals(streamStore.getWarnings(), publishStore.getWarnings());
+	}
+	
+	public void testPublishElementsDeferred() throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore eagerStore = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument eagerDoc = eagerStore.deSerialize(Paths.get(TAG_VALUE_FILE_PATH), false);
+		String documentUri = eagerDoc.getDocumentUri();
+		
+		// the published document has its licenses parsed on access and is verified later
+		TagValueStore publishStore = new TagValueStore(new InMemSpdxStore());
+		publishStore.setDeferLicenseParsing(true);
+		publishStore.setVerificationLevel(VerificationLevel.NONE);
+		assertTrue(publishAll(publishStore.publishElements(new FileInputStream(new File(TAG_VALUE_FILE_PATH)))).isEmpty());
+		SpdxPackage eagerPackage = new SpdxPackage(eagerStore, documentUri, "SPDXRef-Package", null, false);
+		SpdxPackage publishedPackage = new SpdxPackage(publishStore, documentUri, "SPDXRef-Package", null, false);
+		assertEquals(eagerPackage.getLicenseConcluded().toString(), publishedPackage.getLicenseConcluded().toString());
+		assertEquals(eagerStore.getWarnings(), publishStore.verify());
+		assertTrue(eagerDoc.equivalent(new SpdxDocument(publishStore, documentUri, null, false)));
+		
+		// the warnings are only cleared when a publisher is subscribed to
+		String document = new String(Files.readAllBytes(Paths.get(TAG_VALUE_FILE_PATH)), StandardCharsets.UTF_8)
+				.replace("DESCRIBES SPDXRef-File", "DESCRIBES SPDXRef-Missing");
+		TagValueStore warningStore = new TagValueStore(new InMemSpdxStore());
+		assertTrue(publishAll(warningStore.publishElements(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)))).isEmpty());
+		List<String> warnings = warningStore.getWarnings();
+		assertFalse(warnings.isEmpty());
+		warningStore.publishElements(new FileInputStream(new File(TAG_VALUE_FILE_PATH)));
+		assertEquals(warnings, warningStore.getWarnings());
+	}
+	
+	/**
+	 * Request all of the elements of a publisher
+	 * @return errors passed to the subscriber
+	 */
+	private static List<Throwable> publishAll(ElementFlow.Publisher<ModelObjectV2> publisher) {
+		List<Throwable> errors = new ArrayList<>();
+		publisher.subscribe(new ElementFlow.Subscriber<ModelObjectV2>() {
+			@Override
+			public void onSubscribe(ElementFlow.Subscription subscription) {
+				subscription.request(Long.MAX_VALUE);
+			}
+
+			@Override
+			public void onNext(ModelObjectV2 item) {
+				// elements are checked through the store
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+				errors.add(throwable);
+			}
+
+			@Override
+			public void onComplete() {
+				// nothing to complete
+			}
+		});
+		return errors;
+	}
+	
+	public void testDeSerializeAll() throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore streamStore = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument streamDoc;
+		try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+			streamDoc = streamStore.deSerialize(tagValueInput, false);
+		}
+		String document = new String(Files.readAllBytes(Paths.get(TAG_VALUE_FILE_PATH)), StandardCharsets.UTF_8);
+		Path tempDir = Files.createTempDirectory("spdx-batch");
+		List<Path> files = new ArrayList<>();
+		try {
+			for (int i = 0; i < 20; i++) {
+				Path file = tempDir.resolve("doc" + i + ".spdx");
+				String content = i == 5 ? "SPDXVersion: SPDX-2.3\nDocumentComment: <text>not terminated\n" :
+					document.replace(streamDoc.getDocumentUri(), streamDoc.getDocumentUri() + "-" + i);
+				Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+				files.add(file);
+			}
+			files.add(tempDir.resolve("missing.spdx"));
+			TagValueStore batchStore = new TagValueStore(new InMemSpdxStore());
+			List<TagValueStore.DeSerializeResult> results = batchStore.deSerializeAll(files, false, 4);
+			assertEquals(files.size(), results.size());
+			for (int i = 0; i < results.size(); i++) {
+				TagValueStore.DeSerializeResult result = results.get(i);
+				assertEquals(files.get(i), result.getFile());
+				if (i == 5) {
+					assertFalse(result.isSuccess());
+					assertTrue(result.getError() instanceof InvalidSpdxTagFileException);
+					assertNull(result.getDocument());
+				} else if (i == 20) {
+					assertFalse(result.isSuccess());
+					assertTrue(result.getError() instanceof IOException);
+				} else {
+					assertTrue(result.isSuccess());
+					assertEquals(streamDoc.getDocumentUri() + "-" + i, result.getDocument().getDocumentUri());
+					assertEquals(streamDoc.getDocumentDescribes().size(), result.getDocument().getDocumentDescribes().size());
+					assertEquals(streamStore.getWarnings(), result.getWarnings());
+				}
+			}
+			SpdxDocument sequentialDoc = new TagValueStore(new InMemSpdxStore()).deSerialize(files.get(0), false);
+			assertTrue(sequentialDoc.equivalent(results.get(0).getDocument()));
+		} finally {
+			for (Path file:files) {
+				Files.deleteIfExists(file);
+			}
+			Files.delete(tempDir);
+		}
+	}
+	
+	public void testDeSerializeAllOverwrite() throws InvalidSPDXAnalysisException, IOException {
+		String document = new String(Files.readAllBytes(Paths.get(TAG_VALUE_FILE_PATH)), StandardCharsets.UTF_8);
+		Path tempDir = Files.createTempDirectory("spdx-batch");
+		Path original = tempDir.resolve("original.spdx");
+		Path changed = tempDir.resolve("changed.spdx");
+		try {
+			Files.write(original, document.getBytes(StandardCharsets.UTF_8));
+			Files.write(changed, document.replace("DocumentName: SPDX-Tools-v2.0", "DocumentName: Changed")
+					.replaceAll("DocumentComment: <text>[^<]*</text>\n", "").getBytes(StandardCharsets.UTF_8));
+			TagValueStore batchStore = new TagValueStore(new InMemSpdxStore());
+			assertTrue(batchStore.deSerializeAll(Collections.singletonList(original), false).get(0).isSuccess());
+			long itemCount = countItems(batchStore);
+			
+			TagValueStore.DeSerializeResult rejected = batchStore.deSerializeAll(Collections.singletonList(changed), false).get(0);
+			assertFalse(rejected.isSuccess());
+			assertEquals(itemCount, countItems(batchStore));
+			
+			TagValueStore.DeSerializeResult replaced = batchStore.deSerializeAll(Collections.singletonList(changed), true).get(0);
+			assertTrue(replaced.isSuccess());
+			assertEquals("Changed", replaced.getDocument().getName().get());
+			assertFalse(replaced.getDocument().getComment().isPresent());
+			assertEquals(itemCount, countItems(batchStore));
+			TagValueStore freshStore = new TagValueStore(new InMemSpdxStore());
+			SpdxDocument freshDoc = freshStore.deSerialize(changed, false);
+			assertTrue(freshDoc.equivalent(replaced.getDocument()));
+			assertEquals(countItems(freshStore), countItems(batchStore));
+		} finally {
+			Files.deleteIfExists(original);
+			Files.deleteIfExists(changed);
+			Files.delete(tempDir);
+		}
+	}
+	
+	public void testDeSerializeAllCopyFailure() throws InvalidSPDXAnalysisException, IOException {
+		Path file = Paths.get(TAG_VALUE_FILE_PATH);
+		TagValueStore freshStore = new TagValueStore(new InMemSpdxStore());
+		String documentUri = freshStore.deSerializeAll(Collections.singletonList(file), false).get(0).getDocument().getDocumentUri();
+		AtomicBoolean fail = new AtomicBoolean(true);
+		TagValueStore batchStore = new TagValueStore(new InMemSpdxStore()) {
+			@Override
+			public void setValue(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+				if (fail.get() && objectUri.equals(documentUri + "#SPDXRef-File")) {
+					throw new InvalidSPDXAnalysisException("Copy failure");
+				}
+				super.setValue(objectUri, propertyDescriptor, value);
+			}
+		};
+		TagValueStore.DeSerializeResult failed = batchStore.deSerializeAll(Collections.singletonList(file), false).get(0);
+		assertFalse(failed.isSuccess());
+		try (Stream<TypedValue> items = batchStore.getAllItems(documentUri + "#", null)) {
+			assertEquals(0, items.count());
+		}
+		fail.set(false);
+		assertTrue(batchStore.deSerializeAll(Collections.singletonList(file), false).get(0).isSuccess());
+		assertEquals(countItems(freshStore), countItems(batchStore));
+	}
+	
+	public void testDeSerializeAllListener() throws InvalidSPDXAnalysisException, IOException {
+		// documents without download locations so that each document has warnings
+		String document = new String(Files.readAllBytes(Paths.get(TAG_VALUE_FILE_PATH)), StandardCharsets.UTF_8)
+				.replaceAll("(?m)^PackageDownloadLocation:.*$", "");
+		Path tempDir = Files.createTempDirectory("spdx-batch");
+		List<Path> files = new ArrayList<>();
+		try {
+			for (int i = 0; i < 20; i++) {
+				Path file = tempDir.resolve("doc" + i + ".spdx");
+				Files.write(file, document.replace("DocumentNamespace: http://", "DocumentNamespace: http://" + i + ".")
+						.getBytes(StandardCharsets.UTF_8));
+				files.add(file);
+			}
+			TagValueStore batchStore = new TagValueStore(new InMemSpdxStore());
+			// the listener is not thread safe
+			List<TagValueWarning> heard = new ArrayList<>();
+			batchStore.getWarningCollector().setListener(heard::add);
+			int expected = 0;
+			for (TagValueStore.DeSerializeResult result:batchStore.deSerializeAll(files, false, 8)) {
+				assertTrue(result.isSuccess());
+				assertFalse(result.getStructuredWarnings().isEmpty());
+				expected += result.getStructuredWarnings().size();
+			}
+			assertEquals(expected, heard.size());
+		} finally {
+			for (Path file:files) {
+				Files.deleteIfExists(file);
+			}
+			Files.delete(tempDir);
+		}
+	}
+	
+	private static long countItems(TagValueStore store) throws InvalidSPDXAnalysisException {
+		try (Stream<TypedValue> items = store.getAllItems(null, null)) {
+			return items.count();
+		}
+	}
+	
+	public void testDeSerializeCompressed() throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore streamStore = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument streamDoc;
+		try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+			streamDoc = streamStore.deSerialize(tagValueInput, false);
+		}
+		byte[] document = Files.readAllBytes(Paths.get(TAG_VALUE_FILE_PATH));
+		ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+		try (OutputStream os = new GZIPOutputStream(gzipped)) {
+			os.write(document);
+		}
+		ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+		try (OutputStream os = new DeflaterOutputStream(deflated)) {
+			os.write(document);
+		}
+		for (byte[] compressed:new byte[][] {gzipped.toByteArray(), deflated.toByteArray()}) {
+			TagValueStore compressedStore = new TagValueStore(new InMemSpdxStore());
+			SpdxDocument compressedDoc = compressedStore.deSerialize(new ByteArrayInputStream(compressed), false);
+			assertTrue(streamDoc.equivalent(compressedDoc));
+			assertEquals(streamStore.getWarnings(), compressedStore.getWarnings());
+			Path compressedFile = Files.createTempFile("spdx-test", ".spdx.gz");
+			try {
+				Files.write(compressedFile, compressed);
+				TagValueStore pathStore = new TagValueStore(new InMemSpdxStore());
+				assertTrue(streamDoc.equivalent(pathStore.deSerialize(compressedFile, false)));
+			} finally {
+				Files.delete(compressedFile);
+			}
+		}
+	}
+	
+	public void testCompressionBuffersReused() throws IOException {
+		byte[] document = Files.readAllBytes(Paths.get(TAG_VALUE_FILE_PATH));
+		ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+		try (OutputStream os = Compression.gzip(gzipped)) {
+			os.write(document);
+		}
+		ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+		try (OutputStream os = new DeflaterOutputStream(deflated)) {
+			os.write(document);
+		}
+		assertTrue(Compression.pooledBuffers() > 0);
+		for (byte[] compressed:new byte[][] {gzipped.toByteArray(), deflated.toByteArray()}) {
+			int pooled = Compression.pooledBuffers();
+			ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+			try (InputStream is = Compression.decompress(new ByteArrayInputStream(compressed))) {
+				assertEquals(pooled - 1, Compression.pooledBuffers());
+				byte[] buffer = new byte[4096];
+				int length;
+				while ((length = is.read(buffer)) >= 0) {
+					inflated.write(buffer, 0, length);
+				}
+			}
+			assertTrue(Arrays.equals(document, inflated.toByteArray()));
+			assertEquals(pooled, Compression.pooledBuffers());
+		}
+	}
+	
+	public void testSerializeCompressed() throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument doc;
+		try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+			doc = tvs.deSerialize(tagValueInput, false);
+		}
+		tvs.setCompressedOutput(true);
+		assertTrue(tvs.isCompressedOutput());
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		tvs.serialize(compressed, doc);
+		byte[] result = compressed.toByteArray();
+		assertEquals((byte)0x1f, result[0]);
+		assertEquals((byte)0x8b, result[1]);
+		TagValueStore compareStore = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument compareDoc = compareStore.deSerialize(new ByteArrayInputStream(result), false);
+		assertTrue(doc.equivalent(compareDoc));
+	}
+	
+	public void testSerializePath() throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument doc;
+		try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+			doc = tvs.deSerialize(tagValueInput, false);
+		}
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		tvs.serialize(expected, doc);
+		tvs.setOutputBufferSize(64);
+		assertEquals(64, tvs.getOutputBufferSize());
+		Path file = Files.createTempFile("spdx-test", ".spdx");
+		try {
+			tvs.serialize(file, doc);
+			assertTrue(Arrays.equals(expected.toByteArray(), Files.readAllBytes(file)));
+			TagValueStore compareStore = new TagValueStore(new InMemSpdxStore());
+			SpdxDocument compareDoc = compareStore.deSerialize(file, false);
+			assertTrue(doc.equivalent(compareDoc));
+		} finally {
+			Files.delete(file);
+		}
+	}
+	
+	public void testMaxTextLength() throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		assertEquals(Integer.MAX_VALUE, tvs.getMaxTextLength());
+		tvs.setMaxTextLength(100);
+		assertEquals(100, tvs.getMaxTextLength());
+		try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+			tvs.deSerialize(tagValueInput, false);
+			fail("License text longer than the maximum should be rejected");
+		} catch (InvalidSPDXAnalysisException e) {
+			assertTrue(e.getMessage().contains("maximum of 100 characters"));
+		}
+		tvs.setMaxTextLength(100000);
+		tvs.deSerialize(Paths.get(TAG_VALUE_FILE_PATH), false);
+	}
+	
 	public void testDeSerializeNoAssertionCopyright() throws InvalidSPDXAnalysisException, IOException, SpdxCompareException {
 		File tagValueFile = new File(TAG_VALUE_FILE_PATH);
 		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
@@ -168,4 +728,187 @@ public class TagValueStoreTest extends TestCase {
 		assertEquals(0, tvs.getWarnings().size());
 	}
 
+	public void testValidate() throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		List<TagValueWarning> warnings;
+		try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+			warnings = tvs.validate(tagValueInput);
+		}
+		for (TagValueWarning warning:warnings) {
+			assertNotSame(Kind.INVALID_REFERENCE, warning.getKind());
+		}
+		assertEquals(0, tvs.getAllItems(null, null).count());
+		assertTrue(tvs.getWarnings().isEmpty());
+		
+		String document = new String(Files.readAllBytes(Paths.get(TAG_VALUE_FILE_PATH)), StandardCharsets.UTF_8);
+		String invalidReferences = document.replace("DESCRIBES SPDXRef-File", "DESCRIBES SPDXRef-Missing")
+				.replace("SnippetFromFileSPDXID: SPDXRef-DoapSource", "SnippetFromFileSPDXID: SPDXRef-Package")
+				.replace("PackageLicenseInfoFromFiles: LicenseRef-2", "PackageLicenseInfoFromFiles: LicenseRef-Missing")
+				.replace("SPDXID: SPDXRef-CommonsLangSrc", "SPDXID: SPDXRef-DoapSource");
+		List<String> messages = new ArrayList<>();
+		for (TagValueWarning warning:tvs.validate(new ByteArrayInputStream(invalidReferences.getBytes(StandardCharsets.UTF_8)))) {
+			messages.add(warning.getMessage());
+		}
+		assertTrue(messages.stream().anyMatch(message -> message.startsWith("Invalid element reference SPDXRef-Missing")));
+		assertTrue(messages.stream().anyMatch(message -> message.startsWith("Snippet file ID SPDXRef-Package")));
+		assertTrue(messages.stream().anyMatch(message -> message.startsWith("Invalid license reference LicenseRef-Missing")));
+		assertTrue(messages.stream().anyMatch(message -> message.startsWith("Duplicate SPDX ID SPDXRef-DoapSource")));
+		
+		String[] invalidDocuments = new String[] {
+				document.replace("DESCRIBES SPDXRef-File", "DESCRIBE SPDXRef-File"),
+				document.replace("PackageLicenseConcluded: (LGPL-2.0-only OR LicenseRef-3)", "PackageLicenseConcluded: (LGPL-2.0-only OR"),
+				document.replace("AnnotationType: REVIEW", "AnnotationType: REVIEWED"),
+				document.replace("FileType: SOURCE", "FileType: SAUCE"),
+				document.replace("DocumentNamespace:", "SPDXID: SPDXRef-DOCUMENT\nPackageName: early\nDocumentNamespace:")
+		};
+		for (String invalidDocument:invalidDocuments) {
+			try {
+				tvs.validate(new ByteArrayInputStream(invalidDocument.getBytes(StandardCharsets.UTF_8)));
+				fail("Invalid document passed validation");
+			} catch (InvalidSPDXAnalysisException ex) {
+				// expected
+			}
+		}
+		assertEquals(0, tvs.getAllItems(null, null).count());
+	}
+
+	public void testValidateMatchesDeSerialize() throws InvalidSPDXAnalysisException, IOException {
+		String document = new String(Files.readAllBytes(Paths.get(TAG_VALUE_FILE_PATH)), StandardCharsets.UTF_8);
+		List<String> documents = new ArrayList<>();
+		for (String path:new String[] {TAG_VALUE_FILE_PATH, ARTIFACT_OF_FILE_PATH, CASE_FILE_PATH, DASHES_FILE_PATH}) {
+			documents.add(new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8));
+		}
+		documents.add(document.replace("DESCRIBES SPDXRef-File", "DESCRIBES SPDXRef-Missing"));
+		documents.add(document.replace("SnippetFromFileSPDXID: SPDXRef-DoapSource", "SnippetFromFileSPDXID: SPDXRef-Package"));
+		documents.add(document.replace("PackageLicenseInfoFromFiles: LicenseRef-2", "PackageLicenseInfoFromFiles: LicenseRef-Missing"));
+		documents.add(document.replace("SPDXID: SPDXRef-CommonsLangSrc", "SPDXID: SPDXRef-DoapSource"));
+		documents.add(document.replace("DESCRIBES SPDXRef-File", "DESCRIBE SPDXRef-File"));
+		documents.add(document.replace("PackageLicenseConcluded: (LGPL-2.0-only OR LicenseRef-3)", "PackageLicenseConcluded: (LGPL-2.0-only OR"));
+		documents.add(document.replace("AnnotationType: REVIEW", "AnnotationType: REVIEWED"));
+		documents.add(document.replace("FileType: SOURCE", "FileType: SAUCE"));
+		documents.add(document.replace("DocumentNamespace:", "SPDXID: SPDXRef-DOCUMENT\nPackageName: early\nDocumentNamespace:"));
+		for (String tagValue:documents) {
+			TagValueStore validateStore = new TagValueStore(new InMemSpdxStore());
+			List<Kind> validateKinds = null;
+			try {
+				validateKinds = warningKinds(validateStore.validate(new ByteArrayInputStream(tagValue.getBytes(StandardCharsets.UTF_8))));
+			} catch (InvalidSPDXAnalysisException ex) {
+				// rejected
+			}
+			TagValueStore deSerializeStore = new TagValueStore(new InMemSpdxStore());
+			deSerializeStore.setVerificationLevel(VerificationLevel.STRUCTURAL);
+			List<Kind> deSerializeKinds = null;
+			try {
+				deSerializeStore.deSerialize(new ByteArrayInputStream(tagValue.getBytes(StandardCharsets.UTF_8)), false);
+				deSerializeKinds = warningKinds(deSerializeStore.getWarningCollector().getWarnings());
+			} catch (InvalidSPDXAnalysisException ex) {
+				// rejected
+			}
+			assertEquals(Objects.isNull(deSerializeKinds), Objects.isNull(validateKinds));
+			if (Objects.nonNull(deSerializeKinds)) {
+				// the validator also checks the SPDX IDs and extracted license references which deserializing does not
+				assertTrue(validateKinds.containsAll(deSerializeKinds));
+			}
+		}
+	}
+	
+	/**
+	 * @return the distinct kinds of the warnings in sorted order - deserializing may report a missing reference
+	 * with a summary warning followed by a warning for each ID
+	 */
+	private static List<Kind> warningKinds(List<TagValueWarning> warnings) {
+		return warnings.stream().map(TagValueWarning::getKind).distinct().sorted().collect(Collectors.toList());
+	}
+	
+	public void testDeSerializeProjection() throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore fullStore = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument fullDoc = fullStore.deSerialize(Paths.get(TAG_VALUE_FILE_PATH), false);
+		
+		TagValueStore packageStore = new TagValueStore(new InMemSpdxStore());
+		TagValueProjection packages = new TagValueProjection().include(Section.PACKAGE, SpdxTag.PACKAGE_VERSION_INFO, 
+				SpdxTag.PACKAGE_SUPPLIER, SpdxTag.EXTERNAL_REFERENCE);
+		SpdxDocument packageDoc;
+		try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+			packageDoc = packageStore.deSerialize(tagValueInput, packages);
+		}
+		String docUri = packageDoc.getDocumentUri();
+		assertEquals(fullDoc.getDocumentUri(), docUri);
+		SpdxPackage pkg = new SpdxPackage(packageStore, docUri, "SPDXRef-Package", null, false);
+		assertEquals("glibc", pkg.getName().get());
+		assertEquals("2.11.1", pkg.getVersionInfo().get());
+		assertEquals("Person: Jane Doe (jane.doe@example.com)", pkg.getSupplier().get());
+		assertEquals(2, pkg.getExternalRefs().size());
+		assertFalse(pkg.getDescription().isPresent());
+		assertTrue(pkg.getChecksums().isEmpty());
+		assertFalse(packageStore.exists(docUri + "#SPDXRef-File"));
+		assertTrue(packageDoc.getExtractedLicenseInfos().isEmpty());
+		assertTrue(packageStore.getAllItems(null, null).count() < fullStore.getAllItems(null, null).count());
+		assertTrue(packageStore.getWarnings().isEmpty());
+		
+		TagValueStore licenseStore = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument licenseDoc = licenseStore.deSerialize(Paths.get(TAG_VALUE_FILE_PATH), 
+				TagValueProjection.of(Section.EXTRACTED_LICENSE));
+		assertEquals(fullDoc.getExtractedLicenseInfos().size(), licenseDoc.getExtractedLicenseInfos().size());
+		assertFalse(licenseStore.exists(docUri + "#SPDXRef-Package"));
+	}
+
+	public void testQueries() throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		TagValueSection header;
+		try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+			header = tvs.readHeader(tagValueInput);
+		}
+		assertEquals("SPDX-2.3", header.getValue(SpdxTag.SPDX_VERSION).get());
+		assertEquals("2010-01-29T18:30:22Z", header.getValue(SpdxTag.CREATION_CREATED).get());
+		
+		String document = new String(Files.readAllBytes(Paths.get(TAG_VALUE_FILE_PATH)), StandardCharsets.UTF_8).replace(
+				"ExternalRef: SECURITY cpe23Type cpe:2.3:a:pivotal_software:spring_framework:4.1.0:*:*:*:*:*:*:*", 
+				"ExternalRef: PACKAGE-MANAGER purl pkg:gnu/glibc@2.11.1");
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (OutputStream gzip = new GZIPOutputStream(compressed)) {
+			gzip.write(document.getBytes(StandardCharsets.UTF_8));
+		}
+		Optional<TagValueSection> pkg = tvs.findPackageByPurl(new ByteArrayInputStream(compressed.toByteArray()), "pkg:gnu/glibc@2.11.1");
+		assertEquals("SPDXRef-Package", pkg.get().getId().get());
+		assertEquals("2.11.1", pkg.get().getValue(SpdxTag.PACKAGE_VERSION_INFO).get());
+		Optional<TagValueSection> license = tvs.findSection(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), 
+				section -> section.getSectionTag() == SpdxTag.LICENSE_ID);
+		assertEquals("LicenseRef-1", license.get().getId().get());
+		assertEquals(0, tvs.getAllItems(null, null).count());
+	}
+	
+	public void testReadSection() throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		Path tempDir = Files.createTempDirectory("spdx-index");
+		Path file = tempDir.resolve("example.spdx");
+		Path compressedFile = tempDir.resolve("example.spdx.gz");
+		try {
+			Files.copy(Paths.get(TAG_VALUE_FILE_PATH), file);
+			Optional<TagValueSection> pkg = tvs.readSection(file, "SPDXRef-Package");
+			assertEquals("2.11.1", pkg.get().getValue(SpdxTag.PACKAGE_VERSION_INFO).get());
+			assertTrue(Files.exists(TagValueIndex.sidecar(file)));
+			assertSame(tvs.index(file), tvs.index(file));
+			assertEquals("LicenseRef-1", tvs.readSection(file, "LicenseRef-1").get().getId().get());
+			assertFalse(tvs.readSection(file, "SPDXRef-Unknown").isPresent());
+			
+			try (OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(compressedFile))) {
+				Files.copy(file, gzip);
+			}
+			assertEquals("SPDXRef-Package", tvs.readSection(compressedFile, "SPDXRef-Package").get().getId().get());
+			assertFalse(Files.exists(TagValueIndex.sidecar(compressedFile)));
+			try {
+				tvs.index(compressedFile);
+				fail("Compressed files can not be indexed");
+			} catch (IOException e) {
+				// expected
+			}
+			assertEquals(0, tvs.getAllItems(null, null).count());
+		} finally {
+			Files.deleteIfExists(TagValueIndex.sidecar(file));
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(compressedFile);
+			Files.deleteIfExists(tempDir);
+		}
+	}
+
 }